@@ -0,0 +1,122 @@
+package org.sunbird.actor.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.reflections.Reflections;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Build time index of {@link org.sunbird.actor.router.ActorConfig} actors. The index is written
+ * by {@link ActorIndexProcessor} into every jar containing actors (one class name per line) and
+ * is read here from all jars on the classpath. Once an index is found the indexes are taken as
+ * complete, jars without actors have none; the classpath is only scanned when no index is found at
+ * all, or for the roots whose index cannot be loaded.
+ */
+public class ActorIndex {
+
+  public static final String INDEX_LOCATION = "META-INF/sunbird/actors.index";
+
+  private ActorIndex() {}
+
+  /**
+   * This method will find the actor classes of the given package. Actors are read from the actor
+   * indexes; the roots containing the package are scanned only if there is no index, and roots
+   * with an invalid index are scanned instead of being read.
+   *
+   * @param classLoader Class loader used to find the indexes and load the actors
+   * @param packageName Package of the actors, e.g. org.sunbird
+   * @return Set of actor classes
+   */
+  public static Set<Class<? extends BaseActor>> findActors(
+      ClassLoader classLoader, String packageName) {
+    Set<Class<? extends BaseActor>> actors = new LinkedHashSet<>();
+    int indexes = 0;
+    List<URL> unindexed = new ArrayList<>();
+    try {
+      Enumeration<URL> resources = classLoader.getResources(INDEX_LOCATION);
+      while (resources.hasMoreElements()) {
+        URL url = resources.nextElement();
+        indexes++;
+        Set<Class<? extends BaseActor>> indexed = load(url, classLoader);
+        if (null != indexed) {
+          actors.addAll(indexed);
+        } else {
+          unindexed.add(new URL(getRoot(url, INDEX_LOCATION)));
+        }
+      }
+    } catch (IOException e) {
+      ProjectLogger.log("ActorIndex:findActors: unable to read actor index " + e.getMessage(), e);
+    }
+    if (indexes == 0) {
+      unindexed.addAll(ClasspathHelper.forPackage(packageName, classLoader));
+    }
+    ProjectLogger.log(
+        "ActorIndex:findActors: loaded "
+            + actors.size()
+            + " actors from "
+            + indexes
+            + " indexes, scanning "
+            + unindexed,
+        LoggerEnum.INFO.name());
+    if (!unindexed.isEmpty()) {
+      Reflections reflections =
+          new Reflections(
+              new ConfigurationBuilder()
+                  .setUrls(unindexed)
+                  .addClassLoader(classLoader)
+                  .filterInputsBy(new FilterBuilder().includePackage(packageName)));
+      actors.addAll(reflections.getSubTypesOf(BaseActor.class));
+    }
+    return actors;
+  }
+
+  /**
+   * This method will load the actor classes listed in one actor index.
+   *
+   * @return Set of actor classes, null if the index is invalid and its root has to be scanned
+   */
+  @SuppressWarnings("unchecked")
+  private static Set<Class<? extends BaseActor>> load(URL url, ClassLoader classLoader) {
+    Set<Class<? extends BaseActor>> actors = new LinkedHashSet<>();
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String className = line.trim();
+        if (StringUtils.isBlank(className) || className.startsWith("#")) {
+          continue;
+        }
+        Class<?> actor = Class.forName(className, false, classLoader);
+        if (BaseActor.class.isAssignableFrom(actor)) {
+          actors.add((Class<? extends BaseActor>) actor);
+        }
+      }
+    } catch (IOException | ClassNotFoundException | LinkageError e) {
+      ProjectLogger.log(
+          "ActorIndex:load: invalid actor index " + url + " " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      return null;
+    }
+    return actors;
+  }
+
+  /** Classpath root of a resource, in the form returned by {@link ClasspathHelper}. */
+  static String getRoot(URL url, String resourceName) {
+    String externalForm = url.toExternalForm();
+    int index = externalForm.lastIndexOf(resourceName);
+    return index < 0 ? externalForm : externalForm.substring(0, index);
+  }
+}
@@ -0,0 +1,134 @@
+package org.sunbird.actor.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor writing the {@link ActorIndex} of a module at compile time. Every concrete
+ * {@link BaseActor} annotated with {@link org.sunbird.actor.router.ActorConfig} is listed. It is
+ * registered through META-INF/services, so modules get the index just by compiling against
+ * actor-core. On incremental builds entries of the previous index are kept as long as their
+ * classes still exist and are still annotated actors.
+ */
+@SupportedAnnotationTypes(ActorIndexProcessor.ACTOR_CONFIG)
+public class ActorIndexProcessor extends AbstractProcessor {
+
+  static final String ACTOR_CONFIG = "org.sunbird.actor.router.ActorConfig";
+  private static final String BASE_ACTOR = "org.sunbird.actor.core.BaseActor";
+
+  private final Set<String> actors = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      if (!actors.isEmpty()) {
+        writeIndex();
+      }
+      return false;
+    }
+    TypeElement actorConfig = processingEnv.getElementUtils().getTypeElement(ACTOR_CONFIG);
+    if (null == actorConfig) {
+      return false;
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(actorConfig)) {
+      if (isActor(element)) {
+        actors.add(getBinaryName((TypeElement) element));
+      }
+    }
+    return false;
+  }
+
+  /** True for a concrete {@link BaseActor} annotated with ActorConfig. */
+  private boolean isActor(Element element) {
+    TypeElement baseActor = processingEnv.getElementUtils().getTypeElement(BASE_ACTOR);
+    if (null == element || null == baseActor || element.getKind() != ElementKind.CLASS) {
+      return false;
+    }
+    Types types = processingEnv.getTypeUtils();
+    TypeMirror baseActorType = types.erasure(baseActor.asType());
+    return !element.getModifiers().contains(Modifier.ABSTRACT)
+        && types.isAssignable(element.asType(), baseActorType)
+        && processingEnv
+            .getElementUtils()
+            .getAllAnnotationMirrors(element)
+            .stream()
+            .anyMatch(
+                mirror ->
+                    ((TypeElement) mirror.getAnnotationType().asElement())
+                        .getQualifiedName()
+                        .contentEquals(ACTOR_CONFIG));
+  }
+
+  private String getBinaryName(TypeElement element) {
+    return processingEnv.getElementUtils().getBinaryName(element).toString();
+  }
+
+  private void writeIndex() {
+    readPreviousIndex();
+    try {
+      FileObject index =
+          processingEnv
+              .getFiler()
+              .createResource(StandardLocation.CLASS_OUTPUT, "", ActorIndex.INDEX_LOCATION);
+      try (Writer writer =
+          new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+        for (String actor : actors) {
+          writer.write(actor);
+          writer.write('\n');
+        }
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.ERROR, "Unable to write actor index: " + e.getMessage());
+    }
+  }
+
+  private void readPreviousIndex() {
+    try {
+      FileObject previous =
+          processingEnv
+              .getFiler()
+              .getResource(StandardLocation.CLASS_OUTPUT, "", ActorIndex.INDEX_LOCATION);
+      try (BufferedReader reader =
+          new BufferedReader(
+              new InputStreamReader(previous.openInputStream(), StandardCharsets.UTF_8))) {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          String className = line.trim();
+          if (!className.isEmpty()
+              && isActor(
+                  processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')))) {
+            actors.add(className);
+          }
+        }
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no previous index, full build
+    }
+  }
+}
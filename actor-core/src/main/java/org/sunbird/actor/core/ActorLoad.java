@@ -0,0 +1,48 @@
+package org.sunbird.actor.core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Processed requests and total processing time of all instances of an actor class, recorded by
+ * {@link BaseActor}. The processing time of a request which started blocking calls runs until
+ * they completed. Readers compute the load of an interval from the difference of two readings.
+ */
+public class ActorLoad {
+
+  private static final Map<String, ActorLoad> loads = new ConcurrentHashMap<>();
+
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder processingMillis = new LongAdder();
+
+  private ActorLoad() {}
+
+  /**
+   * This method will provide the load of an actor class.
+   *
+   * @param actor Simple name of the actor class
+   * @return ActorLoad
+   */
+  public static ActorLoad get(String actor) {
+    return loads.computeIfAbsent(actor, key -> new ActorLoad());
+  }
+
+  /**
+   * This method will record one processed request.
+   *
+   * @param millis Processing time of the request
+   */
+  public void record(long millis) {
+    processed.increment();
+    processingMillis.add(millis);
+  }
+
+  public long getProcessed() {
+    return processed.sum();
+  }
+
+  public long getProcessingMillis() {
+    return processingMillis.sum();
+  }
+}
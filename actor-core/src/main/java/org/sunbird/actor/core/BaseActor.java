@@ -1,12 +1,22 @@
 package org.sunbird.actor.core;
 
+import akka.actor.ActorCell;
+import akka.actor.ActorContext;
 import akka.actor.ActorRef;
-import akka.actor.ActorSelection;
 import akka.actor.UntypedAbstractActor;
-import java.util.concurrent.CompletionStage;
+import akka.dispatch.Mailbox;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.sunbird.actor.router.BackgroundRequestRouter;
 import org.sunbird.actor.router.RequestRouter;
-import org.sunbird.actor.service.BaseMWService;
+import org.sunbird.actor.service.ActorRefCache;
+import org.sunbird.actor.service.BackgroundTaskLog;
 import org.sunbird.actor.service.SunbirdMWService;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.Response;
@@ -15,32 +25,134 @@ import org.sunbird.common.models.response.ResponseParams.StatusType;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.concurrent.BlockingExecutors;
+import org.sunbird.common.models.util.concurrent.BlockingExecutors.Backend;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
 import org.sunbird.common.request.ExecutionContext;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
-import scala.concurrent.duration.Duration;
 
 /** @author Vinaya & Mahesh Kumar Gangula */
 public abstract class BaseActor extends UntypedAbstractActor {
 
+  private static final Map<String, Set<Mailbox>> mailboxes = new ConcurrentHashMap<>();
+  private final Map<String, OperationMetrics> operationMetrics = new HashMap<>();
+  private Mailbox mailbox;
+  /** Thread running onReceive, blocking calls started on it belong to the current request. */
+  private Thread processingThread;
+  /** Blocking calls of the current request, it is processed once they completed. */
+  private CompletableFuture<?> pending;
+
   public abstract void onReceive(Request request) throws Throwable;
 
+  @Override
+  public void preStart() throws Exception {
+    super.preStart();
+    mailbox = getMailbox(getContext());
+    if (null != mailbox) {
+      getMailboxes(getClass().getSimpleName()).add(mailbox);
+    }
+  }
+
+  @Override
+  public void postStop() throws Exception {
+    if (null != mailbox) {
+      getMailboxes(getClass().getSimpleName()).remove(mailbox);
+    }
+    super.postStop();
+  }
+
   @Override
   public void onReceive(Object message) throws Throwable {
     if (message instanceof Request) {
       Request request = (Request) message;
       String operation = request.getOperation();
-      ProjectLogger.log("BaseActor: onReceive called for operation: " + operation, LoggerEnum.INFO);
+      ProjectLogger.log(
+          "BaseActor: onReceive called for operation: " + operation, LoggerEnum.DEBUG);
+      long startTime = System.currentTimeMillis();
+      OperationMetrics metrics = getOperationMetrics(operation);
+      boolean failed = true;
+      processingThread = Thread.currentThread();
+      pending = null;
       try {
         onReceive(request);
+        failed = false;
       } catch (Exception e) {
         onReceiveException(operation, e);
+      } finally {
+        processingThread = null;
+        CompletableFuture<?> async = pending;
+        pending = null;
+        if (failed || null == async) {
+          onProcessed(request, metrics, startTime, failed);
+        } else {
+          async.whenComplete((result, e) -> onProcessed(request, metrics, startTime, null != e));
+        }
       }
     } else {
       // Do nothing !
     }
   }
 
+  /**
+   * Records the processing of a request, when onReceive returned or, if it started blocking calls,
+   * when the last of them completed. A failed request stays in the background task log and is
+   * replayed after a restart.
+   */
+  private static void onProcessed(
+      Request request, OperationMetrics metrics, long startTime, boolean failed) {
+    metrics.record(startTime, failed);
+    if (!failed && BackgroundTaskLog.isStarted()) {
+      BackgroundTaskLog.acknowledge(request);
+    }
+  }
+
+  private <T> CompletableFuture<T> track(CompletableFuture<T> future) {
+    if (Thread.currentThread() == processingThread) {
+      pending = null == pending ? future : CompletableFuture.allOf(pending, future);
+    }
+    return future;
+  }
+
+  private OperationMetrics getOperationMetrics(String operation) {
+    String key = null == operation ? "unknown" : operation;
+    OperationMetrics metrics = operationMetrics.get(key);
+    if (null == metrics) {
+      metrics = new OperationMetrics(getClass().getSimpleName(), key);
+      operationMetrics.put(key, metrics);
+    }
+    return metrics;
+  }
+
+  /** Mailbox of the actor, null if its context is not an actor cell. */
+  private static Mailbox getMailbox(ActorContext context) {
+    if (context instanceof ActorCell) {
+      return ((ActorCell) context).mailbox();
+    }
+    return null;
+  }
+
+  /**
+   * Mailboxes of the running instances of an actor class, their total size is exported as the
+   * sunbird_actor_mailbox_depth gauge of the actor.
+   */
+  private static Set<Mailbox> getMailboxes(String actor) {
+    return mailboxes.computeIfAbsent(
+        actor,
+        key -> {
+          Set<Mailbox> set = ConcurrentHashMap.newKeySet();
+          MetricsRegistry.getInstance()
+              .gauge(
+                  "sunbird_actor_mailbox_depth",
+                  "Messages waiting in the mailboxes of the actor",
+                  () -> set.stream().mapToLong(Mailbox::numberOfMessages).sum(),
+                  "actor",
+                  key);
+          return set;
+        });
+  }
+
   public void tellToAnother(Request request) {
     request
         .getContext()
@@ -82,6 +194,45 @@ public abstract class BaseActor extends UntypedAbstractActor {
     sender().tell(exception, self());
   }
 
+  /**
+   * This method will run a blocking backend call on the executor of the backend instead of the
+   * actor dispatcher.
+   *
+   * @param backend Backend called
+   * @param call Blocking call
+   * @return Future completed on the executor thread, do not touch actor state in its callbacks
+   */
+  protected <T> CompletableFuture<T> runBlocking(Backend backend, Callable<T> call) {
+    return track(BlockingExecutors.supply(backend, call));
+  }
+
+  /**
+   * This method will run a blocking backend call on the executor of the backend and send its
+   * result, or the exception it failed with, to the sender of the current request. The request is
+   * considered processed, for its metrics and the background task log, once the result was sent.
+   *
+   * @param backend Backend called
+   * @param call Blocking call
+   */
+  protected <T> void pipeToSender(Backend backend, Callable<T> call) {
+    ActorRef sender = sender();
+    ActorRef self = self();
+    track(
+        BlockingExecutors.supply(backend, call)
+            .whenComplete(
+                (result, e) -> {
+                  if (null == e) {
+                    sender.tell(result, self);
+                  } else {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    ProjectLogger.log(
+                        "Exception in blocking call to " + backend + " :: " + cause.getMessage(),
+                        cause);
+                    sender.tell(cause, self);
+                  }
+                }));
+  }
+
   protected Response getErrorResponse(Exception e) {
     Response response = new Response();
     ResponseParams resStatus = new ResponseParams();
@@ -101,27 +252,61 @@ public abstract class BaseActor extends UntypedAbstractActor {
   }
 
   protected ActorRef getActorRef(String operation) {
-    int waitTime = 10;
-    ActorSelection select = null;
     ActorRef actor = RequestRouter.getActor(operation);
     if (null != actor) {
       return actor;
     } else {
-      select =
-          (BaseMWService.getRemoteRouter(RequestRouter.class.getSimpleName()) == null
-              ? (BaseMWService.getRemoteRouter(BackgroundRequestRouter.class.getSimpleName()))
-              : BaseMWService.getRemoteRouter(RequestRouter.class.getSimpleName()));
-      CompletionStage<ActorRef> futureActor =
-          select.resolveOneCS(Duration.create(waitTime, "seconds"));
-      try {
-        actor = futureActor.toCompletableFuture().get();
-      } catch (Exception e) {
-        ProjectLogger.log(
-            "InterServiceCommunicationImpl : getResponse - unable to get actorref from actorselection "
-                + e.getMessage(),
-            e);
+      actor = ActorRefCache.getRouter(RequestRouter.class.getSimpleName());
+      return null != actor
+          ? actor
+          : ActorRefCache.getRouter(BackgroundRequestRouter.class.getSimpleName());
+    }
+  }
+
+  /** Processing metrics of one operation of the actor, shared by all instances of the actor. */
+  private static class OperationMetrics {
+    private final LongAdder messages;
+    private final LongAdder failures;
+    private final LatencyHistogram processingTime;
+    private final ActorLoad load;
+
+    OperationMetrics(String actor, String operation) {
+      load = ActorLoad.get(actor);
+      MetricsRegistry registry = MetricsRegistry.getInstance();
+      messages =
+          registry.counter(
+              "sunbird_actor_messages_total",
+              "Requests processed by the actor",
+              "actor",
+              actor,
+              "operation",
+              operation);
+      failures =
+          registry.counter(
+              "sunbird_actor_failures_total",
+              "Requests failed with an exception",
+              "actor",
+              actor,
+              "operation",
+              operation);
+      processingTime =
+          registry.histogram(
+              "sunbird_actor_processing_time_millis",
+              "Request processing time",
+              "actor",
+              actor,
+              "operation",
+              operation);
+    }
+
+    void record(long startTime, boolean failed) {
+      long millis = System.currentTimeMillis() - startTime;
+      processingTime.record(millis);
+      load.record(millis);
+      messages.increment();
+      if (failed) {
+        failures.increment();
       }
-      return actor;
     }
   }
 }
@@ -5,8 +5,9 @@ import akka.actor.Props;
 import akka.routing.FromConfig;
 import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
-import org.reflections.Reflections;
 import org.sunbird.actor.router.ActorConfig;
+import org.sunbird.actor.router.AdaptiveResizer;
+import org.sunbird.actor.router.BackgroundPriorityMailbox;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.PropertiesCache;
@@ -16,12 +17,23 @@ import org.sunbird.common.responsecode.ResponseCode;
 /** @author Mahesh Kumar Gangula */
 public abstract class BaseRouter extends BaseActor {
 
+  private static Set<Class<? extends BaseActor>> actorClasses;
+
   public abstract String getRouterMode();
 
   public abstract void route(Request request) throws Throwable;
 
   protected abstract void cacheActor(String key, ActorRef actor);
 
+  /**
+   * Called for every operation handled by an actor created by this router, lets routers keep
+   * operation specific settings from {@link ActorConfig}.
+   *
+   * @param operation Operation name
+   * @param config Actor configuration
+   */
+  protected void cacheActorConfig(String operation, ActorConfig config) {}
+
   @Override
   public void onReceive(Request request) throws Throwable {
     String senderPath = sender().path().toString();
@@ -33,11 +45,16 @@ public abstract class BaseRouter extends BaseActor {
     route(request);
   }
 
+  /**
+   * Actors are read from the build time {@link ActorIndex}, only the jars without an index are
+   * scanned. The result is shared by all router instances.
+   */
   private Set<Class<? extends BaseActor>> getActors() {
     synchronized (BaseRouter.class) {
-      Reflections reflections = new Reflections("org.sunbird");
-      Set<Class<? extends BaseActor>> actors = reflections.getSubTypesOf(BaseActor.class);
-      return actors;
+      if (null == actorClasses) {
+        actorClasses = ActorIndex.findActors(getClass().getClassLoader(), "org.sunbird");
+      }
+      return actorClasses;
     }
   }
 
@@ -49,11 +66,17 @@ public abstract class BaseRouter extends BaseActor {
         switch (name) {
           case "BackgroundRequestRouter":
             String[] bgOperations = routerDetails.asyncTasks();
-            createActor(context, actor, bgOperations, "brr-usr-dispatcher");
+            createActor(
+                context,
+                actor,
+                routerDetails,
+                bgOperations,
+                "brr-usr-dispatcher",
+                BackgroundPriorityMailbox.MAILBOX_ID);
             break;
           case "RequestRouter":
             String[] operations = routerDetails.tasks();
-            createActor(context, actor, operations, "rr-usr-dispatcher");
+            createActor(context, actor, routerDetails, operations, "rr-usr-dispatcher", null);
             break;
           default:
             System.out.println("Router with name '" + name + "' not supported.");
@@ -68,8 +91,10 @@ public abstract class BaseRouter extends BaseActor {
   private void createActor(
       ActorContext context,
       Class<? extends BaseActor> actor,
+      ActorConfig config,
       String[] operations,
-      String dispatcher) {
+      String dispatcher,
+      String mailbox) {
     if (null != operations && operations.length > 0) {
       Props props = null;
       if (StringUtils.isNotBlank(dispatcher)) {
@@ -77,11 +102,19 @@ public abstract class BaseRouter extends BaseActor {
       } else {
         props = Props.create(actor);
       }
-      ActorRef actorRef =
-          context.actorOf(FromConfig.getInstance().props(props), actor.getSimpleName());
+      if (StringUtils.isNotBlank(mailbox)
+          && context.system().settings().config().hasPath(mailbox)) {
+        props = props.withMailbox(mailbox);
+      }
+      FromConfig router = FromConfig.getInstance();
+      if (AdaptiveResizer.isEnabled()) {
+        router = router.withResizer(new AdaptiveResizer(actor.getSimpleName()));
+      }
+      ActorRef actorRef = context.actorOf(router.props(props), actor.getSimpleName());
       for (String operation : operations) {
         String parentName = self().path().name();
         cacheActor(getKey(parentName, operation), actorRef);
+        cacheActorConfig(operation, config);
       }
     }
   }
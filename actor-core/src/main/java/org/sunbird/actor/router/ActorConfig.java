@@ -14,4 +14,10 @@ public @interface ActorConfig {
   String[] tasks();
 
   String[] asyncTasks();
+
+  /** Ask timeout in milliseconds for the tasks, zero means the router default, at most 9000. */
+  long timeoutMillis() default 0;
+
+  /** Maximum in-flight requests per task, zero means the router default. */
+  int maxInFlight() default 0;
 }
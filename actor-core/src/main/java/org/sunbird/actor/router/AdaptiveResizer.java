@@ -0,0 +1,171 @@
+package org.sunbird.actor.router;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorRefWithCell;
+import akka.routing.ActorRefRoutee;
+import akka.routing.Resizer;
+import akka.routing.Routee;
+import java.util.function.ToIntFunction;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.actor.core.ActorLoad;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import scala.collection.immutable.IndexedSeq;
+
+/**
+ * Pool resizer of the actors created by the routers. Every
+ * sunbird_router_resizer_messages_per_resize routed messages it checks the routees: the pool grows
+ * by a fifth when most routees have queued messages, or when some do and the average processing
+ * time since the last check exceeds sunbird_router_resizer_latency_threshold_millis. It shrinks by
+ * a tenth after three checks in a row without queued messages. The pool stays within
+ * sunbird_router_resizer_lower_bound and sunbird_router_resizer_upper_bound, which can be set per
+ * actor class with a _<ActorClass> suffix.
+ */
+public class AdaptiveResizer implements Resizer {
+
+  private static final String KEY_PREFIX = "sunbird_router_resizer_";
+  private static final int IDLE_CHECKS_BEFORE_SHRINK = 3;
+  private static final double PRESSURE_RATIO = 0.8;
+  private static final double GROW_RATIO = 0.2;
+  private static final double SHRINK_RATIO = 0.1;
+
+  private final String actor;
+  private final int lowerBound;
+  private final int upperBound;
+  private final long messagesPerResize;
+  private final long latencyThresholdMillis;
+  private final ActorLoad load;
+  private final ToIntFunction<Routee> queuedMessages;
+  private long lastProcessed;
+  private long lastProcessingMillis;
+  private int idleChecks;
+
+  /** @param actor Simple name of the actor class of the pool */
+  public AdaptiveResizer(String actor) {
+    this.actor = actor;
+    this.lowerBound = (int) Math.max(1, getLongValue(actor, "lower_bound", 1));
+    this.upperBound = (int) Math.max(lowerBound, getLongValue(actor, "upper_bound", 20));
+    this.messagesPerResize = Math.max(1, getLongValue(actor, "messages_per_resize", 100));
+    this.latencyThresholdMillis = getLongValue(actor, "latency_threshold_millis", 1000);
+    this.load = ActorLoad.get(actor);
+    this.queuedMessages = AdaptiveResizer::getQueuedMessages;
+  }
+
+  AdaptiveResizer(
+      String actor,
+      int lowerBound,
+      int upperBound,
+      long latencyThresholdMillis,
+      ActorLoad load,
+      ToIntFunction<Routee> queuedMessages) {
+    this.actor = actor;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+    this.messagesPerResize = 1;
+    this.latencyThresholdMillis = latencyThresholdMillis;
+    this.load = load;
+    this.queuedMessages = queuedMessages;
+  }
+
+  public static boolean isEnabled() {
+    return Boolean.parseBoolean(PropertiesCache.getInstance().readProperty(KEY_PREFIX + "enabled"));
+  }
+
+  @Override
+  public boolean isTimeForResize(long messageCounter) {
+    return messageCounter % messagesPerResize == 0;
+  }
+
+  @Override
+  public synchronized int resize(IndexedSeq<Routee> currentRoutees) {
+    int size = currentRoutees.size();
+    int pressured = 0;
+    long queued = 0;
+    for (int i = 0; i < size; i++) {
+      int messages = queuedMessages.applyAsInt(currentRoutees.apply(i));
+      queued += messages;
+      if (messages > 0) {
+        pressured++;
+      }
+    }
+    long processed = load.getProcessed();
+    long processingMillis = load.getProcessingMillis();
+    long avgMillis =
+        processed > lastProcessed
+            ? (processingMillis - lastProcessingMillis) / (processed - lastProcessed)
+            : 0;
+    lastProcessed = processed;
+    lastProcessingMillis = processingMillis;
+
+    int delta = 0;
+    String reason = null;
+    if (size < lowerBound) {
+      delta = lowerBound - size;
+      reason = "below lower bound";
+    } else if (size > upperBound) {
+      delta = upperBound - size;
+      reason = "above upper bound";
+    } else if (pressured > 0
+        && (pressured >= Math.ceil(size * PRESSURE_RATIO) || avgMillis > latencyThresholdMillis)) {
+      idleChecks = 0;
+      delta = Math.min(upperBound - size, (int) Math.max(1, Math.ceil(size * GROW_RATIO)));
+      reason = "mailbox pressure";
+    } else if (pressured == 0 && ++idleChecks >= IDLE_CHECKS_BEFORE_SHRINK) {
+      idleChecks = 0;
+      delta = -Math.min(size - lowerBound, (int) Math.max(1, Math.floor(size * SHRINK_RATIO)));
+      reason = "idle";
+    } else if (pressured > 0) {
+      idleChecks = 0;
+    }
+    if (delta != 0) {
+      ProjectLogger.log(
+          "AdaptiveResizer: "
+              + actor
+              + " routees "
+              + size
+              + " -> "
+              + (size + delta)
+              + " ("
+              + reason
+              + ", "
+              + pressured
+              + " routees with "
+              + queued
+              + " queued messages, avg processing "
+              + avgMillis
+              + " ms)",
+          LoggerEnum.INFO.name());
+    }
+    return delta;
+  }
+
+  private static int getQueuedMessages(Routee routee) {
+    if (routee instanceof ActorRefRoutee) {
+      ActorRef ref = ((ActorRefRoutee) routee).ref();
+      if (ref instanceof ActorRefWithCell) {
+        return ((ActorRefWithCell) ref).underlying().numberOfMessages();
+      }
+    }
+    return 0;
+  }
+
+  private static long getLongValue(String actor, String name, long defaultValue) {
+    PropertiesCache properties = PropertiesCache.getInstance();
+    String value = properties.readProperty(KEY_PREFIX + name + "_" + actor);
+    if (StringUtils.isBlank(value)) {
+      value = properties.readProperty(KEY_PREFIX + name);
+    }
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "AdaptiveResizer: invalid value " + value + " for " + KEY_PREFIX + name,
+          LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+}
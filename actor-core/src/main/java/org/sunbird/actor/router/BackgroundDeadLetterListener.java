@@ -0,0 +1,32 @@
+package org.sunbird.actor.router;
+
+import akka.actor.DeadLetter;
+import akka.actor.UntypedAbstractActor;
+
+/**
+ * Counts the background requests which ended in the dead letters, mostly requests which did not fit
+ * into the bounded {@link BackgroundPriorityMailbox} of their actor. Subscribed to the dead letters
+ * of the event stream by {@link org.sunbird.actor.service.BaseMWService}, the counts are part of
+ * the lane metrics.
+ */
+public class BackgroundDeadLetterListener extends UntypedAbstractActor {
+
+  private static final String ROUTER_PATH = "/" + BackgroundRequestRouter.class.getSimpleName();
+
+  @Override
+  public void onReceive(Object message) {
+    if (message instanceof DeadLetter) {
+      DeadLetter deadLetter = (DeadLetter) message;
+      if (isBackgroundActor(deadLetter)) {
+        BackgroundLanes.recordDeadLetter(deadLetter.message());
+      }
+    } else {
+      unhandled(message);
+    }
+  }
+
+  private static boolean isBackgroundActor(DeadLetter deadLetter) {
+    return null != deadLetter.recipient()
+        && deadLetter.recipient().path().toStringWithoutAddress().contains(ROUTER_PATH);
+  }
+}
@@ -0,0 +1,180 @@
+package org.sunbird.actor.router;
+
+import akka.actor.ActorRef;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.common.request.Request;
+
+/**
+ * Priority lane of background operations. Requests are forwarded to their actor while the lane
+ * token bucket has permits, the rest wait in a bounded queue until permits are refilled. Requests
+ * arriving while the queue is full are dropped, they are counted like the requests of the lane
+ * which overflowed the bounded mailbox of a background actor.
+ */
+public class BackgroundLane {
+
+  private final String name;
+  private final int priority;
+  private final int capacity;
+  private final double ratePerSecond;
+  private final Queue<Pending> queue = new ArrayDeque<>();
+  private double tokens;
+  private long lastRefillNanos = System.nanoTime();
+  private int maxQueueDepth;
+  private final LongAdder forwarded = new LongAdder();
+  private final LongAdder queued = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder deadLetters = new LongAdder();
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+  /**
+   * @param name Lane name
+   * @param priority Lane priority, lower value is served first
+   * @param capacity Maximum number of waiting requests
+   * @param ratePerSecond Forwarded requests per second, zero or less means unlimited
+   */
+  public BackgroundLane(String name, int priority, int capacity, double ratePerSecond) {
+    this.name = name;
+    this.priority = priority;
+    this.capacity = capacity;
+    this.ratePerSecond = ratePerSecond;
+    this.tokens = getBurst();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getPriority() {
+    return priority;
+  }
+
+  public synchronized int getQueueDepth() {
+    return queue.size();
+  }
+
+  long getForwarded() {
+    return forwarded.sum();
+  }
+
+  long getDropped() {
+    return dropped.sum();
+  }
+
+  long getDeadLetters() {
+    return deadLetters.sum();
+  }
+
+  void recordDeadLetter() {
+    deadLetters.increment();
+  }
+
+  /**
+   * This method will forward the request if a permit is available or queue it otherwise.
+   *
+   * @return Result of the submission
+   */
+  Submission submit(ActorRef target, Request request, ActorRef sender) {
+    synchronized (this) {
+      if (queue.isEmpty() && tryAcquire()) {
+        forwarded.increment();
+      } else if (queue.size() >= capacity) {
+        dropped.increment();
+        return Submission.DROPPED;
+      } else {
+        queue.add(new Pending(target, request, sender));
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        queued.increment();
+        return Submission.QUEUED;
+      }
+    }
+    target.tell(request, sender);
+    return Submission.FORWARDED;
+  }
+
+  /**
+   * This method will forward the queued requests for which permits are available.
+   *
+   * @return Milliseconds until the next permit if requests are still waiting, otherwise -1
+   */
+  long drain() {
+    while (true) {
+      Pending pending;
+      synchronized (this) {
+        if (queue.isEmpty()) {
+          return -1;
+        }
+        if (!tryAcquire()) {
+          return Math.max(1, (long) Math.ceil((1 - tokens) * 1000 / ratePerSecond));
+        }
+        pending = queue.poll();
+        forwarded.increment();
+      }
+      queueWait.record((System.nanoTime() - pending.queuedAt) / 1000000);
+      pending.target.tell(pending.request, pending.sender);
+    }
+  }
+
+  private boolean tryAcquire() {
+    if (ratePerSecond <= 0) {
+      return true;
+    }
+    long now = System.nanoTime();
+    tokens = Math.min(getBurst(), tokens + (now - lastRefillNanos) * ratePerSecond / 1e9);
+    lastRefillNanos = now;
+    if (tokens >= 1) {
+      tokens--;
+      return true;
+    }
+    return false;
+  }
+
+  private double getBurst() {
+    return Math.max(1, ratePerSecond);
+  }
+
+  /**
+   * This method will provide the metrics of the lane.
+   *
+   * @return Map<String,Object>
+   */
+  public synchronized Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("priority", priority);
+    metrics.put("capacity", capacity);
+    metrics.put("ratePerSecond", ratePerSecond);
+    metrics.put("queueDepth", queue.size());
+    metrics.put("maxQueueDepth", maxQueueDepth);
+    metrics.put("forwarded", forwarded.sum());
+    metrics.put("queued", queued.sum());
+    metrics.put("dropped", dropped.sum());
+    metrics.put("deadLetters", deadLetters.sum());
+    metrics.put("queueWaitMillis", queueWait.getSummary());
+    return metrics;
+  }
+
+  enum Submission {
+    FORWARDED,
+    QUEUED,
+    DROPPED
+  }
+
+  private static class Pending {
+    private final ActorRef target;
+    private final Request request;
+    private final ActorRef sender;
+    private final long queuedAt = System.nanoTime();
+
+    Pending(ActorRef target, Request request, ActorRef sender) {
+      this.target = target;
+      this.request = request;
+      this.sender = sender;
+    }
+  }
+}
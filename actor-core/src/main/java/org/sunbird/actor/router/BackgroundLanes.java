@@ -0,0 +1,226 @@
+package org.sunbird.actor.router;
+
+import akka.actor.ActorRef;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+import org.sunbird.common.request.Request;
+
+/**
+ * Priority lanes of the background operations. Lanes are listed in priority order in
+ * background_router_lanes, operations are assigned with
+ * background_router_lane_operations_<lane>, all other operations use background_router_default_lane
+ * ("default" if not set, or the last lane if there is no such lane). Per lane settings are
+ * background_router_lane_rate_<lane> (requests per second, 0 = unlimited) and
+ * background_router_lane_capacity_<lane> (waiting requests).
+ */
+public class BackgroundLanes {
+
+  private static final String LANES_KEY = "background_router_lanes";
+  private static final String DEFAULT_LANE_KEY = "background_router_default_lane";
+  private static final String OPERATIONS_KEY = "background_router_lane_operations";
+  private static final String RATE_KEY = "background_router_lane_rate";
+  private static final String CAPACITY_KEY = "background_router_lane_capacity";
+  private static final int DEFAULT_CAPACITY = 10000;
+  private static final String DEFAULT_LANE = "default";
+
+  private static Map<String, BackgroundLane> lanes = new LinkedHashMap<>();
+  private static Map<String, BackgroundLane> operationLanes = new HashMap<>();
+  private static BackgroundLane defaultLane;
+  private static ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "background-lanes");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  static {
+    init();
+  }
+
+  private BackgroundLanes() {}
+
+  private static void init() {
+    PropertiesCache propertiesCache = PropertiesCache.getInstance();
+    String laneNames = propertiesCache.readProperty(LANES_KEY);
+    if (StringUtils.isBlank(laneNames)) {
+      laneNames = DEFAULT_LANE;
+    }
+    long defaultCapacity = getLongValue(CAPACITY_KEY, DEFAULT_CAPACITY);
+    int priority = 0;
+    for (String laneName : laneNames.split(",")) {
+      laneName = laneName.trim();
+      if (StringUtils.isBlank(laneName) || lanes.containsKey(laneName)) {
+        continue;
+      }
+      BackgroundLane lane =
+          new BackgroundLane(
+              laneName,
+              priority++,
+              (int) getLongValue(CAPACITY_KEY + "_" + laneName, defaultCapacity),
+              getLongValue(RATE_KEY + "_" + laneName, 0));
+      lanes.put(laneName, lane);
+      registerMetrics(lane);
+      defaultLane = lane;
+      String operations = propertiesCache.readProperty(OPERATIONS_KEY + "_" + laneName);
+      if (StringUtils.isNotBlank(operations)) {
+        for (String operation : operations.split(",")) {
+          if (StringUtils.isNotBlank(operation)) {
+            operationLanes.putIfAbsent(operation.trim(), lane);
+          }
+        }
+      }
+    }
+    String defaultLaneName =
+        StringUtils.defaultIfBlank(propertiesCache.readProperty(DEFAULT_LANE_KEY), DEFAULT_LANE);
+    if (lanes.containsKey(defaultLaneName.trim())) {
+      defaultLane = lanes.get(defaultLaneName.trim());
+    }
+    ProjectLogger.log(
+        "BackgroundLanes:init: lanes " + lanes.keySet() + " default " + defaultLane.getName(),
+        LoggerEnum.INFO.name());
+  }
+
+  /**
+   * This method will provide the lane of an operation.
+   *
+   * @param operation Operation name
+   * @return BackgroundLane
+   */
+  public static BackgroundLane getLane(String operation) {
+    if (null == operation) {
+      return defaultLane;
+    }
+    return operationLanes.getOrDefault(operation, defaultLane);
+  }
+
+  /**
+   * This method will provide the priority of a message, used by {@link BackgroundPriorityMailbox}.
+   *
+   * @param message Actor message
+   * @return Priority, lower value is served first
+   */
+  public static int getPriority(Object message) {
+    if (message instanceof Request) {
+      return getLane(((Request) message).getOperation()).getPriority();
+    }
+    return defaultLane.getPriority();
+  }
+
+  /**
+   * This method will send the request to the actor through the lane of its operation.
+   *
+   * @param target Actor handling the operation
+   * @param request Request
+   * @param sender Sender of the request
+   * @return false if the lane queue is full and the request was dropped
+   */
+  public static boolean tell(ActorRef target, Request request, ActorRef sender) {
+    BackgroundLane lane = getLane(request.getOperation());
+    switch (lane.submit(target, request, sender)) {
+      case QUEUED:
+        scheduleDrain(lane, 0);
+        return true;
+      case DROPPED:
+        ProjectLogger.log(
+            "BackgroundLanes:tell: lane "
+                + lane.getName()
+                + " full, dropping "
+                + request.getOperation()
+                + " requestId "
+                + request.getRequestId(),
+            LoggerEnum.WARN.name());
+        return false;
+      default:
+        return true;
+    }
+  }
+
+  private static void scheduleDrain(BackgroundLane lane, long delayMillis) {
+    if (lane.drainScheduled.compareAndSet(false, true)) {
+      scheduler.schedule(() -> drain(lane), delayMillis, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static void drain(BackgroundLane lane) {
+    lane.drainScheduled.set(false);
+    long next = -1;
+    try {
+      next = lane.drain();
+    } catch (Exception e) {
+      ProjectLogger.log("BackgroundLanes:drain: lane " + lane.getName() + " " + e.getMessage(), e);
+      next = 1;
+    }
+    if (next >= 0) {
+      scheduleDrain(lane, next);
+    }
+  }
+
+  /**
+   * This method will count a request which ended in the dead letters instead of reaching its
+   * background actor, e.g. because the bounded mailbox of the actor was full.
+   *
+   * @param message Undelivered message
+   */
+  public static void recordDeadLetter(Object message) {
+    if (message instanceof Request) {
+      getLane(((Request) message).getOperation()).recordDeadLetter();
+    }
+  }
+
+  /**
+   * This method will provide per lane metrics: queue depth, forwarded, queued, dropped and dead
+   * letter counts and queue wait time.
+   *
+   * @return Map<String,Object> keyed by lane
+   */
+  public static Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    for (BackgroundLane lane : lanes.values()) {
+      metrics.put(lane.getName(), lane.getMetrics());
+    }
+    return Collections.unmodifiableMap(metrics);
+  }
+
+  private static void registerMetrics(BackgroundLane lane) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    registry.gauge(
+        "sunbird_background_lane_queue_depth",
+        "Background requests waiting for a rate limit permit",
+        lane::getQueueDepth,
+        "lane",
+        lane.getName());
+    String requests = "sunbird_background_lane_requests_total";
+    String help = "Background requests by outcome";
+    registry.counter(
+        requests, help, lane::getForwarded, "lane", lane.getName(), "outcome", "forwarded");
+    registry.counter(
+        requests, help, lane::getDropped, "lane", lane.getName(), "outcome", "dropped");
+    registry.counter(
+        requests, help, lane::getDeadLetters, "lane", lane.getName(), "outcome", "dead_letter");
+  }
+
+  private static long getLongValue(String key, long defaultValue) {
+    String value = PropertiesCache.getInstance().readProperty(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "BackgroundLanes: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+}
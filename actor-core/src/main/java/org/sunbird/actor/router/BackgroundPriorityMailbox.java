@@ -0,0 +1,34 @@
+package org.sunbird.actor.router;
+
+import akka.actor.ActorSystem;
+import akka.dispatch.BoundedStablePriorityMailbox;
+import akka.dispatch.PriorityGenerator;
+import com.typesafe.config.Config;
+import java.util.concurrent.TimeUnit;
+import scala.concurrent.duration.Duration;
+
+/**
+ * Bounded mailbox of the background actors ordering requests by the priority of their {@link
+ * BackgroundLanes lane}, requests of the same lane keep their order. Registered as
+ * sunbird-background-mailbox by {@link org.sunbird.actor.service.BaseMWService}, mailbox-capacity
+ * and mailbox-push-timeout-time can be overridden in the actor system config. Requests which do not
+ * fit go to the dead letters and are counted by {@link BackgroundDeadLetterListener}.
+ */
+public class BackgroundPriorityMailbox extends BoundedStablePriorityMailbox {
+
+  public static final String MAILBOX_ID = "sunbird-background-mailbox";
+
+  public BackgroundPriorityMailbox(ActorSystem.Settings settings, Config config) {
+    super(
+        new PriorityGenerator() {
+          @Override
+          public int gen(Object message) {
+            return BackgroundLanes.getPriority(message);
+          }
+        },
+        config.getInt("mailbox-capacity"),
+        Duration.create(
+            config.getDuration("mailbox-push-timeout-time", TimeUnit.MILLISECONDS),
+            TimeUnit.MILLISECONDS));
+  }
+}
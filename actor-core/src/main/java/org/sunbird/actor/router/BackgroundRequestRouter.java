@@ -37,7 +37,7 @@ public class BackgroundRequestRouter extends BaseRouter {
     String operation = request.getOperation();
     ActorRef ref = routingMap.get(getKey(self().path().name(), operation));
     if (null != ref) {
-      ref.tell(request, self());
+      BackgroundLanes.tell(ref, request, self());
     } else {
       onReceiveUnsupportedOperation(request.getOperation());
     }
@@ -54,6 +54,15 @@ public class BackgroundRequestRouter extends BaseRouter {
     return mode;
   }
 
+  /**
+   * This method will provide the metrics of the background lanes.
+   *
+   * @return Map<String,Object> keyed by lane
+   */
+  public static Map<String, Object> getMetrics() {
+    return BackgroundLanes.getMetrics();
+  }
+
   public static ActorRef getActor(String operation) {
     return routingMap.get(getKey(name, operation));
   }
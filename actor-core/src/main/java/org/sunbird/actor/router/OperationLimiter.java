@@ -0,0 +1,138 @@
+package org.sunbird.actor.router;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+
+/**
+ * In-flight limit, ask timeout and metrics of one routed operation. The in-flight count is the
+ * number of asks sent to the operation actor which have not completed yet, i.e. its queue depth
+ * plus the requests being processed. Once it reaches the limit further requests are rejected
+ * immediately instead of waiting in the actor mailbox until they time out.
+ */
+public class OperationLimiter {
+
+  private final String operation;
+  private final long timeoutMillis;
+  private final int maxInFlight;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlightSeen = new AtomicInteger();
+  private final LongAdder success = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+
+  /**
+   * @param operation Operation name
+   * @param timeoutMillis Ask timeout for the operation
+   * @param maxInFlight Maximum in-flight asks, zero or less means unbounded
+   */
+  public OperationLimiter(String operation, long timeoutMillis, int maxInFlight) {
+    this.operation = operation;
+    this.timeoutMillis = timeoutMillis;
+    this.maxInFlight = maxInFlight;
+    registerMetrics();
+  }
+
+  private void registerMetrics() {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    registry.histogram(
+        "sunbird_router_latency_millis",
+        "Time from routing a request until its actor replied",
+        latency,
+        "operation",
+        operation);
+    registry.gauge(
+        "sunbird_router_in_flight",
+        "Routed requests waiting for their actor",
+        inFlight::get,
+        "operation",
+        operation);
+    String requests = "sunbird_router_requests_total";
+    String help = "Routed requests by outcome";
+    registry.counter(requests, help, success::sum, "operation", operation, "outcome", "success");
+    registry.counter(requests, help, failures::sum, "operation", operation, "outcome", "failure");
+    registry.counter(requests, help, timeouts::sum, "operation", operation, "outcome", "timeout");
+    registry.counter(requests, help, rejected::sum, "operation", operation, "outcome", "rejected");
+  }
+
+  public String getOperation() {
+    return operation;
+  }
+
+  public long getTimeoutMillis() {
+    return timeoutMillis;
+  }
+
+  public int getMaxInFlight() {
+    return maxInFlight;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * This method will reserve an in-flight slot for one request.
+   *
+   * @return false if the operation is saturated and the request should be rejected
+   */
+  public boolean tryAcquire() {
+    int current = inFlight.incrementAndGet();
+    if (maxInFlight > 0 && current > maxInFlight) {
+      inFlight.decrementAndGet();
+      rejected.increment();
+      return false;
+    }
+    maxInFlightSeen.accumulateAndGet(current, Math::max);
+    return true;
+  }
+
+  /**
+   * This method will release the slot taken by {@link #tryAcquire()} once the actor replied and
+   * record the outcome.
+   *
+   * @param startTime Time the request was routed
+   * @param failure Failure of the ask, null on success
+   */
+  public void release(long startTime, Throwable failure) {
+    inFlight.decrementAndGet();
+    latency.record(System.currentTimeMillis() - startTime);
+    if (null != failure) {
+      failures.increment();
+    } else {
+      success.increment();
+    }
+  }
+
+  /**
+   * This method will record a request answered with a timeout while its actor is still working on
+   * it. The slot stays taken until {@link #release} is called.
+   */
+  public void recordTimeout() {
+    timeouts.increment();
+  }
+
+  /**
+   * This method will provide the metrics of the operation.
+   *
+   * @return Map<String,Object>
+   */
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("timeoutMillis", timeoutMillis);
+    metrics.put("maxInFlight", maxInFlight);
+    metrics.put("inFlight", inFlight.get());
+    metrics.put("maxInFlightSeen", maxInFlightSeen.get());
+    metrics.put("success", success.sum());
+    metrics.put("failures", failures.sum());
+    metrics.put("timeouts", timeouts.sum());
+    metrics.put("rejected", rejected.sum());
+    metrics.put("latencyMillis", latency.getSummary());
+    return metrics;
+  }
+}
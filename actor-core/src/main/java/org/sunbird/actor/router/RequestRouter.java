@@ -1,12 +1,19 @@
 package org.sunbird.actor.router;
 
 import akka.actor.ActorRef;
+import akka.actor.Cancellable;
+import akka.actor.Scheduler;
+import akka.dispatch.Futures;
 import akka.dispatch.OnComplete;
+import akka.pattern.AskTimeoutException;
 import akka.pattern.Patterns;
 import akka.util.Timeout;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.actor.core.BaseRouter;
 import org.sunbird.actor.service.SunbirdMWService;
@@ -16,12 +23,14 @@ import org.sunbird.common.models.util.ActorOperations;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.learner.util.AuditLogActions;
 import org.sunbird.learner.util.AuditOperation;
 import scala.concurrent.ExecutionContext;
 import scala.concurrent.Future;
+import scala.concurrent.Promise;
 import scala.concurrent.duration.Duration;
 
 /** @author Mahesh Kumar Gangula */
@@ -29,8 +38,16 @@ public class RequestRouter extends BaseRouter {
 
   private static String mode;
   private static String name;
-  private static final int WAIT_TIME_VALUE = 9;
+  /** Longest operation timeout, below the 10 s the controllers wait for the router reply. */
+  private static final long MAX_TIMEOUT_MILLIS = 9000;
+  private static final long DEFAULT_LEASE_MILLIS = 60000;
+  private static final String TIMEOUT_KEY = "request_router_timeout_millis";
+  private static final String MAX_IN_FLIGHT_KEY = "request_router_max_in_flight";
+  private static final String LEASE_KEY = "request_router_lease_millis";
+  private static final long leaseMillis =
+      getLongValue(PropertiesCache.getInstance()::readProperty, LEASE_KEY, DEFAULT_LEASE_MILLIS);
   public static Map<String, ActorRef> routingMap = new HashMap<>();
+  private static Map<String, OperationLimiter> limiters = new ConcurrentHashMap<>();
 
   public RequestRouter() {
     getMode();
@@ -48,6 +65,11 @@ public class RequestRouter extends BaseRouter {
     routingMap.put(key, actor);
   }
 
+  @Override
+  protected void cacheActorConfig(String operation, ActorConfig config) {
+    limiters.computeIfAbsent(operation, key -> createLimiter(key, config, getProperties()));
+  }
+
   @Override
   public void route(Request request) throws Throwable {
     org.sunbird.common.request.ExecutionContext.setRequestId(request.getRequestId());
@@ -60,6 +82,75 @@ public class RequestRouter extends BaseRouter {
     }
   }
 
+  /**
+   * This method will provide per operation routing metrics: in-flight requests (queue depth),
+   * success, failure, timeout and rejection counts and latency.
+   *
+   * @return Map<String,Object> keyed by operation
+   */
+  public static Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    for (OperationLimiter limiter : limiters.values()) {
+      metrics.put(limiter.getOperation(), limiter.getMetrics());
+    }
+    return metrics;
+  }
+
+  /**
+   * Operation settings are taken from config first (request_router_timeout_millis_<operation>,
+   * request_router_max_in_flight_<operation>), then from {@link ActorConfig} and finally from the
+   * router defaults (request_router_timeout_millis, request_router_max_in_flight). Timeouts are
+   * clamped to {@link #MAX_TIMEOUT_MILLIS}, a longer one would never reach the caller.
+   */
+  static OperationLimiter createLimiter(
+      String operation, ActorConfig config, Function<String, String> properties) {
+    long timeout =
+        getLongValue(
+            properties,
+            TIMEOUT_KEY + "_" + operation,
+            null != config && config.timeoutMillis() > 0
+                ? config.timeoutMillis()
+                : getLongValue(properties, TIMEOUT_KEY, MAX_TIMEOUT_MILLIS));
+    if (timeout > MAX_TIMEOUT_MILLIS) {
+      ProjectLogger.log(
+          "RequestRouter: timeout "
+              + timeout
+              + " of "
+              + operation
+              + " exceeds the controller wait time, using "
+              + MAX_TIMEOUT_MILLIS,
+          LoggerEnum.WARN.name());
+      timeout = MAX_TIMEOUT_MILLIS;
+    }
+    long maxInFlight =
+        getLongValue(
+            properties,
+            MAX_IN_FLIGHT_KEY + "_" + operation,
+            null != config && config.maxInFlight() > 0
+                ? config.maxInFlight()
+                : getLongValue(properties, MAX_IN_FLIGHT_KEY, 0));
+    return new OperationLimiter(operation, timeout, (int) maxInFlight);
+  }
+
+  private static Function<String, String> getProperties() {
+    return PropertiesCache.getInstance()::readProperty;
+  }
+
+  private static long getLongValue(
+      Function<String, String> properties, String key, long defaultValue) {
+    String value = properties.apply(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "RequestRouter: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
   public static ActorRef getActor(String operation) {
     return routingMap.get(getKey(name, operation));
   }
@@ -76,7 +167,9 @@ public class RequestRouter extends BaseRouter {
   }
 
   /**
-   * method will route the message to corresponding router pass into the argument .
+   * method will route the message to corresponding router pass into the argument . The caller is
+   * answered with operationTimeout once the operation timeout expires, but the in-flight slot is
+   * only released when the actor replies, or after request_router_lease_millis if it never does.
    *
    * @param router
    * @param message
@@ -90,9 +183,12 @@ public class RequestRouter extends BaseRouter {
             + " start time "
             + startTime,
         LoggerEnum.PERF_LOG);
-    Timeout timeout = new Timeout(Duration.create(WAIT_TIME_VALUE, TimeUnit.SECONDS));
-    Future<Object> future = Patterns.ask(router, message, timeout);
     ActorRef parent = sender();
+    OperationLimiter limiter =
+        limiters.computeIfAbsent(
+            message.getOperation(), key -> createLimiter(key, null, getProperties()));
+    Future<Object> future =
+        ask(router, message, limiter, leaseMillis, getContext().system().scheduler(), ec);
     future.onComplete(
         new OnComplete<Object>() {
           @Override
@@ -102,7 +198,7 @@ public class RequestRouter extends BaseRouter {
               ProjectLogger.log(failure.getMessage(), failure);
               if (failure instanceof ProjectCommonException) {
                 parent.tell(failure, self());
-              } else if (failure instanceof akka.pattern.AskTimeoutException) {
+              } else if (failure instanceof AskTimeoutException) {
                 ProjectCommonException exception =
                     new ProjectCommonException(
                         ResponseCode.operationTimeout.getErrorCode(),
@@ -140,4 +236,65 @@ public class RequestRouter extends BaseRouter {
         ec);
     return true;
   }
+
+  /**
+   * Asks the actor within the in-flight limit of the operation. The returned future fails with
+   * serviceBusy if the limit is reached and with an {@link AskTimeoutException} once the operation
+   * timeout expires; the slot is kept until the actor replies or the lease expires. The timeout
+   * timer is cancelled as soon as the actor replies.
+   */
+  static Future<Object> ask(
+      ActorRef actor,
+      Request message,
+      OperationLimiter limiter,
+      long leaseMillis,
+      Scheduler scheduler,
+      ExecutionContext ec) {
+    if (!limiter.tryAcquire()) {
+      ProjectLogger.log(
+          "RequestRouter:route: rejecting "
+              + message.getOperation()
+              + ", in-flight limit "
+              + limiter.getMaxInFlight()
+              + " reached",
+          LoggerEnum.WARN.name());
+      return Futures.failed(
+          new ProjectCommonException(
+              ResponseCode.serviceBusy.getErrorCode(),
+              ResponseCode.serviceBusy.getErrorMessage(),
+              ResponseCode.TOO_MANY_REQUESTS.getResponseCode()));
+    }
+    long startTime = System.currentTimeMillis();
+    Timeout lease =
+        new Timeout(
+            Duration.create(
+                Math.max(leaseMillis, limiter.getTimeoutMillis()), TimeUnit.MILLISECONDS));
+    Future<Object> reply = Patterns.ask(actor, message, lease);
+    Promise<Object> timeout = Futures.promise();
+    Cancellable timer =
+        scheduler.scheduleOnce(
+            Duration.create(limiter.getTimeoutMillis(), TimeUnit.MILLISECONDS),
+            () -> {
+              if (!reply.isCompleted()) {
+                limiter.recordTimeout();
+              }
+              timeout.tryFailure(
+                  new AskTimeoutException(
+                      message.getOperation()
+                          + " timed out after "
+                          + limiter.getTimeoutMillis()
+                          + " ms"));
+            },
+            ec);
+    reply.onComplete(
+        new OnComplete<Object>() {
+          @Override
+          public void onComplete(Throwable failure, Object result) {
+            timer.cancel();
+            limiter.release(startTime, failure);
+          }
+        },
+        ec);
+    return Futures.firstCompletedOf(Arrays.asList(reply, timeout.future()), ec);
+  }
 }
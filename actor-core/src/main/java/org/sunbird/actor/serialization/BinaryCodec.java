@@ -0,0 +1,558 @@
+package org.sunbird.actor.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.response.RawJson;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.response.ResponseParams;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.request.RequestParams;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Compact tagged binary format for {@link Request}, {@link Response}, {@link
+ * ProjectCommonException} and the values they carry (strings, numbers, booleans, maps, lists,
+ * sets, dates, raw json). Each value is written as a one byte tag followed by its data, integers
+ * use zig-zag varints. Common keys are written as an index into the shared {@link
+ * BinaryCodecDictionary} and every other string is written once per message and referenced
+ * afterwards. Values of any other type fall back to Java serialization, so every Serializable
+ * payload still works.
+ *
+ * <p>The dictionary is append-only and versioned, the header carries the version the sender
+ * encoded with. Nodes decode every version up to their own; during a rolling deploy which adds
+ * entries, sunbird_actor_binary_dictionary_version keeps the new nodes on the old version.
+ */
+public final class BinaryCodec {
+
+  private static final byte FORMAT_VERSION = 2;
+
+  private static final byte NULL = 0;
+  private static final byte STRING = 1;
+  private static final byte STRING_REF = 2;
+  private static final byte DICTIONARY = 3;
+  private static final byte TRUE = 4;
+  private static final byte FALSE = 5;
+  private static final byte INT = 6;
+  private static final byte LONG = 7;
+  private static final byte DOUBLE = 8;
+  private static final byte FLOAT = 9;
+  private static final byte SHORT = 10;
+  private static final byte BYTE = 11;
+  private static final byte HASH_MAP = 12;
+  private static final byte LINKED_MAP = 13;
+  private static final byte LIST = 14;
+  private static final byte SET = 15;
+  private static final byte REQUEST = 16;
+  private static final byte RESPONSE = 17;
+  private static final byte PROJECT_EXCEPTION = 18;
+  private static final byte REQUEST_PARAMS = 19;
+  private static final byte RESPONSE_PARAMS = 20;
+  private static final byte BIG_DECIMAL = 21;
+  private static final byte BIG_INTEGER = 22;
+  private static final byte DATE = 23;
+  private static final byte BYTES = 24;
+  private static final byte RAW_JSON = 25;
+  private static final byte JAVA = 26;
+
+  private static final String[] dictionary =
+      BinaryCodecDictionary.getEntries(BinaryCodecDictionary.LATEST_VERSION);
+  private static final int encodingVersion = getEncodingVersion();
+  private static final Map<String, Integer> dictionaryIndex = new HashMap<>();
+
+  static {
+    String[] entries = BinaryCodecDictionary.getEntries(encodingVersion);
+    for (int i = 0; i < entries.length; i++) {
+      dictionaryIndex.put(entries[i], i);
+    }
+  }
+
+  private BinaryCodec() {}
+
+  /**
+   * This method will encode the given object.
+   *
+   * @param value Object to encode
+   * @return encoded bytes
+   * @throws IllegalArgumentException if the object or one of its values can not be serialised
+   */
+  public static byte[] encode(Object value) {
+    Encoder encoder = new Encoder();
+    encoder.writeByte(FORMAT_VERSION);
+    encoder.writeVarInt(encodingVersion);
+    encoder.writeValue(value);
+    return encoder.toByteArray();
+  }
+
+  /**
+   * This method will decode bytes written by {@link #encode(Object)}.
+   *
+   * @param bytes Encoded bytes
+   * @return decoded object
+   * @throws IllegalArgumentException if the bytes are not valid
+   */
+  public static Object decode(byte[] bytes) {
+    Decoder decoder = new Decoder(bytes);
+    byte version = decoder.readByte();
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("BinaryCodec: unsupported format version " + version);
+    }
+    decoder.dictionaryVersion = decoder.readVarInt();
+    return decoder.readValue();
+  }
+
+  /**
+   * Dictionary version used for encoding, the latest one unless
+   * sunbird_actor_binary_dictionary_version pins an older one.
+   */
+  private static int getEncodingVersion() {
+    String value =
+        PropertiesCache.getInstance()
+            .readProperty(JsonKey.SUNBIRD_ACTOR_BINARY_DICTIONARY_VERSION);
+    if (StringUtils.isBlank(value)) {
+      return BinaryCodecDictionary.LATEST_VERSION;
+    }
+    try {
+      int version = Integer.parseInt(value.trim());
+      if (version >= 1 && version <= BinaryCodecDictionary.LATEST_VERSION) {
+        return version;
+      }
+    } catch (NumberFormatException e) {
+      // logged below
+    }
+    ProjectLogger.log(
+        "BinaryCodec: invalid dictionary version " + value + ", using the latest",
+        LoggerEnum.WARN.name());
+    return BinaryCodecDictionary.LATEST_VERSION;
+  }
+
+  private static class Encoder {
+    private byte[] buffer = new byte[256];
+    private int position;
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    void writeValue(Object value) {
+      if (null == value) {
+        writeByte(NULL);
+      } else if (value instanceof String) {
+        writeString((String) value);
+      } else if (value instanceof Boolean) {
+        writeByte((Boolean) value ? TRUE : FALSE);
+      } else if (value instanceof Integer) {
+        writeByte(INT);
+        writeVarInt((Integer) value);
+      } else if (value instanceof Long) {
+        writeByte(LONG);
+        writeVarLong((Long) value);
+      } else if (value instanceof Double) {
+        writeByte(DOUBLE);
+        writeFixedLong(Double.doubleToRawLongBits((Double) value));
+      } else if (value instanceof Float) {
+        writeByte(FLOAT);
+        writeVarInt(Float.floatToRawIntBits((Float) value));
+      } else if (value instanceof Short) {
+        writeByte(SHORT);
+        writeVarInt((Short) value);
+      } else if (value instanceof Byte) {
+        writeByte(BYTE);
+        writeByte((Byte) value);
+      } else if (value.getClass() == HashMap.class) {
+        writeByte(HASH_MAP);
+        writeMap((Map<?, ?>) value);
+      } else if (value.getClass() == LinkedHashMap.class) {
+        writeByte(LINKED_MAP);
+        writeMap((Map<?, ?>) value);
+      } else if (value.getClass() == ArrayList.class) {
+        writeByte(LIST);
+        writeCollection((Collection<?>) value);
+      } else if (value.getClass() == HashSet.class) {
+        writeByte(SET);
+        writeCollection((Collection<?>) value);
+      } else if (value.getClass() == Request.class) {
+        writeRequest((Request) value);
+      } else if (value.getClass() == Response.class) {
+        writeResponse((Response) value);
+      } else if (value.getClass() == ProjectCommonException.class) {
+        ProjectCommonException exception = (ProjectCommonException) value;
+        writeByte(PROJECT_EXCEPTION);
+        writeValue(exception.getCode());
+        writeValue(exception.getMessage());
+        writeVarInt(exception.getResponseCode());
+      } else if (value.getClass() == RequestParams.class) {
+        RequestParams params = (RequestParams) value;
+        writeByte(REQUEST_PARAMS);
+        writeValue(params.getDid());
+        writeValue(params.getKey());
+        writeValue(params.getMsgid());
+        writeValue(params.getUid());
+        writeValue(params.getCid());
+        writeValue(params.getSid());
+        writeValue(params.getAuthToken());
+      } else if (value.getClass() == ResponseParams.class) {
+        ResponseParams params = (ResponseParams) value;
+        writeByte(RESPONSE_PARAMS);
+        writeValue(params.getResmsgid());
+        writeValue(params.getMsgid());
+        writeValue(params.getErr());
+        writeValue(params.getStatus());
+        writeValue(params.getErrmsg());
+      } else if (value.getClass() == BigDecimal.class) {
+        writeByte(BIG_DECIMAL);
+        writeValue(value.toString());
+      } else if (value.getClass() == BigInteger.class) {
+        writeByte(BIG_INTEGER);
+        writeValue(value.toString());
+      } else if (value.getClass() == Date.class) {
+        writeByte(DATE);
+        writeVarLong(((Date) value).getTime());
+      } else if (value instanceof byte[]) {
+        writeByte(BYTES);
+        writeBytes((byte[]) value);
+      } else if (value instanceof RawJson) {
+        writeByte(RAW_JSON);
+        writeBytes(((RawJson) value).getBytes());
+      } else {
+        writeByte(JAVA);
+        writeBytes(javaSerialize(value));
+      }
+    }
+
+    private void writeRequest(Request request) {
+      writeByte(REQUEST);
+      writeValue(request.getId());
+      writeValue(request.getVer());
+      writeValue(request.getTs());
+      writeValue(request.getParams());
+      writeValue(request.getManagerName());
+      writeValue(request.getOperation());
+      writeValue(request.getRequestId());
+      writeVarInt(request.getEnv());
+      writeValue(request.getContext());
+      writeValue(request.getRequest());
+    }
+
+    private void writeResponse(Response response) {
+      writeByte(RESPONSE);
+      writeValue(response.getId());
+      writeValue(response.getVer());
+      writeValue(response.getTs());
+      writeValue(response.getParams());
+      writeValue(null == response.getResponseCode() ? null : response.getResponseCode().name());
+      writeValue(response.getResult());
+    }
+
+    private void writeMap(Map<?, ?> map) {
+      writeVarInt(map.size());
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        writeValue(entry.getKey());
+        writeValue(entry.getValue());
+      }
+    }
+
+    private void writeCollection(Collection<?> collection) {
+      writeVarInt(collection.size());
+      for (Object element : collection) {
+        writeValue(element);
+      }
+    }
+
+    private void writeString(String value) {
+      Integer index = dictionaryIndex.get(value);
+      if (null != index) {
+        writeByte(DICTIONARY);
+        writeVarInt(index);
+        return;
+      }
+      index = strings.get(value);
+      if (null != index) {
+        writeByte(STRING_REF);
+        writeVarInt(index);
+        return;
+      }
+      strings.put(value, strings.size());
+      writeByte(STRING);
+      writeBytes(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] javaSerialize(Object value) {
+      try {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+          out.writeObject(value);
+        }
+        return bytes.toByteArray();
+      } catch (IOException e) {
+        throw new IllegalArgumentException(
+            "BinaryCodec: unable to serialise " + value.getClass().getName(), e);
+      }
+    }
+
+    void writeBytes(byte[] bytes) {
+      writeVarInt(bytes.length);
+      ensureCapacity(bytes.length);
+      System.arraycopy(bytes, 0, buffer, position, bytes.length);
+      position += bytes.length;
+    }
+
+    void writeByte(int value) {
+      ensureCapacity(1);
+      buffer[position++] = (byte) value;
+    }
+
+    void writeVarInt(int value) {
+      writeVarLong(value);
+    }
+
+    void writeVarLong(long value) {
+      long zigZag = (value << 1) ^ (value >> 63);
+      ensureCapacity(10);
+      while ((zigZag & ~0x7FL) != 0) {
+        buffer[position++] = (byte) ((zigZag & 0x7F) | 0x80);
+        zigZag >>>= 7;
+      }
+      buffer[position++] = (byte) zigZag;
+    }
+
+    void writeFixedLong(long value) {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer[position++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void ensureCapacity(int length) {
+      if (position + length > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+      }
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, position);
+    }
+  }
+
+  private static class Decoder {
+    private final byte[] buffer;
+    private int position;
+    private final List<String> strings = new ArrayList<>();
+    private int dictionaryVersion;
+
+    Decoder(byte[] buffer) {
+      this.buffer = buffer;
+    }
+
+    @SuppressWarnings("unchecked")
+    Object readValue() {
+      byte tag = readByte();
+      switch (tag) {
+        case NULL:
+          return null;
+        case STRING:
+          String value = new String(readBytes(), StandardCharsets.UTF_8);
+          strings.add(value);
+          return value;
+        case STRING_REF:
+          return strings.get(readVarInt());
+        case DICTIONARY:
+          return readDictionaryEntry();
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INT:
+          return readVarInt();
+        case LONG:
+          return readVarLong();
+        case DOUBLE:
+          return Double.longBitsToDouble(readFixedLong());
+        case FLOAT:
+          return Float.intBitsToFloat(readVarInt());
+        case SHORT:
+          return (short) readVarInt();
+        case BYTE:
+          return readByte();
+        case HASH_MAP:
+          return readMap(new HashMap<>());
+        case LINKED_MAP:
+          return readMap(new LinkedHashMap<>());
+        case LIST:
+          int listSize = readVarInt();
+          return readCollection(new ArrayList<>(listSize), listSize);
+        case SET:
+          int setSize = readVarInt();
+          return readCollection(new HashSet<>(), setSize);
+        case REQUEST:
+          return readRequest();
+        case RESPONSE:
+          return readResponse();
+        case PROJECT_EXCEPTION:
+          String code = (String) readValue();
+          String message = (String) readValue();
+          return new ProjectCommonException(code, message, readVarInt());
+        case REQUEST_PARAMS:
+          RequestParams requestParams = new RequestParams();
+          requestParams.setDid((String) readValue());
+          requestParams.setKey((String) readValue());
+          requestParams.setMsgid((String) readValue());
+          requestParams.setUid((String) readValue());
+          requestParams.setCid((String) readValue());
+          requestParams.setSid((String) readValue());
+          requestParams.setAuthToken((String) readValue());
+          return requestParams;
+        case RESPONSE_PARAMS:
+          ResponseParams responseParams = new ResponseParams();
+          responseParams.setResmsgid((String) readValue());
+          responseParams.setMsgid((String) readValue());
+          responseParams.setErr((String) readValue());
+          responseParams.setStatus((String) readValue());
+          responseParams.setErrmsg((String) readValue());
+          return responseParams;
+        case BIG_DECIMAL:
+          return new BigDecimal((String) readValue());
+        case BIG_INTEGER:
+          return new BigInteger((String) readValue());
+        case DATE:
+          return new Date(readVarLong());
+        case BYTES:
+          return readBytes();
+        case RAW_JSON:
+          return new RawJson(readBytes());
+        case JAVA:
+          return javaDeserialize(readBytes());
+        default:
+          throw new IllegalArgumentException("BinaryCodec: unknown tag " + tag);
+      }
+    }
+
+    private String readDictionaryEntry() {
+      int index = readVarInt();
+      if (index < 0 || index >= dictionary.length) {
+        throw new IllegalArgumentException(
+            "BinaryCodec: unknown dictionary entry "
+                + index
+                + ", sender uses dictionary version "
+                + dictionaryVersion
+                + " and this node "
+                + BinaryCodecDictionary.LATEST_VERSION);
+      }
+      return dictionary[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    private Request readRequest() {
+      Request request = new Request();
+      request.setId((String) readValue());
+      request.setVer((String) readValue());
+      request.setTs((String) readValue());
+      request.setParams((RequestParams) readValue());
+      request.setManagerName((String) readValue());
+      request.setOperation((String) readValue());
+      request.setRequestId((String) readValue());
+      request.setEnv(readVarInt());
+      request.setContext((Map<String, Object>) readValue());
+      request.setRequest((Map<String, Object>) readValue());
+      return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response readResponse() {
+      Response response = new Response();
+      response.setId((String) readValue());
+      response.setVer((String) readValue());
+      response.setTs((String) readValue());
+      response.setParams((ResponseParams) readValue());
+      String responseCode = (String) readValue();
+      response.setResponseCode(null == responseCode ? null : ResponseCode.valueOf(responseCode));
+      Map<String, Object> result = (Map<String, Object>) readValue();
+      if (null != result) {
+        response.putAll(result);
+      }
+      return response;
+    }
+
+    private Map<Object, Object> readMap(Map<Object, Object> map) {
+      int size = readVarInt();
+      for (int i = 0; i < size; i++) {
+        Object key = readValue();
+        map.put(key, readValue());
+      }
+      return map;
+    }
+
+    private Collection<Object> readCollection(Collection<Object> collection, int size) {
+      for (int i = 0; i < size; i++) {
+        collection.add(readValue());
+      }
+      return collection;
+    }
+
+    private Object javaDeserialize(byte[] bytes) {
+      try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+        return in.readObject();
+      } catch (IOException | ClassNotFoundException e) {
+        throw new IllegalArgumentException("BinaryCodec: unable to deserialise value", e);
+      }
+    }
+
+    byte readByte() {
+      if (position >= buffer.length) {
+        throw new IllegalArgumentException("BinaryCodec: unexpected end of data");
+      }
+      return buffer[position++];
+    }
+
+    byte[] readBytes() {
+      int length = readVarInt();
+      if (length < 0 || position + length > buffer.length) {
+        throw new IllegalArgumentException("BinaryCodec: invalid length " + length);
+      }
+      byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+      position += length;
+      return bytes;
+    }
+
+    int readVarInt() {
+      return (int) readVarLong();
+    }
+
+    long readVarLong() {
+      long result = 0;
+      int shift = 0;
+      byte current;
+      do {
+        current = readByte();
+        result |= (long) (current & 0x7F) << shift;
+        shift += 7;
+      } while ((current & 0x80) != 0 && shift < 70);
+      return (result >>> 1) ^ -(result & 1);
+    }
+
+    long readFixedLong() {
+      long result = 0;
+      for (int i = 0; i < 8; i++) {
+        result = (result << 8) | (readByte() & 0xFF);
+      }
+      return result;
+    }
+  }
+}
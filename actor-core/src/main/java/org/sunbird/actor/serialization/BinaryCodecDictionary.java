@@ -0,0 +1,700 @@
+package org.sunbird.actor.serialization;
+
+/**
+ * Shared string dictionary of {@link BinaryCodec}. Messages refer to an entry by its position, so
+ * the dictionary is append-only: entries are never changed, removed or reordered, new entries are
+ * added as a new version at the end. A node decodes messages of every version up to its own and
+ * {@link BinaryCodec} can be told to encode with an older version while a rolling deploy is
+ * still running.
+ *
+ * <p>Version 1 holds the {@link org.sunbird.common.models.util.JsonKey} values in sorted order,
+ * the dictionary the first format version built at runtime.
+ */
+final class BinaryCodecDictionary {
+
+  private static final String[][] VERSIONS = {
+    // version 1
+    {
+        " 23:59:59",
+        "##",
+        "*",
+        "003",
+        "@",
+        "ADDITIONAL_INFO",
+        "API_CALL",
+        "Actor service",
+        "Anonymous",
+        "Authorization",
+        "Bearer ",
+        "BulkOpDb",
+        "CONTENT_CREATOR",
+        "CURRENT_STATE",
+        "Cassandra service",
+        "Content-Encoding",
+        "DATE_HISTOGRAM",
+        "Download Reports",
+        "EK-STEP",
+        "EkStep service",
+        "Elastic search service",
+        "FAILED",
+        "Learner service",
+        "List",
+        "NA",
+        "NonPK",
+        "ON",
+        "ORG_001",
+        "PK",
+        "PREV_STATE",
+        "SUCCESS",
+        "Sunbird_LMS_Telemetry",
+        "TELEMETRY_CONTEXT",
+        "Unauthorized",
+        "Undefined column name ",
+        "Unknown identifier ",
+        "X",
+        "X-Authenticated-Userid",
+        "X-Org-code",
+        "X-Source",
+        "X-msgId",
+        "accessToken",
+        "access_token",
+        "actionGroups",
+        "actionName",
+        "actionUrl",
+        "action_group",
+        "actions",
+        "active",
+        "actorId",
+        "actorType",
+        "add",
+        "addType",
+        "addedAt",
+        "addedBy",
+        "addedByName",
+        "address",
+        "address type",
+        "addressId",
+        "addressLine1",
+        "addressLine2",
+        "aggregations",
+        "all",
+        "announcement",
+        "answers",
+        "apiId",
+        "api_access",
+        "api_actor_provider",
+        "appIcon",
+        "appMap",
+        "appSections",
+        "appUrl",
+        "applicableFor",
+        "approvalDate",
+        "approvedBy",
+        "approvedByName",
+        "approvedDate",
+        "assessment",
+        "assessmentItemId",
+        "assessmentStatus",
+        "assessmentType",
+        "assessment_eval_db",
+        "assessment_item_db",
+        "attemptId",
+        "attemptedCount",
+        "attemptedDate",
+        "authToken",
+        "authWithMasterKey",
+        "backgroundTaskId",
+        "background_actor_provider",
+        "background_router_mailbox_capacity",
+        "badRequest",
+        "badge",
+        "badgeAssertions",
+        "badgeTypeId",
+        "badges",
+        "batch",
+        "batchId",
+        "batch_relations",
+        "blocked",
+        "body",
+        "bulkUserUpload",
+        "bulk_upload_batch_data_size",
+        "bulk_upload_org_data_size",
+        "cassandraInEmbeddedMode",
+        "cassandra_update_batch_size",
+        "cassandra_write_batch_size",
+        "channel",
+        "channelRegStatus",
+        "channels",
+        "checks",
+        "childOf",
+        "children",
+        "city",
+        "class",
+        "client.names",
+        "clientId",
+        "clientInfo_db",
+        "clientName",
+        "code",
+        "communityId",
+        "completedCount",
+        "completeness",
+        "consumer",
+        "contactDetail",
+        "container",
+        "content",
+        "contentId",
+        "contentIds",
+        "contentList",
+        "contentName",
+        "contentType",
+        "contentVersion",
+        "content_url",
+        "contents",
+        "context",
+        "correlatedObjects",
+        "count",
+        "countDecrementDate",
+        "countDecrementStatus",
+        "countIncrementDate",
+        "countIncrementStatus",
+        "country",
+        "countryCode",
+        "course",
+        "courseAdditionalInfo",
+        "courseBatchDB",
+        "courseConsumption",
+        "courseCreator",
+        "courseDuration",
+        "courseId",
+        "courseIds",
+        "courseList",
+        "courseLogoUrl",
+        "courseManagement_db",
+        "courseName",
+        "courseProgress",
+        "courseVersion",
+        "course_enrollment",
+        "course_publish_status",
+        "courses",
+        "create",
+        "createdBy",
+        "createdDate",
+        "createdFor",
+        "createdOn",
+        "criteria",
+        "currentLoginTime",
+        "dashboard",
+        "data",
+        "date",
+        "dateTime",
+        "db.ip",
+        "db.keyspace",
+        "db.password",
+        "db.port",
+        "db.username",
+        "defaultFramework",
+        "degree",
+        "delete",
+        "delta",
+        "description",
+        "display",
+        "dob",
+        "downloadUrl",
+        "duplicate",
+        "duration",
+        "edit",
+        "education",
+        "eks",
+        "eksetp_telemetry_V3_url",
+        "ekstep.channel.list.api.url",
+        "ekstep.channel.reg.api.url",
+        "ekstep.channel.update.api.url",
+        "ekstep.content.update.url",
+        "ekstep.tag.api.url",
+        "ekstep_api_base_url",
+        "ekstep_authorization",
+        "ekstep_concept_base_url",
+        "ekstep_content_search_base_url",
+        "ekstep_content_search_url",
+        "ekstep_course_publish_url",
+        "ekstep_domain_url",
+        "ekstep_es_metrics_api_url",
+        "ekstep_metrics_api_url",
+        "ekstep_metrics_authorization",
+        "ekstep_metrics_base_url",
+        "ekstep_telemetry_api_base_url",
+        "ekstep_telemetry_api_url",
+        "email",
+        "emailReq",
+        "emailTemplateType",
+        "emailUnique",
+        "emailVerified",
+        "emailVerifiedUpdated",
+        "embedded",
+        "embedded_cassandra_host",
+        "embedded_cassandra_port",
+        "embedded_cql_file_name",
+        "encEmail",
+        "encPhone",
+        "endDate",
+        "endTime",
+        "endorseDate",
+        "endorsedUserId",
+        "endorsementcount",
+        "endorsers",
+        "endorsersList",
+        "enrolledDate",
+        "enrollementStartDate",
+        "enrollmentEndDate",
+        "enrollmentType",
+        "enrolmentType",
+        "env",
+        "err",
+        "err_msg",
+        "errmsg",
+        "errtype",
+        "es.channel.name",
+        "es_metrics_port",
+        "es_search_url",
+        "estimatedCountReq",
+        "ets",
+        "events",
+        "exists",
+        "externalId",
+        "externalIdProvider",
+        "externalIdType",
+        "externalIdValue",
+        "externalIds",
+        "facets",
+        "failure",
+        "failureResult",
+        "fcm",
+        "fcm.url",
+        "field",
+        "fields",
+        "file",
+        "fileName",
+        "fileParams",
+        "fileUrl",
+        "file_upload_max_size",
+        "filter",
+        "filters",
+        "firstName",
+        "formParams",
+        "format",
+        "fromEmail",
+        "gender",
+        "general",
+        "geoLocationDb",
+        "grade",
+        "gradeLevel",
+        "group",
+        "groupQuery",
+        "hashTagId",
+        "hashtagid",
+        "header",
+        "healthy",
+        "homeUrl",
+        "id",
+        "idType",
+        "identifier",
+        "image",
+        "imgUrl",
+        "inactive",
+        "index",
+        "info",
+        "insert",
+        "internal",
+        "invite-only",
+        "isApproved",
+        "isAuthReq",
+        "isDefault",
+        "isDeleted",
+        "isRejected",
+        "isRootOrg",
+        "isVerified",
+        "jobName",
+        "jobProfile",
+        "joiningDate",
+        "key",
+        "keys",
+        "language",
+        "lastAccessTime",
+        "lastCompletedTime",
+        "lastLoginTime",
+        "lastLogoutTime",
+        "lastName",
+        "lastReadContentId",
+        "lastReadContentStatus",
+        "lastReadContentVersion",
+        "lastUpdatedBy",
+        "lastUpdatedOn",
+        "lastUpdatedTime",
+        "latitude",
+        "leafNodesCount",
+        "learnerContent_db",
+        "learnerCourse_db",
+        "level",
+        "limit",
+        "location",
+        "locationCode",
+        "locationId",
+        "locationIds",
+        "locations",
+        "logLevel",
+        "logRecord",
+        "logType",
+        "loginId",
+        "longitude",
+        "mail_note",
+        "mappedFormParams",
+        "maskedEmail",
+        "maskedPhone",
+        "masterKey",
+        "master_action",
+        "maxScore",
+        "mediaTypeDB",
+        "mentors",
+        "message",
+        "message_id",
+        "method",
+        "methodName",
+        "metrics",
+        "missingFields",
+        "mobile",
+        "msgId",
+        "name",
+        "newPassword",
+        "noOfLectures",
+        "noOfMembers",
+        "not_exists",
+        "note",
+        "noteId",
+        "notification",
+        "null",
+        "object-store",
+        "objectId",
+        "objectIds",
+        "objectType",
+        "offset",
+        "onboarding_mail_subject",
+        "onboarding_welcome_mail_body",
+        "onboarding_welcome_message",
+        "open",
+        "operation",
+        "operationFor",
+        "operationType",
+        "order",
+        "orgCode",
+        "orgConsumption",
+        "orgCreation",
+        "orgExternalId",
+        "orgId",
+        "orgIdOne",
+        "orgIdTwo",
+        "orgImageUrl",
+        "orgJoinDate",
+        "orgLeftDate",
+        "orgName",
+        "orgProvider",
+        "orgServerFromName",
+        "orgType",
+        "orgTypeId",
+        "org_db",
+        "org_mapping",
+        "org_relations",
+        "org_type",
+        "organisation",
+        "organisationId",
+        "organisations",
+        "page",
+        "pageId",
+        "page_mgmt_db",
+        "page_section",
+        "page_section_db",
+        "params",
+        "parentId",
+        "parentOf",
+        "parentOrgId",
+        "participant",
+        "password",
+        "pdata",
+        "percentage",
+        "period",
+        "phone",
+        "phoneNumberVerified",
+        "phoneUnique",
+        "phoneVerified",
+        "pid",
+        "portalMap",
+        "portalSections",
+        "position",
+        "preferredLanguage",
+        "private",
+        "processEndTime",
+        "processId",
+        "processStartTime",
+        "processingStatus",
+        "profileSummary",
+        "profileVisibility",
+        "progress",
+        "properties",
+        "props",
+        "provider",
+        "public",
+        "publishCourse",
+        "query",
+        "receiverId",
+        "recipientCount",
+        "recipientEmails",
+        "recipientUserIds",
+        "recommendType",
+        "regOrgId",
+        "registeredOrg",
+        "registryId",
+        "relation",
+        "relations",
+        "remote",
+        "remove",
+        "reportTrackingDb",
+        "reqId",
+        "request",
+        "requestId",
+        "requestType",
+        "requestedBy",
+        "resmsgId",
+        "resourceId",
+        "resourceName",
+        "response",
+        "result",
+        "retired",
+        "retryCount",
+        "role",
+        "role_group",
+        "rolegroupid",
+        "roles",
+        "rollup",
+        "rootOrg",
+        "rootOrgId",
+        "samplingRate",
+        "scheduler",
+        "score",
+        "search",
+        "searchQuery",
+        "searchTopN",
+        "section",
+        "sectionDataType",
+        "sectionId",
+        "section_mgmt_db",
+        "sections",
+        "series",
+        "size",
+        "skillEndorsementDb",
+        "skillName",
+        "skillnametolowercase",
+        "skills",
+        "skillsListDb",
+        "slug",
+        "snapshot",
+        "softConstraints",
+        "sort",
+        "sort_by",
+        "source",
+        "split",
+        "sso.client.id",
+        "sso.client.secret",
+        "sso.connection.pool.size",
+        "sso.enabled",
+        "sso.password",
+        "sso.realm",
+        "sso.url",
+        "sso.username",
+        "stacktrace",
+        "standalone",
+        "startDate",
+        "startTime",
+        "state",
+        "status",
+        "statusCode",
+        "subSections",
+        "subject",
+        "submitDate",
+        "subtype",
+        "successResult",
+        "summary",
+        "sunbird",
+        "sunbird.content.badge.assign.url",
+        "sunbird.content.badge.revoke.url",
+        "sunbird_account_key",
+        "sunbird_account_name",
+        "sunbird_actor_binary_serialization",
+        "sunbird_analytics_api_base_url",
+        "sunbird_api_base_url",
+        "sunbird_api_mgr_base_url",
+        "sunbird_app_name",
+        "sunbird_app_url",
+        "sunbird_authorization",
+        "sunbird_background_task_log_enabled",
+        "sunbird_cassandra_host",
+        "sunbird_cassandra_keyspace",
+        "sunbird_cassandra_mode",
+        "sunbird_cassandra_password",
+        "sunbird_cassandra_port",
+        "sunbird_cassandra_username",
+        "sunbird_content_service_authorization",
+        "sunbird_content_service_base_url",
+        "sunbird_cs_base_url",
+        "sunbird_cs_search_path",
+        "sunbird_default_channel",
+        "sunbird_default_country_code",
+        "sunbird_default_user_type",
+        "sunbird_default_welcome_sms",
+        "sunbird_encryption",
+        "sunbird_encryption_key",
+        "sunbird_env_logo_url",
+        "sunbird_es_cluster",
+        "sunbird_es_host",
+        "sunbird_es_port",
+        "sunbird_fcm_account_key",
+        "sunbird_installation",
+        "sunbird_installation_display_name",
+        "sunbird_lms_base_url",
+        "sunbird_mail_server_from_email",
+        "sunbird_mail_server_host",
+        "sunbird_mail_server_password",
+        "sunbird_mail_server_port",
+        "sunbird_mail_server_username",
+        "sunbird_mw_system_client_port",
+        "sunbird_mw_system_host",
+        "sunbird_mw_system_port",
+        "sunbird_netty_host",
+        "sunbird_netty_port",
+        "sunbird_open_saber_bridge_enable",
+        "sunbird_pg_db",
+        "sunbird_pg_host",
+        "sunbird_pg_password",
+        "sunbird_pg_port",
+        "sunbird_pg_user",
+        "sunbird_quartz_mode",
+        "sunbird_search_service_api_base_url",
+        "sunbird_sso_client_id",
+        "sunbird_sso_client_secret",
+        "sunbird_sso_password",
+        "sunbird_sso_publickey",
+        "sunbird_sso_realm",
+        "sunbird_sso_url",
+        "sunbird_sso_username",
+        "sunbird_telemetry_api_path",
+        "sunbird_telemetry_base_url",
+        "sunbird_user_bulk_upload_size",
+        "sunbirdplugin",
+        "sunird_web_url",
+        "system",
+        "system_settings",
+        "tag",
+        "tags",
+        "targetObject",
+        "tcStatus",
+        "tcUpdatedAt",
+        "telemetryEventType",
+        "telemetry_pdata_id",
+        "telemetry_pdata_pid",
+        "telemetry_pdata_ver",
+        "telemetry_queue_threshold_value",
+        "tempPassword",
+        "tenantPreference",
+        "tenantPreferenceDb",
+        "theme",
+        "thumbnail",
+        "timeTaken",
+        "time_unit",
+        "title",
+        "to",
+        "tocUrl",
+        "token",
+        "topic",
+        "topicName",
+        "topics",
+        "topn",
+        "tryCount",
+        "type",
+        "unique",
+        "update",
+        "updatedBy",
+        "updatedByName",
+        "updatedDate",
+        "uploadedBy",
+        "uploadedDate",
+        "url",
+        "url_action",
+        "url_action_ids",
+        "urls",
+        "user",
+        "user does not exist with this login Id.",
+        "user exist with this login Id.",
+        "userAuth_db",
+        "userCount",
+        "userCountTTL",
+        "userCourses",
+        "userId",
+        "userIds",
+        "userList",
+        "userListReq",
+        "userName",
+        "userNotes_db",
+        "userSkillDb",
+        "user_action_role",
+        "user_badge",
+        "user_badge_assertion",
+        "user_course",
+        "user_db",
+        "user_education",
+        "user_external_identity",
+        "user_job_profile",
+        "user_org",
+        "user_org_db",
+        "user_relations",
+        "username",
+        "usr_external_identity",
+        "value",
+        "ver",
+        "version",
+        "viewCount",
+        "viewPosition",
+        "webPages",
+        "webUrl",
+        "welcomeMessage",
+        "x-channel-id",
+        "yearOfPassing",
+        "zipcode"
+    }
+  };
+
+  static final int LATEST_VERSION = VERSIONS.length;
+
+  private BinaryCodecDictionary() {}
+
+  /**
+   * This method will provide the entries of a dictionary version, i.e. the entries of all versions
+   * up to and including it.
+   *
+   * @param version Dictionary version, from 1 to {@link #LATEST_VERSION}
+   * @return Entries in index order
+   */
+  static String[] getEntries(int version) {
+    if (version < 1 || version > LATEST_VERSION) {
+      throw new IllegalArgumentException("BinaryCodec: unknown dictionary version " + version);
+    }
+    int size = 0;
+    for (int i = 0; i < version; i++) {
+      size += VERSIONS[i].length;
+    }
+    String[] entries = new String[size];
+    int offset = 0;
+    for (int i = 0; i < version; i++) {
+      System.arraycopy(VERSIONS[i], 0, entries, offset, VERSIONS[i].length);
+      offset += VERSIONS[i].length;
+    }
+    return entries;
+  }
+}
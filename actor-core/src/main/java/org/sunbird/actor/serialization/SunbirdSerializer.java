@@ -0,0 +1,36 @@
+package org.sunbird.actor.serialization;
+
+import akka.serialization.JSerializer;
+
+/**
+ * Akka serializer for messages exchanged between the middleware actor systems. It uses {@link
+ * BinaryCodec} instead of Java serialization for {@link org.sunbird.common.request.Request},
+ * {@link org.sunbird.common.models.response.Response} and {@link
+ * org.sunbird.common.exception.ProjectCommonException}. Enabled for remote mode by setting
+ * sunbird_actor_binary_serialization to true, see {@link
+ * org.sunbird.actor.service.BaseMWService}.
+ */
+public class SunbirdSerializer extends JSerializer {
+
+  private static final int IDENTIFIER = 7301;
+
+  @Override
+  public int identifier() {
+    return IDENTIFIER;
+  }
+
+  @Override
+  public boolean includeManifest() {
+    return false;
+  }
+
+  @Override
+  public byte[] toBinary(Object obj) {
+    return BinaryCodec.encode(obj);
+  }
+
+  @Override
+  public Object fromBinaryJava(byte[] bytes, Class<?> manifest) {
+    return BinaryCodec.decode(bytes);
+  }
+}
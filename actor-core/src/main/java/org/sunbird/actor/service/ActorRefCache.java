@@ -0,0 +1,172 @@
+package org.sunbird.actor.service;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSelection;
+import akka.actor.Props;
+import akka.actor.Terminated;
+import akka.actor.UntypedAbstractActor;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+/**
+ * Cache of the resolved ActorRefs of the remote routers. Every router gets a local proxy actor
+ * which resolves its actor selection in the background, death-watches the resolved ref and
+ * resolves it again once the remote router terminates. Until a ref is resolved the proxy itself is
+ * handed out; it forwards messages through the actor selection keeping their sender, so callers
+ * never wait for a resolution.
+ */
+public class ActorRefCache {
+
+  private static final Map<String, ActorRef> resolved = new ConcurrentHashMap<>();
+  private static final Map<String, ActorRef> proxies = new ConcurrentHashMap<>();
+
+  private ActorRefCache() {}
+
+  /**
+   * This method will provide the ActorRef of a remote router without blocking.
+   *
+   * @param router Router name, RequestRouter or BackgroundRequestRouter
+   * @return Resolved router, its forwarding proxy if not resolved yet, null for unknown routers
+   */
+  public static ActorRef getRouter(String router) {
+    ActorRef ref = resolved.get(router);
+    if (null != ref) {
+      return ref;
+    }
+    ref = proxies.get(router);
+    if (null != ref) {
+      return ref;
+    }
+    ActorSelection selection = BaseMWService.getRemoteRouter(router);
+    if (null == selection) {
+      return null;
+    }
+    return proxies.computeIfAbsent(
+        router,
+        key ->
+            BaseMWService.system.actorOf(
+                Props.create(RemoteRouterProxy.class, key, selection), "remote" + key));
+  }
+
+  /**
+   * This method will send a message to a remote router.
+   *
+   * @param router Router name
+   * @param message Message
+   * @param sender Sender of the message
+   */
+  public static void tell(String router, Object message, ActorRef sender) {
+    ActorRef ref = getRouter(router);
+    if (null != ref) {
+      ref.tell(message, sender);
+    }
+  }
+
+  /** Proxy resolving, watching and forwarding to one remote router. */
+  static class RemoteRouterProxy extends UntypedAbstractActor {
+
+    private static final long RESOLVE_TIMEOUT_SECONDS = 10;
+    private static final long MIN_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30000;
+
+    private final String router;
+    private final ActorSelection selection;
+    private ActorRef target;
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+    RemoteRouterProxy(String router, ActorSelection selection) {
+      this.router = router;
+      this.selection = selection;
+    }
+
+    @Override
+    public void preStart() {
+      resolve();
+    }
+
+    @Override
+    public void onReceive(Object message) {
+      if (message instanceof Resolved) {
+        ActorRef ref = ((Resolved) message).ref;
+        if (!ref.equals(target)) {
+          getContext().watch(ref);
+          target = ref;
+          resolved.put(router, ref);
+          ProjectLogger.log(
+              "ActorRefCache: resolved " + router + " to " + ref.path(), LoggerEnum.INFO.name());
+        }
+        backoffMillis = MIN_BACKOFF_MILLIS;
+      } else if (message instanceof ResolveFailed) {
+        ProjectLogger.log(
+            "ActorRefCache: unable to resolve "
+                + router
+                + ", retrying in "
+                + backoffMillis
+                + " ms "
+                + ((ResolveFailed) message).reason,
+            LoggerEnum.WARN.name());
+        scheduleResolve();
+      } else if (message instanceof Resolve) {
+        resolve();
+      } else if (message instanceof Terminated) {
+        ActorRef ref = ((Terminated) message).getActor();
+        if (ref.equals(target)) {
+          resolved.remove(router, ref);
+          target = null;
+          ProjectLogger.log(
+              "ActorRefCache: " + router + " at " + ref.path() + " terminated",
+              LoggerEnum.WARN.name());
+          scheduleResolve();
+        }
+      } else if (null != target) {
+        target.tell(message, getSender());
+      } else {
+        selection.tell(message, getSender());
+      }
+    }
+
+    private void resolve() {
+      ActorRef self = getSelf();
+      selection
+          .resolveOneCS(Duration.create(RESOLVE_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+          .whenComplete(
+              (ref, failure) ->
+                  self.tell(
+                      null == failure ? new Resolved(ref) : new ResolveFailed(failure.getMessage()),
+                      ActorRef.noSender()));
+    }
+
+    private void scheduleResolve() {
+      FiniteDuration delay = Duration.create(backoffMillis, TimeUnit.MILLISECONDS);
+      getContext()
+          .system()
+          .scheduler()
+          .scheduleOnce(
+              delay, getSelf(), new Resolve(), getContext().dispatcher(), ActorRef.noSender());
+      backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+    }
+  }
+
+  private static class Resolve {}
+
+  private static class Resolved {
+    private final ActorRef ref;
+
+    Resolved(ActorRef ref) {
+      this.ref = ref;
+    }
+  }
+
+  private static class ResolveFailed {
+    private final String reason;
+
+    ResolveFailed(String reason) {
+      this.reason = reason;
+    }
+  }
+}
@@ -0,0 +1,544 @@
+package org.sunbird.actor.service;
+
+import akka.actor.ActorRef;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.actor.router.BackgroundLanes;
+import org.sunbird.actor.router.BackgroundRequestRouter;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.common.request.Request;
+
+/**
+ * Write-ahead log of the requests sent to local background actors, enabled with
+ * sunbird_background_task_log_enabled. A request is appended to a memory-mapped segment and
+ * dispatched only after the segment is forced to disk; forcing is done for all requests appended
+ * within sunbird_background_task_log_sync_interval_millis at once. {@link
+ * org.sunbird.actor.core.BaseActor} acknowledges the request once it has been processed.
+ *
+ * <p>Segments whose requests are all acknowledged are deleted from the head of the log. Once
+ * sunbird_background_task_log_max_segments exist and at most a quarter of the requests of the
+ * oldest segment are pending, they are copied to the active one so it can be deleted. No segment is
+ * added beyond the limit; while the log is full, requests are dispatched without being logged. At
+ * startup the unacknowledged requests of the previous run are appended again and dispatched to
+ * their actors (at-least-once delivery).
+ *
+ * <p>Only requests dispatched to background actors of this node are logged. With the shipped
+ * default background_actor_provider=remote the background actors run in another node and the
+ * requests bypass the log entirely.
+ */
+public class BackgroundTaskLog {
+
+  private static final String DIR_KEY = "sunbird_background_task_log_dir";
+  private static final String SEGMENT_SIZE_KEY = "sunbird_background_task_log_segment_size_mb";
+  private static final String SYNC_INTERVAL_KEY =
+      "sunbird_background_task_log_sync_interval_millis";
+  private static final String MAX_SEGMENTS_KEY = "sunbird_background_task_log_max_segments";
+  private static final String REPLAY_WAIT_KEY = "sunbird_background_task_log_replay_wait_millis";
+  private static final String SEGMENT_SUFFIX = ".wal";
+
+  private static final Object lock = new Object();
+  private static final Object flushLock = new Object();
+  private static volatile String logId;
+  private static volatile boolean started;
+  private static boolean full;
+  private static Path directory;
+  private static int segmentSize;
+  private static int maxSegments;
+  private static long sequence;
+  private static long segmentIndex;
+  private static Deque<LogSegment> segments = new ArrayDeque<>();
+  private static Set<LogSegment> dirty = new LinkedHashSet<>();
+  private static List<Dispatch> pendingDispatch = new ArrayList<>();
+  private static Map<Long, LogSegment> pendingTasks = new ConcurrentHashMap<>();
+  private static ScheduledExecutorService scheduler;
+  private static Thread replayThread;
+  private static final LongAdder appended = new LongAdder();
+  private static final LongAdder acknowledged = new LongAdder();
+  private static final LongAdder replayed = new LongAdder();
+  private static final LongAdder unlogged = new LongAdder();
+  private static final LongAdder syncs = new LongAdder();
+  private static final LatencyHistogram syncLatency = new LatencyHistogram();
+
+  private BackgroundTaskLog() {}
+
+  public static boolean isStarted() {
+    return started;
+  }
+
+  /**
+   * This method will open the log, dispatch the unacknowledged requests of the previous run and
+   * start the periodic sync. Does nothing unless sunbird_background_task_log_enabled is true.
+   */
+  public static void start() {
+    start(PropertiesCache.getInstance()::readProperty);
+  }
+
+  static synchronized void start(Function<String, String> properties) {
+    if (started
+        || !Boolean.parseBoolean(properties.apply(JsonKey.SUNBIRD_BACKGROUND_TASK_LOG_ENABLED))) {
+      return;
+    }
+    directory =
+        Paths.get(StringUtils.defaultIfBlank(properties.apply(DIR_KEY), "background-task-log"));
+    segmentSize =
+        (int) Math.min(Integer.MAX_VALUE, getLongValue(properties, SEGMENT_SIZE_KEY, 64) << 20);
+    maxSegments = (int) Math.max(2, getLongValue(properties, MAX_SEGMENTS_KEY, 4));
+    logId = UUID.randomUUID().toString();
+    List<Path> previous;
+    Map<Long, byte[]> unacknowledged;
+    try {
+      Files.createDirectories(directory);
+      previous = listSegments();
+      unacknowledged = readUnacknowledged(previous);
+      synchronized (lock) {
+        roll();
+      }
+    } catch (IOException e) {
+      ProjectLogger.log(
+          "BackgroundTaskLog:start: unable to open log in " + directory + " " + e.getMessage(), e);
+      return;
+    }
+    long syncInterval = Math.max(1, getLongValue(properties, SYNC_INTERVAL_KEY, 5));
+    long replayWait = getLongValue(properties, REPLAY_WAIT_KEY, 30000);
+    scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "background-task-log");
+              thread.setDaemon(true);
+              return thread;
+            });
+    scheduler.scheduleWithFixedDelay(
+        BackgroundTaskLog::flush, syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+    started = true;
+    ProjectLogger.log(
+        "BackgroundTaskLog:start: log "
+            + directory.toAbsolutePath()
+            + ", "
+            + unacknowledged.size()
+            + " requests to replay",
+        LoggerEnum.INFO.name());
+    replayThread =
+        new Thread(() -> replay(previous, unacknowledged, replayWait), "background-task-replay");
+    replayThread.setDaemon(true);
+    replayThread.start();
+  }
+
+  /**
+   * This method will wait for the replay, sync the log and close it. Requests sent afterwards are
+   * dispatched without being logged until the log is started again.
+   */
+  static synchronized void stop() throws InterruptedException {
+    if (!started) {
+      return;
+    }
+    started = false;
+    replayThread.join();
+    scheduler.shutdown();
+    scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    flush();
+    synchronized (lock) {
+      for (LogSegment segment : segments) {
+        try {
+          segment.close();
+        } catch (IOException e) {
+          ProjectLogger.log("BackgroundTaskLog:stop: unable to close " + segment.getPath(), e);
+        }
+      }
+      segments.clear();
+      dirty.clear();
+      pendingTasks.clear();
+      sequence = 0;
+      segmentIndex = 0;
+      full = false;
+    }
+  }
+
+  /**
+   * This method will append the request to the log and dispatch it to the actor once the log is
+   * synced. If the request can not be logged it is dispatched immediately.
+   *
+   * @param target Background actor
+   * @param request Request
+   * @param sender Sender of the request
+   */
+  public static void tell(ActorRef target, Request request, ActorRef sender) {
+    Dispatch dispatch = new Dispatch(target, request, sender);
+    if (!started || !append(0, request, dispatch)) {
+      unlogged.increment();
+      dispatch.send();
+    }
+  }
+
+  /**
+   * This method will acknowledge a processed request, it is no longer replayed after a restart.
+   *
+   * @param request Processed request
+   */
+  public static void acknowledge(Request request) {
+    if (!started || null == request.getContext()) {
+      return;
+    }
+    Object taskId = request.getContext().get(JsonKey.BACKGROUND_TASK_ID);
+    if (!(taskId instanceof String)) {
+      return;
+    }
+    String id = (String) taskId;
+    if (!id.startsWith(logId)) {
+      return;
+    }
+    long seq = Long.parseLong(id.substring(logId.length() + 1));
+    synchronized (lock) {
+      LogSegment segment = pendingTasks.remove(seq);
+      if (null == segment) {
+        return;
+      }
+      segment.addPending(-1);
+      write(LogSegment.ACK, seq, new byte[0], false);
+    }
+    acknowledged.increment();
+  }
+
+  /**
+   * This method will provide the log metrics: appended, acknowledged, replayed, unlogged and
+   * pending requests, segments and sync latency.
+   *
+   * @return Map<String,Object>
+   */
+  public static Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("started", started);
+    metrics.put("appended", appended.sum());
+    metrics.put("acknowledged", acknowledged.sum());
+    metrics.put("replayed", replayed.sum());
+    metrics.put("unlogged", unlogged.sum());
+    metrics.put("pending", pendingTasks.size());
+    synchronized (lock) {
+      metrics.put("segments", segments.size());
+    }
+    metrics.put("syncs", syncs.sum());
+    metrics.put("syncLatencyMillis", syncLatency.getSummary());
+    return metrics;
+  }
+
+  /**
+   * Appends the request with the given sequence, a new sequence is assigned if it is zero.
+   * Requests replayed from the previous run keep their sequence, so a crash during the replay does
+   * not duplicate them.
+   */
+  private static boolean append(long seq, Request request, Dispatch dispatch) {
+    byte[] payload;
+    try {
+      payload = serialize(request);
+    } catch (IOException e) {
+      ProjectLogger.log("BackgroundTaskLog:append: unable to serialize request", e);
+      return false;
+    }
+    synchronized (lock) {
+      if (seq == 0) {
+        seq = ++sequence;
+      }
+      LogSegment segment = write(LogSegment.TASK, seq, payload, false);
+      if (null == segment) {
+        return false;
+      }
+      segment.addPending(1);
+      pendingTasks.put(seq, segment);
+      if (null == request.getContext()) {
+        request.setContext(new HashMap<>());
+      }
+      request.getContext().put(JsonKey.BACKGROUND_TASK_ID, logId + ":" + seq);
+      if (null != dispatch) {
+        pendingDispatch.add(dispatch);
+      }
+    }
+    appended.increment();
+    return true;
+  }
+
+  /**
+   * Called with the lock held, returns the segment written to or null if the write failed. A new
+   * segment is only added below the segment limit, or one above it while compacting.
+   */
+  private static LogSegment write(byte type, long seq, byte[] payload, boolean compacting) {
+    if (LogSegment.HEADER_SIZE + payload.length + 4 > segmentSize) {
+      ProjectLogger.log(
+          "BackgroundTaskLog:write: request of " + payload.length + " bytes exceeds segment size",
+          LoggerEnum.WARN.name());
+      return null;
+    }
+    LogSegment active = segments.peekLast();
+    try {
+      if (!active.append(type, seq, payload)) {
+        if (segments.size() >= maxSegments + (compacting ? 1 : 0)) {
+          if (!full) {
+            full = true;
+            ProjectLogger.log(
+                "BackgroundTaskLog:write: " + segments.size() + " segments in use, log is full",
+                LoggerEnum.WARN.name());
+          }
+          return null;
+        }
+        active = roll();
+        active.append(type, seq, payload);
+        full = false;
+      }
+    } catch (IOException e) {
+      ProjectLogger.log("BackgroundTaskLog:write: unable to create segment " + e.getMessage(), e);
+      return null;
+    }
+    dirty.add(active);
+    return active;
+  }
+
+  private static LogSegment roll() throws IOException {
+    LogSegment current = segments.peekLast();
+    if (null != current) {
+      current.seal();
+    }
+    Path path = directory.resolve(String.format("%020d%s", ++segmentIndex, SEGMENT_SUFFIX));
+    while (Files.exists(path)) {
+      path = directory.resolve(String.format("%020d%s", ++segmentIndex, SEGMENT_SUFFIX));
+    }
+    LogSegment segment = LogSegment.create(path, segmentSize);
+    segments.addLast(segment);
+    return segment;
+  }
+
+  /** Forces the written segments to disk, dispatches the synced requests and compacts the log. */
+  private static void flush() {
+    synchronized (flushLock) {
+      List<Dispatch> batch;
+      List<LogSegment> toForce;
+      synchronized (lock) {
+        if (dirty.isEmpty() && pendingDispatch.isEmpty()) {
+          return;
+        }
+        batch = pendingDispatch;
+        pendingDispatch = new ArrayList<>();
+        toForce = new ArrayList<>(dirty);
+        dirty.clear();
+      }
+      long start = System.currentTimeMillis();
+      try {
+        for (LogSegment segment : toForce) {
+          segment.force();
+        }
+      } catch (Exception e) {
+        ProjectLogger.log("BackgroundTaskLog:flush: sync failed " + e.getMessage(), e);
+      }
+      syncLatency.record(System.currentTimeMillis() - start);
+      syncs.increment();
+      for (Dispatch dispatch : batch) {
+        dispatch.send();
+      }
+      compact();
+    }
+  }
+
+  private static void compact() {
+    synchronized (lock) {
+      while (segments.size() > 1) {
+        LogSegment head = segments.peekFirst();
+        if (dirty.contains(head)) {
+          return;
+        }
+        if (head.getPending() > 0) {
+          if (segments.size() < maxSegments || head.getPending() * 4 > head.getTasks()) {
+            return;
+          }
+          copyForward(head);
+          if (head.getPending() > 0) {
+            return;
+          }
+        }
+        segments.pollFirst();
+        try {
+          head.delete();
+        } catch (IOException e) {
+          ProjectLogger.log(
+              "BackgroundTaskLog:compact: unable to delete " + head.getPath() + e.getMessage(), e);
+        }
+      }
+    }
+  }
+
+  /** Called with the lock held, copies the pending requests of the segment to the active one. */
+  private static void copyForward(LogSegment head) {
+    for (LogSegment.Record record : head.read()) {
+      if (record.type == LogSegment.TASK && pendingTasks.get(record.sequence) == head) {
+        LogSegment segment = write(LogSegment.TASK, record.sequence, record.payload, true);
+        if (null != segment) {
+          head.addPending(-1);
+          segment.addPending(1);
+          pendingTasks.put(record.sequence, segment);
+        }
+      }
+    }
+    LogSegment active = segments.peekLast();
+    dirty.remove(active);
+    active.force();
+  }
+
+  private static List<Path> listSegments() throws IOException {
+    List<Path> paths = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path path : stream) {
+        paths.add(path);
+      }
+    }
+    paths.sort(null);
+    for (Path path : paths) {
+      String name = path.getFileName().toString();
+      segmentIndex =
+          Math.max(
+              segmentIndex,
+              Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+    }
+    return paths;
+  }
+
+  private static Map<Long, byte[]> readUnacknowledged(List<Path> paths) throws IOException {
+    Map<Long, byte[]> tasks = new LinkedHashMap<>();
+    for (Path path : paths) {
+      LogSegment segment = LogSegment.open(path);
+      try {
+        for (LogSegment.Record record : segment.read()) {
+          if (record.type == LogSegment.TASK) {
+            tasks.putIfAbsent(record.sequence, record.payload);
+          } else {
+            tasks.remove(record.sequence);
+          }
+          sequence = Math.max(sequence, record.sequence);
+        }
+      } finally {
+        segment.close();
+      }
+    }
+    return tasks;
+  }
+
+  /**
+   * Appends the unacknowledged requests of the previous run again and deletes its segments. The
+   * requests are dispatched as soon as the actor of their operation is registered; requests whose
+   * actor is not available within sunbird_background_task_log_replay_wait_millis are kept in the
+   * log for the next start.
+   */
+  private static void replay(
+      List<Path> previous, Map<Long, byte[]> unacknowledged, long replayWait) {
+    long deadline = System.currentTimeMillis() + replayWait;
+    for (Map.Entry<Long, byte[]> task : unacknowledged.entrySet()) {
+      Request request;
+      try {
+        request = deserialize(task.getValue());
+      } catch (IOException | ClassNotFoundException e) {
+        ProjectLogger.log("BackgroundTaskLog:replay: skipping unreadable request", e);
+        continue;
+      }
+      ActorRef target = waitForActor(request.getOperation(), deadline);
+      if (null == target) {
+        ProjectLogger.log(
+            "BackgroundTaskLog:replay: no actor for " + request.getOperation() + ", kept in log",
+            LoggerEnum.WARN.name());
+      }
+      if (append(
+          task.getKey(), request, null == target ? null : new Dispatch(target, request, null))) {
+        replayed.increment();
+      }
+    }
+    flush();
+    for (Path path : previous) {
+      try {
+        Files.deleteIfExists(path);
+      } catch (IOException e) {
+        ProjectLogger.log("BackgroundTaskLog:replay: unable to delete " + path, e);
+      }
+    }
+  }
+
+  private static ActorRef waitForActor(String operation, long deadline) {
+    ActorRef actor = BackgroundRequestRouter.getActor(operation);
+    while (null == actor && System.currentTimeMillis() < deadline) {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return null;
+      }
+      actor = BackgroundRequestRouter.getActor(operation);
+    }
+    return actor;
+  }
+
+  private static byte[] serialize(Request request) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(request);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Request deserialize(byte[] payload) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+      return (Request) in.readObject();
+    }
+  }
+
+  private static long getLongValue(
+      Function<String, String> properties, String key, long defaultValue) {
+    String value = properties.apply(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "BackgroundTaskLog: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
+  private static class Dispatch {
+    private final ActorRef target;
+    private final Request request;
+    private final ActorRef sender;
+
+    Dispatch(ActorRef target, Request request, ActorRef sender) {
+      this.target = target;
+      this.request = request;
+      this.sender = sender;
+    }
+
+    void send() {
+      BackgroundLanes.tell(target, request, null == sender ? ActorRef.noSender() : sender);
+    }
+  }
+}
@@ -3,6 +3,7 @@ package org.sunbird.actor.service;
 import akka.actor.ActorRef;
 import akka.actor.ActorSelection;
 import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
 import akka.actor.Props;
 import akka.routing.FromConfig;
 import com.typesafe.config.Config;
@@ -12,10 +13,18 @@ import java.util.Arrays;
 import java.util.List;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.actor.core.RouterMode;
+import org.sunbird.actor.router.BackgroundDeadLetterListener;
+import org.sunbird.actor.router.BackgroundPriorityMailbox;
 import org.sunbird.actor.router.BackgroundRequestRouter;
 import org.sunbird.actor.router.RequestRouter;
+import org.sunbird.actor.serialization.SunbirdSerializer;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.request.Request;
 
 /** @author Mahesh Kumar Gangula */
 public class BaseMWService {
@@ -27,6 +36,9 @@ public class BaseMWService {
   protected static String name = "SunbirdMWSystem";
   protected static ActorRef requestRouter;
   protected static ActorRef bgRequestRouter;
+  private static final Class<?>[] SERIALIZED_TYPES = {
+    Request.class, Response.class, ProjectCommonException.class
+  };
 
   protected static String getMode() {
     if (StringUtils.isBlank(actorMode)) {
@@ -42,14 +54,14 @@ public class BaseMWService {
   public static Object getRequestRouter() {
     if (null != requestRouter) return requestRouter;
     else {
-      return getRemoteRouter(RequestRouter.class.getSimpleName());
+      return ActorRefCache.getRouter(RequestRouter.class.getSimpleName());
     }
   }
 
   public static Object getBackgroundRequestRouter() {
     if (null != bgRequestRouter) return bgRequestRouter;
     else {
-      return getRemoteRouter(BackgroundRequestRouter.class.getSimpleName());
+      return ActorRefCache.getRouter(BackgroundRequestRouter.class.getSimpleName());
     }
   }
 
@@ -75,6 +87,7 @@ public class BaseMWService {
       } else {
         conf = config.getConfig(name);
       }
+      conf = conf.withFallback(getMailboxConfig());
       ProjectLogger.log("ActorSystem starting with mode: " + getMode(), LoggerEnum.INFO.name());
       system = ActorSystem.create(name, conf);
     }
@@ -87,7 +100,32 @@ public class BaseMWService {
     details.add("akka.remote.enabled-transports = [\"akka.remote.netty.tcp\"]");
     if (StringUtils.isNotBlank(host)) details.add("akka.remote.netty.tcp.hostname=" + host);
     if (StringUtils.isNotBlank(port)) details.add("akka.remote.netty.tcp.port=" + port);
+    if (Boolean.parseBoolean(
+        PropertiesCache.getInstance().readProperty(JsonKey.SUNBIRD_ACTOR_BINARY_SERIALIZATION))) {
+      details.add("akka.actor.serializers.sunbird = \"" + SunbirdSerializer.class.getName() + "\"");
+      for (Class<?> type : SERIALIZED_TYPES) {
+        details.add("akka.actor.serialization-bindings.\"" + type.getName() + "\" = sunbird");
+      }
+    }
+
+    return ConfigFactory.parseString(StringUtils.join(details, ","));
+  }
 
+  /** Default definition of the background mailbox, can be overridden in the actor system config. */
+  protected static Config getMailboxConfig() {
+    String capacity =
+        PropertiesCache.getInstance().readProperty(JsonKey.BACKGROUND_ROUTER_MAILBOX_CAPACITY);
+    List<String> details = new ArrayList<String>();
+    details.add(
+        BackgroundPriorityMailbox.MAILBOX_ID
+            + ".mailbox-type = \""
+            + BackgroundPriorityMailbox.class.getName()
+            + "\"");
+    details.add(
+        BackgroundPriorityMailbox.MAILBOX_ID
+            + ".mailbox-capacity = "
+            + (StringUtils.isNumeric(capacity) ? capacity : "100000"));
+    details.add(BackgroundPriorityMailbox.MAILBOX_ID + ".mailbox-push-timeout-time = 0s");
     return ConfigFactory.parseString(StringUtils.join(details, ","));
   }
 
@@ -108,8 +146,17 @@ public class BaseMWService {
           system.actorOf(
               FromConfig.getInstance()
                   .props(
-                      Props.create(BackgroundRequestRouter.class).withDispatcher("brr-dispatcher")),
+                      Props.create(BackgroundRequestRouter.class)
+                          .withDispatcher("brr-dispatcher")
+                          .withMailbox(BackgroundPriorityMailbox.MAILBOX_ID)),
               BackgroundRequestRouter.class.getSimpleName());
+      system
+          .eventStream()
+          .subscribe(
+              system.actorOf(
+                  Props.create(BackgroundDeadLetterListener.class),
+                  BackgroundDeadLetterListener.class.getSimpleName()),
+              DeadLetter.class);
     }
   }
 }
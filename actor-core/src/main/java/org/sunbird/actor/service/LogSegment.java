@@ -0,0 +1,204 @@
+package org.sunbird.actor.service;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Memory-mapped segment file of the {@link BackgroundTaskLog}. Records are written as body
+ * length, type, sequence, CRC32 and payload. The length is written last, so a reader stops at the
+ * first record which is incomplete or fails the checksum. A closed segment must not be used any
+ * more, its mapping is released immediately.
+ */
+class LogSegment {
+
+  static final byte TASK = 1;
+  static final byte ACK = 2;
+  static final int HEADER_SIZE = 4 + 1 + 8 + 4;
+
+  private final Path path;
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private int position;
+  private int pending;
+  private int tasks;
+  private boolean sealed;
+
+  private LogSegment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  static LogSegment create(Path path, int size) throws IOException {
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    return new LogSegment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+  }
+
+  static LogSegment open(Path path) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    return new LogSegment(
+        path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+  }
+
+  Path getPath() {
+    return path;
+  }
+
+  /**
+   * This method will append a record.
+   *
+   * @return false if the segment has no space left for the record
+   */
+  boolean append(byte type, long sequence, byte[] payload) {
+    int length = HEADER_SIZE - 4 + payload.length;
+    if (position + 4 + length + 4 > buffer.capacity()) {
+      return false;
+    }
+    buffer.put(position + 4, type);
+    buffer.putLong(position + 5, sequence);
+    buffer.putInt(position + 13, checksum(type, sequence, payload));
+    ByteBuffer target = buffer.duplicate();
+    target.position(position + HEADER_SIZE);
+    target.put(payload);
+    buffer.putInt(position, length);
+    position += 4 + length;
+    return true;
+  }
+
+  /**
+   * This method will read all valid records of the segment.
+   *
+   * @return List of records in write order
+   */
+  List<Record> read() {
+    List<Record> records = new ArrayList<>();
+    int offset = 0;
+    while (offset + HEADER_SIZE <= buffer.capacity()) {
+      int length = buffer.getInt(offset);
+      if (length < HEADER_SIZE - 4 || offset + 4 + length > buffer.capacity()) {
+        break;
+      }
+      byte type = buffer.get(offset + 4);
+      long sequence = buffer.getLong(offset + 5);
+      int crc = buffer.getInt(offset + 13);
+      byte[] payload = new byte[length - HEADER_SIZE + 4];
+      ByteBuffer source = buffer.duplicate();
+      source.position(offset + HEADER_SIZE);
+      source.get(payload);
+      if (crc != checksum(type, sequence, payload)) {
+        break;
+      }
+      records.add(new Record(type, sequence, payload));
+      offset += 4 + length;
+    }
+    return records;
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  int getPending() {
+    return pending;
+  }
+
+  void addPending(int delta) {
+    pending += delta;
+    if (delta > 0) {
+      tasks += delta;
+    }
+  }
+
+  int getTasks() {
+    return tasks;
+  }
+
+  boolean isSealed() {
+    return sealed;
+  }
+
+  void seal() {
+    sealed = true;
+  }
+
+  void close() throws IOException {
+    unmap(buffer);
+    channel.close();
+  }
+
+  void delete() throws IOException {
+    close();
+    Files.deleteIfExists(path);
+  }
+
+  /**
+   * Releases the mapping now instead of when the buffer is garbage collected, otherwise deleted
+   * segments keep their disk space (and can not be deleted at all on Windows) until then.
+   */
+  private static void unmap(MappedByteBuffer buffer) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      try {
+        // Java 9 and later
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        return;
+      } catch (NoSuchMethodException e) {
+        // Java 8, the cleaner of the buffer is used below
+      }
+      Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+      cleanerMethod.setAccessible(true);
+      Object cleaner = cleanerMethod.invoke(buffer);
+      if (null != cleaner) {
+        Method clean = cleaner.getClass().getMethod("clean");
+        clean.setAccessible(true);
+        clean.invoke(cleaner);
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "LogSegment:unmap: mapping released on garbage collection " + e.getMessage(),
+          LoggerEnum.DEBUG.name());
+    }
+  }
+
+  private static int checksum(byte type, long sequence, byte[] payload) {
+    CRC32 crc = new CRC32();
+    crc.update(type);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      crc.update((int) (sequence >>> shift));
+    }
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+
+  static class Record {
+    final byte type;
+    final long sequence;
+    final byte[] payload;
+
+    Record(byte type, long sequence, byte[] payload) {
+      this.type = type;
+      this.sequence = sequence;
+      this.payload = payload;
+    }
+  }
+}
@@ -1,7 +1,7 @@
 package org.sunbird.actor.service;
 
 import akka.actor.ActorRef;
-import akka.actor.ActorSelection;
+import org.sunbird.actor.router.BackgroundLanes;
 import org.sunbird.actor.router.BackgroundRequestRouter;
 import org.sunbird.actor.router.RequestRouter;
 import org.sunbird.common.models.util.JsonKey;
@@ -15,14 +15,14 @@ public class SunbirdMWService extends BaseMWService {
     String port = System.getenv(JsonKey.MW_SYSTEM_PORT);
     getActorSystem(host, port);
     initRouters();
+    BackgroundTaskLog.start();
   }
 
   public static void tellToRequestRouter(Request request, ActorRef sender) {
     String operation = request.getOperation();
     ActorRef actor = RequestRouter.getActor(operation);
     if (null == actor) {
-      ActorSelection select = getRemoteRouter(RequestRouter.class.getSimpleName());
-      select.tell(request, sender);
+      ActorRefCache.tell(RequestRouter.class.getSimpleName(), request, sender);
     } else {
       actor.tell(request, sender);
     }
@@ -32,10 +32,11 @@ public class SunbirdMWService extends BaseMWService {
     String operation = request.getOperation();
     ActorRef actor = BackgroundRequestRouter.getActor(operation);
     if (null == actor) {
-      ActorSelection select = getRemoteRouter(BackgroundRequestRouter.class.getSimpleName());
-      select.tell(request, sender);
+      ActorRefCache.tell(BackgroundRequestRouter.class.getSimpleName(), request, sender);
+    } else if (BackgroundTaskLog.isStarted()) {
+      BackgroundTaskLog.tell(actor, request, sender);
     } else {
-      actor.tell(request, sender);
+      BackgroundLanes.tell(actor, request, sender);
     }
   }
 }
@@ -0,0 +1,116 @@
+package org.sunbird.actor.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ActorIndexProcessorTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testIndexListsConcreteAnnotatedActors() throws IOException {
+    File classes = folder.newFolder("classes");
+    compile(
+        classes,
+        true,
+        actor("EchoActor", true, false),
+        actor("AbstractActor", true, true),
+        actor("PlainActor", false, false),
+        "package fixture;\n"
+            + "public class Outer {\n"
+            + "  @org.sunbird.actor.router.ActorConfig(tasks = {\"inner\"}, asyncTasks = {})\n"
+            + "  public static class InnerActor extends org.sunbird.actor.core.BaseActor {\n"
+            + "    public void onReceive(org.sunbird.common.request.Request request) {}\n"
+            + "  }\n"
+            + "}\n",
+        "package fixture;\n"
+            + "@org.sunbird.actor.router.ActorConfig(tasks = {\"x\"}, asyncTasks = {})\n"
+            + "public class NotAnActor {}\n");
+    assertEquals(
+        Arrays.asList("fixture.EchoActor", "fixture.Outer$InnerActor"), readIndex(classes));
+  }
+
+  @Test
+  public void testIncrementalBuildPrunesRemovedActors() throws IOException {
+    File classes = folder.newFolder("classes");
+    compile(
+        classes,
+        true,
+        actor("EchoActor", true, false),
+        actor("DeletedActor", true, false),
+        actor("UnannotatedActor", true, false));
+    assertEquals(
+        Arrays.asList("fixture.DeletedActor", "fixture.EchoActor", "fixture.UnannotatedActor"),
+        readIndex(classes));
+
+    assertTrue(new File(classes, "fixture/DeletedActor.class").delete());
+    compile(classes, true, actor("UnannotatedActor", false, false), actor("NewActor", true, false));
+    assertEquals(Arrays.asList("fixture.EchoActor", "fixture.NewActor"), readIndex(classes));
+  }
+
+  /** Source of an actor in the fixture package. */
+  static String actor(String name, boolean annotated, boolean isAbstract) {
+    return "package fixture;\n"
+        + (annotated
+            ? "@org.sunbird.actor.router.ActorConfig(tasks = {\"" + name + "\"}, asyncTasks = {})\n"
+            : "")
+        + "public "
+        + (isAbstract ? "abstract " : "")
+        + "class "
+        + name
+        + " extends org.sunbird.actor.core.BaseActor {\n"
+        + "  public void onReceive(org.sunbird.common.request.Request request) {}\n"
+        + "}\n";
+  }
+
+  /**
+   * Compiles the sources into the directory, which is also on the classpath like the output of an
+   * incremental build.
+   */
+  static void compile(File classes, boolean index, String... sources) throws IOException {
+    File sourceDir = Files.createTempDirectory(classes.getParentFile().toPath(), "src").toFile();
+    List<String> args = new ArrayList<>();
+    args.add("-d");
+    args.add(classes.getPath());
+    args.add("-classpath");
+    args.add(classes.getPath() + File.pathSeparator + getTestClasspath());
+    args.add(index ? "-processor" : "-proc:none");
+    if (index) {
+      args.add(ActorIndexProcessor.class.getName());
+    }
+    for (String source : sources) {
+      String className = source.replaceFirst("(?s).*?public (abstract )?class (\\w+).*", "$2");
+      File file = new File(sourceDir, "fixture/" + className + ".java");
+      file.getParentFile().mkdirs();
+      try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+        writer.write(source);
+      }
+      args.add(file.getPath());
+    }
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    assertEquals(0, compiler.run(null, null, null, args.toArray(new String[args.size()])));
+  }
+
+  private static String getTestClasspath() {
+    return System.getProperty("surefire.test.class.path", System.getProperty("java.class.path"));
+  }
+
+  private static List<String> readIndex(File classes) throws IOException {
+    return Files.readAllLines(
+        new File(classes, ActorIndex.INDEX_LOCATION).toPath(), StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,67 @@
+package org.sunbird.actor.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.sunbird.actor.core.ActorIndexProcessorTest.actor;
+import static org.sunbird.actor.core.ActorIndexProcessorTest.compile;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ActorIndexTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testNoScanWhenIndexIsPresent() throws IOException {
+    File indexed = folder.newFolder("indexed");
+    // UnlistedActor is not in the index, it is only found if the indexed root is scanned
+    compile(indexed, true, actor("EchoActor", true, false), actor("UnlistedActor", false, false));
+    File unindexed = folder.newFolder("unindexed");
+    compile(unindexed, false, actor("ScannedActor", true, false));
+
+    assertEquals(new TreeSet<>(Arrays.asList("fixture.EchoActor")), findActors(indexed, unindexed));
+  }
+
+  @Test
+  public void testClasspathIsScannedWithoutIndex() throws IOException {
+    File unindexed = folder.newFolder("unindexed");
+    compile(unindexed, false, actor("ScannedActor", true, false));
+
+    assertEquals(new TreeSet<>(Arrays.asList("fixture.ScannedActor")), findActors(unindexed));
+  }
+
+  @Test
+  public void testRootWithInvalidIndexIsScanned() throws IOException {
+    File classes = folder.newFolder("classes");
+    compile(classes, false, actor("EchoActor", true, false));
+    File index = new File(classes, ActorIndex.INDEX_LOCATION);
+    index.getParentFile().mkdirs();
+    Files.write(index.toPath(), "fixture.MissingActor\n".getBytes(StandardCharsets.UTF_8));
+
+    assertEquals(new TreeSet<>(Arrays.asList("fixture.EchoActor")), findActors(classes));
+  }
+
+  private Set<String> findActors(File... roots) throws IOException {
+    URL[] urls = new URL[roots.length];
+    for (int i = 0; i < roots.length; i++) {
+      urls[i] = roots[i].toURI().toURL();
+    }
+    Set<String> names = new TreeSet<>();
+    try (URLClassLoader classLoader = new URLClassLoader(urls, getClass().getClassLoader())) {
+      for (Class<? extends BaseActor> actor : ActorIndex.findActors(classLoader, "fixture")) {
+        names.add(actor.getName());
+      }
+    }
+    return names;
+  }
+}
@@ -0,0 +1,96 @@
+package org.sunbird.actor.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.common.models.util.concurrent.BlockingExecutors;
+import org.sunbird.common.models.util.concurrent.BlockingExecutors.Backend;
+
+/**
+ * Latency of a fast HTTP call while a slow Cassandra keeps 64 calls of 50 ms outstanding. With
+ * "shared" both run on one pool of 16 threads, as on the actor dispatcher; with "isolated" they run
+ * on the {@link BlockingExecutors} of their backends. Not a unit test, run it after mvn
+ * test-compile with the test classpath: java -cp &lt;test classpath&gt; org.openjdk.jmh.Main
+ * BlockingIsolationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BlockingIsolationBenchmark {
+
+  private static final int SLOW_CALLS = 64;
+  private static final long SLOW_CALL_MILLIS = 50;
+
+  @Param({"shared", "isolated"})
+  public String mode;
+
+  private ExecutorService shared;
+  private volatile boolean running;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    shared = Executors.newFixedThreadPool(16);
+    running = true;
+    for (int i = 0; i < SLOW_CALLS; i++) {
+      slowCall();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    running = false;
+    shared.shutdownNow();
+  }
+
+  @Benchmark
+  public Object fastCall() {
+    return submit(Backend.HTTP, () -> Boolean.TRUE).join();
+  }
+
+  private void slowCall() {
+    if (!running) {
+      return;
+    }
+    submit(
+            Backend.CASSANDRA,
+            () -> {
+              Thread.sleep(SLOW_CALL_MILLIS);
+              return Boolean.TRUE;
+            })
+        .whenComplete((result, e) -> slowCall());
+  }
+
+  private <T> CompletableFuture<T> submit(Backend backend, Callable<T> call) {
+    if ("isolated".equals(mode)) {
+      return BlockingExecutors.supply(backend, call);
+    }
+    CompletableFuture<T> future = new CompletableFuture<>();
+    shared.execute(
+        () -> {
+          try {
+            future.complete(call.call());
+          } catch (Exception e) {
+            future.completeExceptionally(e);
+          }
+        });
+    return future;
+  }
+}
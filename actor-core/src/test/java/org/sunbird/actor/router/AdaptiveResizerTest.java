@@ -0,0 +1,102 @@
+package org.sunbird.actor.router;
+
+import static org.junit.Assert.assertEquals;
+
+import akka.actor.ActorRef;
+import akka.routing.Routee;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.actor.core.ActorLoad;
+import scala.collection.JavaConversions;
+import scala.collection.immutable.IndexedSeq;
+
+public class AdaptiveResizerTest {
+
+  private final Map<Routee, Integer> queued = new HashMap<>();
+
+  @Test
+  public void testGrowsByAFifthUnderMailboxPressure() {
+    AdaptiveResizer resizer = createResizer("pressure", 1, 20);
+    assertEquals(1, resizer.resize(createRoutees(5, 4)));
+    assertEquals(2, resizer.resize(createRoutees(10, 10)));
+    // below the pressure ratio and without slow processing the pool is kept
+    assertEquals(0, resizer.resize(createRoutees(10, 7)));
+    // growth stops at the upper bound
+    assertEquals(1, resizer.resize(createRoutees(19, 19)));
+    assertEquals(0, resizer.resize(createRoutees(20, 20)));
+  }
+
+  @Test
+  public void testGrowsWhenProcessingIsSlow() {
+    ActorLoad load = ActorLoad.get("AdaptiveResizerTest-slow");
+    AdaptiveResizer resizer = new AdaptiveResizer("slow", 1, 20, 1000, load, this::getQueued);
+    for (int i = 0; i < 10; i++) {
+      load.record(2000);
+    }
+    assertEquals(2, resizer.resize(createRoutees(10, 1)));
+    // only the requests processed since the last check count
+    for (int i = 0; i < 10; i++) {
+      load.record(10);
+    }
+    assertEquals(0, resizer.resize(createRoutees(12, 1)));
+  }
+
+  @Test
+  public void testShrinksByATenthAfterThreeIdleChecks() {
+    AdaptiveResizer resizer = createResizer("idle", 5, 20);
+    assertEquals(0, resizer.resize(createRoutees(20, 0)));
+    assertEquals(0, resizer.resize(createRoutees(20, 0)));
+    assertEquals(-2, resizer.resize(createRoutees(20, 0)));
+    // a pressured check restarts the idle count
+    assertEquals(0, resizer.resize(createRoutees(18, 0)));
+    assertEquals(0, resizer.resize(createRoutees(18, 1)));
+    assertEquals(0, resizer.resize(createRoutees(18, 0)));
+    assertEquals(0, resizer.resize(createRoutees(18, 0)));
+    assertEquals(-1, resizer.resize(createRoutees(18, 0)));
+    // shrinking stops at the lower bound
+    for (int i = 0; i < 2; i++) {
+      resizer.resize(createRoutees(5, 0));
+    }
+    assertEquals(0, resizer.resize(createRoutees(5, 0)));
+  }
+
+  @Test
+  public void testPoolIsMovedIntoBounds() {
+    AdaptiveResizer resizer = createResizer("bounds", 4, 8);
+    assertEquals(3, resizer.resize(createRoutees(1, 0)));
+    assertEquals(-4, resizer.resize(createRoutees(12, 12)));
+  }
+
+  private AdaptiveResizer createResizer(String actor, int lowerBound, int upperBound) {
+    return new AdaptiveResizer(
+        actor,
+        lowerBound,
+        upperBound,
+        1000,
+        ActorLoad.get("AdaptiveResizerTest-" + actor),
+        this::getQueued);
+  }
+
+  /** Routees of which the first pressured ones have a queued message. */
+  private IndexedSeq<Routee> createRoutees(int size, int pressured) {
+    List<Routee> routees = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      Routee routee = new TestRoutee();
+      queued.put(routee, i < pressured ? 1 : 0);
+      routees.add(routee);
+    }
+    return JavaConversions.asScalaBuffer(routees).toIndexedSeq();
+  }
+
+  private int getQueued(Routee routee) {
+    return queued.get(routee);
+  }
+
+  private static class TestRoutee implements Routee {
+    @Override
+    public void send(Object message, ActorRef sender) {}
+  }
+}
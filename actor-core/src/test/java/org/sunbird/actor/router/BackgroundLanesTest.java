@@ -0,0 +1,147 @@
+package org.sunbird.actor.router;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.DeadLetter;
+import akka.actor.Props;
+import akka.actor.UntypedAbstractActor;
+import akka.testkit.TestKit;
+import akka.testkit.TestProbe;
+import com.typesafe.config.ConfigFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.actor.router.BackgroundLane.Submission;
+import org.sunbird.common.request.Request;
+import scala.concurrent.duration.Duration;
+
+public class BackgroundLanesTest {
+
+  private static ActorSystem system;
+
+  @BeforeClass
+  public static void setUp() {
+    system =
+        ActorSystem.create(
+            "BackgroundLanesTest",
+            ConfigFactory.parseString(
+                BackgroundPriorityMailbox.MAILBOX_ID
+                    + " {mailbox-type = \""
+                    + BackgroundPriorityMailbox.class.getName()
+                    + "\", mailbox-capacity = 2, mailbox-push-timeout-time = 0s}"));
+    system
+        .eventStream()
+        .subscribe(
+            system.actorOf(Props.create(BackgroundDeadLetterListener.class)), DeadLetter.class);
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    TestKit.shutdownActorSystem(system, Duration.create(10, TimeUnit.SECONDS), false);
+  }
+
+  @Test
+  public void testOperationsAreAssignedToConfiguredLanes() {
+    assertEquals("high", BackgroundLanes.getLane("processAuditLog").getName());
+    assertEquals("bulk", BackgroundLanes.getLane("processBulkUpload").getName());
+    assertEquals("default", BackgroundLanes.getLane("unknownOperation").getName());
+    assertEquals("default", BackgroundLanes.getLane(null).getName());
+    assertTrue(
+        BackgroundLanes.getPriority(request("processAuditLog"))
+            < BackgroundLanes.getPriority(request("unknownOperation")));
+    assertTrue(
+        BackgroundLanes.getPriority(request("unknownOperation"))
+            < BackgroundLanes.getPriority(request("processBulkUpload")));
+  }
+
+  @Test
+  public void testTokenBucketLimitsRate() throws InterruptedException {
+    TestProbe target = new TestProbe(system);
+    BackgroundLane lane = new BackgroundLane("test", 0, 10, 2);
+    assertEquals(Submission.FORWARDED, lane.submit(target.ref(), request("a"), target.ref()));
+    assertEquals(Submission.FORWARDED, lane.submit(target.ref(), request("b"), target.ref()));
+    assertEquals(Submission.QUEUED, lane.submit(target.ref(), request("c"), target.ref()));
+    assertEquals(1, lane.getQueueDepth());
+
+    long next = lane.drain();
+    assertTrue("next permit in " + next + " ms", next > 0 && next <= 500);
+    assertEquals(1, lane.getQueueDepth());
+    Thread.sleep(next + 20);
+    assertEquals(-1, lane.drain());
+    assertEquals(0, lane.getQueueDepth());
+    assertEquals(3, lane.getForwarded());
+    assertEquals("a", target.expectMsgClass(Request.class).getOperation());
+    assertEquals("b", target.expectMsgClass(Request.class).getOperation());
+    assertEquals("c", target.expectMsgClass(Request.class).getOperation());
+  }
+
+  @Test
+  public void testFullLaneDropsRequests() {
+    TestProbe target = new TestProbe(system);
+    BackgroundLane lane = new BackgroundLane("test", 0, 1, 1);
+    assertEquals(Submission.FORWARDED, lane.submit(target.ref(), request("a"), target.ref()));
+    assertEquals(Submission.QUEUED, lane.submit(target.ref(), request("b"), target.ref()));
+    assertEquals(Submission.DROPPED, lane.submit(target.ref(), request("c"), target.ref()));
+    assertEquals(1, lane.getDropped());
+    assertEquals(1L, lane.getMetrics().get("dropped"));
+  }
+
+  @Test
+  public void testMailboxServesHigherLanesFirstAndCountsOverflow() throws Exception {
+    TestProbe probe = new TestProbe(system);
+    CountDownLatch release = new CountDownLatch(1);
+    ActorRef actor =
+        system.actorOf(
+            Props.create(BlockingActor.class, probe.ref(), release)
+                .withMailbox(BackgroundPriorityMailbox.MAILBOX_ID),
+            BackgroundRequestRouter.class.getSimpleName());
+    actor.tell(request("block"), ActorRef.noSender());
+    assertEquals("block", probe.expectMsgClass(String.class));
+
+    BackgroundLane defaultLane = BackgroundLanes.getLane("unknownOperation");
+    long deadLetters = defaultLane.getDeadLetters();
+    actor.tell(request("processBulkUpload"), ActorRef.noSender());
+    actor.tell(request("processAuditLog"), ActorRef.noSender());
+    // the mailbox holds two requests, the third goes to the dead letters
+    actor.tell(request("unknownOperation"), ActorRef.noSender());
+    release.countDown();
+
+    assertEquals("processAuditLog", probe.expectMsgClass(String.class));
+    assertEquals("processBulkUpload", probe.expectMsgClass(String.class));
+    probe.expectNoMsg(Duration.create(200, TimeUnit.MILLISECONDS));
+    // dead letters reach the listener through the event stream
+    long deadline = System.currentTimeMillis() + 5000;
+    while (defaultLane.getDeadLetters() == deadLetters && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(deadLetters + 1, defaultLane.getDeadLetters());
+  }
+
+  private static Request request(String operation) {
+    Request request = new Request();
+    request.setOperation(operation);
+    return request;
+  }
+
+  /** Reports the operations it receives, the first one is held until released. */
+  public static class BlockingActor extends UntypedAbstractActor {
+    private final ActorRef probe;
+    private final CountDownLatch release;
+
+    public BlockingActor(ActorRef probe, CountDownLatch release) {
+      this.probe = probe;
+      this.release = release;
+    }
+
+    @Override
+    public void onReceive(Object message) throws Exception {
+      probe.tell(((Request) message).getOperation(), self());
+      release.await(10, TimeUnit.SECONDS);
+    }
+  }
+}
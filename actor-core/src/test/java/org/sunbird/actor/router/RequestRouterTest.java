@@ -0,0 +1,144 @@
+package org.sunbird.actor.router;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import akka.actor.ActorSystem;
+import akka.pattern.AskTimeoutException;
+import akka.testkit.TestKit;
+import akka.testkit.TestProbe;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
+import scala.concurrent.Await;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.Future;
+import scala.concurrent.duration.Duration;
+
+public class RequestRouterTest {
+
+  private static ActorSystem system;
+
+  @BeforeClass
+  public static void setUp() {
+    system = ActorSystem.create("RequestRouterTest");
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    TestKit.shutdownActorSystem(system, Duration.create(10, TimeUnit.SECONDS), false);
+  }
+
+  @Test
+  public void testLimitsFromConfigOverrideActorConfig() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("request_router_timeout_millis", "5000");
+    properties.put("request_router_max_in_flight", "100");
+    properties.put("request_router_max_in_flight_readUser", "7");
+    ActorConfig config = Configured.class.getAnnotation(ActorConfig.class);
+
+    OperationLimiter limiter = RequestRouter.createLimiter("readUser", config, properties::get);
+    assertEquals(2000, limiter.getTimeoutMillis());
+    assertEquals(7, limiter.getMaxInFlight());
+
+    limiter = RequestRouter.createLimiter("createUser", config, properties::get);
+    assertEquals(2000, limiter.getTimeoutMillis());
+    assertEquals(3, limiter.getMaxInFlight());
+
+    limiter = RequestRouter.createLimiter("updateUser", null, properties::get);
+    assertEquals(5000, limiter.getTimeoutMillis());
+    assertEquals(100, limiter.getMaxInFlight());
+  }
+
+  @Test
+  public void testTimeoutIsClampedAndLimitUnboundedByDefault() {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("request_router_timeout_millis_slowOperation", "60000");
+    OperationLimiter limiter = RequestRouter.createLimiter("slowOperation", null, properties::get);
+    assertEquals(9000, limiter.getTimeoutMillis());
+    assertEquals(0, limiter.getMaxInFlight());
+  }
+
+  @Test
+  public void testSaturatedOperationIsRejectedWithServiceBusy() throws Exception {
+    OperationLimiter limiter = new OperationLimiter("busyOperation", 5000, 1);
+    TestProbe actor = new TestProbe(system);
+    Future<Object> first = ask(actor, limiter, 60000);
+    Future<Object> second = ask(actor, limiter, 60000);
+    try {
+      Await.result(second, Duration.create(1, TimeUnit.SECONDS));
+      throw new AssertionError("saturated operation accepted");
+    } catch (ProjectCommonException e) {
+      assertEquals(ResponseCode.serviceBusy.getErrorCode(), e.getCode());
+      assertEquals(ResponseCode.TOO_MANY_REQUESTS.getResponseCode(), e.getResponseCode());
+    }
+    assertEquals(1L, limiter.getMetrics().get("rejected"));
+
+    actor.expectMsgClass(Request.class);
+    actor.reply("done");
+    assertEquals("done", Await.result(first, Duration.create(5, TimeUnit.SECONDS)));
+    awaitInFlight(limiter, 0);
+  }
+
+  @Test
+  public void testSlotIsKeptAfterTimeoutUntilLeaseExpires() throws Exception {
+    OperationLimiter limiter = new OperationLimiter("leasedOperation", 100, 1);
+    TestProbe actor = new TestProbe(system);
+    Future<Object> future = ask(actor, limiter, 1000);
+    try {
+      Await.result(future, Duration.create(5, TimeUnit.SECONDS));
+      throw new AssertionError("request did not time out");
+    } catch (AskTimeoutException e) {
+      assertTrue(e.getMessage().contains("leasedOperation"));
+    }
+    // the caller got the timeout while the actor still holds the slot
+    assertEquals(1, limiter.getInFlight());
+    assertEquals(1L, limiter.getMetrics().get("timeouts"));
+    awaitInFlight(limiter, 0);
+  }
+
+  @Test
+  public void testReplyReleasesSlotWithoutTimeout() throws Exception {
+    OperationLimiter limiter = new OperationLimiter("fastOperation", 200, 1);
+    TestProbe actor = new TestProbe(system);
+    Future<Object> future = ask(actor, limiter, 60000);
+    actor.expectMsgClass(Request.class);
+    actor.reply("done");
+    assertEquals("done", Await.result(future, Duration.create(5, TimeUnit.SECONDS)));
+    awaitInFlight(limiter, 0);
+    // the cancelled timer does not count a timeout later
+    Thread.sleep(400);
+    assertEquals(0L, limiter.getMetrics().get("timeouts"));
+    assertEquals(1L, limiter.getMetrics().get("success"));
+  }
+
+  private static Future<Object> ask(TestProbe actor, OperationLimiter limiter, long leaseMillis) {
+    Request request = new Request();
+    request.setOperation(limiter.getOperation());
+    ExecutionContext ec = system.dispatcher();
+    return RequestRouter.ask(actor.ref(), request, limiter, leaseMillis, system.scheduler(), ec);
+  }
+
+  private static void awaitInFlight(OperationLimiter limiter, int expected)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (limiter.getInFlight() != expected) {
+      assertTrue("in-flight count not reached", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  @ActorConfig(
+    tasks = {"readUser", "createUser"},
+    asyncTasks = {},
+    timeoutMillis = 2000,
+    maxInFlight = 3
+  )
+  private static class Configured {}
+}
@@ -0,0 +1,147 @@
+package org.sunbird.actor.serialization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.response.RawJson;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class BinaryCodecTest {
+
+  @Test
+  public void testRequestRoundTrip() {
+    Request request = new Request();
+    request.setId("api.user.create");
+    request.setOperation("createUser");
+    request.getParams().setMsgid("request-1");
+    request.setEnv(2);
+    request.setContext(new HashMap<>());
+    request.setRequest(createPayload());
+
+    Request decoded = (Request) BinaryCodec.decode(BinaryCodec.encode(request));
+    assertEquals("api.user.create", decoded.getId());
+    assertNull(decoded.getVer());
+    assertEquals("createUser", decoded.getOperation());
+    assertEquals("request-1", decoded.getRequestId());
+    assertEquals(2, decoded.getEnv());
+    assertEquals(new HashMap<>(), decoded.getContext());
+    assertEquals(createPayload(), decoded.getRequest());
+  }
+
+  @Test
+  public void testResponseAndExceptionRoundTrip() {
+    Response response = new Response();
+    response.setResponseCode(ResponseCode.OK);
+    response.put(JsonKey.RESPONSE, JsonKey.SUCCESS);
+    response.put("content", Arrays.asList(new RawJson("{\"id\":\"1\"}")));
+    Response decoded = (Response) BinaryCodec.decode(BinaryCodec.encode(response));
+    assertEquals(ResponseCode.OK, decoded.getResponseCode());
+    assertEquals(JsonKey.SUCCESS, decoded.get(JsonKey.RESPONSE));
+    RawJson source = (RawJson) ((List<?>) decoded.get("content")).get(0);
+    assertEquals("{\"id\":\"1\"}", source.toString());
+
+    ProjectCommonException exception =
+        (ProjectCommonException)
+            BinaryCodec.decode(
+                BinaryCodec.encode(
+                    new ProjectCommonException(
+                        ResponseCode.invalidData.getErrorCode(),
+                        ResponseCode.invalidData.getErrorMessage(),
+                        ResponseCode.CLIENT_ERROR.getResponseCode())));
+    assertEquals(ResponseCode.invalidData.getErrorCode(), exception.getCode());
+    assertEquals(ResponseCode.CLIENT_ERROR.getResponseCode(), exception.getResponseCode());
+  }
+
+  @Test
+  public void testDictionaryVersionOneIsFrozen() {
+    String[] entries = BinaryCodecDictionary.getEntries(1);
+    assertEquals(652, entries.length);
+    assertEquals(-1438907587, Arrays.hashCode(entries));
+    assertEquals(new HashSet<>(Arrays.asList(entries)).size(), entries.length);
+  }
+
+  @Test
+  public void testUnsupportedFormatVersionIsRejected() {
+    byte[] encoded = BinaryCodec.encode(createPayload());
+    // format version 2, dictionary version 1 as zig-zag varint
+    assertArrayEquals(new byte[] {2, 2}, Arrays.copyOf(encoded, 2));
+    encoded[0] = 1;
+    try {
+      BinaryCodec.decode(encoded);
+      fail("unsupported format version decoded");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("unsupported format version 1"));
+    }
+  }
+
+  @Test
+  public void testUnknownDictionaryEntryIsRejected() {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    bytes.write(2);
+    writeVarInt(bytes, BinaryCodecDictionary.LATEST_VERSION + 1);
+    // dictionary tag with an index beyond the known entries
+    bytes.write(3);
+    writeVarInt(bytes, 100000);
+    try {
+      BinaryCodec.decode(bytes.toByteArray());
+      fail("unknown dictionary entry decoded");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("unknown dictionary entry 100000"));
+    }
+  }
+
+  private static Map<String, Object> createPayload() {
+    Map<String, Object> address = new LinkedHashMap<>();
+    address.put(JsonKey.CITY, "Bengaluru");
+    address.put("landmark", null);
+    address.put("pinCode", 560001);
+    List<Object> tags = new ArrayList<>();
+    tags.add("not-a-json-key");
+    tags.add("not-a-json-key");
+    tags.add(null);
+    tags.add(Arrays.asList(1L, 2.5d, 3.5f));
+    Map<String, Object> payload = new HashMap<>();
+    payload.put(JsonKey.FIRST_NAME, "Sunbird");
+    payload.put(JsonKey.ADDRESS, Arrays.asList(address));
+    payload.put("customField", tags);
+    payload.put("nothing", null);
+    payload.put("int", Integer.MIN_VALUE);
+    payload.put("long", Long.MAX_VALUE);
+    payload.put("short", (short) -7);
+    payload.put("byte", (byte) 9);
+    payload.put("decimal", new BigDecimal("12345.6789"));
+    payload.put("bigInteger", new BigInteger("123456789012345678901234567890"));
+    payload.put("date", new Date(1500000000000L));
+    payload.put("flag", Boolean.TRUE);
+    payload.put("roles", new HashSet<>(Arrays.asList("PUBLIC", "ORG_ADMIN")));
+    return payload;
+  }
+
+  private static void writeVarInt(ByteArrayOutputStream out, long value) {
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      out.write((int) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    out.write((int) zigZag);
+  }
+}
@@ -0,0 +1,151 @@
+package org.sunbird.actor.serialization;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+
+/**
+ * Compares {@link BinaryCodec} with Java serialization for a user read response and an org create
+ * request. Not a unit test, run it after mvn test-compile with the test classpath: java -cp
+ * &lt;test classpath&gt; org.openjdk.jmh.Main SerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+  @Param({"user", "org"})
+  public String payload;
+
+  private Object message;
+  private byte[] binary;
+  private byte[] java;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    message = "user".equals(payload) ? createUserResponse() : createOrgRequest();
+    binary = BinaryCodec.encode(message);
+    java = javaSerialize(message);
+    System.out.println(
+        payload + " size: binary=" + binary.length + " bytes, java=" + java.length + " bytes");
+  }
+
+  @Benchmark
+  public byte[] binaryEncode() {
+    return BinaryCodec.encode(message);
+  }
+
+  @Benchmark
+  public Object binaryDecode() {
+    return BinaryCodec.decode(binary);
+  }
+
+  @Benchmark
+  public byte[] javaEncode() throws IOException {
+    return javaSerialize(message);
+  }
+
+  @Benchmark
+  public Object javaDecode() throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(java))) {
+      return in.readObject();
+    }
+  }
+
+  private static byte[] javaSerialize(Object value) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(value);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static Response createUserResponse() {
+    Map<String, Object> user = new HashMap<>();
+    user.put(JsonKey.ID, "0125f4b7-3c6a-4d8e-9a3f-5c2e1b7d9f01");
+    user.put(JsonKey.USER_ID, "0125f4b7-3c6a-4d8e-9a3f-5c2e1b7d9f01");
+    user.put(JsonKey.FIRST_NAME, "Aarav");
+    user.put(JsonKey.LAST_NAME, "Sharma");
+    user.put(JsonKey.USERNAME, "aarav_sharma");
+    user.put(JsonKey.EMAIL, "aa***@example.com");
+    user.put(JsonKey.PHONE, "******7890");
+    user.put(JsonKey.ROOT_ORG_ID, "0124784842112040960");
+    user.put(JsonKey.CHANNEL, "sunbird");
+    user.put(JsonKey.STATUS, 1);
+    user.put(JsonKey.IS_DELETED, false);
+    user.put(JsonKey.CREATED_DATE, "2018-06-01 10:15:30:123+0000");
+    user.put(JsonKey.LAST_LOGIN_TIME, 1527848130123L);
+    user.put(JsonKey.PROFILE_VISIBILITY, new HashMap<>());
+    List<String> roles = new ArrayList<>();
+    roles.add("PUBLIC");
+    roles.add("CONTENT_CREATOR");
+    user.put(JsonKey.ROLES, roles);
+    List<Map<String, Object>> organisations = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Map<String, Object> organisation = new HashMap<>();
+      organisation.put(JsonKey.ID, "01247848421120409" + i);
+      organisation.put(JsonKey.ORGANISATION_ID, "0124784842112040960");
+      organisation.put(JsonKey.USER_ID, "0125f4b7-3c6a-4d8e-9a3f-5c2e1b7d9f01");
+      organisation.put(JsonKey.ROLES, roles);
+      organisation.put(JsonKey.IS_DELETED, false);
+      organisation.put(JsonKey.ORG_JOIN_DATE, "2018-06-01 10:15:30:123+0000");
+      organisations.add(organisation);
+    }
+    user.put(JsonKey.ORGANISATIONS, organisations);
+    Response response = new Response();
+    response.put(JsonKey.RESPONSE, user);
+    return response;
+  }
+
+  private static Request createOrgRequest() {
+    Request request = new Request();
+    request.setOperation("createOrg");
+    request.setRequestId("8e27cbf5-e299-43b0-bca7-8347f7e5abcf");
+    request.getContext().put(JsonKey.REQUESTED_BY, "0125f4b7-3c6a-4d8e-9a3f-5c2e1b7d9f01");
+    request.put(JsonKey.ORG_NAME, "Sunbird Public School");
+    request.put(JsonKey.DESCRIPTION, "Government school in Bengaluru urban district");
+    request.put(JsonKey.CHANNEL, "sunbird_school");
+    request.put(JsonKey.IS_ROOT_ORG, true);
+    request.put(JsonKey.EXTERNAL_ID, "ext-0001");
+    request.put(JsonKey.PROVIDER, "state_board");
+    request.put(JsonKey.ORG_TYPE, "school");
+    request.put(JsonKey.HASHTAGID, "0124784842112040960");
+    Map<String, Object> address = new HashMap<>();
+    address.put(JsonKey.ADD_TYPE, "office");
+    address.put(JsonKey.ADDRESS_LINE1, "12 MG Road");
+    address.put(JsonKey.CITY, "Bengaluru");
+    address.put(JsonKey.STATE, "Karnataka");
+    address.put(JsonKey.ZIPCODE, "560001");
+    request.put(JsonKey.ADDRESS, address);
+    List<String> locationCodes = new ArrayList<>();
+    locationCodes.add("29");
+    locationCodes.add("2901");
+    request.put(JsonKey.LOCATION_CODE, locationCodes);
+    return request;
+  }
+}
@@ -0,0 +1,120 @@
+package org.sunbird.actor.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.PoisonPill;
+import akka.actor.Props;
+import akka.actor.UntypedAbstractActor;
+import akka.testkit.TestKit;
+import akka.testkit.TestProbe;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scala.concurrent.duration.Duration;
+
+public class ActorRefCacheTest {
+
+  private static ActorSystem system;
+
+  @BeforeClass
+  public static void setUp() {
+    system = ActorSystem.create("ActorRefCacheTest");
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    TestKit.shutdownActorSystem(system, Duration.create(10, TimeUnit.SECONDS), false);
+  }
+
+  @Test
+  public void testProxyForwardsKeepingSenderAndCachesResolvedRouter() throws Exception {
+    TestProbe routerProbe = new TestProbe(system);
+    ActorRef router = system.actorOf(Props.create(Forwarder.class, routerProbe.ref()), "router1");
+    ActorRef proxy = createProxy("Router1", "router1");
+    TestProbe sender = new TestProbe(system);
+
+    proxy.tell("message", sender.ref());
+    routerProbe.expectMsg("message");
+    assertEquals(sender.ref(), routerProbe.lastSender());
+    assertEquals(router, awaitResolved("Router1", null));
+
+    proxy.tell("resolved", sender.ref());
+    routerProbe.expectMsg("resolved");
+    assertEquals(sender.ref(), routerProbe.lastSender());
+  }
+
+  @Test
+  public void testTerminatedRouterIsResolvedAgain() throws Exception {
+    TestProbe routerProbe = new TestProbe(system);
+    ActorRef router = system.actorOf(Props.create(Forwarder.class, routerProbe.ref()), "router2");
+    ActorRef proxy = createProxy("Router2", "router2");
+    assertEquals(router, awaitResolved("Router2", null));
+
+    TestProbe watcher = new TestProbe(system);
+    watcher.watch(router);
+    router.tell(PoisonPill.getInstance(), ActorRef.noSender());
+    watcher.expectTerminated(router, Duration.create(5, TimeUnit.SECONDS));
+    awaitResolved("Router2", router);
+    assertNull(ActorRefCache.getRouter("Router2"));
+
+    ActorRef restarted =
+        system.actorOf(Props.create(Forwarder.class, routerProbe.ref()), "router2");
+    assertEquals(restarted, awaitResolved("Router2", null));
+    assertNotEquals(router, restarted);
+
+    proxy.tell("after restart", ActorRef.noSender());
+    routerProbe.expectMsg("after restart");
+  }
+
+  @Test
+  public void testUnresolvedRouterIsRetried() throws Exception {
+    TestProbe routerProbe = new TestProbe(system);
+    ActorRef proxy = createProxy("Router3", "router3");
+    // the first resolution fails, the retry finds the router
+    Thread.sleep(200);
+    assertNull(ActorRefCache.getRouter("Router3"));
+    ActorRef router = system.actorOf(Props.create(Forwarder.class, routerProbe.ref()), "router3");
+    assertEquals(router, awaitResolved("Router3", null));
+
+    proxy.tell("message", ActorRef.noSender());
+    routerProbe.expectMsg("message");
+  }
+
+  private static ActorRef createProxy(String router, String path) {
+    return system.actorOf(
+        Props.create(
+            ActorRefCache.RemoteRouterProxy.class, router, system.actorSelection("/user/" + path)));
+  }
+
+  /** Waits until the cached router of the given name is no longer the given one. */
+  private static ActorRef awaitResolved(String router, ActorRef previous)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    ActorRef ref = ActorRefCache.getRouter(router);
+    while ((null == ref ? null == previous : ref.equals(previous))
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+      ref = ActorRefCache.getRouter(router);
+    }
+    return ref;
+  }
+
+  /** Stand-in for a remote router, forwards everything to a probe. */
+  public static class Forwarder extends UntypedAbstractActor {
+    private final ActorRef probe;
+
+    public Forwarder(ActorRef probe) {
+      this.probe = probe;
+    }
+
+    @Override
+    public void onReceive(Object message) {
+      probe.forward(message, getContext());
+    }
+  }
+}
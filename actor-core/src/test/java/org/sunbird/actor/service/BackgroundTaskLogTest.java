@@ -0,0 +1,210 @@
+package org.sunbird.actor.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.testkit.TestKit;
+import akka.testkit.TestProbe;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import scala.concurrent.duration.Duration;
+
+public class BackgroundTaskLogTest {
+
+  private static ActorSystem system;
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final Map<String, String> properties = new HashMap<>();
+  private File directory;
+  private TestProbe actor;
+
+  @BeforeClass
+  public static void setUpSystem() {
+    system = ActorSystem.create("BackgroundTaskLogTest");
+  }
+
+  @AfterClass
+  public static void tearDownSystem() {
+    TestKit.shutdownActorSystem(system, Duration.create(10, TimeUnit.SECONDS), false);
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    directory = folder.newFolder("log");
+    properties.put(JsonKey.SUNBIRD_BACKGROUND_TASK_LOG_ENABLED, "true");
+    properties.put("sunbird_background_task_log_dir", directory.getPath());
+    properties.put("sunbird_background_task_log_segment_size_mb", "1");
+    properties.put("sunbird_background_task_log_max_segments", "2");
+    properties.put("sunbird_background_task_log_sync_interval_millis", "5");
+    properties.put("sunbird_background_task_log_replay_wait_millis", "0");
+    actor = new TestProbe(system);
+  }
+
+  @After
+  public void tearDown() throws InterruptedException {
+    BackgroundTaskLog.stop();
+  }
+
+  @Test
+  public void testUnacknowledgedRequestIsReplayedAfterRestart() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.tell(actor.ref(), request(0), ActorRef.noSender());
+    actor.expectMsgClass(Request.class);
+    BackgroundTaskLog.stop();
+
+    long replayed = getMetric("replayed");
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.stop();
+    assertEquals(replayed + 1, getMetric("replayed"));
+    assertEquals(Collections.singleton(1L), getPending());
+  }
+
+  @Test
+  public void testAcknowledgedRequestIsNotReplayed() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.tell(actor.ref(), request(0), ActorRef.noSender());
+    BackgroundTaskLog.acknowledge(actor.expectMsgClass(Request.class));
+    BackgroundTaskLog.stop();
+    assertTrue(getPending().isEmpty());
+
+    long replayed = getMetric("replayed");
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.stop();
+    assertEquals(replayed, getMetric("replayed"));
+  }
+
+  @Test
+  public void testRequestWithoutContextIsLogged() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    Request request = request(0);
+    request.setContext(null);
+    BackgroundTaskLog.tell(actor.ref(), request, ActorRef.noSender());
+    Request received = actor.expectMsgClass(Request.class);
+    assertTrue(received.getContext().containsKey(JsonKey.BACKGROUND_TASK_ID));
+  }
+
+  @Test
+  public void testCompactionCopiesPendingRequestsAndDeletesSegment() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    List<Request> received = new ArrayList<>();
+    while (getMetric("segments") < 2) {
+      BackgroundTaskLog.tell(actor.ref(), request(100000), ActorRef.noSender());
+      received.add(actor.expectMsgClass(Request.class));
+    }
+    // all but the first request of the full segment are acknowledged, the last is in the new one
+    for (Request request : received.subList(1, received.size() - 1)) {
+      BackgroundTaskLog.acknowledge(request);
+    }
+    Path head = directory.toPath().resolve(String.format("%020d.wal", 1));
+    long deadline = System.currentTimeMillis() + 5000;
+    while (Files.exists(head) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertFalse(Files.exists(head));
+    BackgroundTaskLog.stop();
+    assertEquals(new HashSet<>(Arrays.asList(1L, (long) received.size())), getPending());
+  }
+
+  @Test
+  public void testLogIsLimitedToMaxSegments() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    long unlogged = getMetric("unlogged");
+    for (int i = 0; i < 30; i++) {
+      BackgroundTaskLog.tell(actor.ref(), request(100000), ActorRef.noSender());
+      actor.expectMsgClass(Request.class);
+    }
+    assertEquals(2, getMetric("segments"));
+    assertEquals(2, directory.list().length);
+    assertTrue(getMetric("unlogged") > unlogged);
+  }
+
+  @Test
+  public void testRequestSurvivesTornWrite() throws Exception {
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.tell(actor.ref(), request(0), ActorRef.noSender());
+    actor.expectMsgClass(Request.class);
+    BackgroundTaskLog.stop();
+
+    // a record whose length was written but whose payload was not
+    Path segment = directory.listFiles()[0].toPath();
+    int offset = 0;
+    for (LogSegment.Record record : read(segment)) {
+      offset += LogSegment.HEADER_SIZE + record.payload.length;
+    }
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      ByteBuffer torn = ByteBuffer.allocate(LogSegment.HEADER_SIZE);
+      torn.putInt(LogSegment.HEADER_SIZE - 4 + 1000).put(LogSegment.TASK).putLong(2).putInt(7);
+      torn.flip();
+      channel.write(torn, offset);
+    }
+
+    BackgroundTaskLog.start(properties::get);
+    BackgroundTaskLog.stop();
+    assertEquals(Collections.singleton(1L), getPending());
+  }
+
+  /** Sequences of the logged requests which are not acknowledged, read independently of the log. */
+  private Set<Long> getPending() throws IOException {
+    File[] files = directory.listFiles();
+    Arrays.sort(files);
+    Set<Long> pending = new HashSet<>();
+    for (File file : files) {
+      for (LogSegment.Record record : read(file.toPath())) {
+        if (record.type == LogSegment.TASK) {
+          pending.add(record.sequence);
+        } else {
+          pending.remove(record.sequence);
+        }
+      }
+    }
+    return pending;
+  }
+
+  private static List<LogSegment.Record> read(Path path) throws IOException {
+    LogSegment segment = LogSegment.open(path);
+    try {
+      return segment.read();
+    } finally {
+      segment.close();
+    }
+  }
+
+  private static long getMetric(String name) {
+    return ((Number) BackgroundTaskLog.getMetrics().get(name)).longValue();
+  }
+
+  private static Request request(int size) {
+    Request request = new Request();
+    request.setOperation("testOperation");
+    request.getRequest().put("data", StringUtils.repeat('x', size));
+    return request;
+  }
+}
@@ -1,6 +1,8 @@
 package org.sunbird.actorutil;
 
 import akka.actor.ActorRef;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
 import org.sunbird.common.request.Request;
 
 /**
@@ -16,4 +18,25 @@ public interface InterServiceCommunication {
    * @return Object Response Object
    */
   public Object getResponse(ActorRef actorRef, Request request);
+
+  /**
+   * Non blocking variant of {@link #getResponse(ActorRef, Request)}, the calling thread is not
+   * parked while waiting for the response.
+   *
+   * @param actorRef Actor reference
+   * @param request Request object
+   * @return CompletionStage completed with the response object, or exceptionally with a
+   *     ProjectCommonException if the actor could not be reached in time
+   */
+  public CompletionStage<Object> getResponseAsync(ActorRef actorRef, Request request);
+
+  /**
+   * Sends all the requests concurrently and combines their responses.
+   *
+   * @param actorRef Actor reference
+   * @param requests Request objects
+   * @return CompletionStage completed with the responses in request order, or exceptionally if
+   *     any of the requests failed
+   */
+  public CompletionStage<List<Object>> askAll(ActorRef actorRef, List<Request> requests);
 }
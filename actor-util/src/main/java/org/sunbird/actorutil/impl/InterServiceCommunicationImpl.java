@@ -4,8 +4,11 @@ import static akka.pattern.PatternsCS.ask;
 
 import akka.actor.ActorRef;
 import akka.util.Timeout;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import org.sunbird.actorutil.InterServiceCommunication;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.util.LoggerEnum;
@@ -18,9 +21,20 @@ public class InterServiceCommunicationImpl implements InterServiceCommunication
 
   private static final Integer WAIT_TIME = 10;
 
+  private final int waitTime;
+
+  public InterServiceCommunicationImpl() {
+    this(WAIT_TIME);
+  }
+
+  /** @param waitTime Time in seconds to wait for the response */
+  InterServiceCommunicationImpl(int waitTime) {
+    this.waitTime = waitTime;
+  }
+
   @Override
   public Object getResponse(ActorRef actorRef, Request request) {
-    Timeout t = new Timeout(Duration.create(WAIT_TIME, TimeUnit.SECONDS));
+    Timeout t = new Timeout(Duration.create(waitTime, TimeUnit.SECONDS));
     if (null == actorRef) {
       ProjectLogger.log(
           "InterServiceCommunicationImpl : getResponse - actorRef is null ", LoggerEnum.INFO);
@@ -31,7 +45,7 @@ public class InterServiceCommunicationImpl implements InterServiceCommunication
     }
     CompletableFuture<Object> future = ask(actorRef, request, t).toCompletableFuture();
     try {
-      return future.get(WAIT_TIME + 2, TimeUnit.SECONDS);
+      return future.get(waitTime + 2, TimeUnit.SECONDS);
     } catch (Exception e) {
       ProjectLogger.log(
           "InterServiceCommunicationImpl : Interservice communication error " + e.getMessage(), e);
@@ -41,4 +55,50 @@ public class InterServiceCommunicationImpl implements InterServiceCommunication
           ResponseCode.SERVER_ERROR.getResponseCode());
     }
   }
+
+  @Override
+  public CompletionStage<Object> getResponseAsync(ActorRef actorRef, Request request) {
+    CompletableFuture<Object> result = new CompletableFuture<>();
+    if (null == actorRef) {
+      ProjectLogger.log(
+          "InterServiceCommunicationImpl : getResponseAsync - actorRef is null ", LoggerEnum.INFO);
+      result.completeExceptionally(
+          new ProjectCommonException(
+              ResponseCode.unableToCommunicateWithActor.getErrorCode(),
+              ResponseCode.unableToCommunicateWithActor.getErrorMessage(),
+              ResponseCode.SERVER_ERROR.getResponseCode()));
+      return result;
+    }
+    Timeout t = new Timeout(Duration.create(waitTime, TimeUnit.SECONDS));
+    ask(actorRef, request, t)
+        .whenComplete(
+            (response, failure) -> {
+              if (null == failure) {
+                result.complete(response);
+              } else {
+                ProjectLogger.log(
+                    "InterServiceCommunicationImpl : Interservice communication error "
+                        + failure.getMessage(),
+                    failure);
+                result.completeExceptionally(
+                    new ProjectCommonException(
+                        ResponseCode.unableToCommunicateWithActor.getErrorCode(),
+                        ResponseCode.unableToCommunicateWithActor.getErrorMessage(),
+                        ResponseCode.SERVER_ERROR.getResponseCode()));
+              }
+            });
+    return result;
+  }
+
+  @Override
+  public CompletionStage<List<Object>> askAll(ActorRef actorRef, List<Request> requests) {
+    List<CompletableFuture<Object>> futures =
+        requests
+            .stream()
+            .map(request -> getResponseAsync(actorRef, request).toCompletableFuture())
+            .collect(Collectors.toList());
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+        .thenApply(
+            done -> futures.stream().map(CompletableFuture::join).collect(Collectors.toList()));
+  }
 }
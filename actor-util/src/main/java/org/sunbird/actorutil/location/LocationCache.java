@@ -0,0 +1,96 @@
+package org.sunbird.actorutil.location;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.models.location.Location;
+
+/**
+ * Local cache of locations by id used to resolve location hierarchies without a search per level.
+ * Entries expire after the configured TTL and are invalidated when a location is created or
+ * updated through {@link LocationClient}. Changes made through other nodes are picked up once the
+ * entry expires.
+ */
+public class LocationCache {
+
+  private final long ttlMillis;
+  private final int maxSize;
+  private final Map<String, Entry> locations = new ConcurrentHashMap<>();
+
+  /**
+   * @param ttlMillis Time an entry stays valid, zero or less disables the cache
+   * @param maxSize Maximum number of cached locations
+   */
+  public LocationCache(long ttlMillis, int maxSize) {
+    this.ttlMillis = ttlMillis;
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * This method will provide the cached location.
+   *
+   * @param id Location id
+   * @return Location or null if not cached or expired
+   */
+  public Location get(String id) {
+    if (StringUtils.isBlank(id)) {
+      return null;
+    }
+    Entry entry = locations.get(id);
+    if (null == entry) {
+      return null;
+    }
+    if (entry.expiresAt < System.currentTimeMillis()) {
+      locations.remove(id, entry);
+      return null;
+    }
+    return entry.location;
+  }
+
+  public void put(Location location) {
+    if (ttlMillis <= 0 || null == location || StringUtils.isBlank(location.getId())) {
+      return;
+    }
+    if (locations.size() >= maxSize) {
+      removeExpired();
+      if (locations.size() >= maxSize) {
+        return;
+      }
+    }
+    locations.put(location.getId(), new Entry(location, System.currentTimeMillis() + ttlMillis));
+  }
+
+  /**
+   * This method will remove the location with given id or code.
+   *
+   * @param id Location id, may be null
+   * @param code Location code, may be null
+   */
+  public void invalidate(String id, String code) {
+    if (StringUtils.isNotBlank(id)) {
+      locations.remove(id);
+    }
+    if (StringUtils.isNotBlank(code)) {
+      locations.values().removeIf(entry -> code.equals(entry.location.getCode()));
+    }
+  }
+
+  public void clear() {
+    locations.clear();
+  }
+
+  private void removeExpired() {
+    long now = System.currentTimeMillis();
+    locations.values().removeIf(entry -> entry.expiresAt < now);
+  }
+
+  private static class Entry {
+    private final Location location;
+    private final long expiresAt;
+
+    Entry(Location location, long expiresAt) {
+      this.location = location;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
@@ -2,6 +2,7 @@ package org.sunbird.actorutil.location;
 
 import akka.actor.ActorRef;
 import java.util.List;
+import java.util.Map;
 import org.sunbird.models.location.Location;
 import org.sunbird.models.location.apirequest.UpsertLocationRequest;
 
@@ -36,6 +37,16 @@ public interface LocationClient {
    */
   Location getLocationByCode(ActorRef actorRef, String locationCode);
 
+  /**
+   * @desc This method will resolve the given locations and all their ancestors. Ancestors are
+   *     taken from the location cache where possible, the missing ones are fetched with one search
+   *     per hierarchy level.
+   * @param actorRef Actor reference.
+   * @param locations List of location.
+   * @return Map of location id to location, containing the given locations and their ancestors.
+   */
+  Map<String, Location> getLocationHierarchy(ActorRef actorRef, List<Location> locations);
+
   /**
    * @desc This method will create Location and returns the response.
    * @param actorRef Actor reference.
@@ -0,0 +1,182 @@
+package org.sunbird.actorutil.location;
+
+import akka.actor.ActorRef;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.sunbird.common.models.util.GeoLocationJsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.models.location.Location;
+
+/**
+ * Coalesces single location lookups by id or code. Lookups arriving within the batch window are
+ * sent as one search with all requested values (IN filter), and the result is fanned back to the
+ * waiting callers. Callers asking for a key which is already queued or being searched share the
+ * pending result instead of sending another search.
+ */
+public class LocationLookupBatcher {
+
+  /** Search of all locations whose param matches one of the given values. */
+  public interface LocationSearch {
+    CompletionStage<List<Location>> search(ActorRef actorRef, String param, List<String> values);
+  }
+
+  private static ScheduledExecutorService scheduler =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "location-lookup-batcher");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  private final LocationSearch locationSearch;
+  private final long windowMillis;
+  private final int maxBatchSize;
+  private final Map<Key, CompletableFuture<Location>> inFlight = new ConcurrentHashMap<>();
+  private final Map<Key, List<String>> queued = new HashMap<>();
+
+  /**
+   * @param locationSearch Search used to fetch a batch
+   * @param windowMillis Time a lookup waits for other lookups to join its batch
+   * @param maxBatchSize Batch size sent immediately without waiting for the window to close
+   */
+  public LocationLookupBatcher(LocationSearch locationSearch, long windowMillis, int maxBatchSize) {
+    this.locationSearch = locationSearch;
+    this.windowMillis = windowMillis;
+    this.maxBatchSize = Math.max(1, maxBatchSize);
+  }
+
+  /**
+   * This method will queue the lookup of a location.
+   *
+   * @param actorRef Actor reference.
+   * @param param Search param, id or code.
+   * @param value Location id or code.
+   * @return Future completed with the location, or with null if it does not exist
+   */
+  public CompletableFuture<Location> lookup(ActorRef actorRef, String param, String value) {
+    Key key = new Key(actorRef, param, value);
+    CompletableFuture<Location> future = new CompletableFuture<>();
+    CompletableFuture<Location> pending = inFlight.putIfAbsent(key, future);
+    if (null != pending) {
+      return pending;
+    }
+    Key batchKey = new Key(actorRef, param, null);
+    List<String> batch = null;
+    boolean schedule = false;
+    synchronized (queued) {
+      List<String> values = queued.computeIfAbsent(batchKey, k -> new ArrayList<>());
+      values.add(value);
+      if (values.size() >= maxBatchSize) {
+        batch = queued.remove(batchKey);
+      } else {
+        schedule = values.size() == 1;
+      }
+    }
+    if (null != batch) {
+      send(batchKey, batch);
+    } else if (schedule) {
+      scheduler.schedule(() -> flush(batchKey), windowMillis, TimeUnit.MILLISECONDS);
+    }
+    return future;
+  }
+
+  private void flush(Key batchKey) {
+    List<String> batch;
+    synchronized (queued) {
+      batch = queued.remove(batchKey);
+    }
+    if (null != batch) {
+      send(batchKey, batch);
+    }
+  }
+
+  private void send(Key batchKey, List<String> values) {
+    CompletionStage<List<Location>> result;
+    try {
+      result = locationSearch.search(batchKey.actorRef, batchKey.param, values);
+    } catch (Exception e) {
+      complete(batchKey, values, null, e);
+      return;
+    }
+    result.whenComplete((locations, failure) -> complete(batchKey, values, locations, failure));
+  }
+
+  private void complete(
+      Key batchKey, List<String> values, List<Location> locations, Throwable failure) {
+    if (null != failure) {
+      ProjectLogger.log(
+          "LocationLookupBatcher:complete: search of " + values.size() + " locations failed",
+          failure);
+    }
+    Function<Location, String> keyOf =
+        GeoLocationJsonKey.CODE.equals(batchKey.param) ? Location::getCode : Location::getId;
+    Map<String, Location> found = new HashMap<>();
+    Map<String, Location> foundIgnoreCase = new HashMap<>();
+    if (null != locations) {
+      for (Location location : locations) {
+        String value = keyOf.apply(location);
+        if (null != value) {
+          found.put(value, location);
+          foundIgnoreCase.put(value.toLowerCase(), location);
+        }
+      }
+    }
+    for (String value : values) {
+      CompletableFuture<Location> future =
+          inFlight.remove(new Key(batchKey.actorRef, batchKey.param, value));
+      if (null == future) {
+        continue;
+      }
+      if (null != failure) {
+        future.completeExceptionally(failure);
+      } else {
+        Location location = found.get(value);
+        if (null == location && null != value) {
+          location = foundIgnoreCase.get(value.toLowerCase());
+        }
+        future.complete(location);
+      }
+    }
+  }
+
+  private static class Key {
+    private final ActorRef actorRef;
+    private final String param;
+    private final String value;
+
+    Key(ActorRef actorRef, String param, String value) {
+      this.actorRef = actorRef;
+      this.param = param;
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return Objects.equals(actorRef, key.actorRef)
+          && Objects.equals(param, key.param)
+          && Objects.equals(value, key.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(actorRef, param, value);
+    }
+  }
+}
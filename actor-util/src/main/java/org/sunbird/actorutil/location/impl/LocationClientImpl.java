@@ -4,13 +4,23 @@ import akka.actor.ActorRef;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.sunbird.actorutil.InterServiceCommunication;
 import org.sunbird.actorutil.InterServiceCommunicationFactory;
+import org.sunbird.actorutil.location.LocationCache;
 import org.sunbird.actorutil.location.LocationClient;
+import org.sunbird.actorutil.location.LocationLookupBatcher;
 import org.sunbird.common.exception.ProjectCommonException;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.GeoLocationJsonKey;
@@ -18,6 +28,7 @@ import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LocationActorOperation;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.ProjectUtil;
 import org.sunbird.common.request.Request;
 import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.models.location.Location;
@@ -25,9 +36,21 @@ import org.sunbird.models.location.apirequest.UpsertLocationRequest;
 
 public class LocationClientImpl implements LocationClient {
 
+  // seconds, covers the batch window and the wait time of the batched search
+  private static final int BATCH_WAIT_TIME = 12;
+
   private static InterServiceCommunication interServiceCommunication =
       InterServiceCommunicationFactory.getInstance();
-  private ObjectMapper mapper = new ObjectMapper();
+  private static LocationCache locationCache =
+      new LocationCache(
+          NumberUtils.toLong(
+              ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_LOCATION_CACHE_TTL_MILLIS),
+              600000),
+          NumberUtils.toInt(
+              ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_LOCATION_CACHE_MAX_SIZE),
+              50000));
+  private static ObjectMapper mapper = new ObjectMapper();
+  private static LocationLookupBatcher lookupBatcher = createLookupBatcher();
 
   @Override
   public List<Location> getLocationsByCodes(ActorRef actorRef, List<String> codeList) {
@@ -39,6 +62,9 @@ public class LocationClientImpl implements LocationClient {
   @Override
   public Location getLocationById(ActorRef actorRef, String id) {
     String param = JsonKey.ID;
+    if (null != lookupBatcher && null != id) {
+      return getBatchedResponse(actorRef, param, id);
+    }
     Object value = id;
     List<Location> locationList = getSearchResponse(actorRef, param, value);
     if (CollectionUtils.isNotEmpty(locationList)) {
@@ -48,8 +74,95 @@ public class LocationClientImpl implements LocationClient {
     }
   }
 
+  @Override
+  public Map<String, Location> getLocationHierarchy(ActorRef actorRef, List<Location> locations) {
+    Map<String, Location> hierarchy = new HashMap<>();
+    Set<String> pending = new HashSet<>();
+    for (Location location : locations) {
+      if (StringUtils.isNotEmpty(location.getId())) {
+        hierarchy.put(location.getId(), location);
+        locationCache.put(location);
+      }
+      addParentId(pending, location);
+    }
+    while (!pending.isEmpty()) {
+      pending.removeAll(hierarchy.keySet());
+      Set<String> nextLevel = new HashSet<>();
+      List<String> missingIds = new ArrayList<>();
+      for (String id : pending) {
+        Location cached = locationCache.get(id);
+        if (null != cached) {
+          hierarchy.put(id, cached);
+          addParentId(nextLevel, cached);
+        } else {
+          missingIds.add(id);
+        }
+      }
+      if (!missingIds.isEmpty()) {
+        for (Location location : getSearchResponse(actorRef, JsonKey.ID, missingIds)) {
+          locationCache.put(location);
+          hierarchy.put(location.getId(), location);
+          addParentId(nextLevel, location);
+        }
+      }
+      pending = nextLevel;
+    }
+    return hierarchy;
+  }
+
+  private void addParentId(Set<String> parentIds, Location location) {
+    if (StringUtils.isNotEmpty(location.getParentId())) {
+      parentIds.add(location.getParentId());
+    }
+  }
+
   private List<Location> getSearchResponse(ActorRef actorRef, String param, Object value) {
-    List<Location> response = null;
+    ProjectLogger.log("LocationClientImpl : callSearchLocation ", LoggerEnum.INFO);
+    Object obj = interServiceCommunication.getResponse(actorRef, createSearchRequest(param, value));
+    return getLocations(obj);
+  }
+
+  private static CompletionStage<List<Location>> getSearchResponseAsync(
+      ActorRef actorRef, String param, List<String> values) {
+    ProjectLogger.log(
+        "LocationClientImpl : callSearchLocation batch of " + values.size(), LoggerEnum.INFO);
+    return interServiceCommunication
+        .getResponseAsync(actorRef, createSearchRequest(param, values))
+        .thenApply(LocationClientImpl::getLocations);
+  }
+
+  private Location getBatchedResponse(ActorRef actorRef, String param, String value) {
+    try {
+      return lookupBatcher.lookup(actorRef, param, value).get(BATCH_WAIT_TIME, TimeUnit.SECONDS);
+    } catch (ExecutionException | TimeoutException e) {
+      if (e.getCause() instanceof ProjectCommonException) {
+        throw (ProjectCommonException) e.getCause();
+      }
+      ProjectLogger.log("LocationClientImpl : getBatchedResponse " + e.getMessage(), e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    throw new ProjectCommonException(
+        ResponseCode.SERVER_ERROR.getErrorCode(),
+        ResponseCode.SERVER_ERROR.getErrorMessage(),
+        ResponseCode.SERVER_ERROR.getResponseCode());
+  }
+
+  private static LocationLookupBatcher createLookupBatcher() {
+    long windowMillis =
+        NumberUtils.toLong(
+            ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_LOCATION_BATCH_WINDOW_MILLIS), 0);
+    if (windowMillis <= 0) {
+      return null;
+    }
+    return new LocationLookupBatcher(
+        LocationClientImpl::getSearchResponseAsync,
+        windowMillis,
+        NumberUtils.toInt(
+            ProjectUtil.getConfigValue(GeoLocationJsonKey.SUNBIRD_LOCATION_BATCH_MAX_SIZE), 100));
+  }
+
+  private static Request createSearchRequest(String param, Object value) {
     Map<String, Object> filters = new HashMap<>();
     Map<String, Object> searchRequestMap = new HashMap<>();
     filters.put(param, value);
@@ -57,8 +170,11 @@ public class LocationClientImpl implements LocationClient {
     Request request = new Request();
     request.setOperation(LocationActorOperation.SEARCH_LOCATION.getValue());
     request.getRequest().putAll(searchRequestMap);
-    ProjectLogger.log("LocationClientImpl : callSearchLocation ", LoggerEnum.INFO);
-    Object obj = interServiceCommunication.getResponse(actorRef, request);
+    return request;
+  }
+
+  private static List<Location> getLocations(Object obj) {
+    List<Location> response = null;
     if (obj instanceof Response) {
       Response responseObj = (Response) obj;
       List<Map<String, Object>> responseList =
@@ -76,6 +192,9 @@ public class LocationClientImpl implements LocationClient {
   @Override
   public Location getLocationByCode(ActorRef actorRef, String locationCode) {
     String param = GeoLocationJsonKey.CODE;
+    if (null != lookupBatcher && null != locationCode) {
+      return getBatchedResponse(actorRef, param, locationCode);
+    }
     Object value = locationCode;
     List<Location> locationList = getSearchResponse(actorRef, param, value);
     if (CollectionUtils.isNotEmpty(locationList)) {
@@ -95,6 +214,7 @@ public class LocationClientImpl implements LocationClient {
     ProjectLogger.log("LocationClientImpl : callCreateLocation ", LoggerEnum.INFO);
     Object obj = interServiceCommunication.getResponse(actorRef, request);
     checkLocationResponseForException(obj);
+    locationCache.invalidate(location.getId(), location.getCode());
     if (obj instanceof Response) {
       Response response = (Response) obj;
       locationId = (String) response.get(JsonKey.ID);
@@ -110,6 +230,7 @@ public class LocationClientImpl implements LocationClient {
     ProjectLogger.log("LocationClientImpl : callUpdateLocation ", LoggerEnum.INFO);
     Object obj = interServiceCommunication.getResponse(actorRef, request);
     checkLocationResponseForException(obj);
+    locationCache.invalidate(location.getId(), location.getCode());
   }
 
   private void checkLocationResponseForException(Object obj) {
@@ -0,0 +1,117 @@
+package org.sunbird.actorutil.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Status;
+import akka.testkit.TestKit;
+import akka.testkit.TestProbe;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.request.Request;
+import org.sunbird.common.responsecode.ResponseCode;
+import scala.concurrent.duration.Duration;
+
+public class InterServiceCommunicationImplTest {
+
+  private static ActorSystem system;
+  private final InterServiceCommunicationImpl interServiceCommunication =
+      new InterServiceCommunicationImpl(1);
+
+  @BeforeClass
+  public static void setUp() {
+    system = ActorSystem.create("InterServiceCommunicationImplTest");
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    TestKit.shutdownActorSystem(system, Duration.create(10, TimeUnit.SECONDS), false);
+  }
+
+  @Test
+  public void testGetResponseAsyncTimesOut() throws Exception {
+    TestProbe actor = new TestProbe(system);
+    CompletableFuture<Object> future =
+        interServiceCommunication.getResponseAsync(actor.ref(), request("a")).toCompletableFuture();
+    actor.expectMsgClass(Request.class);
+    assertUnableToCommunicate(future);
+  }
+
+  @Test
+  public void testAskAllReturnsResponsesInRequestOrder() throws Exception {
+    TestProbe actor = new TestProbe(system);
+    CompletableFuture<List<Object>> future =
+        interServiceCommunication
+            .askAll(actor.ref(), Arrays.asList(request("a"), request("b"), request("c")))
+            .toCompletableFuture();
+    ActorRef[] senders = new ActorRef[3];
+    String[] operations = new String[3];
+    for (int i = 0; i < 3; i++) {
+      operations[i] = actor.expectMsgClass(Request.class).getOperation();
+      senders[i] = actor.lastSender();
+    }
+    // reply in reverse order of arrival
+    for (int i = 2; i >= 0; i--) {
+      senders[i].tell(operations[i], ActorRef.noSender());
+    }
+    assertEquals(Arrays.asList("a", "b", "c"), future.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testAskAllFailsIfOneRequestFails() throws Exception {
+    TestProbe actor = new TestProbe(system);
+    CompletableFuture<List<Object>> future =
+        interServiceCommunication
+            .askAll(actor.ref(), Arrays.asList(request("a"), request("b")))
+            .toCompletableFuture();
+    for (int i = 0; i < 2; i++) {
+      Request request = actor.expectMsgClass(Request.class);
+      Object reply =
+          "a".equals(request.getOperation())
+              ? "a"
+              : new Status.Failure(new IllegalStateException("failed"));
+      actor.lastSender().tell(reply, ActorRef.noSender());
+    }
+    assertUnableToCommunicate(future);
+  }
+
+  @Test
+  public void testAskAllOfNoRequests() throws Exception {
+    TestProbe actor = new TestProbe(system);
+    List<Object> responses =
+        interServiceCommunication
+            .askAll(actor.ref(), Arrays.asList())
+            .toCompletableFuture()
+            .get(5, TimeUnit.SECONDS);
+    assertTrue(responses.isEmpty());
+    actor.expectNoMsg(Duration.create(100, TimeUnit.MILLISECONDS));
+  }
+
+  private static void assertUnableToCommunicate(CompletableFuture<?> future) throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("future completed without failure");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof ProjectCommonException);
+      assertEquals(
+          ResponseCode.unableToCommunicateWithActor.getErrorCode(),
+          ((ProjectCommonException) e.getCause()).getCode());
+    }
+  }
+
+  private static Request request(String operation) {
+    Request request = new Request();
+    request.setOperation(operation);
+    return request;
+  }
+}
@@ -0,0 +1,122 @@
+package org.sunbird.actorutil.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import akka.actor.ActorRef;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.GeoLocationJsonKey;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.responsecode.ResponseCode;
+import org.sunbird.models.location.Location;
+
+public class LocationLookupBatcherTest {
+
+  private final List<List<String>> searches = Collections.synchronizedList(new ArrayList<>());
+  private final CompletableFuture<List<Location>> result = new CompletableFuture<>();
+
+  private CompletableFuture<List<Location>> search(
+      ActorRef actorRef, String param, List<String> values) {
+    searches.add(values);
+    return result;
+  }
+
+  @Test
+  public void testLookupsWithinWindowAreCoalesced() throws Exception {
+    LocationLookupBatcher batcher = new LocationLookupBatcher(this::search, 500, 100);
+    CompletableFuture<Location> first = batcher.lookup(null, JsonKey.ID, "a");
+    CompletableFuture<Location> second = batcher.lookup(null, JsonKey.ID, "b");
+    assertSame(first, batcher.lookup(null, JsonKey.ID, "a"));
+    assertFalse(first.isDone());
+
+    result.complete(Arrays.asList(location("a", "A"), location("b", "B")));
+    assertEquals("a", first.get(5, TimeUnit.SECONDS).getId());
+    assertEquals("b", second.get(5, TimeUnit.SECONDS).getId());
+    assertEquals(Collections.singletonList(Arrays.asList("a", "b")), searches);
+  }
+
+  @Test
+  public void testFullBatchIsSentWithoutWaiting() throws Exception {
+    LocationLookupBatcher batcher = new LocationLookupBatcher(this::search, 60000, 2);
+    CompletableFuture<Location> first = batcher.lookup(null, JsonKey.ID, "a");
+    CompletableFuture<Location> second = batcher.lookup(null, JsonKey.ID, "b");
+    assertEquals(Collections.singletonList(Arrays.asList("a", "b")), searches);
+
+    result.complete(Collections.singletonList(location("b", "B")));
+    assertNull(first.get(5, TimeUnit.SECONDS));
+    assertEquals("b", second.get(5, TimeUnit.SECONDS).getId());
+  }
+
+  @Test
+  public void testCodesAreMatchedIgnoringCase() throws Exception {
+    LocationLookupBatcher batcher = new LocationLookupBatcher(this::search, 0, 2);
+    CompletableFuture<Location> upper = batcher.lookup(null, GeoLocationJsonKey.CODE, "BLK1");
+    CompletableFuture<Location> exact = batcher.lookup(null, GeoLocationJsonKey.CODE, "Blk2");
+
+    result.complete(Arrays.asList(location("a", "blk1"), location("b", "Blk2")));
+    assertEquals("a", upper.get(5, TimeUnit.SECONDS).getId());
+    assertEquals("b", exact.get(5, TimeUnit.SECONDS).getId());
+  }
+
+  @Test
+  public void testSearchFailureIsPropagatedToAllLookups() throws Exception {
+    LocationLookupBatcher batcher = new LocationLookupBatcher(this::search, 0, 2);
+    CompletableFuture<Location> first = batcher.lookup(null, JsonKey.ID, "a");
+    CompletableFuture<Location> second = batcher.lookup(null, JsonKey.ID, "b");
+    ProjectCommonException failure =
+        new ProjectCommonException(
+            ResponseCode.unableToCommunicateWithActor.getErrorCode(),
+            ResponseCode.unableToCommunicateWithActor.getErrorMessage(),
+            ResponseCode.SERVER_ERROR.getResponseCode());
+
+    result.completeExceptionally(failure);
+    assertFailedWith(failure, first);
+    assertFailedWith(failure, second);
+
+    // the failed keys are not kept pending
+    CompletableFuture<Location> retry = batcher.lookup(null, JsonKey.ID, "a");
+    assertNotSame(first, retry);
+  }
+
+  @Test
+  public void testSearchExceptionIsPropagated() throws Exception {
+    IllegalStateException failure = new IllegalStateException("search failed");
+    LocationLookupBatcher batcher =
+        new LocationLookupBatcher(
+            (actorRef, param, values) -> {
+              throw failure;
+            },
+            0,
+            1);
+    assertFailedWith(failure, batcher.lookup(null, JsonKey.ID, "a"));
+  }
+
+  private static void assertFailedWith(Throwable failure, CompletableFuture<Location> future)
+      throws Exception {
+    try {
+      future.get(5, TimeUnit.SECONDS);
+      fail("lookup completed without failure");
+    } catch (ExecutionException e) {
+      assertSame(failure, e.getCause());
+    }
+  }
+
+  private static Location location(String id, String code) {
+    Location location = new Location();
+    location.setId(id);
+    location.setCode(code);
+    return location;
+  }
+}
@@ -4,6 +4,7 @@ import akka.actor.ActorRef;
 import akka.actor.ActorSelection;
 import akka.pattern.Patterns;
 import akka.util.Timeout;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import java.util.HashMap;
 import java.util.Map;
@@ -24,6 +25,7 @@ import org.sunbird.global.ServiceBaseGlobal;
 import org.sunbird.telemetry.util.TelemetryConstant;
 import org.sunbird.telemetry.util.TelemetryEvents;
 import org.sunbird.telemetry.util.TelemetryLmaxWriter;
+import org.sunbird.telemetry.util.TelemetrySampler;
 import org.sunbird.util.ResponseIdUtil;
 import play.libs.F.Function;
 import play.libs.F.Promise;
@@ -42,10 +44,12 @@ import play.mvc.Results;
 public class BaseController extends Controller {
 
   private static final int AKKA_WAIT_TIME = 10;
+  private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
   protected Timeout timeout = new Timeout(AKKA_WAIT_TIME, TimeUnit.SECONDS);
   private static Object actorRef = null;
   private static ResponseIdUtil util = new ResponseIdUtil();
   private TelemetryLmaxWriter lmaxWriter = TelemetryLmaxWriter.getInstance();
+  private TelemetrySampler telemetrySampler = TelemetrySampler.getInstance();
 
   static {
     try {
@@ -263,8 +267,27 @@ public class BaseController extends Controller {
       response.getResult().remove(JsonKey.RESPONSE);
       response.getResult().put(key, value);
     }
-    return Results.ok(
-        Json.toJson(BaseController.createSuccessResponseBody(request, (Response) response)));
+    return createJsonResult(BaseController.createSuccessResponseBody(request, (Response) response));
+  }
+
+  /**
+   * Serialises the response straight to UTF-8 bytes instead of building a JsonNode tree first, so
+   * that {@link org.sunbird.common.models.response.RawJson} values (e.g. elastic search sources)
+   * are copied into the body as they are.
+   *
+   * @param response Response body
+   * @return Play success result with JSON body
+   */
+  private static Result createJsonResult(Response response) {
+    try {
+      return Results.ok(Json.mapper().writeValueAsBytes(response)).as(JSON_CONTENT_TYPE);
+    } catch (JsonProcessingException e) {
+      ProjectLogger.log(
+          "BaseController:createJsonResult: Exception occurred while serialising response "
+              + e.getMessage(),
+          LoggerEnum.ERROR.name());
+      return Results.ok(Json.toJson(response));
+    }
   }
 
   /**
@@ -440,13 +463,21 @@ public class BaseController extends Controller {
     if (TelemetryConstant.LOG_LEVEL_ERROR.equalsIgnoreCase(logLevel)) {
       params.put(JsonKey.STACKTRACE, stackTrace);
     }
-    org.sunbird.common.request.Request req = new org.sunbird.common.request.Request();
-    req.setRequest(
-        generateTelemetryRequestForController(
-            TelemetryEvents.LOG.getName(),
-            params,
-            (Map<String, Object>) requestInfo.get(JsonKey.CONTEXT)));
-    lmaxWriter.submitMessage(req);
+    // errors and slow requests are always kept, the others may be sampled out
+    double samplingRate = telemetrySampler.sample(TelemetryEvents.LOG.getName(), params);
+    if (samplingRate > 0) {
+      if (samplingRate < 1) {
+        // lets downstream counts be scaled by 1 / samplingRate
+        params.put(JsonKey.SAMPLING_RATE, samplingRate);
+      }
+      org.sunbird.common.request.Request req = new org.sunbird.common.request.Request();
+      req.setRequest(
+          generateTelemetryRequestForController(
+              TelemetryEvents.LOG.getName(),
+              params,
+              (Map<String, Object>) requestInfo.get(JsonKey.CONTEXT)));
+      lmaxWriter.submitMessage(req);
+    }
     // remove request info from map
     ServiceBaseGlobal.requestInfo.remove(ctx().flash().get(JsonKey.REQUEST_ID));
   }
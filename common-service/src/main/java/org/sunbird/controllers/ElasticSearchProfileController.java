@@ -0,0 +1,39 @@
+package org.sunbird.controllers;
+
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.helper.ElasticSearchProfiler;
+import org.sunbird.helper.ElasticSearchResilience;
+import play.libs.F.Promise;
+import play.mvc.Result;
+
+/**
+ * Admin controller exposing the elastic search profiling data (per search shape statistics and
+ * captured slow searches) and the elastic search resilience metrics.
+ */
+public class ElasticSearchProfileController extends BaseController {
+
+  /**
+   * This method will dump the search profiling data.
+   *
+   * @return Promise<Result>
+   */
+  public Promise<Result> getSearchProfile() {
+    Response response = new Response();
+    response.put(JsonKey.RESPONSE, ElasticSearchProfiler.dump());
+    response.put("resilience", ElasticSearchResilience.getMetrics());
+    return Promise.pure(createSuccessResponse(response, null, request(), false));
+  }
+
+  /**
+   * This method will clear the search profiling data.
+   *
+   * @return Promise<Result>
+   */
+  public Promise<Result> resetSearchProfile() {
+    ElasticSearchProfiler.reset();
+    Response response = new Response();
+    response.put(JsonKey.RESPONSE, JsonKey.SUCCESS);
+    return Promise.pure(createSuccessResponse(response, null, request(), false));
+  }
+}
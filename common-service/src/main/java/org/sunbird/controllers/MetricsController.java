@@ -0,0 +1,23 @@
+package org.sunbird.controllers;
+
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+import play.libs.F.Promise;
+import play.mvc.Controller;
+import play.mvc.Result;
+
+/**
+ * Controller exposing the actor, router and background lane metrics of the process in the
+ * Prometheus text format.
+ */
+public class MetricsController extends Controller {
+
+  /**
+   * This method will export all registered metrics.
+   *
+   * @return Promise<Result>
+   */
+  public Promise<Result> getMetrics() {
+    return Promise.pure(
+        ok(MetricsRegistry.getInstance().toPrometheus()).as("text/plain; version=0.0.4"));
+  }
+}
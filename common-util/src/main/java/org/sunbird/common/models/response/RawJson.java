@@ -0,0 +1,186 @@
+package org.sunbird.common.models.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Already serialised JSON value (e.g. an elastic search _source) which can be put inside a {@link
+ * Response}. Jackson writes the bytes as they are, so a UTF-8 generator copies them straight into
+ * the output without building an intermediate Map and serialising it again.
+ */
+public class RawJson implements JsonSerializable, Serializable {
+
+  private static final long serialVersionUID = 4893209358816451265L;
+  private final byte[] utf8;
+
+  /**
+   * @param utf8 UTF-8 encoded JSON value, not copied
+   */
+  public RawJson(byte[] utf8) {
+    this.utf8 = utf8;
+  }
+
+  public RawJson(String json) {
+    this(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public byte[] getBytes() {
+    return utf8;
+  }
+
+  public int length() {
+    return utf8.length;
+  }
+
+  @Override
+  public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+    gen.writeRawValue(new Utf8Value(utf8));
+  }
+
+  @Override
+  public void serializeWithType(
+      JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+      throws IOException {
+    serialize(gen, serializers);
+  }
+
+  @Override
+  public String toString() {
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Raw value handed to the generator. Byte based generators only use the unquoted UTF-8 form,
+   * char based ones fall back to the decoded string. The quoted forms, used when a generator or
+   * token buffer writes the value as a string, are encoded on first use.
+   */
+  static class Utf8Value implements SerializableString {
+    private final byte[] utf8;
+    private String value;
+    private char[] quotedChars;
+    private byte[] quotedUtf8;
+
+    Utf8Value(byte[] utf8) {
+      this.utf8 = utf8;
+    }
+
+    @Override
+    public String getValue() {
+      if (null == value) {
+        value = new String(utf8, StandardCharsets.UTF_8);
+      }
+      return value;
+    }
+
+    @Override
+    public int charLength() {
+      return getValue().length();
+    }
+
+    @Override
+    public char[] asQuotedChars() {
+      if (null == quotedChars) {
+        quotedChars = JsonStringEncoder.getInstance().quoteAsString(getValue());
+      }
+      return quotedChars;
+    }
+
+    @Override
+    public byte[] asUnquotedUTF8() {
+      return utf8;
+    }
+
+    @Override
+    public byte[] asQuotedUTF8() {
+      if (null == quotedUtf8) {
+        quotedUtf8 = JsonStringEncoder.getInstance().quoteAsUTF8(getValue());
+      }
+      return quotedUtf8;
+    }
+
+    @Override
+    public int appendQuotedUTF8(byte[] buffer, int offset) {
+      return append(asQuotedUTF8(), buffer, offset);
+    }
+
+    @Override
+    public int appendQuoted(char[] buffer, int offset) {
+      char[] quoted = asQuotedChars();
+      if (offset + quoted.length > buffer.length) {
+        return -1;
+      }
+      System.arraycopy(quoted, 0, buffer, offset, quoted.length);
+      return quoted.length;
+    }
+
+    @Override
+    public int appendUnquotedUTF8(byte[] buffer, int offset) {
+      return append(utf8, buffer, offset);
+    }
+
+    @Override
+    public int appendUnquoted(char[] buffer, int offset) {
+      String str = getValue();
+      if (offset + str.length() > buffer.length) {
+        return -1;
+      }
+      str.getChars(0, str.length(), buffer, offset);
+      return str.length();
+    }
+
+    @Override
+    public int writeQuotedUTF8(OutputStream out) throws IOException {
+      return write(asQuotedUTF8(), out);
+    }
+
+    @Override
+    public int writeUnquotedUTF8(OutputStream out) throws IOException {
+      return write(utf8, out);
+    }
+
+    @Override
+    public int putQuotedUTF8(ByteBuffer buffer) {
+      return put(asQuotedUTF8(), buffer);
+    }
+
+    @Override
+    public int putUnquotedUTF8(ByteBuffer buffer) {
+      return put(utf8, buffer);
+    }
+
+    private static int append(byte[] bytes, byte[] buffer, int offset) {
+      if (offset + bytes.length > buffer.length) {
+        return -1;
+      }
+      System.arraycopy(bytes, 0, buffer, offset, bytes.length);
+      return bytes.length;
+    }
+
+    private static int write(byte[] bytes, OutputStream out) throws IOException {
+      out.write(bytes);
+      return bytes.length;
+    }
+
+    private static int put(byte[] bytes, ByteBuffer buffer) {
+      if (bytes.length > buffer.remaining()) {
+        return -1;
+      }
+      buffer.put(bytes);
+      return bytes.length;
+    }
+
+    @Override
+    public String toString() {
+      return getValue();
+    }
+  }
+}
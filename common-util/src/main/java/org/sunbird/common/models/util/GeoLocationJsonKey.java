@@ -10,6 +10,12 @@ public class GeoLocationJsonKey {
   public static final String LOCATION_TYPE = "type";
   public static final String PARENT_ID = "parentId";
   public static final String SUNBIRD_VALID_LOCATION_TYPES = "sunbird_valid_location_types";
+  public static final String SUNBIRD_LOCATION_CACHE_TTL_MILLIS =
+      "sunbird_location_cache_ttl_millis";
+  public static final String SUNBIRD_LOCATION_CACHE_MAX_SIZE = "sunbird_location_cache_max_size";
+  public static final String SUNBIRD_LOCATION_BATCH_WINDOW_MILLIS =
+      "sunbird_location_batch_window_millis";
+  public static final String SUNBIRD_LOCATION_BATCH_MAX_SIZE = "sunbird_location_batch_max_size";
   public static final String PROPERTY_NAME = "name";
   public static final String PROPERTY_VALUE = "value";
 }
@@ -6,6 +6,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
@@ -367,6 +368,76 @@ public class HttpUtil {
     return response;
   }
 
+  /** Writer of a request body directly to the connection output. */
+  public interface BodyWriter {
+    void write(OutputStream out) throws IOException;
+  }
+
+  /**
+   * Makes an HTTP request using POST method to the specified URL, streaming the body in chunks
+   * instead of building it in memory first.
+   *
+   * @param requestURL the URL of the remote server
+   * @param body Writer of the request body
+   * @param headers the Map <String,String>
+   * @param timeoutMillis Connect and read timeout, 0 for none
+   * @return HttpUtilResponse, with the body of error responses as well
+   * @throws IOException thrown if any I/O error occurred
+   */
+  public static HttpUtilResponse postStream(
+      String requestURL, BodyWriter body, Map<String, String> headers, int timeoutMillis)
+      throws IOException {
+    long startTime = System.currentTimeMillis();
+    HttpURLConnection httpURLConnection = (HttpURLConnection) new URL(requestURL).openConnection();
+    httpURLConnection.setConnectTimeout(timeoutMillis);
+    httpURLConnection.setReadTimeout(timeoutMillis);
+    httpURLConnection.setUseCaches(false);
+    httpURLConnection.setDoInput(true);
+    httpURLConnection.setDoOutput(true);
+    httpURLConnection.setChunkedStreamingMode(0);
+    httpURLConnection.setRequestMethod(ProjectUtil.Method.POST.name());
+    if (headers != null && headers.size() > 0) {
+      setHeaders(httpURLConnection, headers);
+    }
+    try (OutputStream out = httpURLConnection.getOutputStream()) {
+      body.write(out);
+    }
+    int statusCode = httpURLConnection.getResponseCode();
+    String responseBody = "";
+    // error responses are read as well, callers may act on the reason given by the server
+    try (InputStream inStream =
+        statusCode < 400
+            ? httpURLConnection.getInputStream()
+            : httpURLConnection.getErrorStream()) {
+      if (null != inStream) {
+        responseBody = readBody(inStream);
+      }
+    } catch (IOException ex) {
+      ProjectLogger.log("Exception occurred while reading body" + ex);
+    } finally {
+      httpURLConnection.disconnect();
+    }
+    HttpUtilResponse response = new HttpUtilResponse(responseBody, statusCode);
+    ProjectLogger.log(
+        "HttpUtil postStream for requestURL "
+            + requestURL
+            + " ,Total time elapsed = "
+            + (System.currentTimeMillis() - startTime),
+        LoggerEnum.PERF_LOG);
+    return response;
+  }
+
+  private static String readBody(InputStream inStream) throws IOException {
+    StringBuilder builder = new StringBuilder();
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(inStream, StandardCharsets.UTF_8));
+    String line;
+    while ((line = reader.readLine()) != null) {
+      builder.append(line);
+    }
+    return builder.toString();
+  }
+
   private static String getResponse(HttpURLConnection httpURLConnection) throws IOException {
     InputStream inStream = null;
     BufferedReader reader = null;
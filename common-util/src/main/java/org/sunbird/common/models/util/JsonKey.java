@@ -12,6 +12,15 @@ public final class JsonKey {
   public static final String MW_SYSTEM_HOST = "sunbird_mw_system_host";
   public static final String MW_SYSTEM_PORT = "sunbird_mw_system_port";
   public static final String MW_SYSTEM_CLIENT_PORT = "sunbird_mw_system_client_port";
+  public static final String SUNBIRD_ACTOR_BINARY_SERIALIZATION =
+      "sunbird_actor_binary_serialization";
+  public static final String SUNBIRD_ACTOR_BINARY_DICTIONARY_VERSION =
+      "sunbird_actor_binary_dictionary_version";
+  public static final String BACKGROUND_ROUTER_MAILBOX_CAPACITY =
+      "background_router_mailbox_capacity";
+  public static final String SUNBIRD_BACKGROUND_TASK_LOG_ENABLED =
+      "sunbird_background_task_log_enabled";
+  public static final String BACKGROUND_TASK_ID = "backgroundTaskId";
   public static final String ACCESS_TOKEN = "access_token";
   public static final String ACCESSTOKEN = "accessToken";
   public static final String ACCOUNT_KEY = "sunbird_account_key";
@@ -671,6 +680,7 @@ public final class JsonKey {
   public static final String ONBOARDING_MAIL_MESSAGE = "onboarding_welcome_message";
   public static final String SUNBIRD_DEFAULT_WELCOME_MSG = "sunbird_default_welcome_sms";
   public static final String SUNBIRD_DEFAULT_USER_TYPE = "sunbird_default_user_type";
+  public static final String SAMPLING_RATE = "samplingRate";
 
   private JsonKey() {}
 }
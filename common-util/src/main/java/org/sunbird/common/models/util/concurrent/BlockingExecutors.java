@@ -0,0 +1,198 @@
+package org.sunbird.common.models.util.concurrent;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+import org.sunbird.common.request.ExecutionContext;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Dedicated executors for blocking calls to the backends, so that a slow backend only exhausts its
+ * own threads instead of the actor dispatcher. Every backend has a fixed size pool
+ * (sunbird_io_executor_threads_&lt;backend&gt;) with a bounded queue
+ * (sunbird_io_executor_queue_size_&lt;backend&gt;); calls beyond the queue are rejected with
+ * serviceBusy. The request context of the calling thread is carried over to the executor thread.
+ */
+public class BlockingExecutors {
+
+  /** Backends with a dedicated executor. */
+  public enum Backend {
+    CASSANDRA(32, 1000),
+    ES(16, 1000),
+    HTTP(16, 500),
+    SSO(8, 200);
+
+    private final int defaultThreads;
+    private final int defaultQueueSize;
+
+    Backend(int defaultThreads, int defaultQueueSize) {
+      this.defaultThreads = defaultThreads;
+      this.defaultQueueSize = defaultQueueSize;
+    }
+
+    String getName() {
+      return name().toLowerCase();
+    }
+  }
+
+  private static final Map<Backend, BackendExecutor> executors = new EnumMap<>(Backend.class);
+
+  static {
+    for (Backend backend : Backend.values()) {
+      executors.put(backend, new BackendExecutor(backend));
+    }
+  }
+
+  private BlockingExecutors() {}
+
+  /**
+   * This method will run a blocking call on the executor of a backend.
+   *
+   * @param backend Backend called
+   * @param call Blocking call
+   * @return Future completed with the result of the call
+   * @throws ProjectCommonException serviceBusy when the queue of the backend is full
+   */
+  public static <T> CompletableFuture<T> supply(Backend backend, Callable<T> call) {
+    return executors.get(backend).submit(call);
+  }
+
+  /** Executor of one backend with its metrics. */
+  private static class BackendExecutor {
+    private final Backend backend;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rejected;
+    private final LatencyHistogram waitTime;
+
+    BackendExecutor(Backend backend) {
+      this.backend = backend;
+      int threads = Math.max(1, getIntValue("threads", backend, backend.defaultThreads));
+      int queueSize = Math.max(1, getIntValue("queue_size", backend, backend.defaultQueueSize));
+      executor =
+          new ThreadPoolExecutor(
+              threads,
+              threads,
+              60,
+              TimeUnit.SECONDS,
+              new ArrayBlockingQueue<>(queueSize),
+              new NamedThreadFactory("sunbird-io-" + backend.getName()));
+      executor.allowCoreThreadTimeOut(true);
+      MetricsRegistry registry = MetricsRegistry.getInstance();
+      String name = backend.getName();
+      registry.gauge(
+          "sunbird_io_executor_queue_depth",
+          "Calls waiting for a thread of the backend executor",
+          () -> executor.getQueue().size(),
+          "backend",
+          name);
+      registry.gauge(
+          "sunbird_io_executor_active_threads",
+          "Threads of the backend executor running a call",
+          executor::getActiveCount,
+          "backend",
+          name);
+      registry.gauge(
+          "sunbird_io_executor_max_threads",
+          "Maximum threads of the backend executor",
+          executor::getMaximumPoolSize,
+          "backend",
+          name);
+      registry.counter(
+          "sunbird_io_executor_completed_total",
+          "Calls completed by the backend executor",
+          executor::getCompletedTaskCount,
+          "backend",
+          name);
+      rejected =
+          registry.counter(
+              "sunbird_io_executor_rejected_total",
+              "Calls rejected because the backend executor queue was full",
+              "backend",
+              name);
+      waitTime =
+          registry.histogram(
+              "sunbird_io_executor_wait_time_millis",
+              "Time calls waited in the backend executor queue",
+              "backend",
+              name);
+    }
+
+    <T> CompletableFuture<T> submit(Callable<T> call) {
+      CompletableFuture<T> future = new CompletableFuture<>();
+      Map<String, Object> requestContext = ExecutionContext.getCurrent().getRequestContext();
+      long submitTime = System.currentTimeMillis();
+      try {
+        executor.execute(
+            () -> {
+              waitTime.record(System.currentTimeMillis() - submitTime);
+              ExecutionContext context = ExecutionContext.getCurrent();
+              Map<String, Object> previous = context.getRequestContext();
+              context.setRequestContext(requestContext);
+              try {
+                future.complete(call.call());
+              } catch (Throwable e) {
+                future.completeExceptionally(e);
+              } finally {
+                context.setRequestContext(previous);
+              }
+            });
+      } catch (RejectedExecutionException e) {
+        rejected.increment();
+        ProjectLogger.log(
+            "BlockingExecutors: " + backend.getName() + " executor is full, rejecting call",
+            LoggerEnum.WARN.name());
+        throw new ProjectCommonException(
+            ResponseCode.serviceBusy.getErrorCode(),
+            ResponseCode.serviceBusy.getErrorMessage(),
+            ResponseCode.TOO_MANY_REQUESTS.getResponseCode());
+      }
+      return future;
+    }
+  }
+
+  private static int getIntValue(String name, Backend backend, int defaultValue) {
+    String key = "sunbird_io_executor_" + name + "_" + backend.getName();
+    String value = PropertiesCache.getInstance().readProperty(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "BlockingExecutors: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
+  private static class NamedThreadFactory implements ThreadFactory {
+    private final String prefix;
+    private final AtomicInteger count = new AtomicInteger();
+
+    NamedThreadFactory(String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
+}
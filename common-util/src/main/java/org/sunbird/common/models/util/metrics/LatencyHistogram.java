@@ -0,0 +1,126 @@
+package org.sunbird.common.models.util.metrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free latency histogram with power of two millisecond buckets (0-1, 2, 4, ... 65536 and
+ * above). Recording is a couple of atomic increments, so it can be used on hot paths. Percentiles
+ * are estimated as the upper bound of the bucket they fall into.
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKET_COUNT = 18;
+  private static final long[] BOUNDS = new long[BUCKET_COUNT];
+
+  static {
+    for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+      BOUNDS[i] = 1L << i;
+    }
+    BOUNDS[BUCKET_COUNT - 1] = Long.MAX_VALUE;
+  }
+
+  private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public LatencyHistogram() {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  /**
+   * This method will record one observation.
+   *
+   * @param millis latency in milliseconds
+   */
+  public void record(long millis) {
+    long value = millis < 0 ? 0 : millis;
+    buckets[bucketIndex(value)].increment();
+    count.increment();
+    sum.add(value);
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getSum() {
+    return sum.sum();
+  }
+
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * This method will estimate the given percentile.
+   *
+   * @param percentile value between 0 and 100
+   * @return upper bound in milliseconds of the bucket holding the percentile
+   */
+  public long getPercentile(double percentile) {
+    long total = count.sum();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100.0);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets[i].sum();
+      if (seen >= rank) {
+        return i == BUCKET_COUNT - 1 ? max.get() : BOUNDS[i];
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * This method will provide the cumulative bucket counts keyed by bucket upper bound, "+Inf" for
+   * the last bucket.
+   *
+   * @return Map<String,Long>
+   */
+  public Map<String, Long> getBuckets() {
+    Map<String, Long> result = new LinkedHashMap<>();
+    long cumulative = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      cumulative += buckets[i].sum();
+      result.put(i == BUCKET_COUNT - 1 ? "+Inf" : String.valueOf(BOUNDS[i]), cumulative);
+    }
+    return result;
+  }
+
+  /**
+   * This method will provide a summary of the histogram (count, avg, max, p50, p95, p99).
+   *
+   * @return Map<String,Object>
+   */
+  public Map<String, Object> getSummary() {
+    Map<String, Object> summary = new HashMap<>();
+    long total = count.sum();
+    summary.put("count", total);
+    summary.put("avg", total == 0 ? 0 : sum.sum() / total);
+    summary.put("max", max.get());
+    summary.put("p50", getPercentile(50));
+    summary.put("p95", getPercentile(95));
+    summary.put("p99", getPercentile(99));
+    return summary;
+  }
+
+  private static int bucketIndex(long value) {
+    if (value <= 1) {
+      return 0;
+    }
+    int index = 64 - Long.numberOfLeadingZeros(value - 1);
+    return index >= BUCKET_COUNT ? BUCKET_COUNT - 1 : index;
+  }
+}
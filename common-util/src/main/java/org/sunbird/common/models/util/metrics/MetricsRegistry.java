@@ -0,0 +1,187 @@
+package org.sunbird.common.models.util.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Process wide registry of counters, gauges and {@link LatencyHistogram latency histograms}
+ * exportable in the Prometheus text format. Metrics are identified by name and label values given
+ * as alternating label names and values. Lookups and updates are lock free; callers on hot paths
+ * should keep the returned counter or histogram instead of looking it up for every event.
+ */
+public class MetricsRegistry {
+
+  private static final MetricsRegistry instance = new MetricsRegistry();
+
+  private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+  MetricsRegistry() {}
+
+  public static MetricsRegistry getInstance() {
+    return instance;
+  }
+
+  /**
+   * This method will provide the counter with the given name and labels, creating it if needed.
+   *
+   * @param name Metric name
+   * @param help Metric description
+   * @param labels Label names and values, alternating
+   * @return Counter
+   */
+  public LongAdder counter(String name, String help, String... labels) {
+    return (LongAdder)
+        getFamily(name, help, Type.COUNTER)
+            .metrics
+            .computeIfAbsent(formatLabels(labels), key -> new LongAdder());
+  }
+
+  /**
+   * This method will register a counter whose value is read from the given supplier, replacing a
+   * previous registration with the same labels.
+   */
+  public void counter(String name, String help, LongSupplier value, String... labels) {
+    getFamily(name, help, Type.COUNTER).metrics.put(formatLabels(labels), value);
+  }
+
+  /**
+   * This method will register a gauge whose value is read from the given supplier, replacing a
+   * previous registration with the same labels.
+   */
+  public void gauge(String name, String help, LongSupplier value, String... labels) {
+    getFamily(name, help, Type.GAUGE).metrics.put(formatLabels(labels), value);
+  }
+
+  /**
+   * This method will provide the histogram with the given name and labels, creating it if needed.
+   *
+   * @param name Metric name
+   * @param help Metric description
+   * @param labels Label names and values, alternating
+   * @return LatencyHistogram
+   */
+  public LatencyHistogram histogram(String name, String help, String... labels) {
+    return (LatencyHistogram)
+        getFamily(name, help, Type.HISTOGRAM)
+            .metrics
+            .computeIfAbsent(formatLabels(labels), key -> new LatencyHistogram());
+  }
+
+  /** This method will register an existing histogram, replacing one with the same labels. */
+  public void histogram(String name, String help, LatencyHistogram histogram, String... labels) {
+    getFamily(name, help, Type.HISTOGRAM).metrics.put(formatLabels(labels), histogram);
+  }
+
+  /**
+   * This method will remove a metric.
+   *
+   * @param name Metric name
+   * @param labels Label names and values, alternating
+   */
+  public void remove(String name, String... labels) {
+    Family family = families.get(name);
+    if (null != family) {
+      family.metrics.remove(formatLabels(labels));
+    }
+  }
+
+  /**
+   * This method will write all metrics in the Prometheus text exposition format (version 0.0.4).
+   *
+   * @return Metrics text
+   */
+  public String toPrometheus() {
+    StringBuilder builder = new StringBuilder(4096);
+    for (Family family : new TreeMap<>(families).values()) {
+      if (family.metrics.isEmpty()) {
+        continue;
+      }
+      builder.append("# HELP ").append(family.name).append(' ');
+      builder.append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+      builder.append("# TYPE ").append(family.name).append(' ');
+      builder.append(family.type.name().toLowerCase()).append('\n');
+      for (Map.Entry<String, Object> metric : new TreeMap<>(family.metrics).entrySet()) {
+        writeMetric(builder, family.name, metric.getKey(), metric.getValue());
+      }
+    }
+    return builder.toString();
+  }
+
+  private void writeMetric(StringBuilder builder, String name, String labels, Object metric) {
+    if (metric instanceof LatencyHistogram) {
+      LatencyHistogram histogram = (LatencyHistogram) metric;
+      String prefix = labels.isEmpty() ? "{" : labels.substring(0, labels.length() - 1) + ",";
+      for (Map.Entry<String, Long> bucket : histogram.getBuckets().entrySet()) {
+        builder.append(name).append("_bucket").append(prefix);
+        builder.append("le=\"").append(bucket.getKey()).append("\"} ");
+        builder.append(bucket.getValue()).append('\n');
+      }
+      builder.append(name).append("_sum").append(labels).append(' ');
+      builder.append(histogram.getSum()).append('\n');
+      builder.append(name).append("_count").append(labels).append(' ');
+      builder.append(histogram.getCount()).append('\n');
+    } else {
+      long value;
+      if (metric instanceof LongAdder) {
+        value = ((LongAdder) metric).sum();
+      } else {
+        value = ((LongSupplier) metric).getAsLong();
+      }
+      builder.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+  }
+
+  private Family getFamily(String name, String help, Type type) {
+    Family family = families.get(name);
+    if (null == family) {
+      family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+    }
+    if (family.type != type) {
+      throw new IllegalArgumentException(
+          "MetricsRegistry: " + name + " is already registered as " + family.type);
+    }
+    return family;
+  }
+
+  private static String formatLabels(String... labels) {
+    if (null == labels || labels.length == 0) {
+      return "";
+    }
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("MetricsRegistry: labels must be name value pairs");
+    }
+    StringBuilder builder = new StringBuilder("{");
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(labels[i]).append("=\"");
+      String value = null == labels[i + 1] ? "" : labels[i + 1];
+      builder.append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+      builder.append('"');
+    }
+    return builder.append('}').toString();
+  }
+
+  private enum Type {
+    COUNTER,
+    GAUGE,
+    HISTOGRAM
+  }
+
+  private static class Family {
+    private final String name;
+    private final String help;
+    private final Type type;
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+
+    Family(String name, String help, Type type) {
+      this.name = name;
+      this.help = null == help ? "" : help;
+      this.type = type;
+    }
+  }
+}
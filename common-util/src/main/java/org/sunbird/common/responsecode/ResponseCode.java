@@ -626,11 +626,13 @@ public enum ResponseCode {
       ResponseMessage.Message.ERROR_REGISTRY_ACCESS_TOKEN_BLANK),
   duplicateExternalIds(
       ResponseMessage.Key.DUPLICATE_EXTERNAL_IDS, ResponseMessage.Message.DUPLICATE_EXTERNAL_IDS),
+  serviceBusy(ResponseMessage.Key.SERVICE_BUSY, ResponseMessage.Message.SERVICE_BUSY),
   OK(200),
   CLIENT_ERROR(400),
   SERVER_ERROR(500),
   RESOURCE_NOT_FOUND(404),
   UNAUTHORIZED(401),
+  TOO_MANY_REQUESTS(429),
   REDIRECTION_REQUIRED(302);
   private int responseCode;
   /** error code contains String value */
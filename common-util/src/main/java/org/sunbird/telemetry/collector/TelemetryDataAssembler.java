@@ -1,8 +1,14 @@
 package org.sunbird.telemetry.collector;
 
 import java.util.Map;
+import org.sunbird.telemetry.dto.Telemetry;
 
-/** Created by arvind on 16/1/18. */
+/**
+ * Assembles telemetry events. The typed events are read back from the JSON ones unless an
+ * implementation builds them directly.
+ *
+ * <p>Created by arvind on 16/1/18.
+ */
 public interface TelemetryDataAssembler {
 
   public String audit(Map<String, Object> context, Map<String, Object> params);
@@ -12,4 +18,20 @@ public interface TelemetryDataAssembler {
   public String log(Map<String, Object> context, Map<String, Object> params);
 
   public String error(Map<String, Object> context, Map<String, Object> params);
+
+  public default Telemetry auditEvent(Map<String, Object> context, Map<String, Object> params) {
+    return TelemetryEventReader.read(audit(context, params));
+  }
+
+  public default Telemetry searchEvent(Map<String, Object> context, Map<String, Object> params) {
+    return TelemetryEventReader.read(search(context, params));
+  }
+
+  public default Telemetry logEvent(Map<String, Object> context, Map<String, Object> params) {
+    return TelemetryEventReader.read(log(context, params));
+  }
+
+  public default Telemetry errorEvent(Map<String, Object> context, Map<String, Object> params) {
+    return TelemetryEventReader.read(error(context, params));
+  }
 }
@@ -0,0 +1,35 @@
+package org.sunbird.telemetry.collector;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.telemetry.dto.Telemetry;
+
+/** Reads telemetry event JSON back into {@link Telemetry} objects for the assemblers. */
+final class TelemetryEventReader {
+
+  private static final ObjectMapper mapper =
+      new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+  private TelemetryEventReader() {}
+
+  /**
+   * Method to read a telemetry event.
+   *
+   * @param event Telemetry event JSON
+   * @return Telemetry event, null if the JSON is blank or not a telemetry event
+   */
+  static Telemetry read(String event) {
+    if (StringUtils.isBlank(event)) {
+      return null;
+    }
+    try {
+      return mapper.readValue(event, Telemetry.class);
+    } catch (IOException e) {
+      ProjectLogger.log(e.getMessage(), e);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package org.sunbird.telemetry.util;
+
+import com.lmax.disruptor.EventHandler;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+
+/**
+ * One of several handlers that generate telemetry events in parallel. Every handler sees every
+ * sequence of the ring buffer but only processes the events of its shard, storing the result in
+ * the slot of the shared results array for {@link TelemetryFlushHandler}.
+ */
+class ShardedWriteEventHandler implements EventHandler<Request> {
+
+  /** Key used to assign an event to a shard. */
+  enum ShardKey {
+    /** Request id of the telemetry context, events of one request keep their order. */
+    REQUEST_ID,
+    /** Telemetry event type, events of one type keep their order. */
+    EVENT_TYPE,
+    /** Ring buffer sequence, no ordering. */
+    SEQUENCE;
+
+    /** Parses request-id style names, REQUEST_ID for unknown values. */
+    static ShardKey parse(String value) {
+      for (ShardKey key : values()) {
+        if (key.name().replace('_', '-').equalsIgnoreCase(String.valueOf(value).trim())
+            || key.name().equalsIgnoreCase(String.valueOf(value).trim())) {
+          return key;
+        }
+      }
+      return REQUEST_ID;
+    }
+  }
+
+  private final int shard;
+  private final int shardCount;
+  private final ShardKey shardKey;
+  private final Function<Request, Object> generator;
+  private final LongPredicate dropped;
+  private final Object[] results;
+  private final int mask;
+
+  ShardedWriteEventHandler(
+      int shard,
+      int shardCount,
+      ShardKey shardKey,
+      Function<Request, Object> generator,
+      LongPredicate dropped,
+      Object[] results) {
+    this.shard = shard;
+    this.shardCount = shardCount;
+    this.shardKey = shardKey;
+    this.generator = generator;
+    this.dropped = dropped;
+    this.results = results;
+    this.mask = results.length - 1;
+  }
+
+  @Override
+  public void onEvent(Request request, long sequence, boolean endOfBatch) {
+    if (shardOf(request, sequence) == shard && !dropped.test(sequence)) {
+      results[(int) (sequence & mask)] = generator.apply(request);
+    }
+  }
+
+  private int shardOf(Request request, long sequence) {
+    String key = null;
+    if (ShardKey.EVENT_TYPE == shardKey) {
+      key = (String) request.getRequest().get(JsonKey.TELEMETRY_EVENT_TYPE);
+    } else if (ShardKey.REQUEST_ID == shardKey) {
+      Object context = request.getRequest().get(JsonKey.CONTEXT);
+      if (context instanceof Map) {
+        key = (String) ((Map<String, Object>) context).get(JsonKey.REQUEST_ID);
+      }
+    }
+    if (StringUtils.isEmpty(key)) {
+      return (int) (sequence % shardCount);
+    }
+    return Math.floorMod(key.hashCode(), shardCount);
+  }
+}
@@ -1,12 +1,26 @@
 package org.sunbird.telemetry.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.net.HttpHeaders;
 import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 import javax.ws.rs.core.MediaType;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.response.HttpUtilResponse;
 import org.sunbird.common.models.util.HttpUtil;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
@@ -19,14 +33,62 @@ import org.sunbird.common.request.TelemetryV3Request;
 /**
  * Dispatcher for telemetry data to Sunbird telemetry service. Sunbird telemetry service is
  * responsible for storing telemetry data in Sunbird and/or Ekstep platform based on configuration.
+ * Batches are compressed while they are written with the content encoding of
+ * sunbird_telemetry_compression (gzip, deflate or none, the default) at
+ * sunbird_telemetry_compression_level. If the service rejects an encoded body with 415, or with a
+ * 400 naming the encoding, that batch is sent again uncompressed; later batches are still encoded.
  *
  * @author Manzarul
  */
-public class SunbirdTelemetryEventConsumer {
+public class SunbirdTelemetryEventConsumer implements TelemetryDispatcher {
+
+  /** Content encoding of the batch request body. */
+  enum Compression {
+    NONE,
+    GZIP,
+    DEFLATE;
+
+    /** Parses the encoding name, NONE for unknown values. */
+    static Compression parse(String value) {
+      for (Compression compression : values()) {
+        if (compression.name().equalsIgnoreCase(StringUtils.trim(value))) {
+          return compression;
+        }
+      }
+      return NONE;
+    }
+  }
 
   private static SunbirdTelemetryEventConsumer consumer = new SunbirdTelemetryEventConsumer();
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final int DEFAULT_TIMEOUT_MILLIS = 10000;
+  private static final int BUFFER_SIZE = 8192;
 
-  private SunbirdTelemetryEventConsumer() {}
+  static {
+    mapper.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    mapper.getFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+  }
+
+  private final String telemetryUrl;
+  private final int compressionLevel;
+  private final Compression compression;
+
+  private SunbirdTelemetryEventConsumer() {
+    PropertiesCache properties = PropertiesCache.getInstance();
+    this.telemetryUrl = null;
+    this.compression = Compression.parse(properties.readProperty("sunbird_telemetry_compression"));
+    this.compressionLevel =
+        getIntValue(
+            properties.readProperty("sunbird_telemetry_compression_level"),
+            Deflater.DEFAULT_COMPRESSION);
+  }
+
+  SunbirdTelemetryEventConsumer(
+      String telemetryUrl, Compression compression, int compressionLevel) {
+    this.telemetryUrl = telemetryUrl;
+    this.compression = compression;
+    this.compressionLevel = compressionLevel;
+  }
 
   public static SunbirdTelemetryEventConsumer getInstance() {
     if (null == consumer) {
@@ -58,6 +120,197 @@ public class SunbirdTelemetryEventConsumer {
     }
   }
 
+  /**
+   * This method will send a batch of telemetry events, writing the request body once straight to
+   * the connection.
+   *
+   * @param events Telemetry objects or telemetry JSON strings
+   */
+  public void consume(List<?> events) {
+    dispatch(events);
+  }
+
+  /**
+   * This method will send a batch of telemetry events, writing the request body once straight to
+   * the connection.
+   *
+   * @param events Telemetry objects or telemetry JSON strings
+   * @return true if the telemetry service accepted the batch
+   */
+  @Override
+  public boolean dispatch(List<?> events) {
+    if (null == events || events.isEmpty()) {
+      return true;
+    }
+    try {
+      HttpUtilResponse response = post(events, compression);
+      if (isEncodingRejected(response, compression)) {
+        ProjectLogger.log(
+            "SunbirdTelemetryEventConsumer:dispatch: "
+                + compression
+                + " request rejected with status "
+                + response.getStatusCode()
+                + ", sending the batch uncompressed",
+            LoggerEnum.WARN.name());
+        response = post(events, Compression.NONE);
+      }
+      ProjectLogger.log(
+          "SunbirdTelemetryEventConsumer:consume: Request process status = "
+              + response.getStatusCode()
+              + " for "
+              + events.size()
+              + " events",
+          LoggerEnum.INFO.name());
+      return response.getStatusCode() / 100 == 2;
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "SunbirdTelemetryEventConsumer:consume: Generic exception occurred in sending telemetry request = "
+              + e.getMessage(),
+          e);
+      ProjectLogger.log(
+          "SunbirdTelemetryEventConsumer:consume: Failure request = " + toJson(events),
+          LoggerEnum.INFO.name());
+      return false;
+    }
+  }
+
+  /** Checks whether the service rejected the content encoding rather than the events. */
+  private static boolean isEncodingRejected(HttpUtilResponse response, Compression encoding) {
+    if (Compression.NONE == encoding) {
+      return false;
+    }
+    int status = response.getStatusCode();
+    String body = response.getBody();
+    return status == 415
+        || (status == 400
+            && (StringUtils.containsIgnoreCase(body, encoding.name())
+                || StringUtils.containsIgnoreCase(body, HttpHeaders.CONTENT_ENCODING)));
+  }
+
+  private HttpUtilResponse post(List<?> events, Compression encoding) throws IOException {
+    Map<String, String> headers = getHeaders();
+    if (Compression.NONE != encoding) {
+      headers.put(HttpHeaders.CONTENT_ENCODING, encoding.name().toLowerCase());
+    }
+    return HttpUtil.postStream(
+        getTelemetryUrl(),
+        out -> writeTelemetryRequest(out, events, encoding),
+        headers,
+        getTimeoutMillis());
+  }
+
+  /**
+   * This method will write the telemetry request of a batch of events, compressing it on the fly.
+   *
+   * @param out Output of the request body, left open
+   * @param events Telemetry objects or telemetry JSON strings
+   * @param encoding Content encoding of the body
+   * @throws IOException thrown if any I/O error occurred
+   */
+  void writeTelemetryRequest(OutputStream out, List<?> events, Compression encoding)
+      throws IOException {
+    if (Compression.NONE == encoding) {
+      writeTelemetryRequest(out, events);
+      return;
+    }
+    if (Compression.GZIP == encoding) {
+      GzipOutputStream gzip = new GzipOutputStream(out, compressionLevel);
+      try {
+        writeTelemetryRequest(gzip, events);
+        gzip.finish();
+      } finally {
+        gzip.end();
+      }
+    } else {
+      Deflater deflater = new Deflater(compressionLevel);
+      try {
+        DeflaterOutputStream deflate = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+        writeTelemetryRequest(deflate, events);
+        deflate.finish();
+      } finally {
+        deflater.end();
+      }
+    }
+  }
+
+  private int getTimeoutMillis() {
+    return getIntValue(
+        PropertiesCache.getInstance().readProperty("sunbird_telemetry_timeout_millis"),
+        DEFAULT_TIMEOUT_MILLIS);
+  }
+
+  private static int getIntValue(String value, int defaultValue) {
+    try {
+      return StringUtils.isBlank(value) ? defaultValue : Integer.parseInt(value.trim());
+    } catch (NumberFormatException e) {
+      return defaultValue;
+    }
+  }
+
+  /**
+   * This method will write the telemetry request of a batch of events. Events given as JSON strings
+   * are copied as they are if they hold a single JSON object, others are serialised directly into
+   * the output.
+   *
+   * @param out Output of the request body, left open
+   * @param events Telemetry objects or telemetry JSON strings
+   * @throws IOException thrown if any I/O error occurred
+   */
+  public void writeTelemetryRequest(OutputStream out, List<?> events) throws IOException {
+    try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeObjectFieldStart(JsonKey.REQUEST);
+      generator.writeNumberField(JsonKey.ETS, System.currentTimeMillis());
+      generator.writeObjectFieldStart(JsonKey.PARAMS);
+      generator.writeEndObject();
+      generator.writeArrayFieldStart(JsonKey.EVENTS);
+      for (Object event : events) {
+        if (event instanceof String) {
+          writeEvent(generator, (String) event);
+        } else {
+          mapper.writeValue(generator, event);
+        }
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndObject();
+    }
+  }
+
+  /** Copies an event JSON, writing it as a string value if it is not a single JSON object. */
+  private static void writeEvent(JsonGenerator generator, String event) throws IOException {
+    if (isJsonObject(event)) {
+      generator.writeRawValue(event);
+    } else {
+      ProjectLogger.log(
+          "SunbirdTelemetryEventConsumer:writeEvent: Invalid telemetry event JSON = " + event,
+          LoggerEnum.WARN.name());
+      generator.writeString(event);
+    }
+  }
+
+  private static boolean isJsonObject(String event) {
+    try (JsonParser parser = mapper.getFactory().createParser(event)) {
+      if (JsonToken.START_OBJECT != parser.nextToken()) {
+        return false;
+      }
+      parser.skipChildren();
+      return null == parser.nextToken();
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private String toJson(List<?> events) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try {
+      writeTelemetryRequest(out, events);
+    } catch (IOException e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
   public Map<String, String> getHeaders() {
     Map<String, String> headers = new HashMap<>();
     headers.put(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON);
@@ -72,6 +325,9 @@ public class SunbirdTelemetryEventConsumer {
    * @return Complete url for telemetry service.
    */
   public String getTelemetryUrl() {
+    if (null != telemetryUrl) {
+      return telemetryUrl;
+    }
     String telemetryBaseUrl =
         ProjectUtil.getConfigValue(JsonKey.SUNBIRD_TELEMETRY_BASE_URL)
             + PropertiesCache.getInstance().getProperty(JsonKey.SUNBIRD_TELEMETRY_API_PATH);
@@ -108,4 +364,17 @@ public class SunbirdTelemetryEventConsumer {
     map.put(JsonKey.REQUEST, telemetryV3Request);
     return map;
   }
+
+  /** GZIP stream with the configured compression level, the caller ends it after finish(). */
+  private static class GzipOutputStream extends GZIPOutputStream {
+    private GzipOutputStream(OutputStream out, int level) throws IOException {
+      super(out, BUFFER_SIZE);
+      def.setLevel(level);
+    }
+
+    /** Releases the deflater without closing the underlying stream. */
+    private void end() {
+      def.end();
+    }
+  }
 }
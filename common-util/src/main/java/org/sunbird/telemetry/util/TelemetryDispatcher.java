@@ -0,0 +1,15 @@
+package org.sunbird.telemetry.util;
+
+import java.util.List;
+
+/** Destination of telemetry event batches. */
+public interface TelemetryDispatcher {
+
+  /**
+   * Method to send a batch of telemetry events.
+   *
+   * @param events Telemetry objects or telemetry JSON strings
+   * @return true if the destination accepted the batch
+   */
+  boolean dispatch(List<?> events);
+}
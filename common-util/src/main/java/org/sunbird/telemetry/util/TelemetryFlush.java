@@ -1,32 +1,29 @@
 package org.sunbird.telemetry.util;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.common.models.util.ProjectUtil;
-import org.sunbird.common.request.Request;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.telemetry.dto.Telemetry;
 
 /**
- * Class to Receive the telemetry messages and once queue reached threshold value flush the messages
- * to the appropriate consumer
+ * Class to Receive the telemetry messages and hand them to the {@link TelemetrySink}, which sends
+ * them in batches of the queue threshold size to the appropriate consumer. The consumer is the
+ * Sunbird telemetry service, or Kafka with sunbird_telemetry_sink=kafka when the kafka-client
+ * module is on the classpath.
  *
  * @author arvind
  */
 public class TelemetryFlush {
 
-  private Queue<String> queue = new ConcurrentLinkedQueue<>();
+  private static final String KAFKA_SINK = "kafka";
+  private static final String KAFKA_DISPATCHER =
+      "org.sunbird.kafka.client.KafkaTelemetryDispatcher";
   private int thresholdSize = 20;
-  private static ObjectMapper mapper = new ObjectMapper();
   private static TelemetryFlush telemetryFlush;
-  SunbirdTelemetryEventConsumer consumer = SunbirdTelemetryEventConsumer.getInstance();
+  private TelemetrySink sink;
 
   public static TelemetryFlush getInstance() {
     if (telemetryFlush == null) {
@@ -51,6 +48,28 @@ public class TelemetryFlush {
             "TelemetryFlush:TelemetryFlush: Threshold size from config is not integer", ex);
       }
     }
+    sink = new TelemetrySink(getDispatcher(), thresholdSize);
+  }
+
+  TelemetryFlush(TelemetrySink sink) {
+    this.sink = sink;
+  }
+
+  private static TelemetryDispatcher getDispatcher() {
+    String sinkType = PropertiesCache.getInstance().readProperty("sunbird_telemetry_sink");
+    if (KAFKA_SINK.equalsIgnoreCase(StringUtils.trim(sinkType))) {
+      try {
+        // kafka-client depends on this module, so the dispatcher is looked up at runtime
+        return (TelemetryDispatcher)
+            Class.forName(KAFKA_DISPATCHER).getMethod("getInstance").invoke(null);
+      } catch (Exception e) {
+        ProjectLogger.log(
+            "TelemetryFlush:getDispatcher: unable to create the kafka dispatcher, sending "
+                + "telemetry to the telemetry service",
+            e);
+      }
+    }
+    return SunbirdTelemetryEventConsumer.getInstance();
   }
 
   /**
@@ -62,39 +81,28 @@ public class TelemetryFlush {
     writeToQueue(message);
   }
 
-  private void writeToQueue(String message) {
-    queue.offer(message);
-    if (queue.size() >= thresholdSize) {
-      List<String> list = new ArrayList<>();
-      for (int i = 1; i <= thresholdSize; i++) {
-        String obj = queue.poll();
-        if (obj == null) {
-          break;
-        } else {
-          list.add(obj);
-        }
-      }
-      Request req = createTelemetryRequest(list);
-      consumer.consume(req);
-    }
+  /**
+   * Method to flush a validated telemetry event to the destination, it is serialised only once
+   * while writing the batch request.
+   *
+   * @param telemetry Telemetry event
+   */
+  public void flushTelemetry(Telemetry telemetry) {
+    writeToQueue(telemetry);
   }
 
-  private Request createTelemetryRequest(List<String> eventList) {
-    Request req = null;
-    try {
-      List<Map<String, Object>> jsonList =
-          mapper.readValue(eventList.toString(), new TypeReference<List<Map<String, Object>>>() {});
-      Map<String, Object> map = new HashMap<>();
-      map.put(JsonKey.ETS, System.currentTimeMillis());
-      map.put(JsonKey.EVENTS, jsonList);
-      req = new Request();
-      req.getRequest().putAll(map);
-      return req;
-    } catch (Exception e) {
-      ProjectLogger.log(
-          "TelemetryFlush:createTelemetryRequest: Failed to create request for telemetry flush.",
-          e);
+  /**
+   * Method to flush a batch of validated telemetry events to the destination
+   *
+   * @param events Telemetry objects or telemetry JSON strings
+   */
+  public void flushTelemetry(List<?> events) {
+    for (Object event : events) {
+      writeToQueue(event);
     }
-    return req;
+  }
+
+  private void writeToQueue(Object message) {
+    sink.offer(message);
   }
 }
@@ -0,0 +1,43 @@
+package org.sunbird.telemetry.util;
+
+import com.lmax.disruptor.EventHandler;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.sunbird.common.request.Request;
+
+/**
+ * Flush stage that runs after all {@link ShardedWriteEventHandler}s. It collects the generated
+ * events of a batch of sequences and flushes them in one call at the end of the batch, or when
+ * the batch reaches the maximum size.
+ */
+class TelemetryFlushHandler implements EventHandler<Request> {
+
+  private final Object[] results;
+  private final int mask;
+  private final int maxBatchSize;
+  private final Consumer<List<Object>> flusher;
+  private final List<Object> batch = new ArrayList<>();
+
+  TelemetryFlushHandler(Object[] results, int maxBatchSize, Consumer<List<Object>> flusher) {
+    this.results = results;
+    this.mask = results.length - 1;
+    this.maxBatchSize = maxBatchSize;
+    this.flusher = flusher;
+  }
+
+  @Override
+  public void onEvent(Request request, long sequence, boolean endOfBatch) {
+    int index = (int) (sequence & mask);
+    Object event = results[index];
+    if (null != event) {
+      // clear the slot so an event skipped on the next lap is not flushed twice
+      results[index] = null;
+      batch.add(event);
+    }
+    if (!batch.isEmpty() && (endOfBatch || batch.size() >= maxBatchSize)) {
+      flusher.accept(new ArrayList<>(batch));
+      batch.clear();
+    }
+  }
+}
@@ -36,8 +36,20 @@ public class TelemetryGenerator {
    * @return Telemetry event
    */
   public static String audit(Map<String, Object> context, Map<String, Object> params) {
+    Telemetry telemetry = auditEvent(context, params);
+    return null == telemetry ? "" : getTelemetry(telemetry);
+  }
+
+  /**
+   * Method to generate the audit telemetry event without serialising it.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the telemetry event data info
+   * @return Telemetry event, null for an empty context or params
+   */
+  public static Telemetry auditEvent(Map<String, Object> context, Map<String, Object> params) {
     if (!validateRequest(context, params)) {
-      return "";
+      return null;
     }
     String actorId = (String) context.get(JsonKey.ACTOR_ID);
     String actorType = (String) context.get(JsonKey.ACTOR_TYPE);
@@ -63,7 +75,7 @@ public class TelemetryGenerator {
 
     Telemetry telemetry =
         new Telemetry(TelemetryEvents.AUDIT.getName(), actor, eventContext, edata, targetObject);
-    return getTelemetry(telemetry);
+    return telemetry;
   }
 
   private static void setCorrelatedDataToContext(Object correlatedObjects, Context eventContext) {
@@ -175,9 +187,21 @@ public class TelemetryGenerator {
    * @return Search Telemetry event
    */
   public static String search(Map<String, Object> context, Map<String, Object> params) {
+    Telemetry telemetry = searchEvent(context, params);
+    return null == telemetry ? "" : getTelemetry(telemetry);
+  }
+
+  /**
+   * Method to generate the search telemetry event without serialising it.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the telemetry event data info
+   * @return Telemetry event, null for an empty context or params
+   */
+  public static Telemetry searchEvent(Map<String, Object> context, Map<String, Object> params) {
 
     if (!validateRequest(context, params)) {
-      return "";
+      return null;
     }
     String actorId = (String) context.get(JsonKey.ACTOR_ID);
     String actorType = (String) context.get(JsonKey.ACTOR_TYPE);
@@ -196,7 +220,7 @@ public class TelemetryGenerator {
     Map<String, Object> edata = generateSearchEdata(params);
     Telemetry telemetry =
         new Telemetry(TelemetryEvents.SEARCH.getName(), actor, eventContext, edata);
-    return getTelemetry(telemetry);
+    return telemetry;
   }
 
   private static Map<String, Object> generateSearchEdata(Map<String, Object> params) {
@@ -229,9 +253,21 @@ public class TelemetryGenerator {
    * @return Search Telemetry event
    */
   public static String log(Map<String, Object> context, Map<String, Object> params) {
+    Telemetry telemetry = logEvent(context, params);
+    return null == telemetry ? "" : getTelemetry(telemetry);
+  }
+
+  /**
+   * Method to generate the log telemetry event without serialising it.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the telemetry event data info
+   * @return Telemetry event, null for an empty context or params
+   */
+  public static Telemetry logEvent(Map<String, Object> context, Map<String, Object> params) {
 
     if (!validateRequest(context, params)) {
-      return "";
+      return null;
     }
     String actorId = (String) context.get(JsonKey.ACTOR_ID);
     String actorType = (String) context.get(JsonKey.ACTOR_TYPE);
@@ -250,7 +286,7 @@ public class TelemetryGenerator {
 
     Map<String, Object> edata = generateLogEdata(params);
     Telemetry telemetry = new Telemetry(TelemetryEvents.LOG.getName(), actor, eventContext, edata);
-    return getTelemetry(telemetry);
+    return telemetry;
   }
 
   private static Map<String, Object> generateLogEdata(Map<String, Object> params) {
@@ -293,9 +329,21 @@ public class TelemetryGenerator {
    * @return Search Telemetry event
    */
   public static String error(Map<String, Object> context, Map<String, Object> params) {
+    Telemetry telemetry = errorEvent(context, params);
+    return null == telemetry ? "" : getTelemetry(telemetry);
+  }
+
+  /**
+   * Method to generate the error telemetry event without serialising it.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the telemetry event data info
+   * @return Telemetry event, null for an empty context or params
+   */
+  public static Telemetry errorEvent(Map<String, Object> context, Map<String, Object> params) {
 
     if (!validateRequest(context, params)) {
-      return "";
+      return null;
     }
     String actorId = (String) context.get(JsonKey.ACTOR_ID);
     String actorType = (String) context.get(JsonKey.ACTOR_TYPE);
@@ -315,7 +363,7 @@ public class TelemetryGenerator {
     Map<String, Object> edata = generateErrorEdata(params);
     Telemetry telemetry =
         new Telemetry(TelemetryEvents.ERROR.getName(), actor, eventContext, edata);
-    return getTelemetry(telemetry);
+    return telemetry;
   }
 
   private static Map<String, Object> generateErrorEdata(Map<String, Object> params) {
@@ -1,28 +1,98 @@
 package org.sunbird.telemetry.util;
 
+import com.lmax.disruptor.BlockingWaitStrategy;
+import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.TimeoutException;
+import com.lmax.disruptor.WaitStrategy;
+import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
-import java.util.concurrent.Executor;
+import com.lmax.disruptor.dsl.ProducerType;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
+import org.sunbird.telemetry.util.ShardedWriteEventHandler.ShardKey;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
 
 /**
- * Lmax Disruptor engine to receive the telemetry request and forward the request to event handler
+ * Lmax Disruptor engine to receive the telemetry request and forward the request to event handler.
+ * The ring size (sunbird_telemetry_ring_size), consumer wait strategy
+ * (sunbird_telemetry_wait_strategy: blocking, sleeping, yielding or busy-spin), producer type
+ * (sunbird_telemetry_producer_type: multi, or single when only one thread submits) and the
+ * behaviour on a full ring (sunbird_telemetry_overflow_policy: block, drop-oldest, drop-new or
+ * count) are read once at initialisation. With sunbird_telemetry_handler_count above one, events
+ * are generated by that many handlers in parallel, sharded by sunbird_telemetry_handler_shard_key
+ * (request-id, event-type or sequence), and a single flush stage hands them to {@link
+ * TelemetryFlush} in batches.
  *
  * @author arvind
  */
 public class TelemetryLmaxWriter {
 
-  private static Disruptor<Request> disruptor;
+  private static final int DEFAULT_RING_BUFFER_SIZE = 1024;
+  private static final int FLUSH_BATCH_SIZE = 100;
+
+  private Disruptor<Request> disruptor;
+  private ExecutorService executor;
   private WriteEventProducer writeEventProducer;
   private int ringBufferSize;
   private static TelemetryLmaxWriter lmaxWriter;
 
   private TelemetryLmaxWriter() {
-    init();
+    PropertiesCache properties = PropertiesCache.getInstance();
+    init(
+        getIntValue(properties, "sunbird_telemetry_ring_size", DEFAULT_RING_BUFFER_SIZE),
+        properties.readProperty("sunbird_telemetry_wait_strategy"),
+        properties.readProperty("sunbird_telemetry_producer_type"),
+        OverflowPolicy.parse(properties.readProperty("sunbird_telemetry_overflow_policy")));
+    int handlerCount = getIntValue(properties, "sunbird_telemetry_handler_count", 1);
+    if (handlerCount > 1) {
+      TelemetryFlush telemetryFlush = TelemetryFlush.getInstance();
+      handleEventsSharded(
+          handlerCount,
+          ShardKey.parse(properties.readProperty("sunbird_telemetry_handler_shard_key")),
+          new WriteEventHandler()::generate,
+          telemetryFlush::flushTelemetry);
+    } else {
+      handleEvents(new WriteEventHandler());
+    }
     registerShutDownHook();
   }
 
+  TelemetryLmaxWriter(
+      EventHandler<Request> handler,
+      int ringBufferSize,
+      String waitStrategy,
+      String producerType,
+      OverflowPolicy overflowPolicy) {
+    init(ringBufferSize, waitStrategy, producerType, overflowPolicy);
+    handleEvents(handler);
+  }
+
+  TelemetryLmaxWriter(
+      int handlerCount,
+      ShardKey shardKey,
+      Function<Request, Object> generator,
+      Consumer<List<Object>> flusher,
+      int ringBufferSize,
+      String waitStrategy,
+      String producerType,
+      OverflowPolicy overflowPolicy) {
+    init(ringBufferSize, waitStrategy, producerType, overflowPolicy);
+    handleEventsSharded(handlerCount, shardKey, generator, flusher);
+  }
+
   /**
    * Method to get the singleton object of TelemetryLmaxWriter
    *
@@ -35,50 +105,130 @@ public class TelemetryLmaxWriter {
     synchronized (TelemetryLmaxWriter.class) {
       if (null == lmaxWriter) {
         lmaxWriter = new TelemetryLmaxWriter();
-        lmaxWriter.setRingBufferSize(8);
       }
     }
     return lmaxWriter;
   }
 
+  /**
+   * Replaces the writer returned by getInstance, e.g. for load tests; the old one keeps running.
+   */
+  static void setInstance(TelemetryLmaxWriter writer) {
+    synchronized (TelemetryLmaxWriter.class) {
+      lmaxWriter = writer;
+    }
+  }
+
+  /**
+   * @deprecated The ring buffer is created when the writer is initialised, configure its size with
+   *     sunbird_telemetry_ring_size instead.
+   */
+  @Deprecated
   public void setRingBufferSize(int ringBufferSize) {
-    this.ringBufferSize = ringBufferSize;
+    ProjectLogger.log(
+        "TelemetryLmaxWriter: ring buffer size is fixed at " + this.ringBufferSize,
+        LoggerEnum.WARN.name());
+  }
+
+  public int getRingBufferSize() {
+    return ringBufferSize;
   }
 
-  /** Initialize the disruptor engine. */
-  @SuppressWarnings("unchecked")
-  private void init() {
+  /** Initialize the disruptor engine, the event handlers are added before it is started. */
+  private void init(
+      int ringBufferSize,
+      String waitStrategy,
+      String producerType,
+      OverflowPolicy overflowPolicy) {
     // create a thread pool executor to be used by disruptor
-    Executor executor = Executors.newCachedThreadPool();
+    executor = Executors.newCachedThreadPool(new DaemonThreadFactory());
 
     // initialize our event factory
     WriteEventFactory factory = new WriteEventFactory();
 
-    if (ringBufferSize == 0) {
-      ringBufferSize = 1024;
-    }
-
     // ring buffer size always has to be the power of 2.
     // so if it is not, make it equal to the nearest integer.
-    double power = Math.log(ringBufferSize) / Math.log(2);
-    if (power % 1 != 0) {
-      power = Math.ceil(power);
-      ringBufferSize = (int) Math.pow(2, power);
-      ProjectLogger.log("New ring buffer size = " + ringBufferSize);
+    this.ringBufferSize = ringBufferSize <= 0 ? DEFAULT_RING_BUFFER_SIZE : ringBufferSize;
+    if (Integer.bitCount(this.ringBufferSize) != 1) {
+      this.ringBufferSize = Integer.highestOneBit(this.ringBufferSize) << 1;
+      ProjectLogger.log("New ring buffer size = " + this.ringBufferSize);
     }
 
-    // initialize our event handler.
-    WriteEventHandler handler = new WriteEventHandler();
-
     // initialize the disruptor
-    disruptor = new Disruptor<Request>(factory, ringBufferSize, executor);
-    disruptor.handleEventsWith(handler);
+    WaitStrategy strategy = getWaitStrategy(waitStrategy);
+    disruptor =
+        new Disruptor<Request>(
+            factory,
+            this.ringBufferSize,
+            executor,
+            "single".equalsIgnoreCase(StringUtils.trim(producerType))
+                ? ProducerType.SINGLE
+                : ProducerType.MULTI,
+            strategy);
+
+    // initialize the event producer to submit messages
+    writeEventProducer = new WriteEventProducer(disruptor, overflowPolicy);
 
-    // start the disruptor and get the generated ring buffer instance
+    ProjectLogger.log(
+        "TelemetryLmaxWriter: ring buffer size "
+            + this.ringBufferSize
+            + ", wait strategy "
+            + strategy.getClass().getSimpleName()
+            + ", overflow policy "
+            + overflowPolicy,
+        LoggerEnum.INFO.name());
+  }
+
+  /** Start the disruptor with a single handler doing generation, validation and flushing. */
+  private void handleEvents(EventHandler<Request> handler) {
+    // skip the events discarded by the drop-oldest policy
+    disruptor.handleEventsWith(
+        (request, sequence, endOfBatch) -> {
+          if (!writeEventProducer.isDropped(sequence)) {
+            handler.onEvent(request, sequence, endOfBatch);
+          }
+        });
     disruptor.start();
+  }
 
-    // initialize the event producer to submit messages
-    writeEventProducer = new WriteEventProducer(disruptor);
+  /**
+   * Start the disruptor with handlerCount parallel handlers generating the events of their shard,
+   * followed by a flush stage that waits for all of them.
+   */
+  private void handleEventsSharded(
+      int handlerCount,
+      ShardKey shardKey,
+      Function<Request, Object> generator,
+      Consumer<List<Object>> flusher) {
+    Object[] results = new Object[ringBufferSize];
+    ShardedWriteEventHandler[] handlers = new ShardedWriteEventHandler[handlerCount];
+    for (int i = 0; i < handlerCount; i++) {
+      handlers[i] =
+          new ShardedWriteEventHandler(
+              i, handlerCount, shardKey, generator, writeEventProducer::isDropped, results);
+    }
+    disruptor
+        .handleEventsWith(handlers)
+        .then(new TelemetryFlushHandler(results, FLUSH_BATCH_SIZE, flusher));
+    disruptor.start();
+    ProjectLogger.log(
+        "TelemetryLmaxWriter: " + handlerCount + " handlers sharded by " + shardKey,
+        LoggerEnum.INFO.name());
+  }
+
+  private static WaitStrategy getWaitStrategy(String name) {
+    String strategy = StringUtils.trimToEmpty(name).toLowerCase();
+    switch (strategy) {
+      case "sleeping":
+        return new SleepingWaitStrategy();
+      case "yielding":
+        return new YieldingWaitStrategy();
+      case "busy-spin":
+      case "busyspin":
+        return new BusySpinWaitStrategy();
+      default:
+        return new BlockingWaitStrategy();
+    }
   }
 
   /**
@@ -93,6 +243,16 @@ public class TelemetryLmaxWriter {
     }
   }
 
+  /** Method to stop the disruptor, processing the submitted events for up to five seconds. */
+  public void shutdown() {
+    try {
+      disruptor.shutdown(5, TimeUnit.SECONDS);
+    } catch (TimeoutException e) {
+      disruptor.halt();
+    }
+    executor.shutdown();
+  }
+
   /**
    * Clean up thread to gracefully shutdown TelemetryLmaxWriter
    *
@@ -101,9 +261,8 @@ public class TelemetryLmaxWriter {
   static class ResourceCleanUp extends Thread {
     public void run() {
       ProjectLogger.log("started resource cleanup.");
-      if (disruptor != null) {
-        disruptor.halt();
-        disruptor.shutdown();
+      if (lmaxWriter != null) {
+        lmaxWriter.shutdown();
       }
       ProjectLogger.log("completed resource cleanup.");
     }
@@ -115,4 +274,22 @@ public class TelemetryLmaxWriter {
     runtime.addShutdownHook(new ResourceCleanUp());
     ProjectLogger.log("ShutDownHook registered.");
   }
+
+  private static int getIntValue(PropertiesCache properties, String key, int defaultValue) {
+    String value = StringUtils.trim(properties.readProperty(key));
+    return StringUtils.isNumeric(value) && !value.isEmpty()
+        ? Integer.parseInt(value)
+        : defaultValue;
+  }
+
+  private static class DaemonThreadFactory implements ThreadFactory {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+      Thread thread = new Thread(runnable, "telemetry-disruptor-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+  }
 }
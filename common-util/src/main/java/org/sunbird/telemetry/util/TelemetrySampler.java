@@ -0,0 +1,208 @@
+package org.sunbird.telemetry.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+
+/**
+ * Decides which high-volume telemetry events are kept. The sampling rate of an event is the rate of
+ * the first URL pattern (sunbird_telemetry_sampling_url_rates, regex=rate pairs) matching its url,
+ * else the rate of its log type or event type (sunbird_telemetry_sampling_type_rates, e.g.
+ * api_access=0.1), else sunbird_telemetry_sampling_rate. With
+ * sunbird_telemetry_sampling_target_per_second set, the rates are scaled down further when more
+ * events than the target would be kept. Error events, responses with status 400 or above and
+ * requests slower than sunbird_telemetry_sampling_slow_millis are always kept.
+ */
+public class TelemetrySampler {
+
+  private static final long WINDOW_MILLIS = 1000;
+  private static TelemetrySampler sampler;
+
+  private final double defaultRate;
+  private final Map<String, Double> typeRates;
+  private final Map<Pattern, Double> urlRates;
+  private final long slowMillis;
+  private final long targetPerSecond;
+  private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+  private final DoubleAdder windowEvents = new DoubleAdder();
+  private volatile double loadFactor = 1;
+  private final LongAdder kept;
+  private final LongAdder dropped;
+
+  TelemetrySampler(
+      double defaultRate,
+      Map<String, Double> typeRates,
+      Map<String, Double> urlRates,
+      long slowMillis,
+      long targetPerSecond) {
+    this.defaultRate = defaultRate;
+    this.typeRates = new LinkedHashMap<>();
+    for (Entry<String, Double> entry : typeRates.entrySet()) {
+      this.typeRates.put(entry.getKey().toLowerCase(), entry.getValue());
+    }
+    this.urlRates = new LinkedHashMap<>();
+    for (Entry<String, Double> entry : urlRates.entrySet()) {
+      try {
+        this.urlRates.put(Pattern.compile(entry.getKey()), entry.getValue());
+      } catch (PatternSyntaxException e) {
+        ProjectLogger.log(
+            "TelemetrySampler: invalid url pattern " + entry.getKey(), LoggerEnum.WARN.name());
+      }
+    }
+    this.slowMillis = slowMillis;
+    this.targetPerSecond = targetPerSecond;
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    String help = "Telemetry events by sampling outcome";
+    kept = registry.counter("sunbird_telemetry_sampling_total", help, "outcome", "kept");
+    dropped = registry.counter("sunbird_telemetry_sampling_total", help, "outcome", "dropped");
+    registry.gauge(
+        "sunbird_telemetry_sampling_load_percent",
+        "Percentage of the configured sampling rates applied under load",
+        () -> Math.round(loadFactor * 100));
+  }
+
+  /**
+   * Method to get the singleton object of TelemetrySampler
+   *
+   * @return TelemetrySampler singleton object
+   */
+  public static TelemetrySampler getInstance() {
+    if (null == sampler) {
+      synchronized (TelemetrySampler.class) {
+        if (null == sampler) {
+          PropertiesCache properties = PropertiesCache.getInstance();
+          sampler =
+              new TelemetrySampler(
+                  getDoubleValue(properties.readProperty("sunbird_telemetry_sampling_rate"), 1),
+                  parseRates(properties.readProperty("sunbird_telemetry_sampling_type_rates")),
+                  parseRates(properties.readProperty("sunbird_telemetry_sampling_url_rates")),
+                  (long)
+                      getDoubleValue(
+                          properties.readProperty("sunbird_telemetry_sampling_slow_millis"), 0),
+                  (long)
+                      getDoubleValue(
+                          properties.readProperty(
+                              "sunbird_telemetry_sampling_target_per_second"),
+                          0));
+        }
+      }
+    }
+    return sampler;
+  }
+
+  /**
+   * Method to decide whether a telemetry event is kept.
+   *
+   * @param eventType Telemetry event type, e.g. LOG
+   * @param params Event params with the optional logType, logLevel, url, status and duration
+   * @return Sampling rate the event was kept with, 1 when it is always kept, 0 if it is dropped
+   */
+  public double sample(String eventType, Map<String, Object> params) {
+    if (isAlwaysKept(params)) {
+      kept.increment();
+      return 1;
+    }
+    double rate = getRate(eventType, params);
+    if (targetPerSecond > 0) {
+      windowEvents.add(rate);
+      rate *= getLoadFactor();
+    }
+    if (rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate)) {
+      kept.increment();
+      return Math.min(rate, 1);
+    }
+    dropped.increment();
+    return 0;
+  }
+
+  private boolean isAlwaysKept(Map<String, Object> params) {
+    if (TelemetryConstant.LOG_LEVEL_ERROR.equalsIgnoreCase(
+        String.valueOf(params.get(JsonKey.LOG_LEVEL)))) {
+      return true;
+    }
+    String status = String.valueOf(params.get(JsonKey.STATUS));
+    if (StringUtils.isNumeric(status) && Integer.parseInt(status) >= 400) {
+      return true;
+    }
+    Object duration = params.get(JsonKey.DURATION);
+    return slowMillis > 0
+        && duration instanceof Number
+        && ((Number) duration).longValue() >= slowMillis;
+  }
+
+  private double getRate(String eventType, Map<String, Object> params) {
+    Object url = params.get(JsonKey.URL);
+    if (null != url && !urlRates.isEmpty()) {
+      for (Entry<Pattern, Double> entry : urlRates.entrySet()) {
+        if (entry.getKey().matcher(url.toString()).matches()) {
+          return entry.getValue();
+        }
+      }
+    }
+    Object logType = params.get(JsonKey.LOG_TYPE);
+    if (null != logType && typeRates.containsKey(logType.toString().toLowerCase())) {
+      return typeRates.get(logType.toString().toLowerCase());
+    }
+    if (null != eventType && typeRates.containsKey(eventType.toLowerCase())) {
+      return typeRates.get(eventType.toLowerCase());
+    }
+    return defaultRate;
+  }
+
+  /**
+   * Scale of the rates for the current window, computed from the events the configured rates
+   * would have kept in the previous window.
+   */
+  private double getLoadFactor() {
+    long now = System.currentTimeMillis();
+    long start = windowStart.get();
+    if (now - start >= WINDOW_MILLIS && windowStart.compareAndSet(start, now)) {
+      double perSecond = windowEvents.sumThenReset() * 1000 / (now - start);
+      loadFactor = perSecond > targetPerSecond ? targetPerSecond / perSecond : 1;
+    }
+    return loadFactor;
+  }
+
+  /** Parses comma separated key=rate pairs, skipping invalid entries. */
+  static Map<String, Double> parseRates(String value) {
+    Map<String, Double> rates = new LinkedHashMap<>();
+    if (StringUtils.isBlank(value)) {
+      return rates;
+    }
+    for (String pair : value.split(",")) {
+      int index = pair.lastIndexOf('=');
+      double rate = index > 0 ? getDoubleValue(pair.substring(index + 1), -1) : -1;
+      if (rate < 0) {
+        ProjectLogger.log(
+            "TelemetrySampler: invalid sampling rate " + pair, LoggerEnum.WARN.name());
+      } else {
+        rates.put(pair.substring(0, index).trim(), rate);
+      }
+    }
+    return rates;
+  }
+
+  private static double getDoubleValue(String value, double defaultValue) {
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Double.parseDouble(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log("TelemetrySampler: invalid number " + value, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+}
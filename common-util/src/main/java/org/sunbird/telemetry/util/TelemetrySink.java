@@ -0,0 +1,434 @@
+package org.sunbird.telemetry.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+
+/**
+ * Asynchronous sink in front of a {@link TelemetryDispatcher}. Events are buffered without
+ * blocking the caller and sent by a dedicated thread once a batch is full or the flush interval
+ * has passed. Failed batches are retried with exponential backoff from a bounded retry queue; while
+ * the destination is failing new batches join that queue instead of being sent. Batches that run
+ * out of attempts, or do not fit in the retry queue, are spilled to local files, one JSON event
+ * per line, and sent again once the destination recovers. Events are dropped only when the buffer
+ * or the spill directory is full.
+ *
+ * <p>Metrics are labelled with the sink name; sinks created again under a name share its counters
+ * and the gauges report the latest running sink of that name.
+ */
+public class TelemetrySink {
+
+  private static final String SPILL_PREFIX = "telemetry-";
+  private static final String SPILL_SUFFIX = ".json";
+  private static final long MAX_BACKOFF_MILLIS = 60000;
+  private static final int MAX_REPLAY_FILES = 10;
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final String DEFAULT_NAME = "telemetry";
+  private static final Map<String, TelemetrySink> sinks = new ConcurrentHashMap<>();
+
+  private final String name;
+
+  private final TelemetryDispatcher dispatcher;
+  private final int batchSize;
+  private final long flushIntervalMillis;
+  private final int retryQueueSize;
+  private final int maxAttempts;
+  private final long backoffMillis;
+  private final File spillDir;
+  private final long spillMaxBytes;
+  private final BlockingQueue<Object> buffer;
+  private final Deque<Batch> retries = new ArrayDeque<>();
+  private final AtomicLong spillSeq = new AtomicLong();
+  private final LongAdder sent;
+  private final LongAdder failed;
+  private final LongAdder dropped;
+  private final LongAdder spilled;
+  private final Thread sender;
+  private final Thread shutdownHook;
+  private volatile boolean running = true;
+  private boolean healthy = true;
+
+  /**
+   * Creates a sink configured by the sunbird_telemetry_* properties.
+   *
+   * @param dispatcher Destination of the batches
+   * @param batchSize Events per batch
+   */
+  public TelemetrySink(TelemetryDispatcher dispatcher, int batchSize) {
+    this(DEFAULT_NAME, dispatcher, batchSize);
+  }
+
+  /**
+   * Creates a sink configured by the sunbird_telemetry_* properties.
+   *
+   * @param name Sink name used as metric label
+   * @param dispatcher Destination of the batches
+   * @param batchSize Events per batch
+   */
+  public TelemetrySink(String name, TelemetryDispatcher dispatcher, int batchSize) {
+    this(
+        name,
+        dispatcher,
+        batchSize,
+        getLongValue("sunbird_telemetry_flush_interval_millis", 1000),
+        (int) getLongValue("sunbird_telemetry_buffer_size", 10000),
+        (int) getLongValue("sunbird_telemetry_retry_queue_size", 50),
+        (int) getLongValue("sunbird_telemetry_retry_max_attempts", 5),
+        getLongValue("sunbird_telemetry_retry_backoff_millis", 500),
+        PropertiesCache.getInstance().readProperty("sunbird_telemetry_spill_dir"),
+        getLongValue("sunbird_telemetry_spill_max_mb", 512) * 1024 * 1024);
+  }
+
+  TelemetrySink(
+      String name,
+      TelemetryDispatcher dispatcher,
+      int batchSize,
+      long flushIntervalMillis,
+      int bufferSize,
+      int retryQueueSize,
+      int maxAttempts,
+      long backoffMillis,
+      String spillDir,
+      long spillMaxBytes) {
+    this.name = name;
+    this.dispatcher = dispatcher;
+    this.batchSize = Math.max(1, batchSize);
+    this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+    this.retryQueueSize = Math.max(0, retryQueueSize);
+    this.maxAttempts = Math.max(1, maxAttempts);
+    this.backoffMillis = Math.max(1, backoffMillis);
+    this.spillDir = StringUtils.isBlank(spillDir) ? null : new File(spillDir.trim());
+    this.spillMaxBytes = spillMaxBytes;
+    this.buffer = new ArrayBlockingQueue<>(Math.max(this.batchSize, bufferSize));
+    if (null != this.spillDir && !this.spillDir.isDirectory() && !this.spillDir.mkdirs()) {
+      ProjectLogger.log(
+          "TelemetrySink: unable to create spill directory " + this.spillDir,
+          LoggerEnum.WARN.name());
+    }
+    sent = getEventCounter(name, "sent");
+    failed = getEventCounter(name, "failed");
+    dropped = getEventCounter(name, "dropped");
+    spilled = getEventCounter(name, "spilled");
+    if (null == sinks.put(name, this)) {
+      registerGauges(name);
+    }
+    sender = new Thread(this::run, "telemetry-sink");
+    sender.setDaemon(true);
+    sender.start();
+    shutdownHook = new Thread(this::shutdown, "telemetry-sink-shutdown");
+    Runtime.getRuntime().addShutdownHook(shutdownHook);
+  }
+
+  private static LongAdder getEventCounter(String name, String outcome) {
+    return MetricsRegistry.getInstance()
+        .counter(
+            "sunbird_telemetry_events_total",
+            "Telemetry events by outcome of the sink",
+            "sink",
+            name,
+            "outcome",
+            outcome);
+  }
+
+  /** Registers the gauges of a sink name, reading the latest sink created under that name. */
+  private static void registerGauges(String name) {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    registry.gauge(
+        "sunbird_telemetry_buffer_depth",
+        "Telemetry events waiting to be sent",
+        () -> {
+          TelemetrySink sink = sinks.get(name);
+          return null == sink ? 0 : sink.buffer.size();
+        },
+        "sink",
+        name);
+    registry.gauge(
+        "sunbird_telemetry_retry_batches",
+        "Telemetry batches waiting for a retry",
+        () -> {
+          TelemetrySink sink = sinks.get(name);
+          return null == sink ? 0 : sink.getRetryCount();
+        },
+        "sink",
+        name);
+  }
+
+  /**
+   * Method to add an event to the sink without blocking.
+   *
+   * @param event Telemetry object or telemetry JSON string
+   * @return false if the buffer is full and the event was dropped
+   */
+  public boolean offer(Object event) {
+    if (buffer.offer(event)) {
+      return true;
+    }
+    dropped.increment();
+    return false;
+  }
+
+  /** Method to stop the sender thread, spilling the events not sent yet. */
+  public synchronized void shutdown() {
+    if (!running) {
+      return;
+    }
+    running = false;
+    if (Thread.currentThread() != shutdownHook) {
+      try {
+        Runtime.getRuntime().removeShutdownHook(shutdownHook);
+      } catch (IllegalStateException e) {
+        // the JVM is already shutting down and runs the hook
+      }
+    }
+    sender.interrupt();
+    try {
+      sender.join(TimeUnit.SECONDS.toMillis(5));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (retries) {
+      for (Batch batch : retries) {
+        spill(batch.events);
+      }
+      retries.clear();
+    }
+    List<Object> events = new ArrayList<>();
+    buffer.drainTo(events);
+    if (!events.isEmpty()) {
+      spill(events);
+    }
+    sinks.remove(name, this);
+  }
+
+  private void run() {
+    List<Object> events = new ArrayList<>(batchSize);
+    long deadline = System.currentTimeMillis() + flushIntervalMillis;
+    while (running) {
+      try {
+        long wait = deadline - System.currentTimeMillis();
+        Object event = wait > 0 ? buffer.poll(wait, TimeUnit.MILLISECONDS) : null;
+        if (null != event) {
+          events.add(event);
+          buffer.drainTo(events, batchSize - events.size());
+        }
+        if (events.size() >= batchSize || System.currentTimeMillis() >= deadline) {
+          if (!events.isEmpty()) {
+            send(events);
+            events = new ArrayList<>(batchSize);
+          }
+          retry();
+          if (healthy && getRetryCount() == 0) {
+            replaySpill();
+          }
+          deadline = System.currentTimeMillis() + flushIntervalMillis;
+        }
+      } catch (InterruptedException e) {
+        break;
+      } catch (Exception e) {
+        ProjectLogger.log("TelemetrySink: unexpected error " + e.getMessage(), e);
+      }
+    }
+    // spill files are written through interruptible channels
+    Thread.interrupted();
+    if (!events.isEmpty()) {
+      spill(events);
+    }
+  }
+
+  private void send(List<Object> events) {
+    if (!healthy) {
+      queueRetry(new Batch(events));
+    } else if (!dispatch(events)) {
+      healthy = false;
+      Batch batch = new Batch(events);
+      batch.scheduleRetry();
+      queueRetry(batch);
+    }
+  }
+
+  private void retry() {
+    long now = System.currentTimeMillis();
+    Batch batch;
+    while (null != (batch = peekRetry()) && batch.nextAttempt <= now) {
+      if (dispatch(batch.events)) {
+        pollRetry();
+        healthy = true;
+      } else if (batch.scheduleRetry() >= maxAttempts) {
+        pollRetry();
+        spill(batch.events);
+      } else {
+        return;
+      }
+    }
+  }
+
+  private boolean dispatch(List<?> events) {
+    boolean success;
+    try {
+      success = dispatcher.dispatch(events);
+    } catch (Exception e) {
+      ProjectLogger.log("TelemetrySink: dispatch failed " + e.getMessage(), e);
+      success = false;
+    }
+    if (success) {
+      sent.add(events.size());
+    } else {
+      failed.add(events.size());
+    }
+    return success;
+  }
+
+  private void queueRetry(Batch batch) {
+    synchronized (retries) {
+      if (retries.size() < retryQueueSize) {
+        retries.addLast(batch);
+        return;
+      }
+    }
+    spill(batch.events);
+  }
+
+  private Batch peekRetry() {
+    synchronized (retries) {
+      return retries.peekFirst();
+    }
+  }
+
+  private void pollRetry() {
+    synchronized (retries) {
+      retries.pollFirst();
+    }
+  }
+
+  private long getRetryCount() {
+    synchronized (retries) {
+      return retries.size();
+    }
+  }
+
+  private void spill(List<?> events) {
+    if (null == spillDir || getSpillSize() >= spillMaxBytes) {
+      dropped.add(events.size());
+      ProjectLogger.log(
+          "TelemetrySink: dropped " + events.size() + " telemetry events", LoggerEnum.WARN.name());
+      return;
+    }
+    String fileName =
+        SPILL_PREFIX + System.currentTimeMillis() + "-" + spillSeq.incrementAndGet() + SPILL_SUFFIX;
+    File tmp = new File(spillDir, fileName + ".tmp");
+    try {
+      try (BufferedWriter writer =
+          new BufferedWriter(
+              new OutputStreamWriter(
+                  Files.newOutputStream(tmp.toPath()), StandardCharsets.UTF_8))) {
+        for (Object event : events) {
+          writer.write(event instanceof String ? (String) event : mapper.writeValueAsString(event));
+          writer.newLine();
+        }
+      }
+      Files.move(
+          tmp.toPath(), new File(spillDir, fileName).toPath(), StandardCopyOption.ATOMIC_MOVE);
+      spilled.add(events.size());
+    } catch (IOException e) {
+      dropped.add(events.size());
+      tmp.delete();
+      ProjectLogger.log("TelemetrySink: unable to spill telemetry events " + e.getMessage(), e);
+    }
+  }
+
+  /** Sends the oldest spill files, deleting each once the destination accepted its events. */
+  private void replaySpill() {
+    File[] files = getSpillFiles();
+    Arrays.sort(files);
+    for (int i = 0; i < Math.min(files.length, MAX_REPLAY_FILES) && healthy; i++) {
+      replaySpill(files[i]);
+    }
+  }
+
+  private void replaySpill(File file) {
+    try {
+      List<String> events = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+      events.removeIf(StringUtils::isBlank);
+      if (events.isEmpty() || dispatch(events)) {
+        Files.delete(file.toPath());
+      } else {
+        healthy = false;
+      }
+    } catch (IOException e) {
+      ProjectLogger.log("TelemetrySink: unable to replay " + file + " " + e.getMessage(), e);
+    }
+  }
+
+  private File[] getSpillFiles() {
+    if (null == spillDir) {
+      return new File[0];
+    }
+    File[] files =
+        spillDir.listFiles(
+            (dir, name) -> name.startsWith(SPILL_PREFIX) && name.endsWith(SPILL_SUFFIX));
+    return null == files ? new File[0] : files;
+  }
+
+  private long getSpillSize() {
+    long size = 0;
+    for (File file : getSpillFiles()) {
+      size += file.length();
+    }
+    return size;
+  }
+
+  private static long getLongValue(String key, long defaultValue) {
+    String value = PropertiesCache.getInstance().readProperty(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "TelemetrySink: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
+  /** Batch waiting for a retry. */
+  private class Batch {
+    private final List<?> events;
+    private int attempts;
+    private long nextAttempt;
+
+    Batch(List<?> events) {
+      this.events = events;
+    }
+
+    /** Counts a failed attempt and schedules the next one, returning the attempts made. */
+    int scheduleRetry() {
+      attempts++;
+      long delay = Math.min(MAX_BACKOFF_MILLIS, backoffMillis << Math.min(attempts - 1, 16));
+      nextAttempt = System.currentTimeMillis() + delay;
+      return attempts;
+    }
+  }
+}
@@ -0,0 +1,304 @@
+package org.sunbird.telemetry.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.telemetry.validator.TelemetryObjectValidatorV3;
+
+/**
+ * Template based generator of LOG and ERROR telemetry events. Only eid and ver are constant for the
+ * process and serialised once into a prefix; everything else, including the producer pdata of the
+ * request context, is written per event through a generator and buffer reused by the calling
+ * thread, and the mid is a per-process id with a counter instead of a random UUID. The context and
+ * params are checked for the fields {@link TelemetryObjectValidatorV3} requires before anything is
+ * written, and the events are returned as JSON strings which the consumer writes into the batch
+ * request as they are.
+ *
+ * <p>The events equal the validated events of {@link TelemetryGenerator#logEvent} and {@link
+ * TelemetryGenerator#errorEvent} as the consumer wrote them before: a blank log message is left
+ * out, as the validator removes it, rather than written as the empty message of {@link
+ * TelemetryGenerator#log}, and the context always has a rollup, empty if the request has none.
+ */
+public final class TelemetryTemplate {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final String VERSION = "3.0";
+  private static TelemetryTemplate template;
+
+  private final String logPrefix;
+  private final String errorPrefix;
+  private final String midPrefix = "." + UUID.randomUUID() + "-";
+  private final AtomicLong midSequence = new AtomicLong();
+  private final ThreadLocal<Buffer> buffers = new ThreadLocal<>();
+
+  TelemetryTemplate() {
+    logPrefix = createPrefix(TelemetryEvents.LOG.getName());
+    errorPrefix = createPrefix(TelemetryEvents.ERROR.getName());
+  }
+
+  /**
+   * Method to get the singleton object of TelemetryTemplate.
+   *
+   * @return TelemetryTemplate singleton object
+   */
+  public static TelemetryTemplate getInstance() {
+    if (null == template) {
+      synchronized (TelemetryTemplate.class) {
+        if (null == template) {
+          template = new TelemetryTemplate();
+        }
+      }
+    }
+    return template;
+  }
+
+  /**
+   * Method to generate the log telemetry event.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the telemetry event data info
+   * @return Telemetry event JSON, null for an invalid event
+   */
+  public String log(Map<String, Object> context, Map<String, Object> params) {
+    if (!validateRequest(context, params)) {
+      return null;
+    }
+    List<String> missingFields = getMissingContextFields(context);
+    addIfBlank(params, JsonKey.LOG_TYPE, JsonKey.TYPE, missingFields);
+    addIfBlank(params, JsonKey.LOG_LEVEL, JsonKey.LEVEL, missingFields);
+    if (!isValid(TelemetryEvents.LOG, missingFields)) {
+      return null;
+    }
+    String message = (String) params.get(JsonKey.MESSAGE);
+    Buffer buffer = getBuffer();
+    boolean written = false;
+    try {
+      JsonGenerator generator = buffer.generator;
+      writeEnvelope(generator, logPrefix, context);
+      generator.writeStringField(JsonKey.TYPE, (String) params.get(JsonKey.LOG_TYPE));
+      generator.writeStringField(JsonKey.LEVEL, (String) params.get(JsonKey.LOG_LEVEL));
+      if (StringUtils.isNotBlank(message)) {
+        generator.writeStringField(JsonKey.MESSAGE, message);
+      }
+      generator.writeArrayFieldStart(JsonKey.PARAMS);
+      for (Entry<String, Object> entry : params.entrySet()) {
+        String key = entry.getKey();
+        if (!JsonKey.LOG_TYPE.equals(key)
+            && !JsonKey.LOG_LEVEL.equals(key)
+            && !JsonKey.MESSAGE.equals(key)) {
+          generator.writeStartObject();
+          generator.writeFieldName(key);
+          writeValue(generator, entry.getValue());
+          generator.writeEndObject();
+        }
+      }
+      generator.writeEndArray();
+      String event = finish(buffer);
+      written = true;
+      return event;
+    } catch (IOException e) {
+      ProjectLogger.log("TelemetryTemplate: failed to write telemetry event " + e.getMessage(), e);
+      return null;
+    } finally {
+      reset(written);
+    }
+  }
+
+  /**
+   * Method to generate the error telemetry event.
+   *
+   * @param context Map contains the telemetry context info like actor info, env info etc.
+   * @param params Map contains the error event data info
+   * @return Telemetry event JSON, null for an invalid event
+   */
+  public String error(Map<String, Object> context, Map<String, Object> params) {
+    if (!validateRequest(context, params)) {
+      return null;
+    }
+    List<String> missingFields = getMissingContextFields(context);
+    addIfBlank(params, JsonKey.ERROR, JsonKey.ERROR, missingFields);
+    addIfBlank(params, JsonKey.ERR_TYPE, JsonKey.ERR_TYPE, missingFields);
+    addIfBlank(params, JsonKey.STACKTRACE, JsonKey.STACKTRACE, missingFields);
+    if (!isValid(TelemetryEvents.ERROR, missingFields)) {
+      return null;
+    }
+    Buffer buffer = getBuffer();
+    boolean written = false;
+    try {
+      JsonGenerator generator = buffer.generator;
+      writeEnvelope(generator, errorPrefix, context);
+      generator.writeStringField(JsonKey.ERROR, (String) params.get(JsonKey.ERROR));
+      generator.writeStringField(JsonKey.ERR_TYPE, (String) params.get(JsonKey.ERR_TYPE));
+      generator.writeStringField(JsonKey.STACKTRACE, (String) params.get(JsonKey.STACKTRACE));
+      String event = finish(buffer);
+      written = true;
+      return event;
+    } catch (IOException e) {
+      ProjectLogger.log("TelemetryTemplate: failed to write telemetry event " + e.getMessage(), e);
+      return null;
+    } finally {
+      reset(written);
+    }
+  }
+
+  /** Writes everything up to and including the start of the edata object. */
+  private void writeEnvelope(JsonGenerator generator, String prefix, Map<String, Object> context)
+      throws IOException {
+    long ets = System.currentTimeMillis();
+    generator.writeStartObject();
+    // the prefix ends with a comma, so the generator writes the next field as the first one
+    generator.writeRaw(prefix);
+    generator.writeNumberField(JsonKey.ETS, ets);
+    generator.writeStringField("mid", ets + midPrefix + midSequence.incrementAndGet());
+
+    generator.writeObjectFieldStart("actor");
+    generator.writeStringField(JsonKey.ID, (String) context.get(JsonKey.ACTOR_ID));
+    generator.writeStringField(JsonKey.TYPE, (String) context.get(JsonKey.ACTOR_TYPE));
+    generator.writeEndObject();
+
+    generator.writeObjectFieldStart(JsonKey.CONTEXT);
+    writePdata(generator, context);
+    generator.writeStringField(JsonKey.CHANNEL, (String) context.get(JsonKey.CHANNEL));
+    generator.writeStringField(JsonKey.ENV, (String) context.get(JsonKey.ENV));
+    generator.writeArrayFieldStart("cdata");
+    String reqId = (String) context.get(JsonKey.REQUEST_ID);
+    if (!StringUtils.isBlank(reqId)) {
+      generator.writeStartObject();
+      generator.writeStringField(JsonKey.ID, reqId);
+      generator.writeStringField(JsonKey.TYPE, JsonKey.REQUEST);
+      generator.writeEndObject();
+    }
+    generator.writeEndArray();
+    Map<String, String> rollup = (Map<String, String>) context.get(JsonKey.ROLLUP);
+    generator.writeObjectFieldStart(JsonKey.ROLLUP);
+    if (null != rollup) {
+      for (Entry<String, String> entry : rollup.entrySet()) {
+        generator.writeStringField(entry.getKey(), entry.getValue());
+      }
+    }
+    generator.writeEndObject();
+    generator.writeEndObject();
+
+    generator.writeObjectFieldStart("edata");
+  }
+
+  /** Writes the producer of the request context, as TelemetryGenerator does. */
+  private static void writePdata(JsonGenerator generator, Map<String, Object> context)
+      throws IOException {
+    generator.writeObjectFieldStart(JsonKey.PDATA);
+    writeStringIfNotNull(generator, JsonKey.ID, (String) context.get(JsonKey.PDATA_ID));
+    writeStringIfNotNull(generator, "pid", (String) context.get(JsonKey.PDATA_PID));
+    writeStringIfNotNull(generator, "ver", (String) context.get(JsonKey.PDATA_VERSION));
+    generator.writeEndObject();
+  }
+
+  private static void writeStringIfNotNull(JsonGenerator generator, String field, String value)
+      throws IOException {
+    if (null != value) {
+      generator.writeStringField(field, value);
+    }
+  }
+
+  /** Writes the common scalar values directly, the others through the object mapper. */
+  private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+    if (value instanceof String) {
+      generator.writeString((String) value);
+    } else if (value instanceof Integer || value instanceof Long) {
+      generator.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Boolean) {
+      generator.writeBoolean((Boolean) value);
+    } else {
+      generator.writeObject(value);
+    }
+  }
+
+  private String finish(Buffer buffer) throws IOException {
+    JsonGenerator generator = buffer.generator;
+    // end of edata and of the event
+    generator.writeEndObject();
+    generator.writeEndObject();
+    generator.flush();
+    String event = buffer.writer.toString();
+    buffer.writer.reset();
+    return event;
+  }
+
+  private void reset(boolean written) {
+    if (!written) {
+      // the generator may be in the middle of an object, start over with a new one
+      buffers.remove();
+    }
+  }
+
+  private Buffer getBuffer() {
+    Buffer buffer = buffers.get();
+    if (null == buffer) {
+      buffer = new Buffer();
+      buffers.set(buffer);
+    }
+    return buffer;
+  }
+
+  private static boolean validateRequest(Map<String, Object> context, Map<String, Object> params) {
+    return null != context && !context.isEmpty() && null != params && !params.isEmpty();
+  }
+
+  /** Fields of the actor and context which {@link TelemetryObjectValidatorV3} requires. */
+  private static List<String> getMissingContextFields(Map<String, Object> context) {
+    List<String> missingFields = new ArrayList<>();
+    addIfBlank(context, JsonKey.ACTOR_ID, "actor.id", missingFields);
+    addIfBlank(context, JsonKey.ACTOR_TYPE, "actor.type", missingFields);
+    addIfBlank(context, JsonKey.CHANNEL, JsonKey.CONTEXT + "." + JsonKey.CHANNEL, missingFields);
+    addIfBlank(context, JsonKey.ENV, JsonKey.CONTEXT + "." + JsonKey.ENV, missingFields);
+    return missingFields;
+  }
+
+  private static void addIfBlank(
+      Map<String, Object> map, String key, String field, List<String> missingFields) {
+    if (StringUtils.isBlank((String) map.get(key))) {
+      missingFields.add(field);
+    }
+  }
+
+  private static boolean isValid(TelemetryEvents event, List<String> missingFields) {
+    if (missingFields.isEmpty()) {
+      return true;
+    }
+    ProjectLogger.log(
+        "Telemetry Object Creation Error for event : "
+            + event.getName()
+            + "  missing required fields :"
+            + String.join(",", missingFields));
+    return false;
+  }
+
+  private static String createPrefix(String eid) {
+    return "\"eid\":\"" + eid + "\",\"ver\":\"" + VERSION + "\",";
+  }
+
+  /** Writer and generator reused by one thread, the writer is reset after every event. */
+  private static class Buffer {
+    private final CharArrayWriter writer = new CharArrayWriter(1024);
+    private final JsonGenerator generator;
+
+    private Buffer() {
+      try {
+        generator = mapper.getFactory().createGenerator(writer);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      // events are written one after the other at the root, without a separator
+      generator.setRootValueSeparator(null);
+    }
+  }
+}
@@ -3,99 +3,134 @@ package org.sunbird.telemetry.util;
 import com.lmax.disruptor.EventHandler;
 import java.util.List;
 import java.util.Map;
-import org.apache.commons.lang3.StringUtils;
 import org.sunbird.common.models.util.JsonKey;
 import org.sunbird.common.models.util.LoggerEnum;
 import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
 import org.sunbird.common.request.Request;
 import org.sunbird.telemetry.collector.TelemetryAssemblerFactory;
 import org.sunbird.telemetry.collector.TelemetryDataAssembler;
+import org.sunbird.telemetry.dto.Telemetry;
 import org.sunbird.telemetry.validator.TelemetryObjectValidator;
 import org.sunbird.telemetry.validator.TelemetryObjectValidatorV3;
 
 /**
- * Handler class for telemetry write event
+ * Handler class for telemetry write event. With sunbird_telemetry_template_enabled LOG and ERROR
+ * events are written by the {@link TelemetryTemplate} instead of the telemetry data assembler.
  *
  * @author arvind
  */
 public class WriteEventHandler implements EventHandler<Request> {
 
-  private TelemetryFlush telemetryFlush = TelemetryFlush.getInstance();
+  private TelemetryFlush telemetryFlush;
   private TelemetryDataAssembler telemetryDataAssembler = TelemetryAssemblerFactory.get();
   private TelemetryObjectValidator telemetryObjectValidator = new TelemetryObjectValidatorV3();
+  private TelemetryTemplate telemetryTemplate =
+      Boolean.parseBoolean(
+              PropertiesCache.getInstance().readProperty("sunbird_telemetry_template_enabled"))
+          ? TelemetryTemplate.getInstance()
+          : null;
+
+  public WriteEventHandler() {
+    this(TelemetryFlush.getInstance());
+  }
+
+  WriteEventHandler(TelemetryFlush telemetryFlush) {
+    this.telemetryFlush = telemetryFlush;
+  }
 
   @Override
   public void onEvent(Request request, long l, boolean b) throws Exception {
+    Object event = generate(request);
+    if (event instanceof Telemetry) {
+      telemetryFlush.flushTelemetry((Telemetry) event);
+    } else if (null != event) {
+      telemetryFlush.flushTelemetry((String) event);
+    }
+  }
+
+  /**
+   * Method to generate and validate the telemetry event of a request without flushing it.
+   *
+   * @param request Telemetry request
+   * @return Valid Telemetry object or telemetry JSON string, null if the event type is unknown or
+   *     validation failed
+   */
+  public Object generate(Request request) {
     String eventType = (String) request.getRequest().get(JsonKey.TELEMETRY_EVENT_TYPE);
 
     if (TelemetryEvents.AUDIT.getName().equalsIgnoreCase(eventType)) {
-      processAuditEvent(request);
+      return processAuditEvent(request);
     } else if (TelemetryEvents.SEARCH.getName().equalsIgnoreCase(eventType)) {
-      processSearchEvent(request);
+      return processSearchEvent(request);
     } else if (TelemetryEvents.ERROR.getName().equalsIgnoreCase(eventType)) {
-      processErrorEvent(request);
+      if (null != telemetryTemplate) {
+        return telemetryTemplate.error(
+            (Map<String, Object>) request.get(JsonKey.CONTEXT),
+            (Map<String, Object>) request.get(JsonKey.PARAMS));
+      }
+      return processErrorEvent(request);
     } else if (TelemetryEvents.LOG.getName().equalsIgnoreCase(eventType)) {
-      processLogEvent(request);
+      if (null != telemetryTemplate) {
+        return telemetryTemplate.log(
+            (Map<String, Object>) request.get(JsonKey.CONTEXT),
+            (Map<String, Object>) request.get(JsonKey.PARAMS));
+      }
+      return processLogEvent(request);
     }
+    return null;
   }
 
-  private boolean processLogEvent(Request request) {
+  private Telemetry processLogEvent(Request request) {
 
-    boolean success = false;
     Map<String, Object> context = (Map<String, Object>) request.getRequest().get(JsonKey.CONTEXT);
     Map<String, Object> params = (Map<String, Object>) request.getRequest().get(JsonKey.PARAMS);
-    String telemetry = telemetryDataAssembler.log(context, params);
-    if (StringUtils.isNotBlank(telemetry) && telemetryObjectValidator.validateLog(telemetry)) {
-      telemetryFlush.flushTelemetry(telemetry);
-      success = true;
+    Telemetry telemetry = telemetryDataAssembler.logEvent(context, params);
+    if (null != telemetry && telemetryObjectValidator.validateLog(telemetry)) {
+      return telemetry;
     } else {
       ProjectLogger.log(
           "WriteEventHandler:processLogEvent: Audit Telemetry validation failed: ",
           telemetry,
           LoggerEnum.ERROR.name());
     }
-    return success;
+    return null;
   }
 
-  private boolean processErrorEvent(Request request) {
+  private Telemetry processErrorEvent(Request request) {
 
-    boolean success = false;
     Map<String, Object> context = (Map<String, Object>) request.get(JsonKey.CONTEXT);
     Map<String, Object> params = (Map<String, Object>) request.get(JsonKey.PARAMS);
-    String telemetry = telemetryDataAssembler.error(context, params);
-    if (StringUtils.isNotBlank(telemetry) && telemetryObjectValidator.validateError(telemetry)) {
-      telemetryFlush.flushTelemetry(telemetry);
-      success = true;
+    Telemetry telemetry = telemetryDataAssembler.errorEvent(context, params);
+    if (null != telemetry && telemetryObjectValidator.validateError(telemetry)) {
+      return telemetry;
     } else {
       ProjectLogger.log(
           "WriteEventHandler:processLogEvent: Error Telemetry validation failed: ",
           telemetry,
           LoggerEnum.ERROR.name());
     }
-    return success;
+    return null;
   }
 
-  private boolean processSearchEvent(Request request) {
+  private Telemetry processSearchEvent(Request request) {
 
-    boolean success = false;
     Map<String, Object> context = (Map<String, Object>) request.get(JsonKey.CONTEXT);
     Map<String, Object> params = (Map<String, Object>) request.get(JsonKey.PARAMS);
-    String telemetry = telemetryDataAssembler.search(context, params);
-    if (StringUtils.isNotBlank(telemetry) && telemetryObjectValidator.validateSearch(telemetry)) {
-      telemetryFlush.flushTelemetry(telemetry);
-      success = true;
+    Telemetry telemetry = telemetryDataAssembler.searchEvent(context, params);
+    if (null != telemetry && telemetryObjectValidator.validateSearch(telemetry)) {
+      return telemetry;
     } else {
       ProjectLogger.log(
           "WriteEventHandler:processLogEvent: Search Telemetry validation failed: ",
           telemetry,
           LoggerEnum.ERROR.name());
     }
-    return success;
+    return null;
   }
 
-  private boolean processAuditEvent(Request request) {
+  private Telemetry processAuditEvent(Request request) {
 
-    boolean success = false;
     Map<String, Object> context = (Map<String, Object>) request.get(JsonKey.CONTEXT);
     Map<String, Object> targetObject = (Map<String, Object>) request.get(JsonKey.TARGET_OBJECT);
     List<Map<String, Object>> correlatedObjects =
@@ -103,16 +138,15 @@ public class WriteEventHandler implements EventHandler<Request> {
     Map<String, Object> params = (Map<String, Object>) request.get(JsonKey.PARAMS);
     params.put(JsonKey.TARGET_OBJECT, targetObject);
     params.put(JsonKey.CORRELATED_OBJECTS, correlatedObjects);
-    String telemetry = telemetryDataAssembler.audit(context, params);
-    if (StringUtils.isNotBlank(telemetry) && telemetryObjectValidator.validateAudit(telemetry)) {
-      telemetryFlush.flushTelemetry(telemetry);
-      success = true;
+    Telemetry telemetry = telemetryDataAssembler.auditEvent(context, params);
+    if (null != telemetry && telemetryObjectValidator.validateAudit(telemetry)) {
+      return telemetry;
     } else {
       ProjectLogger.log(
           "WriteEventHandler:processLogEvent: Audit Telemetry validation failed: ",
           telemetry,
           LoggerEnum.ERROR.name());
     }
-    return success;
+    return null;
   }
 }
@@ -1,18 +1,73 @@
 package org.sunbird.telemetry.util;
 
 import com.lmax.disruptor.EventTranslatorOneArg;
+import com.lmax.disruptor.RingBuffer;
 import com.lmax.disruptor.dsl.Disruptor;
-import org.sunbird.common.models.util.LoggerEnum;
-import org.sunbird.common.models.util.ProjectLogger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
 import org.sunbird.common.request.Request;
 
 /** @author Manzarul */
 public class WriteEventProducer {
 
+  /** Behaviour of the producer when the ring buffer is full. */
+  public enum OverflowPolicy {
+    /** Wait for a free slot. */
+    BLOCK,
+    /**
+     * Discard the oldest event waiting in the ring and retry for a few spins while the handler
+     * skips it; discard the new event as well if the handler is still busy with an earlier one.
+     */
+    DROP_OLDEST,
+    /** Discard the new event. */
+    DROP_NEW,
+    /** Wait for a free slot, counting how often the ring was full. */
+    COUNT;
+
+    /** Parses drop-oldest style names, BLOCK for unknown values. */
+    public static OverflowPolicy parse(String value) {
+      for (OverflowPolicy policy : values()) {
+        if (policy.name().replace('_', '-').equalsIgnoreCase(String.valueOf(value).trim())
+            || policy.name().equalsIgnoreCase(String.valueOf(value).trim())) {
+          return policy;
+        }
+      }
+      return BLOCK;
+    }
+  }
+
+  private static final int DROP_OLDEST_SPINS = 100;
+
   private final Disruptor<Request> disruptor;
+  private final RingBuffer<Request> ringBuffer;
+  private final OverflowPolicy overflowPolicy;
+  private final AtomicLong dropBefore = new AtomicLong(-1);
+  private final LongAdder published;
+  private final LongAdder dropped;
+  private final LongAdder overflows;
 
   public WriteEventProducer(Disruptor<Request> disruptor) {
+    this(disruptor, OverflowPolicy.BLOCK);
+  }
+
+  public WriteEventProducer(Disruptor<Request> disruptor, OverflowPolicy overflowPolicy) {
     this.disruptor = disruptor;
+    this.ringBuffer = disruptor.getRingBuffer();
+    this.overflowPolicy = null == overflowPolicy ? OverflowPolicy.BLOCK : overflowPolicy;
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    String help = "Telemetry requests submitted to the ring buffer by outcome";
+    published =
+        registry.counter("sunbird_telemetry_ring_events_total", help, "outcome", "published");
+    dropped = registry.counter("sunbird_telemetry_ring_events_total", help, "outcome", "dropped");
+    overflows =
+        registry.counter(
+            "sunbird_telemetry_ring_overflows_total",
+            "Submissions that found the ring buffer full");
+    registry.gauge(
+        "sunbird_telemetry_ring_remaining_capacity",
+        "Free slots of the telemetry ring buffer",
+        ringBuffer::remainingCapacity);
   }
 
   private static final EventTranslatorOneArg<Request, Request> TRANSLATOR_ONE_ARG =
@@ -23,8 +78,53 @@ public class WriteEventProducer {
       };
 
   public void onData(Request request) {
-    ProjectLogger.log("Publishing " + request.toString(), LoggerEnum.INFO.name());
     // publish the message to disruptor
-    disruptor.publishEvent(TRANSLATOR_ONE_ARG, request);
+    if (OverflowPolicy.BLOCK == overflowPolicy) {
+      disruptor.publishEvent(TRANSLATOR_ONE_ARG, request);
+    } else if (!ringBuffer.tryPublishEvent(TRANSLATOR_ONE_ARG, request)) {
+      overflows.increment();
+      if (OverflowPolicy.DROP_NEW == overflowPolicy) {
+        dropped.increment();
+        return;
+      }
+      if (OverflowPolicy.DROP_OLDEST == overflowPolicy) {
+        // the handler skips sequences below dropBefore; the oldest sequence in the ring may
+        // already be in process, so the one after it is discarded as well
+        long oldest = ringBuffer.getCursor() - ringBuffer.getBufferSize() + 1;
+        dropBefore.accumulateAndGet(oldest + 2, Math::max);
+        if (!tryPublish(request)) {
+          dropped.increment();
+          return;
+        }
+      } else {
+        disruptor.publishEvent(TRANSLATOR_ONE_ARG, request);
+      }
+    }
+    published.increment();
+  }
+
+  /** Retries to publish for a bounded number of spins without waiting for a free slot. */
+  private boolean tryPublish(Request request) {
+    for (int i = 0; i < DROP_OLDEST_SPINS; i++) {
+      Thread.yield();
+      if (ringBuffer.tryPublishEvent(TRANSLATOR_ONE_ARG, request)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Method to check whether the handler has to skip an event discarded by the DROP_OLDEST policy.
+   *
+   * @param sequence Sequence of the event in the ring buffer
+   * @return true if the event was discarded
+   */
+  boolean isDropped(long sequence) {
+    if (sequence < dropBefore.get()) {
+      dropped.increment();
+      return true;
+    }
+    return false;
   }
 }
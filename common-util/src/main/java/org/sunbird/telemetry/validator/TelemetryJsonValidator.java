@@ -0,0 +1,188 @@
+package org.sunbird.telemetry.validator;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import org.apache.commons.lang3.StringUtils;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.util.TelemetryEvents;
+
+/**
+ * Validates telemetry events given as JSON with a streaming parser, without binding them to
+ * objects. Validation stops at the end of the first actor, context or edata object missing a
+ * required field; unknown fields are skipped.
+ */
+class TelemetryJsonValidator {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static final JsonFactory jsonFactory = mapper.getFactory();
+  private static final String[] BASIC_FIELDS = {"eid", "mid", "ver"};
+  private static final String[] ACTOR_FIELDS = {JsonKey.ID, JsonKey.TYPE};
+  private static final String[] CONTEXT_FIELDS = {JsonKey.CHANNEL, JsonKey.ENV};
+  private static final String[] LOG_FIELDS = {JsonKey.TYPE, JsonKey.LEVEL};
+  private static final String[] ERROR_FIELDS = {
+    JsonKey.ERROR, JsonKey.ERR_TYPE, JsonKey.STACKTRACE
+  };
+  private static final String[] SEARCH_FIELDS = {JsonKey.QUERY, JsonKey.SIZE, JsonKey.TOPN};
+  private static final String[] NONE = {};
+
+  /**
+   * Method to validate a telemetry event JSON for the given event type.
+   *
+   * @param jsonString Telemetry event JSON
+   * @param event Event type whose edata fields are required
+   * @return true if all required fields are present
+   */
+  boolean validate(String jsonString, TelemetryEvents event) {
+    try (JsonParser parser = jsonFactory.createParser(jsonString)) {
+      String missingField = findMissingField(parser, event);
+      if (null == missingField) {
+        return true;
+      }
+      ProjectLogger.log(
+          "Telemetry Object Creation Error for event : "
+              + event.getName()
+              + "  missing required fields :"
+              + missingField);
+    } catch (IOException e) {
+      ProjectLogger.log(e.getMessage(), e);
+    }
+    return false;
+  }
+
+  /**
+   * Method to serialise a telemetry event for the JSON validations.
+   *
+   * @param telemetry Telemetry event
+   * @return Telemetry event JSON, empty if it could not be serialised
+   */
+  static String toJson(Telemetry telemetry) {
+    try {
+      return mapper.writeValueAsString(telemetry);
+    } catch (IOException e) {
+      ProjectLogger.log(e.getMessage(), e);
+      return "";
+    }
+  }
+
+  private String findMissingField(JsonParser parser, TelemetryEvents event) throws IOException {
+    if (JsonToken.START_OBJECT != parser.nextToken()) {
+      return "event";
+    }
+    boolean[] basics = new boolean[BASIC_FIELDS.length];
+    boolean actor = false;
+    boolean context = false;
+    boolean edata = false;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String name = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if ("actor".equals(name) && JsonToken.START_OBJECT == token) {
+        String missing = findMissingField(parser, ACTOR_FIELDS, NONE);
+        if (null != missing) {
+          return "actor." + missing;
+        }
+        actor = true;
+      } else if (JsonKey.CONTEXT.equals(name) && JsonToken.START_OBJECT == token) {
+        String missing = findMissingField(parser, CONTEXT_FIELDS, NONE);
+        if (null != missing) {
+          return JsonKey.CONTEXT + "." + missing;
+        }
+        context = true;
+      } else if ("edata".equals(name) && JsonToken.START_OBJECT == token) {
+        String missing = findMissingEventData(parser, event);
+        if (null != missing) {
+          return missing;
+        }
+        edata = true;
+      } else {
+        int index = indexOf(BASIC_FIELDS, name);
+        if (index >= 0) {
+          basics[index] = isNotBlank(parser, token);
+        }
+        parser.skipChildren();
+      }
+    }
+    for (int i = 0; i < basics.length; i++) {
+      if (!basics[i]) {
+        return BASIC_FIELDS[i];
+      }
+    }
+    if (!actor) {
+      return "actor";
+    }
+    if (!context) {
+      return JsonKey.CONTEXT;
+    }
+    return edata ? null : "edata";
+  }
+
+  private String findMissingEventData(JsonParser parser, TelemetryEvents event)
+      throws IOException {
+    switch (event) {
+      case LOG:
+        return findMissingField(parser, LOG_FIELDS, NONE);
+      case ERROR:
+        return findMissingField(parser, ERROR_FIELDS, NONE);
+      case SEARCH:
+        return findMissingField(parser, NONE, SEARCH_FIELDS);
+      default:
+        // audit only needs edata to be present
+        parser.skipChildren();
+        return null;
+    }
+  }
+
+  /**
+   * Reads the object the parser is at up to its end.
+   *
+   * @return First of the non blank or non null fields missing, null if none is missing
+   */
+  private String findMissingField(
+      JsonParser parser, String[] nonBlankFields, String[] nonNullFields) throws IOException {
+    boolean[] nonBlank = new boolean[nonBlankFields.length];
+    boolean[] nonNull = new boolean[nonNullFields.length];
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String name = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      int index = indexOf(nonBlankFields, name);
+      if (index >= 0) {
+        nonBlank[index] = isNotBlank(parser, token);
+      }
+      index = indexOf(nonNullFields, name);
+      if (index >= 0) {
+        nonNull[index] = JsonToken.VALUE_NULL != token;
+      }
+      parser.skipChildren();
+    }
+    for (int i = 0; i < nonBlank.length; i++) {
+      if (!nonBlank[i]) {
+        return nonBlankFields[i];
+      }
+    }
+    for (int i = 0; i < nonNull.length; i++) {
+      if (!nonNull[i]) {
+        return nonNullFields[i];
+      }
+    }
+    return null;
+  }
+
+  private static boolean isNotBlank(JsonParser parser, JsonToken token) throws IOException {
+    return token.isScalarValue()
+        && JsonToken.VALUE_NULL != token
+        && StringUtils.isNotBlank(parser.getText());
+  }
+
+  private static int indexOf(String[] fields, String name) {
+    for (int i = 0; i < fields.length; i++) {
+      if (fields[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
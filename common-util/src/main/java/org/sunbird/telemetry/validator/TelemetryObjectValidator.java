@@ -1,6 +1,13 @@
 package org.sunbird.telemetry.validator;
 
-/** @author arvind */
+import org.sunbird.telemetry.dto.Telemetry;
+
+/**
+ * Validates telemetry events. Events given as {@link Telemetry} objects are validated as their
+ * JSON unless an implementation checks the objects directly.
+ *
+ * @author arvind
+ */
 public interface TelemetryObjectValidator {
 
   public boolean validateAudit(String jsonString);
@@ -10,4 +17,20 @@ public interface TelemetryObjectValidator {
   public boolean validateLog(String jsonString);
 
   public boolean validateError(String jsonString);
+
+  public default boolean validateAudit(Telemetry telemetry) {
+    return validateAudit(TelemetryJsonValidator.toJson(telemetry));
+  }
+
+  public default boolean validateSearch(Telemetry telemetry) {
+    return validateSearch(TelemetryJsonValidator.toJson(telemetry));
+  }
+
+  public default boolean validateLog(Telemetry telemetry) {
+    return validateLog(TelemetryJsonValidator.toJson(telemetry));
+  }
+
+  public default boolean validateError(Telemetry telemetry) {
+    return validateError(TelemetryJsonValidator.toJson(telemetry));
+  }
 }
@@ -1,7 +1,5 @@
 package org.sunbird.telemetry.validator;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -11,59 +9,40 @@ import org.sunbird.common.models.util.ProjectLogger;
 import org.sunbird.telemetry.dto.Telemetry;
 import org.sunbird.telemetry.util.TelemetryEvents;
 
-/** @author arvind */
+/**
+ * Validator of telemetry V3 events. Typed events are checked field by field, events given as JSON
+ * are checked while they are parsed, without binding them to {@link Telemetry} objects.
+ *
+ * @author arvind
+ */
 public class TelemetryObjectValidatorV3 implements TelemetryObjectValidator {
 
-  ObjectMapper mapper = new ObjectMapper();
+  private final TelemetryJsonValidator jsonValidator = new TelemetryJsonValidator();
 
   @Override
   public boolean validateAudit(String jsonString) {
+    return jsonValidator.validate(jsonString, TelemetryEvents.AUDIT);
+  }
 
-    boolean validationSuccess = true;
+  @Override
+  public boolean validateAudit(Telemetry telemetryObj) {
     List<String> missingFields = new ArrayList<>();
-    Telemetry telemetryObj = null;
-    try {
-      telemetryObj = mapper.readValue(jsonString, Telemetry.class);
-      validateBasics(telemetryObj, missingFields);
-      validateAuditEventData(telemetryObj.getEdata(), missingFields);
-      if (!missingFields.isEmpty()) {
-        ProjectLogger.log(
-            "Telemetry Object Creation Error for event : "
-                + TelemetryEvents.AUDIT.getName()
-                + "  missing required fields :"
-                + String.join(",", missingFields));
-        validationSuccess = false;
-      }
-    } catch (IOException e) {
-      validationSuccess = false;
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    return validationSuccess;
+    validateBasics(telemetryObj, missingFields);
+    validateAuditEventData(telemetryObj.getEdata(), missingFields);
+    return isValid(TelemetryEvents.AUDIT, missingFields);
   }
 
   @Override
   public boolean validateSearch(String jsonString) {
+    return jsonValidator.validate(jsonString, TelemetryEvents.SEARCH);
+  }
 
-    boolean validationSuccess = true;
+  @Override
+  public boolean validateSearch(Telemetry telemetryObj) {
     List<String> missingFields = new ArrayList<>();
-    Telemetry telemetryObj = null;
-    try {
-      telemetryObj = mapper.readValue(jsonString, Telemetry.class);
-      validateBasics(telemetryObj, missingFields);
-      validateSearchEventData(telemetryObj.getEdata(), missingFields);
-      if (!missingFields.isEmpty()) {
-        ProjectLogger.log(
-            "Telemetry Object Creation Error for event : "
-                + TelemetryEvents.SEARCH.getName()
-                + "  missing required fields :"
-                + String.join(",", missingFields));
-        validationSuccess = false;
-      }
-    } catch (IOException e) {
-      validationSuccess = false;
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    return validationSuccess;
+    validateBasics(telemetryObj, missingFields);
+    validateSearchEventData(telemetryObj.getEdata(), missingFields);
+    return isValid(TelemetryEvents.SEARCH, missingFields);
   }
 
   private void validateSearchEventData(Map<String, Object> edata, List<String> missingFields) {
@@ -89,6 +68,18 @@ public class TelemetryObjectValidatorV3 implements TelemetryObjectValidator {
     }
   }
 
+  private boolean isValid(TelemetryEvents event, List<String> missingFields) {
+    if (missingFields.isEmpty()) {
+      return true;
+    }
+    ProjectLogger.log(
+        "Telemetry Object Creation Error for event : "
+            + event.getName()
+            + "  missing required fields :"
+            + String.join(",", missingFields));
+    return false;
+  }
+
   private void validateBasics(Telemetry telemetryObj, List<String> missingFields) {
 
     if (StringUtils.isBlank(telemetryObj.getEid())) {
@@ -126,27 +117,15 @@ public class TelemetryObjectValidatorV3 implements TelemetryObjectValidator {
 
   @Override
   public boolean validateLog(String jsonString) {
+    return jsonValidator.validate(jsonString, TelemetryEvents.LOG);
+  }
 
-    boolean validationSuccess = true;
+  @Override
+  public boolean validateLog(Telemetry telemetryObj) {
     List<String> missingFields = new ArrayList<>();
-    Telemetry telemetryObj = null;
-    try {
-      telemetryObj = mapper.readValue(jsonString, Telemetry.class);
-      validateBasics(telemetryObj, missingFields);
-      validateLogEventData(telemetryObj.getEdata(), missingFields);
-      if (!missingFields.isEmpty()) {
-        ProjectLogger.log(
-            "Telemetry Object Creation Error for event : "
-                + TelemetryEvents.LOG.getName()
-                + "  missing required fields :"
-                + String.join(",", missingFields));
-        validationSuccess = false;
-      }
-    } catch (IOException e) {
-      validationSuccess = false;
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    return validationSuccess;
+    validateBasics(telemetryObj, missingFields);
+    validateLogEventData(telemetryObj.getEdata(), missingFields);
+    return isValid(TelemetryEvents.LOG, missingFields);
   }
 
   private void validateLogEventData(Map<String, Object> edata, List<String> missingFields) {
@@ -168,27 +147,15 @@ public class TelemetryObjectValidatorV3 implements TelemetryObjectValidator {
 
   @Override
   public boolean validateError(String jsonString) {
+    return jsonValidator.validate(jsonString, TelemetryEvents.ERROR);
+  }
 
-    boolean validationSuccess = true;
+  @Override
+  public boolean validateError(Telemetry telemetryObj) {
     List<String> missingFields = new ArrayList<>();
-    Telemetry telemetryObj = null;
-    try {
-      telemetryObj = mapper.readValue(jsonString, Telemetry.class);
-      validateBasics(telemetryObj, missingFields);
-      validateErrorEventData(telemetryObj.getEdata(), missingFields);
-      if (!missingFields.isEmpty()) {
-        ProjectLogger.log(
-            "Telemetry Object Creation Error for event : "
-                + TelemetryEvents.ERROR.getName()
-                + "  missing required fields :"
-                + String.join(",", missingFields));
-        validationSuccess = false;
-      }
-    } catch (IOException e) {
-      validationSuccess = false;
-      ProjectLogger.log(e.getMessage(), e);
-    }
-    return validationSuccess;
+    validateBasics(telemetryObj, missingFields);
+    validateErrorEventData(telemetryObj.getEdata(), missingFields);
+    return isValid(TelemetryEvents.ERROR, missingFields);
   }
 
   private void validateErrorEventData(Map<String, Object> edata, List<String> missingFields) {
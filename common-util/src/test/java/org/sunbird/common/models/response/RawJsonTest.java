@@ -0,0 +1,76 @@
+package org.sunbird.common.models.response;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class RawJsonTest {
+
+  private static ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testRawJsonWrittenAsIs() throws Exception {
+    List<Object> content = new ArrayList<>();
+    content.add(new RawJson("{\"id\":\"1\",\"name\":\"sunbird\"}"));
+    content.add(new RawJson("{\"id\":\"2\"}"));
+    Response response = new Response();
+    response.put("content", content);
+    String expected = "{\"content\":[{\"id\":\"1\",\"name\":\"sunbird\"},{\"id\":\"2\"}]}";
+    assertEquals(
+        expected,
+        new String(mapper.writeValueAsBytes(response.getResult()), StandardCharsets.UTF_8));
+    assertEquals(expected, mapper.writeValueAsString(response.getResult()));
+    assertEquals(expected, mapper.writeValueAsString(mapper.valueToTree(response.getResult())));
+  }
+
+  @Test
+  public void testRawJsonWrittenAsString() throws Exception {
+    RawJson.Utf8Value value = new RawJson.Utf8Value("{\"name\":\"s\u00fcnbird\"}".getBytes(UTF_8));
+    String quoted = "{\\\"name\\\":\\\"s\u00fcnbird\\\"}";
+    assertEquals(quoted, new String(value.asQuotedChars()));
+    assertEquals(quoted, new String(value.asQuotedUTF8(), UTF_8));
+    char[] chars = new char[quoted.length() + 1];
+    assertEquals(quoted.length(), value.appendQuoted(chars, 1));
+    assertEquals(-1, value.appendQuoted(chars, 2));
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    assertEquals(quoted.getBytes(UTF_8).length, value.putQuotedUTF8(buffer));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    value.writeQuotedUTF8(out);
+    assertEquals(quoted, new String(out.toByteArray(), UTF_8));
+    assertEquals("\"" + quoted + "\"", mapper.writeValueAsString(new StringHolder(value)));
+  }
+
+  /** Writes the value as a JSON string, as a generator does for a string field. */
+  private static class StringHolder implements JsonSerializable {
+    private final SerializableString value;
+
+    StringHolder(SerializableString value) {
+      this.value = value;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+      gen.writeString(value);
+    }
+
+    @Override
+    public void serializeWithType(
+        JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+        throws IOException {
+      serialize(gen, serializers);
+    }
+  }
+}
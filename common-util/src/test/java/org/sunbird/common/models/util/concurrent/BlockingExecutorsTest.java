@@ -0,0 +1,71 @@
+package org.sunbird.common.models.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.concurrent.BlockingExecutors.Backend;
+import org.sunbird.common.request.ExecutionContext;
+import org.sunbird.common.responsecode.ResponseCode;
+
+public class BlockingExecutorsTest {
+
+  @Test
+  public void testFullQueueRejectsWithServiceBusy() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+    ProjectCommonException rejection = null;
+    try {
+      while (null == rejection && accepted.size() < 100000) {
+        try {
+          accepted.add(BlockingExecutors.supply(Backend.SSO, () -> release.await(10, SECONDS)));
+        } catch (ProjectCommonException e) {
+          rejection = e;
+        }
+      }
+    } finally {
+      release.countDown();
+    }
+    assertEquals(ResponseCode.serviceBusy.getErrorCode(), rejection.getCode());
+    assertEquals(ResponseCode.TOO_MANY_REQUESTS.getResponseCode(), rejection.getResponseCode());
+    // the calls taken before the queue was full all run
+    for (CompletableFuture<Boolean> future : accepted) {
+      assertTrue(future.get(10, SECONDS));
+    }
+    assertTrue(BlockingExecutors.supply(Backend.SSO, () -> true).get(10, SECONDS));
+  }
+
+  @Test
+  public void testRequestContextIsCarriedOver() throws Exception {
+    ExecutionContext context = ExecutionContext.getCurrent();
+    Map<String, Object> previous = context.getRequestContext();
+    Map<String, Object> requestContext = new HashMap<>();
+    requestContext.put("requestId", "request-1");
+    context.setRequestContext(requestContext);
+    try {
+      CompletableFuture<Object[]> call =
+          BlockingExecutors.supply(
+              Backend.HTTP,
+              () ->
+                  new Object[] {
+                    ExecutionContext.getCurrent().getRequestContext(), Thread.currentThread()
+                  });
+      Object[] seen = call.get(10, SECONDS);
+      assertSame(requestContext, seen[0]);
+      assertNotSame(Thread.currentThread(), seen[1]);
+      assertSame(requestContext, context.getRequestContext());
+    } finally {
+      context.setRequestContext(previous);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.sunbird.common.models.util.metrics;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  @Test
+  public void testRecordAndPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(5050, histogram.getSum());
+    assertEquals(100, histogram.getMax());
+    assertEquals(64, histogram.getPercentile(50));
+    assertEquals(128, histogram.getPercentile(99));
+  }
+
+  @Test
+  public void testBucketsAreCumulative() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(1);
+    histogram.record(3);
+    histogram.record(100000);
+    Map<String, Long> buckets = histogram.getBuckets();
+    assertEquals(Long.valueOf(1), buckets.get("1"));
+    assertEquals(Long.valueOf(2), buckets.get("4"));
+    assertEquals(Long.valueOf(3), buckets.get("+Inf"));
+    assertEquals(100000, histogram.getPercentile(100));
+  }
+}
@@ -0,0 +1,44 @@
+package org.sunbird.common.models.util.metrics;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MetricsRegistryTest {
+
+  @Test
+  public void testCounterIsSharedPerLabels() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("test_total", "Test", "op", "a").add(2);
+    registry.counter("test_total", "Test", "op", "a").increment();
+    registry.counter("test_total", "Test", "op", "b").increment();
+    String text = registry.toPrometheus();
+    assertTrue(text.contains("# TYPE test_total counter\n"));
+    assertTrue(text.contains("test_total{op=\"a\"} 3\n"));
+    assertTrue(text.contains("test_total{op=\"b\"} 1\n"));
+  }
+
+  @Test
+  public void testGaugeAndHistogramExport() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.gauge("test_depth", "Depth", () -> 7, "actor", "x\"y");
+    LatencyHistogram histogram = registry.histogram("test_millis", "Latency", "op", "a");
+    assertSame(histogram, registry.histogram("test_millis", "Latency", "op", "a"));
+    histogram.record(3);
+    histogram.record(5);
+    String text = registry.toPrometheus();
+    assertTrue(text.contains("test_depth{actor=\"x\\\"y\"} 7\n"));
+    assertTrue(text.contains("test_millis_bucket{op=\"a\",le=\"4\"} 1\n"));
+    assertTrue(text.contains("test_millis_bucket{op=\"a\",le=\"+Inf\"} 2\n"));
+    assertTrue(text.contains("test_millis_sum{op=\"a\"} 8\n"));
+    assertTrue(text.contains("test_millis_count{op=\"a\"} 2\n"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeMismatch() {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("test_metric", "Test");
+    registry.histogram("test_metric", "Test");
+  }
+}
@@ -0,0 +1,158 @@
+package org.sunbird.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.junit.After;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.telemetry.dto.Actor;
+import org.sunbird.telemetry.dto.Context;
+import org.sunbird.telemetry.dto.Producer;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.util.SunbirdTelemetryEventConsumer.Compression;
+
+public class SunbirdTelemetryEventConsumerTest {
+
+  private ObjectMapper mapper = new ObjectMapper();
+  private HttpServer server;
+  private final List<String> encodings = new CopyOnWriteArrayList<>();
+  private final List<Map<String, Object>> bodies = new CopyOnWriteArrayList<>();
+
+  @After
+  public void tearDown() {
+    if (null != server) {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void testDispatchGzipCompressed() throws Exception {
+    SunbirdTelemetryEventConsumer consumer = createConsumer(Compression.GZIP, 0, null);
+    assertTrue(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}", "{\"eid\":\"ERROR\"}")));
+    assertEquals(Arrays.asList("gzip"), encodings);
+    assertEquals(2, getEvents(bodies.get(0)).size());
+  }
+
+  @Test
+  public void testDispatchDeflateCompressed() throws Exception {
+    SunbirdTelemetryEventConsumer consumer = createConsumer(Compression.DEFLATE, 0, null);
+    assertTrue(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}")));
+    assertEquals(Arrays.asList("deflate"), encodings);
+    assertEquals(1, getEvents(bodies.get(0)).size());
+  }
+
+  @Test
+  public void testFallbackWhenEncodingRejected() throws Exception {
+    SunbirdTelemetryEventConsumer consumer = createConsumer(Compression.GZIP, 415, null);
+    assertTrue(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}")));
+    assertTrue(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}")));
+    // each rejected batch is sent again uncompressed, compression stays on
+    assertEquals(Arrays.asList("gzip", "", "gzip", ""), encodings);
+    assertEquals(2, bodies.size());
+  }
+
+  @Test
+  public void testFallbackOnlyForBadRequestNamingEncoding() throws Exception {
+    SunbirdTelemetryEventConsumer consumer =
+        createConsumer(Compression.GZIP, 400, "{\"error\":\"unsupported gzip body\"}");
+    assertTrue(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}")));
+    assertEquals(Arrays.asList("gzip", ""), encodings);
+
+    tearDown();
+    encodings.clear();
+    consumer = createConsumer(Compression.GZIP, 400, "{\"error\":\"invalid events\"}");
+    assertFalse(consumer.dispatch(Arrays.asList("{\"eid\":\"LOG\"}")));
+    assertEquals(Arrays.asList("gzip"), encodings);
+  }
+
+  @Test
+  public void testWriteTelemetryRequestWithTypedAndJsonEvents() throws Exception {
+    Map<String, Object> edata = new HashMap<>();
+    edata.put(JsonKey.TYPE, "api_access");
+    edata.put(JsonKey.LEVEL, "INFO");
+    Telemetry telemetry =
+        new Telemetry(
+            TelemetryEvents.LOG.getName(),
+            new Actor("1", JsonKey.USER),
+            new Context("channel", "user", new Producer("id", "pid", "1.0")),
+            edata);
+    String json = "{\"eid\":\"AUDIT\",\"edata\":{\"props\":[\"name\"]}}";
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SunbirdTelemetryEventConsumer.getInstance()
+        .writeTelemetryRequest(out, Arrays.asList(telemetry, json));
+
+    Map<String, Object> body = mapper.readValue(out.toByteArray(), Map.class);
+    Map<String, Object> request = (Map<String, Object>) body.get(JsonKey.REQUEST);
+    assertTrue(request.get(JsonKey.ETS) instanceof Long);
+    List<Map<String, Object>> events = (List<Map<String, Object>>) request.get(JsonKey.EVENTS);
+    assertEquals(2, events.size());
+    assertEquals(TelemetryEvents.LOG.getName(), events.get(0).get("eid"));
+    assertEquals(telemetry.getMid(), events.get(0).get("mid"));
+    assertEquals("AUDIT", events.get(1).get("eid"));
+  }
+
+  @Test
+  public void testWriteTelemetryRequestWithInvalidJsonEvent() throws Exception {
+    String truncated = "{\"eid\":\"LOG\",";
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    SunbirdTelemetryEventConsumer.getInstance()
+        .writeTelemetryRequest(out, Arrays.asList(truncated, "{\"eid\":\"ERROR\"} {}"));
+
+    // the body stays valid JSON, the invalid events are sent as strings
+    List<Object> events = getEvents(mapper.readValue(out.toByteArray(), Map.class));
+    assertEquals(Arrays.asList(truncated, "{\"eid\":\"ERROR\"} {}"), events);
+  }
+
+  /**
+   * Starts a telemetry service stand-in that decodes the body, answering encoded requests with the
+   * given error status and body unless the status is 0.
+   */
+  private SunbirdTelemetryEventConsumer createConsumer(
+      Compression compression, int rejectStatus, String rejectBody) throws Exception {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/v1/telemetry",
+        exchange -> {
+          String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+          encodings.add(null == encoding ? "" : encoding);
+          if (null != encoding && rejectStatus != 0) {
+            byte[] body = null == rejectBody ? new byte[0] : rejectBody.getBytes("UTF-8");
+            exchange.sendResponseHeaders(rejectStatus, body.length > 0 ? body.length : -1);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+            return;
+          }
+          InputStream in = exchange.getRequestBody();
+          if ("gzip".equals(encoding)) {
+            in = new GZIPInputStream(in);
+          } else if ("deflate".equals(encoding)) {
+            in = new InflaterInputStream(in);
+          }
+          bodies.add(mapper.readValue(in, Map.class));
+          exchange.sendResponseHeaders(200, -1);
+          exchange.close();
+        });
+    server.start();
+    return new SunbirdTelemetryEventConsumer(
+        "http://localhost:" + server.getAddress().getPort() + "/v1/telemetry", compression, 6);
+  }
+
+  private static List<Object> getEvents(Map<String, Object> body) {
+    return (List<Object>) ((Map<String, Object>) body.get(JsonKey.REQUEST)).get(JsonKey.EVENTS);
+  }
+}
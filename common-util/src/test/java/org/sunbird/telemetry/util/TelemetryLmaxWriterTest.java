@@ -0,0 +1,147 @@
+package org.sunbird.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.util.ShardedWriteEventHandler.ShardKey;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
+
+public class TelemetryLmaxWriterTest {
+
+  @Test
+  public void testRingBufferSizeRoundedToPowerOfTwo() {
+    TelemetryLmaxWriter writer =
+        new TelemetryLmaxWriter((request, sequence, end) -> {}, 100, null, null, null);
+    assertEquals(128, writer.getRingBufferSize());
+    writer.shutdown();
+  }
+
+  @Test
+  public void testDropNewKeepsQueuedEvents() throws Exception {
+    assertEquals("[0, 1, 2, 3]", submitWhileBlocked(OverflowPolicy.DROP_NEW).toString());
+  }
+
+  @Test
+  public void testDropOldestDoesNotWaitForBusyHandler() throws Exception {
+    // event 1 is discarded, and event 4 too as the handler is still busy with event 0
+    assertEquals("[0, 2, 3]", submitWhileBlocked(OverflowPolicy.DROP_OLDEST).toString());
+  }
+
+  @Test
+  public void testShardedHandlersKeepRequestOrder() throws Exception {
+    Map<String, Set<String>> threadsByRequest = new HashMap<>();
+    List<Object> flushed = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(100);
+    TelemetryLmaxWriter writer =
+        new TelemetryLmaxWriter(
+            4,
+            ShardKey.REQUEST_ID,
+            request -> {
+              Map<String, Object> context = (Map<String, Object>) request.get(JsonKey.CONTEXT);
+              String requestId = (String) context.get(JsonKey.REQUEST_ID);
+              synchronized (threadsByRequest) {
+                threadsByRequest
+                    .computeIfAbsent(requestId, k -> new HashSet<>())
+                    .add(Thread.currentThread().getName());
+              }
+              Telemetry telemetry = new Telemetry();
+              telemetry.setMid(requestId + ":" + request.get("id"));
+              return telemetry;
+            },
+            batch -> {
+              flushed.addAll(batch);
+              batch.forEach(event -> done.countDown());
+            },
+            64,
+            "blocking",
+            "multi",
+            OverflowPolicy.BLOCK);
+    for (int i = 0; i < 100; i++) {
+      Request request = createRequest(i);
+      Map<String, Object> context = new HashMap<>();
+      context.put(JsonKey.REQUEST_ID, "request-" + (i % 10));
+      request.put(JsonKey.CONTEXT, context);
+      writer.submitMessage(request);
+    }
+    assertTrue(done.await(5, TimeUnit.SECONDS));
+    writer.shutdown();
+
+    Set<String> threads = new HashSet<>();
+    for (Set<String> names : threadsByRequest.values()) {
+      // each request id is handled by one shard
+      assertEquals(1, names.size());
+      threads.addAll(names);
+    }
+    assertTrue(threads.size() > 1);
+    // the flush stage sees the events of one request in submission order
+    List<Object> ids = new ArrayList<>();
+    for (Object event : flushed) {
+      Telemetry telemetry = (Telemetry) event;
+      if (telemetry.getMid().startsWith("request-3:")) {
+        ids.add(Integer.valueOf(telemetry.getMid().substring("request-3:".length())));
+      }
+    }
+    assertEquals("[3, 13, 23, 33, 43, 53, 63, 73, 83, 93]", ids.toString());
+    assertEquals(100, flushed.size());
+  }
+
+  /**
+   * Submits events 0 to 4 to a ring of 4 while the handler is blocked on event 0, so event 4 finds
+   * the ring full, then releases the handler and returns the processed events.
+   */
+  private List<Object> submitWhileBlocked(OverflowPolicy policy) throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<Object> processed = new CopyOnWriteArrayList<>();
+    TelemetryLmaxWriter writer =
+        new TelemetryLmaxWriter(
+            (request, sequence, end) -> {
+              processed.add(request.get("id"));
+              started.countDown();
+              release.await();
+            },
+            4,
+            "blocking",
+            "multi",
+            policy);
+    writer.submitMessage(createRequest(0));
+    started.await(5, TimeUnit.SECONDS);
+    Thread producer =
+        new Thread(
+            () -> {
+              for (int i = 1; i <= 4; i++) {
+                writer.submitMessage(createRequest(i));
+              }
+            });
+    producer.start();
+    if (OverflowPolicy.BLOCK == policy || OverflowPolicy.COUNT == policy) {
+      // the producer waits for a free slot
+      Thread.sleep(200);
+    } else {
+      producer.join();
+    }
+    release.countDown();
+    producer.join(5000);
+    writer.shutdown();
+    return processed;
+  }
+
+  private static Request createRequest(int id) {
+    Request request = new Request();
+    request.put("id", id);
+    return request;
+  }
+}
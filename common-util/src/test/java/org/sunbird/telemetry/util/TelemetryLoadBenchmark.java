@@ -0,0 +1,133 @@
+package org.sunbird.telemetry.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.ExecutionContext;
+import org.sunbird.common.request.Request;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
+
+/**
+ * Cost of each stage of the telemetry path of an API request, from {@link
+ * TelemetryUtil#telemetryProcessingCall} down to the consumer posting a batch of 20 events to a
+ * local {@link TelemetryServiceStandIn}. The stages hand events to the following ones
+ * asynchronously, so each is measured with the rest of the pipeline running behind it. Throughput
+ * gives events/sec, sample time the p99 submit latency, run with -prof gc for the allocation per
+ * event; the drop counts of the ring and the sink are printed at the end of each trial. The
+ * standalone {@link TelemetryLoadHarness} reports the same figures for a sustained load. Not a
+ * unit test, run it after mvn test-compile with the test classpath: java -cp &lt;test
+ * classpath&gt; org.openjdk.jmh.Main TelemetryLoadBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TelemetryLoadBenchmark {
+
+  private static final int BATCH_SIZE = 20;
+
+  @Param({"block", "drop-new"})
+  public String overflowPolicy;
+
+  @Param({"0"})
+  public long serviceLatencyMillis;
+
+  private TelemetryLoadPipeline pipeline;
+  private Telemetry telemetry;
+  private List<Telemetry> batch;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    pipeline =
+        new TelemetryLoadPipeline(1, OverflowPolicy.parse(overflowPolicy), serviceLatencyMillis);
+    TelemetryLoadPipeline.initRequestContext("user-1");
+    telemetry =
+        TelemetryGenerator.logEvent(
+            TelemetryUtil.getTelemetryContext(), TelemetryLoadPipeline.createLogParams());
+    batch = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      batch.add(telemetry);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    System.out.println(
+        "dropped: ring="
+            + pipeline.getRingDropped()
+            + " sink="
+            + pipeline.getSinkDropped()
+            + " failed="
+            + pipeline.getSinkFailed()
+            + " delivered="
+            + pipeline.service.getEvents());
+    pipeline.close();
+  }
+
+  /** Request thread state, the telemetry context of an API request. */
+  @State(Scope.Thread)
+  public static class RequestState {
+    private Request request;
+    private long count;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      TelemetryLoadPipeline.initRequestContext("user-" + Thread.currentThread().getId());
+      Map<String, Object> map = new HashMap<>();
+      map.put(JsonKey.TELEMETRY_EVENT_TYPE, TelemetryEvents.LOG.getName());
+      map.put(JsonKey.CONTEXT, TelemetryUtil.getTelemetryContext());
+      map.put(JsonKey.PARAMS, TelemetryLoadPipeline.createLogParams());
+      request = new Request();
+      request.setRequest(map);
+    }
+  }
+
+  @Benchmark
+  public void processingCall(RequestState state) {
+    ExecutionContext.setRequestId(String.valueOf(state.count++));
+    TelemetryUtil.telemetryProcessingCall(
+        TelemetryLoadPipeline.createLogParams(), null, null, TelemetryEvents.LOG.getName());
+  }
+
+  @Benchmark
+  public void submitMessage(RequestState state) {
+    pipeline.writer.submitMessage(state.request);
+  }
+
+  @Benchmark
+  public void writeEventHandler(RequestState state) throws Exception {
+    pipeline.handler.onEvent(state.request, 0, true);
+  }
+
+  @Benchmark
+  public void flush() {
+    pipeline.flush.flushTelemetry(telemetry);
+  }
+
+  @Benchmark
+  public boolean consumer() {
+    return pipeline.consumer.dispatch(batch);
+  }
+}
@@ -0,0 +1,216 @@
+package org.sunbird.telemetry.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.sunbird.common.request.ExecutionContext;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
+
+/**
+ * Load harness for the telemetry path of an API request. Producer threads call {@link
+ * TelemetryUtil#telemetryProcessingCall} with api_access LOG events as fast as they can for the
+ * given duration; the events go through the ring writer, the write event handler, the flush and
+ * sink to the consumer, which posts them to a local {@link TelemetryServiceStandIn}. It reports
+ * events/sec submitted and delivered, submit latency percentiles, bytes allocated per event on the
+ * request threads and in the whole process, and the events dropped or lost on the way. Not a unit
+ * test, run it after mvn test-compile with the test classpath: java -cp &lt;test classpath&gt;
+ * org.sunbird.telemetry.util.TelemetryLoadHarness [threads] [seconds] [overflow policy] [service
+ * latency millis] [handler count]
+ */
+public class TelemetryLoadHarness {
+
+  /** Latencies kept per thread, the most recent ones once a thread submitted more. */
+  private static final int LATENCY_SAMPLES = 1 << 20;
+
+  private static final long DRAIN_MILLIS = 10000;
+
+  public static void main(String[] args) throws Exception {
+    int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+    long seconds = args.length > 1 ? Long.parseLong(args[1]) : 10;
+    OverflowPolicy policy = OverflowPolicy.parse(args.length > 2 ? args[2] : "block");
+    long serviceLatency = args.length > 3 ? Long.parseLong(args[3]) : 5;
+    int handlerCount = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+    TelemetryLoadPipeline pipeline =
+        new TelemetryLoadPipeline(handlerCount, policy, serviceLatency);
+    // warm up the path before measuring
+    runProducers(pipeline, threads, TimeUnit.SECONDS.toNanos(Math.max(1, seconds / 5)));
+    drain(pipeline, 0);
+
+    long ringDropped = pipeline.getRingDropped();
+    long sinkDropped = pipeline.getSinkDropped();
+    long sinkFailed = pipeline.getSinkFailed();
+    long delivered = pipeline.service.getEvents();
+    long batches = pipeline.service.getBatches();
+    Map<Long, Long> allocatedBefore = getAllocatedBytes();
+    long start = System.nanoTime();
+    Result result = runProducers(pipeline, threads, TimeUnit.SECONDS.toNanos(seconds));
+    double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+    long drained = drain(pipeline, delivered + result.submitted);
+    long processAllocated = getAllocatedSince(allocatedBefore) + result.allocated;
+
+    long[] latencies = result.latencies;
+    Arrays.sort(latencies);
+    delivered = pipeline.service.getEvents() - delivered;
+    ringDropped = pipeline.getRingDropped() - ringDropped;
+    sinkDropped = pipeline.getSinkDropped() - sinkDropped;
+    System.out.println(
+        String.format(
+            "threads=%d seconds=%d overflow=%s serviceLatencyMillis=%d handlers=%d",
+            threads, seconds, policy, serviceLatency, handlerCount));
+    System.out.println(
+        String.format(
+            "submitted: %d events, %.0f events/sec",
+            result.submitted, result.submitted / elapsedSeconds));
+    System.out.println(
+        String.format(
+            "delivered: %d events in %d batches, %.0f events/sec incl. %d ms drain",
+            delivered,
+            pipeline.service.getBatches() - batches,
+            delivered / (elapsedSeconds + drained / 1e3),
+            drained));
+    System.out.println(
+        String.format(
+            "submit latency us: p50=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+            percentile(latencies, 0.5),
+            percentile(latencies, 0.99),
+            percentile(latencies, 0.999),
+            latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e3));
+    System.out.println(
+        String.format(
+            "allocated bytes/event: request threads=%d process=%d",
+            result.allocated / Math.max(1, result.submitted),
+            processAllocated / Math.max(1, result.submitted)));
+    System.out.println(
+        String.format(
+            "dropped: ring=%d sink=%d failed=%d lost=%d",
+            ringDropped,
+            sinkDropped,
+            pipeline.getSinkFailed() - sinkFailed,
+            Math.max(0, result.submitted - delivered - ringDropped - sinkDropped)));
+    pipeline.close();
+  }
+
+  private static Result runProducers(TelemetryLoadPipeline pipeline, int threads, long nanos)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + nanos;
+    AtomicLong submitted = new AtomicLong();
+    AtomicLong allocated = new AtomicLong();
+    long[][] latencies = new long[threads][];
+    Thread[] producers = new Thread[threads];
+    for (int t = 0; t < threads; t++) {
+      int index = t;
+      producers[t] =
+          new Thread(
+              () -> {
+                long[] samples = new long[LATENCY_SAMPLES];
+                long allocatedBefore = getAllocatedBytes(Thread.currentThread().getId());
+                TelemetryLoadPipeline.initRequestContext("user-" + index);
+                long count = 0;
+                while (System.nanoTime() < deadline) {
+                  ExecutionContext.setRequestId(index + "-" + count);
+                  Map<String, Object> params = TelemetryLoadPipeline.createLogParams();
+                  long begin = System.nanoTime();
+                  TelemetryUtil.telemetryProcessingCall(
+                      params, null, null, TelemetryEvents.LOG.getName());
+                  samples[(int) (count++ & (LATENCY_SAMPLES - 1))] = System.nanoTime() - begin;
+                }
+                allocated.addAndGet(
+                    getAllocatedBytes(Thread.currentThread().getId()) - allocatedBefore);
+                submitted.addAndGet(count);
+                latencies[index] = Arrays.copyOf(samples, (int) Math.min(count, LATENCY_SAMPLES));
+              },
+              "telemetry-load-" + t);
+      producers[t].start();
+    }
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    Result result = new Result();
+    result.submitted = submitted.get();
+    result.allocated = allocated.get();
+    int size = 0;
+    for (long[] samples : latencies) {
+      size += samples.length;
+    }
+    result.latencies = new long[size];
+    int offset = 0;
+    for (long[] samples : latencies) {
+      System.arraycopy(samples, 0, result.latencies, offset, samples.length);
+      offset += samples.length;
+    }
+    return result;
+  }
+
+  /**
+   * Waits until the stand-in received the expected events or their count stops growing for two
+   * flush intervals.
+   *
+   * @return Milliseconds waited
+   */
+  private static long drain(TelemetryLoadPipeline pipeline, long expected)
+      throws InterruptedException {
+    long start = System.currentTimeMillis();
+    long last = -1;
+    long lastChange = start;
+    while (System.currentTimeMillis() - start < DRAIN_MILLIS) {
+      long events = pipeline.service.getEvents();
+      if (events >= expected && expected > 0) {
+        break;
+      }
+      if (events != last) {
+        last = events;
+        lastChange = System.currentTimeMillis();
+      } else if (System.currentTimeMillis() - lastChange > 2000) {
+        break;
+      }
+      Thread.sleep(10);
+    }
+    return System.currentTimeMillis() - start;
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)]
+        / 1e3;
+  }
+
+  private static long getAllocatedBytes(long threadId) {
+    return getThreadBean().getThreadAllocatedBytes(threadId);
+  }
+
+  private static Map<Long, Long> getAllocatedBytes() {
+    Map<Long, Long> allocated = new HashMap<>();
+    com.sun.management.ThreadMXBean bean = getThreadBean();
+    for (long id : bean.getAllThreadIds()) {
+      allocated.put(id, bean.getThreadAllocatedBytes(id));
+    }
+    return allocated;
+  }
+
+  /** Bytes allocated since the snapshot by the threads still alive, the producers excluded. */
+  private static long getAllocatedSince(Map<Long, Long> before) {
+    long allocated = 0;
+    for (Map.Entry<Long, Long> entry : getAllocatedBytes().entrySet()) {
+      if (entry.getValue() > 0) {
+        allocated += entry.getValue() - before.getOrDefault(entry.getKey(), 0L);
+      }
+    }
+    return allocated;
+  }
+
+  private static com.sun.management.ThreadMXBean getThreadBean() {
+    return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  }
+
+  private static class Result {
+    private long submitted;
+    private long allocated;
+    private long[] latencies;
+  }
+}
@@ -0,0 +1,119 @@
+package org.sunbird.telemetry.util;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+import org.sunbird.common.request.ExecutionContext;
+import org.sunbird.telemetry.util.ShardedWriteEventHandler.ShardKey;
+import org.sunbird.telemetry.util.SunbirdTelemetryEventConsumer.Compression;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
+
+/**
+ * Telemetry pipeline of the load harness and benchmarks: the ring writer, the write event handler,
+ * the flush and sink, and the consumer posting to a {@link TelemetryServiceStandIn}. The writer is
+ * installed as the one {@link TelemetryUtil} submits to, nothing is sent to a real service and no
+ * batch is spilled to disk.
+ */
+class TelemetryLoadPipeline {
+
+  private static final int BATCH_SIZE = 20;
+  private static final int RING_SIZE = 1024;
+
+  final TelemetryServiceStandIn service;
+  final SunbirdTelemetryEventConsumer consumer;
+  final TelemetrySink sink;
+  final TelemetryFlush flush;
+  final WriteEventHandler handler;
+  final TelemetryLmaxWriter writer;
+
+  private final LongAdder ringDropped;
+  private final LongAdder sinkDropped;
+  private final LongAdder sinkFailed;
+
+  /**
+   * Starts the stand-in service and the pipeline in front of it.
+   *
+   * @param handlerCount Parallel handlers of the ring, sharded by request id above 1
+   * @param overflowPolicy Behaviour of the ring when it is full
+   * @param serviceLatencyMillis Time the stand-in service takes to answer a batch
+   */
+  TelemetryLoadPipeline(int handlerCount, OverflowPolicy overflowPolicy, long serviceLatencyMillis)
+      throws IOException {
+    service = new TelemetryServiceStandIn(serviceLatencyMillis);
+    service.start();
+    consumer = new SunbirdTelemetryEventConsumer(service.getUrl(), Compression.GZIP, 6);
+    sink = new TelemetrySink("load", consumer, BATCH_SIZE, 1000, 10000, 50, 5, 500, null, 0);
+    flush = new TelemetryFlush(sink);
+    handler = new WriteEventHandler(flush);
+    if (handlerCount > 1) {
+      writer =
+          new TelemetryLmaxWriter(
+              handlerCount,
+              ShardKey.REQUEST_ID,
+              handler::generate,
+              flush::flushTelemetry,
+              RING_SIZE,
+              "blocking",
+              "multi",
+              overflowPolicy);
+    } else {
+      writer = new TelemetryLmaxWriter(handler, RING_SIZE, "blocking", "multi", overflowPolicy);
+    }
+    TelemetryLmaxWriter.setInstance(writer);
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    ringDropped =
+        registry.counter("sunbird_telemetry_ring_events_total", "", "outcome", "dropped");
+    sinkDropped =
+        registry.counter(
+            "sunbird_telemetry_events_total", "", "sink", "load", "outcome", "dropped");
+    sinkFailed =
+        registry.counter("sunbird_telemetry_events_total", "", "sink", "load", "outcome", "failed");
+  }
+
+  void close() {
+    writer.shutdown();
+    sink.shutdown();
+    service.stop();
+  }
+
+  /** Events discarded by the ring overflow policy. */
+  long getRingDropped() {
+    return ringDropped.sum();
+  }
+
+  /** Events discarded by the sink because its buffer was full. */
+  long getSinkDropped() {
+    return sinkDropped.sum();
+  }
+
+  /** Events of batches the stand-in service did not accept. */
+  long getSinkFailed() {
+    return sinkFailed.sum();
+  }
+
+  /** Sets the telemetry context of the calling thread as the request filters of a service do. */
+  static void initRequestContext(String actorId) {
+    Map<String, Object> context = new HashMap<>();
+    context.put(JsonKey.ACTOR_ID, actorId);
+    context.put(JsonKey.ACTOR_TYPE, JsonKey.USER);
+    context.put(JsonKey.CHANNEL, "ORG_001");
+    context.put(JsonKey.ENV, "user");
+    ExecutionContext.getCurrent().setRequestContext(context);
+  }
+
+  /** Params of an api_access LOG event as generated for every API call. */
+  static Map<String, Object> createLogParams() {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.LOG_TYPE, JsonKey.API_ACCESS);
+    params.put(JsonKey.LOG_LEVEL, "INFO");
+    params.put(JsonKey.MESSAGE, "");
+    params.put(JsonKey.METHOD, "POST");
+    params.put(JsonKey.URL, "/v1/user/read");
+    params.put(JsonKey.DURATION, 42L);
+    params.put(JsonKey.STATUS, "200");
+    return params;
+  }
+}
@@ -0,0 +1,112 @@
+package org.sunbird.telemetry.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.gson.Gson;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.validator.TelemetryObjectValidator;
+import org.sunbird.telemetry.validator.TelemetryObjectValidatorV3;
+
+/**
+ * Cost of turning a batch of 20 LOG events into the telemetry request body: "jsonRoundTrips" is the
+ * former path of serialise, parse to validate, parse the joined batch and serialise with Gson;
+ * "singlePass" validates the typed events and writes the body once. Not a unit test, run it after
+ * mvn test-compile with the test classpath: java -cp &lt;test classpath&gt; org.openjdk.jmh.Main
+ * TelemetryPipelineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryPipelineBenchmark {
+
+  private static final int BATCH_SIZE = 20;
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final TelemetryObjectValidator validator = new TelemetryObjectValidatorV3();
+  private final SunbirdTelemetryEventConsumer consumer =
+      SunbirdTelemetryEventConsumer.getInstance();
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+  private final Map<String, Object> context = createContext();
+  private final Map<String, Object> params = createParams();
+
+  @Benchmark
+  public int jsonRoundTrips() throws IOException {
+    List<String> events = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      String event = TelemetryGenerator.log(context, new HashMap<>(params));
+      if (validator.validateLog(event)) {
+        events.add(event);
+      }
+    }
+    List<Map<String, Object>> jsonList =
+        mapper.readValue(events.toString(), new TypeReference<List<Map<String, Object>>>() {});
+    Request request = new Request();
+    request.getRequest().put(JsonKey.ETS, System.currentTimeMillis());
+    request.getRequest().put(JsonKey.EVENTS, jsonList);
+    return new Gson()
+        .toJson(consumer.getTelemetryRequest(request))
+        .getBytes(StandardCharsets.UTF_8)
+        .length;
+  }
+
+  @Benchmark
+  public int singlePass() throws IOException {
+    List<Telemetry> events = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Telemetry event = TelemetryGenerator.logEvent(context, new HashMap<>(params));
+      if (validator.validateLog(event)) {
+        events.add(event);
+      }
+    }
+    out.reset();
+    consumer.writeTelemetryRequest(out, events);
+    return out.size();
+  }
+
+  private static Map<String, Object> createContext() {
+    Map<String, Object> context = new HashMap<>();
+    context.put(JsonKey.ACTOR_ID, "a4e6b4c6-64e0-4bc4-9d8b-8d5a7f1c2a01");
+    context.put(JsonKey.ACTOR_TYPE, JsonKey.USER);
+    context.put(JsonKey.CHANNEL, "ORG_001");
+    context.put(JsonKey.ENV, "user");
+    context.put(JsonKey.REQUEST_ID, "8e27cbf5-e299-43b0-bca7-8347f7e5abcf");
+    context.put(JsonKey.PDATA_ID, "local.sunbird.learning.service");
+    context.put(JsonKey.PDATA_PID, "learning-service");
+    context.put(JsonKey.PDATA_VERSION, "1.7");
+    return context;
+  }
+
+  private static Map<String, Object> createParams() {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.LOG_TYPE, "api_access");
+    params.put(JsonKey.LOG_LEVEL, "INFO");
+    params.put(JsonKey.MESSAGE, "");
+    params.put("method", "POST");
+    params.put("url", "/v1/user/read");
+    params.put("duration", 42L);
+    params.put("status", 200);
+    return params;
+  }
+}
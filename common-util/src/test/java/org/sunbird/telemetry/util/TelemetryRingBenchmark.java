@@ -0,0 +1,72 @@
+package org.sunbird.telemetry.util;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sunbird.common.request.Request;
+import org.sunbird.telemetry.util.WriteEventProducer.OverflowPolicy;
+
+/**
+ * Publish latency of {@link TelemetryLmaxWriter} with four producer threads and a handler slower
+ * than the producers, for every wait strategy and overflow policy. Yielding and busy-spin keep a
+ * core busy per handler, compare them only on machines with spare cores. Not a unit test, run it
+ * after mvn test-compile with the test classpath: java -cp &lt;test classpath&gt;
+ * org.openjdk.jmh.Main TelemetryRingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class TelemetryRingBenchmark {
+
+  @Param({"blocking", "yielding", "busy-spin"})
+  public String waitStrategy;
+
+  @Param({"block", "drop-oldest", "drop-new", "count"})
+  public String overflowPolicy;
+
+  @Param({"1024"})
+  public int ringSize;
+
+  private TelemetryLmaxWriter writer;
+  private Request request;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    writer =
+        new TelemetryLmaxWriter(
+            (event, sequence, endOfBatch) -> Blackhole.consumeCPU(500),
+            ringSize,
+            waitStrategy,
+            "multi",
+            OverflowPolicy.parse(overflowPolicy));
+    request = new Request();
+    request.put("eid", "LOG");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    writer.shutdown();
+  }
+
+  @Benchmark
+  public void publish() {
+    writer.submitMessage(request);
+  }
+}
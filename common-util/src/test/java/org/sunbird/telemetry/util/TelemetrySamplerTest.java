@@ -0,0 +1,88 @@
+package org.sunbird.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+
+public class TelemetrySamplerTest {
+
+  @Test
+  public void testUrlRuleOverridesTypeRate() {
+    TelemetrySampler sampler =
+        new TelemetrySampler(
+            1,
+            TelemetrySampler.parseRates("api_access=0.5"),
+            TelemetrySampler.parseRates("/v1/health=0,/v1/user/.*=1"),
+            0,
+            0);
+    assertEquals(0, sampler.sample("LOG", params("/v1/health", "200", "info", 5L)), 0);
+    assertEquals(1, sampler.sample("LOG", params("/v1/user/read", "200", "info", 5L)), 0);
+    assertEquals(0.5, rateOfKept(sampler, params("/v1/org/read", "200", "info", 5L)), 0);
+  }
+
+  @Test
+  public void testErrorsAndSlowRequestsAlwaysKept() {
+    TelemetrySampler sampler =
+        new TelemetrySampler(0, Collections.emptyMap(), Collections.emptyMap(), 1000, 0);
+    assertEquals(0, sampler.sample("LOG", params("/v1/user/read", "200", "info", 5L)), 0);
+    assertEquals(1, sampler.sample("LOG", params("/v1/user/read", "200", "error", 5L)), 0);
+    assertEquals(1, sampler.sample("LOG", params("/v1/user/read", "404", "info", 5L)), 0);
+    assertEquals(1, sampler.sample("LOG", params("/v1/user/read", "200", "info", 1500L)), 0);
+  }
+
+  @Test
+  public void testFixedRateKeepsShareOfEvents() {
+    TelemetrySampler sampler =
+        new TelemetrySampler(0.1, Collections.emptyMap(), Collections.emptyMap(), 0, 0);
+    int kept = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (sampler.sample("LOG", params("/v1/user/read", "200", "info", 5L)) > 0) {
+        kept++;
+      }
+    }
+    assertTrue("kept " + kept, kept > 800 && kept < 1200);
+  }
+
+  @Test
+  public void testAdaptiveRateUnderLoad() throws Exception {
+    TelemetrySampler sampler =
+        new TelemetrySampler(1, Collections.emptyMap(), Collections.emptyMap(), 0, 100);
+    for (int i = 0; i < 10000; i++) {
+      sampler.sample("LOG", params("/v1/user/read", "200", "info", 5L));
+    }
+    Thread.sleep(1100);
+    // the previous second would have kept about 9000 events, the target is 100
+    double rate = rateOfKept(sampler, params("/v1/user/read", "200", "info", 5L));
+    assertTrue("rate " + rate, rate < 0.02);
+  }
+
+  @Test
+  public void testInvalidRatesSkipped() {
+    Map<String, Double> rates = TelemetrySampler.parseRates("log=0.2, search=x,audit");
+    assertEquals(Collections.singletonMap("log", 0.2), rates);
+  }
+
+  private static double rateOfKept(TelemetrySampler sampler, Map<String, Object> params) {
+    double rate;
+    do {
+      rate = sampler.sample("LOG", params);
+    } while (rate == 0);
+    return rate;
+  }
+
+  private static Map<String, Object> params(
+      String url, String status, String logLevel, Long duration) {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.LOG_TYPE, JsonKey.API_ACCESS);
+    params.put(JsonKey.URL, url);
+    params.put(JsonKey.STATUS, status);
+    params.put(JsonKey.LOG_LEVEL, logLevel);
+    params.put(JsonKey.DURATION, duration);
+    return params;
+  }
+}
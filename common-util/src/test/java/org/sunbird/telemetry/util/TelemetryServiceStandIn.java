@@ -0,0 +1,102 @@
+package org.sunbird.telemetry.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import org.sunbird.common.models.util.JsonKey;
+
+/**
+ * Local stand-in for the telemetry service used by the load harness and benchmarks. It decodes
+ * every batch request, counts its events and answers 200 after the configured latency.
+ */
+class TelemetryServiceStandIn {
+
+  private static final String PATH = "/v1/telemetry";
+  private static final JsonFactory jsonFactory = new JsonFactory();
+
+  private final long latencyMillis;
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder events = new LongAdder();
+  private HttpServer server;
+  private ExecutorService executor;
+
+  TelemetryServiceStandIn(long latencyMillis) {
+    this.latencyMillis = latencyMillis;
+  }
+
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(PATH, this::handle);
+    executor = Executors.newFixedThreadPool(4);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  void stop() {
+    server.stop(0);
+    executor.shutdownNow();
+  }
+
+  String getUrl() {
+    return "http://localhost:" + server.getAddress().getPort() + PATH;
+  }
+
+  long getBatches() {
+    return batches.sum();
+  }
+
+  long getEvents() {
+    return events.sum();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+    InputStream in = exchange.getRequestBody();
+    if ("gzip".equals(encoding)) {
+      in = new GZIPInputStream(in);
+    } else if ("deflate".equals(encoding)) {
+      in = new InflaterInputStream(in);
+    }
+    try (JsonParser parser = jsonFactory.createParser(in)) {
+      events.add(countEvents(parser));
+      batches.increment();
+    }
+    if (latencyMillis > 0) {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    exchange.sendResponseHeaders(200, -1);
+    exchange.close();
+  }
+
+  /** Counts the elements of the first events array in the body. */
+  private static int countEvents(JsonParser parser) throws IOException {
+    JsonToken token;
+    while (null != (token = parser.nextToken())) {
+      if (JsonToken.FIELD_NAME == token && JsonKey.EVENTS.equals(parser.getCurrentName())) {
+        int count = 0;
+        if (JsonToken.START_ARRAY == parser.nextToken()) {
+          while (JsonToken.END_ARRAY != parser.nextToken()) {
+            parser.skipChildren();
+            count++;
+          }
+        }
+        return count;
+      }
+    }
+    return 0;
+  }
+}
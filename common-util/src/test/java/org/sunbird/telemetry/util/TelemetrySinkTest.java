@@ -0,0 +1,134 @@
+package org.sunbird.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sunbird.common.models.util.metrics.MetricsRegistry;
+
+public class TelemetrySinkTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void testBatchesBySizeAndInterval() throws Exception {
+    RecordingDispatcher dispatcher = new RecordingDispatcher();
+    TelemetrySink sink = new TelemetrySink("test", dispatcher, 5, 100, 100, 10, 3, 10, null, 0);
+    for (int i = 0; i < 12; i++) {
+      assertTrue(sink.offer("{\"id\":" + i + "}"));
+    }
+    waitFor(() -> dispatcher.getEvents().size() == 12);
+    assertEquals(5, dispatcher.batches.get(0).size());
+    sink.shutdown();
+  }
+
+  @Test
+  public void testRetriesFailedBatch() throws Exception {
+    RecordingDispatcher dispatcher = new RecordingDispatcher();
+    dispatcher.failures.set(2);
+    TelemetrySink sink = new TelemetrySink("test", dispatcher, 5, 20, 100, 10, 5, 10, null, 0);
+    for (int i = 0; i < 5; i++) {
+      sink.offer("{\"id\":" + i + "}");
+    }
+    waitFor(() -> dispatcher.getEvents().size() == 5);
+    assertEquals(3, dispatcher.attempts.get());
+    sink.shutdown();
+  }
+
+  @Test
+  public void testSpillsDuringOutageAndReplays() throws Exception {
+    File spillDir = folder.newFolder("spill");
+    RecordingDispatcher dispatcher = new RecordingDispatcher();
+    dispatcher.failures.set(Integer.MAX_VALUE);
+    TelemetrySink sink =
+        new TelemetrySink(
+            "test", dispatcher, 5, 20, 100, 1, 2, 10, spillDir.getPath(), 1024 * 1024);
+    for (int i = 0; i < 20; i++) {
+      sink.offer("{\"id\":" + i + "}");
+    }
+    waitFor(() -> spillDir.list().length >= 3);
+    dispatcher.failures.set(0);
+    waitFor(() -> dispatcher.getEvents().size() == 20 && spillDir.list().length == 0);
+    assertEquals(20, new HashSet<>(dispatcher.getEvents()).size());
+    sink.shutdown();
+  }
+
+  @Test
+  public void testShutdownSpillsPendingEvents() throws Exception {
+    File spillDir = folder.newFolder("pending");
+    RecordingDispatcher dispatcher = new RecordingDispatcher();
+    TelemetrySink sink =
+        new TelemetrySink(
+            "test", dispatcher, 100, 60000, 100, 10, 3, 10, spillDir.getPath(), 1024 * 1024);
+    sink.offer("{\"id\":1}");
+    sink.shutdown();
+    assertEquals(0, dispatcher.getEvents().size());
+    assertEquals(1, spillDir.list().length);
+  }
+
+  @Test
+  public void testSinksOfOneNameShareMetrics() throws Exception {
+    MetricsRegistry registry = MetricsRegistry.getInstance();
+    LongAdder sent =
+        registry.counter("sunbird_telemetry_events_total", "", "sink", "shared", "outcome", "sent");
+    TelemetrySink first =
+        new TelemetrySink("shared", new RecordingDispatcher(), 1, 10, 10, 10, 3, 10, null, 0);
+    first.offer("{\"id\":1}");
+    waitFor(() -> sent.sum() == 1);
+    TelemetrySink second =
+        new TelemetrySink("shared", new RecordingDispatcher(), 1, 10, 10, 10, 3, 10, null, 0);
+    first.shutdown();
+    second.offer("{\"id\":2}");
+    waitFor(() -> sent.sum() == 2);
+    String metrics = registry.toPrometheus();
+    assertEquals(
+        metrics.indexOf("sunbird_telemetry_buffer_depth{sink=\"shared\"}"),
+        metrics.lastIndexOf("sunbird_telemetry_buffer_depth{sink=\"shared\"}"));
+    second.shutdown();
+  }
+
+  private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10000;
+    while (!condition.getAsBoolean()) {
+      assertTrue("condition not met in time", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  private static class RecordingDispatcher implements TelemetryDispatcher {
+    private final List<List<?>> batches = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Override
+    public boolean dispatch(List<?> events) {
+      attempts.incrementAndGet();
+      if (failures.get() > 0) {
+        failures.decrementAndGet();
+        return false;
+      }
+      batches.add(new ArrayList<>(events));
+      return true;
+    }
+
+    List<Object> getEvents() {
+      List<Object> events = new ArrayList<>();
+      synchronized (batches) {
+        for (List<?> batch : batches) {
+          events.addAll(batch);
+        }
+      }
+      return events;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package org.sunbird.telemetry.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.validator.TelemetryObjectValidator;
+import org.sunbird.telemetry.validator.TelemetryObjectValidatorV3;
+
+/**
+ * Cost of creating one serialised LOG event: "generator" builds the Telemetry object graph,
+ * validates and serialises it, "template" writes the variable fields after the precompiled prefix.
+ * Not a unit test, run it after mvn test-compile with the test classpath: java -cp &lt;test
+ * classpath&gt; org.openjdk.jmh.Main TelemetryTemplateBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TelemetryTemplateBenchmark {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final TelemetryObjectValidator validator = new TelemetryObjectValidatorV3();
+  private final TelemetryTemplate template = new TelemetryTemplate();
+  private final Map<String, Object> context = createContext();
+  private final Map<String, Object> params = createParams();
+
+  @Benchmark
+  public String generator() throws IOException {
+    Telemetry telemetry = TelemetryGenerator.logEvent(context, params);
+    return validator.validateLog(telemetry) ? mapper.writeValueAsString(telemetry) : null;
+  }
+
+  @Benchmark
+  public String template() {
+    return template.log(context, params);
+  }
+
+  private static Map<String, Object> createContext() {
+    Map<String, Object> context = new HashMap<>();
+    context.put(JsonKey.ACTOR_ID, "a4e6b4c6-64e0-4bc4-9d8b-8d5a7f1c2a01");
+    context.put(JsonKey.ACTOR_TYPE, JsonKey.USER);
+    context.put(JsonKey.CHANNEL, "ORG_001");
+    context.put(JsonKey.ENV, "user");
+    context.put(JsonKey.REQUEST_ID, "8e27cbf5-e299-43b0-bca7-8347f7e5abcf");
+    context.put(JsonKey.PDATA_ID, "local.sunbird.learning.service");
+    context.put(JsonKey.PDATA_PID, "learning-service");
+    context.put(JsonKey.PDATA_VERSION, "1.7");
+    return context;
+  }
+
+  private static Map<String, Object> createParams() {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.LOG_TYPE, "api_access");
+    params.put(JsonKey.LOG_LEVEL, "INFO");
+    params.put(JsonKey.MESSAGE, "");
+    params.put("method", "POST");
+    params.put("url", "/v1/user/read");
+    params.put("duration", 42L);
+    params.put("status", 200);
+    return params;
+  }
+}
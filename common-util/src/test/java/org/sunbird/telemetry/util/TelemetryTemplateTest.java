@@ -0,0 +1,134 @@
+package org.sunbird.telemetry.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.validator.TelemetryObjectValidatorV3;
+
+public class TelemetryTemplateTest {
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final TelemetryTemplate template = new TelemetryTemplate();
+
+  @Test
+  public void testLogMatchesGenerator() throws Exception {
+    Map<String, Object> expected = generate(TelemetryGenerator.logEvent(context(), logParams()));
+    Map<String, Object> actual = mapper.readValue(template.log(context(), logParams()), Map.class);
+    assertTrue(new TelemetryObjectValidatorV3().validateLog(mapper.writeValueAsString(actual)));
+    assertEquals(withoutIds(expected), withoutIds(actual));
+  }
+
+  @Test
+  public void testErrorMatchesGenerator() throws Exception {
+    Map<String, Object> expected =
+        generate(TelemetryGenerator.errorEvent(context(), errorParams()));
+    Map<String, Object> actual =
+        mapper.readValue(template.error(context(), errorParams()), Map.class);
+    assertEquals(withoutIds(expected), withoutIds(actual));
+  }
+
+  @Test
+  public void testInvalidEventIsNull() {
+    Map<String, Object> context = context();
+    context.remove(JsonKey.CHANNEL);
+    assertNull(template.log(context, logParams()));
+    Map<String, Object> params = errorParams();
+    params.remove(JsonKey.STACKTRACE);
+    assertNull(template.error(context(), params));
+    assertNull(template.log(new HashMap<>(), logParams()));
+  }
+
+  @Test
+  public void testPdataIsTakenFromRequestContext() throws Exception {
+    Map<String, Object> context = context();
+    context.put(JsonKey.PDATA_ID, "local.sunbird.portal");
+    context.remove(JsonKey.PDATA_PID);
+    Map<String, Object> expected = generate(TelemetryGenerator.logEvent(context, logParams()));
+    Map<String, Object> actual = mapper.readValue(template.log(context, logParams()), Map.class);
+    assertEquals(withoutIds(expected), withoutIds(actual));
+    Map<String, Object> eventContext = (Map<String, Object>) actual.get(JsonKey.CONTEXT);
+    Map<String, Object> pdata = (Map<String, Object>) eventContext.get(JsonKey.PDATA);
+    assertEquals("local.sunbird.portal", pdata.get(JsonKey.ID));
+    assertFalse(pdata.containsKey("pid"));
+  }
+
+  @Test
+  public void testFailedEventDoesNotCorruptNextOne() throws Exception {
+    Map<String, Object> context = context();
+    Map<String, Object> rollup = new HashMap<>();
+    rollup.put("l1", 1);
+    context.put(JsonKey.ROLLUP, rollup);
+    try {
+      template.log(context, logParams());
+      fail("expected a ClassCastException for the rollup value");
+    } catch (ClassCastException e) {
+      // the generator was left in the middle of the rollup
+    }
+    Map<String, Object> expected = generate(TelemetryGenerator.logEvent(context(), logParams()));
+    Map<String, Object> actual = mapper.readValue(template.log(context(), logParams()), Map.class);
+    assertEquals(withoutIds(expected), withoutIds(actual));
+  }
+
+  @Test
+  public void testMidIsUnique() throws Exception {
+    String first = template.log(context(), logParams());
+    String second = template.log(context(), logParams());
+    assertNotEquals(
+        mapper.readValue(first, Map.class).get("mid"),
+        mapper.readValue(second, Map.class).get("mid"));
+  }
+
+  private Map<String, Object> generate(Telemetry telemetry) throws Exception {
+    // the validator drops the blank log message
+    new TelemetryObjectValidatorV3().validateLog(telemetry);
+    return mapper.readValue(mapper.writeValueAsString(telemetry), Map.class);
+  }
+
+  private static Map<String, Object> withoutIds(Map<String, Object> event) {
+    event.remove(JsonKey.ETS);
+    event.remove("mid");
+    return event;
+  }
+
+  private static Map<String, Object> context() {
+    Map<String, Object> context = new HashMap<>();
+    context.put(JsonKey.ACTOR_ID, "a4e6b4c6-64e0-4bc4-9d8b-8d5a7f1c2a01");
+    context.put(JsonKey.ACTOR_TYPE, JsonKey.USER);
+    context.put(JsonKey.CHANNEL, "ORG_001");
+    context.put(JsonKey.ENV, "user");
+    context.put(JsonKey.REQUEST_ID, "8e27cbf5-e299-43b0-bca7-8347f7e5abcf");
+    context.put(JsonKey.PDATA_ID, "local.sunbird.learning.service");
+    context.put(JsonKey.PDATA_PID, "learning-service");
+    context.put(JsonKey.PDATA_VERSION, "1.7");
+    return context;
+  }
+
+  private static Map<String, Object> logParams() {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.LOG_TYPE, "api_access");
+    params.put(JsonKey.LOG_LEVEL, "INFO");
+    params.put(JsonKey.MESSAGE, "");
+    params.put("method", "POST");
+    params.put("url", "/v1/user/read?q=\"x\"");
+    params.put("duration", 42L);
+    return params;
+  }
+
+  private static Map<String, Object> errorParams() {
+    Map<String, Object> params = new HashMap<>();
+    params.put(JsonKey.ERROR, "USER_NOT_FOUND");
+    params.put(JsonKey.ERR_TYPE, JsonKey.API_ACCESS);
+    params.put(JsonKey.STACKTRACE, "user not found\n\tat UserActor");
+    return params;
+  }
+}
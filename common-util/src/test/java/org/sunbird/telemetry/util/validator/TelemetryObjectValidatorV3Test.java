@@ -382,4 +382,45 @@ public class TelemetryObjectValidatorV3Test {
     }
     Assert.assertFalse(result);
   }
+
+  @Test
+  public void testTypedLogMatchesJsonValidation() throws JsonProcessingException {
+
+    Telemetry telemetry = new Telemetry();
+    telemetry.setEid(TelemetryEvents.LOG.getName());
+    telemetry.setActor(new Actor("1", JsonKey.USER));
+    Context context = new Context();
+    context.setEnv(JsonKey.ORGANISATION);
+    context.setChannel("channel");
+    telemetry.setContext(context);
+
+    Map<String, Object> logEdata = new HashMap<>();
+    logEdata.put(JsonKey.TYPE, "api_access");
+    logEdata.put(JsonKey.LEVEL, "INFO");
+    telemetry.setEdata(logEdata);
+    Assert.assertTrue(validatorV3.validateLog(telemetry));
+    Assert.assertTrue(validatorV3.validateLog(mapper.writeValueAsString(telemetry)));
+
+    logEdata.remove(JsonKey.LEVEL);
+    Assert.assertFalse(validatorV3.validateLog(telemetry));
+    Assert.assertFalse(validatorV3.validateLog(mapper.writeValueAsString(telemetry)));
+  }
+
+  @Test
+  public void testJsonValidationSkipsUnknownFields() {
+    String event =
+        "{\"eid\":\"LOG\",\"mid\":\"1\",\"ver\":\"3.0\",\"tags\":[\"a\"],\"x\":{\"y\":1},"
+            + "\"actor\":{\"id\":\"1\",\"type\":\"User\"},"
+            + "\"context\":{\"channel\":\"c\",\"env\":\"user\",\"cdata\":[{\"id\":\"r\"}]},"
+            + "\"edata\":{\"type\":\"api_access\",\"level\":\"INFO\",\"params\":[{\"url\":\"/\"}]}}";
+    Assert.assertTrue(validatorV3.validateLog(event));
+    Assert.assertFalse(validatorV3.validateError(event));
+  }
+
+  @Test
+  public void testJsonValidationStopsAtFirstMissingField() {
+    // the rest of the input is never parsed once the actor lacks its type
+    String event = "{\"eid\":\"LOG\",\"actor\":{\"id\":\"1\"},\"context\": not json";
+    Assert.assertFalse(validatorV3.validateLog(event));
+  }
 }
@@ -13,13 +13,14 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.admin.indices.create.CreateIndexRequestBuilder;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.admin.indices.delete.DeleteIndexResponse;
 import org.elasticsearch.action.admin.indices.exists.types.TypesExistsRequest;
+import org.elasticsearch.action.admin.indices.mapping.put.PutMappingRequestBuilder;
 import org.elasticsearch.action.admin.indices.mapping.put.PutMappingResponse;
 import org.elasticsearch.action.bulk.BulkItemResponse;
 import org.elasticsearch.action.bulk.BulkProcessor;
@@ -36,6 +37,9 @@ import org.elasticsearch.action.update.UpdateRequest;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.client.Requests;
 import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.bytes.BytesReference;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.ExistsQueryBuilder;
 import org.elasticsearch.index.query.MatchQueryBuilder;
@@ -54,6 +58,7 @@ import org.elasticsearch.search.aggregations.bucket.terms.Terms.Bucket;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.sort.SortOrder;
 import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.response.RawJson;
 import org.sunbird.common.models.response.Response;
 import org.sunbird.common.models.util.HttpUtil;
 import org.sunbird.common.models.util.JsonKey;
@@ -67,6 +72,9 @@ import org.sunbird.common.responsecode.ResponseCode;
 import org.sunbird.dto.SearchDTO;
 import org.sunbird.helper.ConnectionManager;
 import org.sunbird.helper.ElasticSearchMapping;
+import org.sunbird.helper.ElasticSearchProfiler;
+import org.sunbird.helper.ElasticSearchResilience;
+import org.sunbird.helper.ElasticSearchResilience.OperationType;
 import org.sunbird.helper.ElasticSearchSettings;
 
 /**
@@ -96,17 +104,21 @@ public class ElasticSearchUtil {
   static {
     createIndices();
     createIndexTypes();
+    ElasticSearchResilience.startHealthCheck(ElasticSearchUtil::healthCheck);
   }
 
   private static void createIndices() {
     try {
       for (EsIndex index : EsIndex.values()) {
         boolean isExist =
-            ConnectionManager.getClient()
-                .admin()
-                .indices()
-                .exists(Requests.indicesExistsRequest(index.getIndexName()))
-                .get()
+            ElasticSearchResilience.execute(
+                    OperationType.SEARCH,
+                    "indexExists",
+                    () ->
+                        ConnectionManager.getClient()
+                            .admin()
+                            .indices()
+                            .exists(Requests.indicesExistsRequest(index.getIndexName())))
                 .isExists();
         if (isExist) {
           indexMap.put(index.getIndexName(), true);
@@ -162,7 +174,14 @@ public class ElasticSearchUtil {
     try {
       data.put("identifier", identifier);
       IndexResponse response =
-          ConnectionManager.getClient().prepareIndex(index, type, identifier).setSource(data).get();
+          ElasticSearchResilience.execute(
+              OperationType.WRITE,
+              "createData",
+              () ->
+                  ConnectionManager.getClient()
+                      .prepareIndex(index, type, identifier)
+                      .setSource(data)
+                      .execute());
       ProjectLogger.log(
           "Save value==" + response.getId() + " " + response.status(), LoggerEnum.INFO.name());
       ProjectLogger.log(
@@ -210,9 +229,22 @@ public class ElasticSearchUtil {
       ProjectLogger.log("Invalid request is coming.");
       return new HashMap<>();
     } else if (StringUtils.isBlank(type)) {
-      response = ConnectionManager.getClient().prepareGet().setIndex(index).setId(identifier).get();
+      response =
+          ElasticSearchResilience.execute(
+              OperationType.SEARCH,
+              "getDataByIdentifier",
+              () ->
+                  ConnectionManager.getClient()
+                      .prepareGet()
+                      .setIndex(index)
+                      .setId(identifier)
+                      .execute());
     } else {
-      response = ConnectionManager.getClient().prepareGet(index, type, identifier).get();
+      response =
+          ElasticSearchResilience.execute(
+              OperationType.SEARCH,
+              "getDataByIdentifier",
+              () -> ConnectionManager.getClient().prepareGet(index, type, identifier).execute());
     }
     if (response == null || null == response.getSource()) {
       return new HashMap<>();
@@ -254,16 +286,16 @@ public class ElasticSearchUtil {
     try {
       verifyOrCreateIndexAndType(index, type);
       sr =
-          ConnectionManager.getClient()
-              .search(new SearchRequest(index).types(type).source(sourceBuilder))
-              .get();
-    } catch (InterruptedException e) {
-      ProjectLogger.log("Error, interrupted while connecting to Elasticsearch", e);
-      Thread.currentThread().interrupt();
-    } catch (ExecutionException e) {
+          ElasticSearchResilience.execute(
+              OperationType.SEARCH,
+              "searchData",
+              () ->
+                  ConnectionManager.getClient()
+                      .search(new SearchRequest(index).types(type).source(sourceBuilder)));
+    } catch (Exception e) {
       ProjectLogger.log("Error while execution in Elasticsearch", e);
     }
-    if (sr.getHits() == null || sr.getHits().getTotalHits() == 0) {
+    if (sr == null || sr.getHits() == null || sr.getHits().getTotalHits() == 0) {
       return new HashMap<>();
     }
     sr.getHits().getAt(0).getSource();
@@ -303,7 +335,14 @@ public class ElasticSearchUtil {
       verifyOrCreateIndexAndType(index, type);
       try {
         UpdateResponse response =
-            ConnectionManager.getClient().prepareUpdate(index, type, identifier).setDoc(data).get();
+            ElasticSearchResilience.execute(
+                OperationType.WRITE,
+                "updateData",
+                () ->
+                    ConnectionManager.getClient()
+                        .prepareUpdate(index, type, identifier)
+                        .setDoc(data)
+                        .execute());
         ProjectLogger.log(
             "updated response==" + response.getResult().name(), LoggerEnum.INFO.name());
         if (response.getResult().name().equals("UPDATED")) {
@@ -365,8 +404,12 @@ public class ElasticSearchUtil {
           new UpdateRequest(index, type, identifier).doc(data).upsert(indexRequest);
       UpdateResponse response = null;
       try {
-        response = ConnectionManager.getClient().update(updateRequest).get();
-      } catch (InterruptedException | ExecutionException e) {
+        response =
+            ElasticSearchResilience.execute(
+                OperationType.WRITE,
+                "upsertData",
+                () -> ConnectionManager.getClient().update(updateRequest));
+      } catch (Exception e) {
         ProjectLogger.log(e.getMessage(), e);
         return false;
       }
@@ -416,7 +459,12 @@ public class ElasticSearchUtil {
         && !StringUtils.isBlank(type)
         && !StringUtils.isBlank(identifier)) {
       try {
-        deleteResponse = ConnectionManager.getClient().prepareDelete(index, type, identifier).get();
+        deleteResponse =
+            ElasticSearchResilience.execute(
+                OperationType.WRITE,
+                "removeData",
+                () ->
+                    ConnectionManager.getClient().prepareDelete(index, type, identifier).execute());
         ProjectLogger.log(
             "delete info ==" + deleteResponse.getResult().name() + " " + deleteResponse.getId());
       } catch (Exception e) {
@@ -435,7 +483,8 @@ public class ElasticSearchUtil {
             + elapsedTime,
         LoggerEnum.PERF_LOG);
 
-    return (deleteResponse.getResult().name().equalsIgnoreCase("DELETED"));
+    return (deleteResponse != null
+        && deleteResponse.getResult().name().equalsIgnoreCase("DELETED"));
   }
 
   /**
@@ -454,40 +503,44 @@ public class ElasticSearchUtil {
       return response;
     }
     CreateIndexResponse createIndexResponse = null;
-    TransportClient client = ConnectionManager.getClient();
     try {
-      CreateIndexRequestBuilder createIndexBuilder = client.admin().indices().prepareCreate(index);
-      if (!StringUtils.isBlank(settings)) {
-        createIndexResponse = createIndexBuilder.setSettings(settings).get();
-      } else {
-        createIndexResponse = createIndexBuilder.get();
-      }
+      createIndexResponse =
+          ElasticSearchResilience.execute(
+              OperationType.WRITE,
+              "createIndex",
+              () -> {
+                CreateIndexRequestBuilder createIndexBuilder =
+                    ConnectionManager.getClient().admin().indices().prepareCreate(index);
+                if (!StringUtils.isBlank(settings)) {
+                  createIndexBuilder.setSettings(settings);
+                }
+                return createIndexBuilder.execute();
+              });
       if (createIndexResponse != null && createIndexResponse.isAcknowledged()) {
         response = true;
-        if (!StringUtils.isBlank(mappings) && !StringUtils.isBlank(type)) {
-          PutMappingResponse mappingResponse =
-              client
-                  .admin()
-                  .indices()
-                  .preparePutMapping(index)
-                  .setType(type)
-                  .setSource(mappings)
-                  .get();
-          if (mappingResponse.isAcknowledged()) {
-            response = true;
-          } else {
-            response = false;
-          }
-        } else if (!StringUtils.isBlank(type)) {
+        if (!StringUtils.isBlank(type)) {
           PutMappingResponse mappingResponse =
-              client.admin().indices().preparePutMapping(index).setType(type).get();
-          if (mappingResponse.isAcknowledged()) {
-            response = true;
-          } else {
-            response = false;
-          }
+              ElasticSearchResilience.execute(
+                  OperationType.WRITE,
+                  "putMapping",
+                  () -> {
+                    PutMappingRequestBuilder mappingBuilder =
+                        ConnectionManager.getClient()
+                            .admin()
+                            .indices()
+                            .preparePutMapping(index)
+                            .setType(type);
+                    if (!StringUtils.isBlank(mappings)) {
+                      mappingBuilder.setSource(mappings);
+                    }
+                    return mappingBuilder.execute();
+                  });
+          response = mappingResponse.isAcknowledged();
         }
       }
+    } catch (ProjectCommonException e) {
+      ProjectLogger.log("ElasticSearchUtil:createIndex error " + e.getMessage(), e);
+      throw e;
     } catch (Exception e) {
       ProjectLogger.log(e.getMessage(), e);
       response = false;
@@ -508,13 +561,17 @@ public class ElasticSearchUtil {
   public static boolean addOrUpdateMapping(String indexName, String typeName, String mapping) {
     try {
       PutMappingResponse response =
-          ConnectionManager.getClient()
-              .admin()
-              .indices()
-              .preparePutMapping(indexName)
-              .setType(typeName)
-              .setSource(mapping)
-              .get();
+          ElasticSearchResilience.execute(
+              OperationType.WRITE,
+              "addOrUpdateMapping",
+              () ->
+                  ConnectionManager.getClient()
+                      .admin()
+                      .indices()
+                      .preparePutMapping(indexName)
+                      .setType(typeName)
+                      .setSource(mapping)
+                      .execute());
       if (response.isAcknowledged()) {
         return true;
       }
@@ -533,7 +590,10 @@ public class ElasticSearchUtil {
   public static boolean deleteIndex(String index) {
     boolean response = false;
     DeleteIndexResponse deleteResponse =
-        ConnectionManager.getClient().admin().indices().prepareDelete(index).get();
+        ElasticSearchResilience.execute(
+            OperationType.WRITE,
+            "deleteIndex",
+            () -> ConnectionManager.getClient().admin().indices().prepareDelete(index).execute());
     if (deleteResponse != null && deleteResponse.isAcknowledged()) {
       response = true;
     }
@@ -543,7 +603,8 @@ public class ElasticSearchUtil {
   /**
    * Method to perform the elastic search on the basis of SearchDTO . SearchDTO contains the search
    * criteria like fields, facets, sort by , filters etc. here user can pass single type to search
-   * or multiple type or null
+   * or multiple type or null. If SearchDTO has raw source set, content holds each hit source as
+   * {@link RawJson} instead of a Map.
    *
    * @param type var arg of String
    * @return search result as Map.
@@ -554,7 +615,7 @@ public class ElasticSearchUtil {
     ProjectLogger.log(
         "ElasticSearchUtil complexSearch method started at ==" + startTime, LoggerEnum.PERF_LOG);
     SearchRequestBuilder searchRequestBuilder =
-        getSearchBuilder(ConnectionManager.getClient(), index, type);
+        getSearchBuilder(ElasticSearchResilience.getClient(), index, type);
     // check mode and set constraints
     Map<String, Float> constraintsMap = getConstraints(searchDTO);
 
@@ -612,9 +673,18 @@ public class ElasticSearchUtil {
     }
     ProjectLogger.log(
         "calling search builder======" + searchRequestBuilder.toString(), LoggerEnum.DEBUG.name());
-    SearchResponse response = null;
-    response = searchRequestBuilder.execute().actionGet();
-    List<Map<String, Object>> esSource = new ArrayList<>();
+    long searchStartTime = System.currentTimeMillis();
+    SearchResponse response =
+        ElasticSearchResilience.execute(
+            OperationType.SEARCH, "complexSearch", searchRequestBuilder::execute);
+    ElasticSearchProfiler.record(
+        searchDTO,
+        index,
+        type,
+        searchRequestBuilder,
+        response,
+        System.currentTimeMillis() - searchStartTime);
+    List<Object> esSource = new ArrayList<>();
     Map<String, Object> responsemap = new HashMap<>();
     long count = 0;
     if (response != null) {
@@ -622,7 +692,7 @@ public class ElasticSearchUtil {
       count = hits.getTotalHits();
 
       for (SearchHit hit : hits) {
-        esSource.add(hit.getSource());
+        esSource.add(searchDTO.isRawSource() ? getRawSource(hit) : hit.getSource());
       }
 
       // fetch aggregations aggregations
@@ -675,6 +745,24 @@ public class ElasticSearchUtil {
     return responsemap;
   }
 
+  /**
+   * This method will provide the _source of a hit as raw JSON bytes, without parsing it into a
+   * Map. The source is already filtered by elastic search as per the requested fields.
+   *
+   * @param hit SearchHit
+   * @return RawJson or null if the hit has no source
+   */
+  private static RawJson getRawSource(SearchHit hit) {
+    BytesReference source = hit.getSourceRef();
+    if (null == source) {
+      return null;
+    }
+    if (XContentFactory.xContentType(source) == XContentType.JSON) {
+      return new RawJson(BytesReference.toBytes(source));
+    }
+    return new RawJson(hit.getSourceAsString());
+  }
+
   private static void addAggregations(
       SearchRequestBuilder searchRequestBuilder, List<Map<String, String>> facets) {
     long startTime = System.currentTimeMillis();
@@ -833,11 +921,14 @@ public class ElasticSearchUtil {
       if (!indexMap.containsKey(index)) {
         try {
           boolean indexResponse =
-              ConnectionManager.getClient()
-                  .admin()
-                  .indices()
-                  .exists(Requests.indicesExistsRequest(index))
-                  .get()
+              ElasticSearchResilience.execute(
+                      OperationType.SEARCH,
+                      "indexExists",
+                      () ->
+                          ConnectionManager.getClient()
+                              .admin()
+                              .indices()
+                              .exists(Requests.indicesExistsRequest(index)))
                   .isExists();
           if (indexResponse) {
             indexMap.put(index, true);
@@ -848,7 +939,7 @@ public class ElasticSearchUtil {
               indexMap.put(index, true);
             }
           }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (ElasticsearchException e) {
           boolean createIndexResp =
               createIndex(index, null, null, ElasticSearchSettings.createSettingsForIndex());
           if (createIndexResp) {
@@ -872,11 +963,14 @@ public class ElasticSearchUtil {
             new TypesExistsRequest(new String[] {indices}, type);
         try {
           boolean typeResponse =
-              ConnectionManager.getClient()
-                  .admin()
-                  .indices()
-                  .typesExists(typesExistsRequest)
-                  .get()
+              ElasticSearchResilience.execute(
+                      OperationType.SEARCH,
+                      "typeExists",
+                      () ->
+                          ConnectionManager.getClient()
+                              .admin()
+                              .indices()
+                              .typesExists(typesExistsRequest))
                   .isExists();
           if (typeResponse) {
             typeMap.put(type, true);
@@ -887,7 +981,7 @@ public class ElasticSearchUtil {
               typeMap.put(type, true);
             }
           }
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (ElasticsearchException e) {
           ProjectLogger.log(e.getMessage(), e);
           boolean response =
               addOrUpdateMapping(indices, type, ElasticSearchMapping.createMapping());
@@ -1011,10 +1105,11 @@ public class ElasticSearchUtil {
         "ElasticSearchUtil bulkInsertData method started at ==" + startTime + " for Type " + type,
         LoggerEnum.PERF_LOG);
     boolean response = true;
+    TransportClient client = ElasticSearchResilience.getClient();
     try {
       BulkProcessor bulkProcessor =
           BulkProcessor.builder(
-                  ConnectionManager.getClient(),
+                  client,
                   new BulkProcessor.Listener() {
                     @Override
                     public void beforeBulk(long executionId, BulkRequest request) {
@@ -1061,7 +1156,10 @@ public class ElasticSearchUtil {
       bulkProcessor.close();
 
       // Refresh your indices
-      ConnectionManager.getClient().admin().indices().prepareRefresh().get();
+      ElasticSearchResilience.execute(
+          OperationType.WRITE,
+          "refresh",
+          () -> ConnectionManager.getClient().admin().indices().prepareRefresh().execute());
     } catch (Exception e) {
       response = false;
       ProjectLogger.log(e.getMessage(), e);
@@ -1080,7 +1178,8 @@ public class ElasticSearchUtil {
   }
 
   /**
-   * This method will do the health check of elastic search.
+   * This method will do the health check of elastic search. The result is also fed into the
+   * elastic search circuit breaker.
    *
    * @return boolean
    */
@@ -1092,11 +1191,12 @@ public class ElasticSearchUtil {
               .admin()
               .indices()
               .exists(Requests.indicesExistsRequest(ProjectUtil.EsIndex.sunbird.getIndexName()))
-              .get()
+              .actionGet(ElasticSearchResilience.getHealthCheckTimeoutMillis())
               .isExists();
     } catch (Exception e) {
       ProjectLogger.log("ElasticSearchUtil:healthCheck error " + e.getMessage(), e);
     }
+    ElasticSearchResilience.recordHealth(indexResponse);
     return indexResponse;
   }
 
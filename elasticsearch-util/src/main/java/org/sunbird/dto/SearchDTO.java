@@ -30,6 +30,8 @@ public class SearchDTO {
   private Map<String, Integer> softConstraints = new HashMap<>();
   private List<Map<String, Object>> groupQuery = new ArrayList<>();
   private List<String> mode = new ArrayList<>();
+  // when set, content holds each hit _source as RawJson instead of a Map
+  private boolean rawSource = false;
 
   public List<Map<String, Object>> getGroupQuery() {
     return groupQuery;
@@ -164,4 +166,12 @@ public class SearchDTO {
   public void setExcludedFields(List<String> excludedFields) {
     this.excludedFields = excludedFields;
   }
+
+  public boolean isRawSource() {
+    return rawSource;
+  }
+
+  public void setRawSource(boolean rawSource) {
+    this.rawSource = rawSource;
+  }
 }
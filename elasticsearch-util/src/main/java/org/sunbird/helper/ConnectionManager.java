@@ -5,6 +5,7 @@ import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.lang3.StringUtils;
 import org.elasticsearch.client.transport.TransportClient;
 import org.elasticsearch.common.settings.Settings;
@@ -23,13 +24,16 @@ import org.sunbird.common.models.util.PropertiesCache;
  */
 public class ConnectionManager {
 
-  private static TransportClient client = null;
+  private static volatile TransportClient client = null;
   private static List<String> host = new ArrayList<>();
   private static List<Integer> ports = new ArrayList<>();
   private static PropertiesCache propertiesCache = PropertiesCache.getInstance();
   private static String cluster = propertiesCache.getProperty("es.cluster.name");
   private static String hostName = propertiesCache.getProperty("es.host.name");
   private static String port = propertiesCache.getProperty("es.host.port");
+  private static final long RECONNECT_INTERVAL_MILLIS = 30000;
+  private static final AtomicBoolean reconnecting = new AtomicBoolean(false);
+  private static volatile long lastReconnectAttempt = 0;
 
   static {
     initialiseConnection();
@@ -39,18 +43,43 @@ public class ConnectionManager {
   private ConnectionManager() {}
 
   /**
-   * This method will provide ES transport client.
+   * This method will provide ES transport client. If the client is not available a reconnect is
+   * started in background (at most once per reconnect interval) and null is returned, so callers
+   * never block on connection set up.
    *
    * @return TransportClient
    */
   public static TransportClient getClient() {
-    if (client == null) {
-      ProjectLogger.log("ELastic search clinet is null " + client, LoggerEnum.INFO.name());
-      initialiseConnection();
-      ProjectLogger.log(
-          "After calling initialiseConnection ES client value " + client, LoggerEnum.INFO.name());
+    TransportClient current = client;
+    if (current == null) {
+      reconnectAsync();
+    }
+    return current;
+  }
+
+  private static void reconnectAsync() {
+    long now = System.currentTimeMillis();
+    if (now - lastReconnectAttempt < RECONNECT_INTERVAL_MILLIS
+        || !reconnecting.compareAndSet(false, true)) {
+      return;
     }
-    return client;
+    lastReconnectAttempt = now;
+    ProjectLogger.log("ELastic search clinet is null, reconnecting.", LoggerEnum.INFO.name());
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                initialiseConnection();
+                ProjectLogger.log(
+                    "After calling initialiseConnection ES client value " + client,
+                    LoggerEnum.INFO.name());
+              } finally {
+                reconnecting.set(false);
+              }
+            },
+            "es-reconnect");
+    thread.setDaemon(true);
+    thread.start();
   }
 
   /**
@@ -86,7 +115,9 @@ public class ConnectionManager {
    *
    * @return boolean
    */
-  private static boolean initialiseConnection() {
+  private static synchronized boolean initialiseConnection() {
+    host.clear();
+    ports.clear();
     try {
       if (initialiseConnectionFromEnv()) {
         ProjectLogger.log("value found under system variable.", LoggerEnum.INFO.name());
@@ -176,7 +207,9 @@ public class ConnectionManager {
   }
 
   public static void closeClient() {
-    client.close();
+    if (client != null) {
+      client.close();
+    }
   }
 
   /**
@@ -188,7 +221,7 @@ public class ConnectionManager {
   public static class ResourceCleanUp extends Thread {
     @Override
     public void run() {
-      client.close();
+      closeClient();
     }
   }
 
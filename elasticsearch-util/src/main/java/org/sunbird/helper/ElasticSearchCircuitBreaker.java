@@ -0,0 +1,177 @@
+package org.sunbird.helper;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+
+/**
+ * Circuit breaker guarding calls to elastic search. The breaker opens when the error rate within
+ * the current window crosses the configured threshold or when a number of consecutive health checks
+ * report elastic search as unavailable. After the open interval one probe request is allowed
+ * through (half open) and its outcome decides whether the breaker closes again.
+ */
+public class ElasticSearchCircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN;
+  }
+
+  private final int failureRateThreshold;
+  private final int minimumRequests;
+  private final long openIntervalMillis;
+  private final long windowMillis;
+  private final int healthFailureThreshold;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicBoolean probeInFlight = new AtomicBoolean(false);
+  private final AtomicLong openedAt = new AtomicLong();
+  private final AtomicLong windowStart = new AtomicLong(System.currentTimeMillis());
+  private final AtomicLong windowSuccess = new AtomicLong();
+  private final AtomicLong windowFailure = new AtomicLong();
+  private final AtomicLong openCount = new AtomicLong();
+  private final AtomicLong healthFailures = new AtomicLong();
+
+  /**
+   * @param failureRateThreshold failure percentage (1-100) which opens the breaker
+   * @param minimumRequests minimum calls within a window before the failure rate is evaluated
+   * @param openIntervalMillis time the breaker stays open before a probe is allowed
+   * @param windowMillis length of the window used to compute the failure rate
+   * @param healthFailureThreshold consecutive failed health checks which open the breaker
+   */
+  public ElasticSearchCircuitBreaker(
+      int failureRateThreshold,
+      int minimumRequests,
+      long openIntervalMillis,
+      long windowMillis,
+      int healthFailureThreshold) {
+    this.failureRateThreshold = failureRateThreshold;
+    this.minimumRequests = minimumRequests;
+    this.openIntervalMillis = openIntervalMillis;
+    this.windowMillis = windowMillis;
+    this.healthFailureThreshold = Math.max(1, healthFailureThreshold);
+  }
+
+  /**
+   * This method will tell whether a call to elastic search may be made now.
+   *
+   * @return boolean
+   */
+  public boolean allowRequest() {
+    State current = state.get();
+    if (current == State.CLOSED) {
+      return true;
+    }
+    if (current == State.OPEN) {
+      if (System.currentTimeMillis() - openedAt.get() < openIntervalMillis) {
+        return false;
+      }
+      transition(State.OPEN, State.HALF_OPEN);
+    }
+    return probeInFlight.compareAndSet(false, true);
+  }
+
+  public void recordSuccess() {
+    if (state.get() == State.HALF_OPEN) {
+      if (transition(State.HALF_OPEN, State.CLOSED)) {
+        resetWindow(System.currentTimeMillis());
+      }
+      probeInFlight.set(false);
+      return;
+    }
+    rollWindow();
+    windowSuccess.incrementAndGet();
+  }
+
+  public void recordFailure() {
+    if (state.get() == State.HALF_OPEN) {
+      open(State.HALF_OPEN);
+      probeInFlight.set(false);
+      return;
+    }
+    rollWindow();
+    long failures = windowFailure.incrementAndGet();
+    long total = failures + windowSuccess.get();
+    if (total >= minimumRequests && (failures * 100) >= (failureRateThreshold * total)) {
+      open(State.CLOSED);
+    }
+  }
+
+  /**
+   * Releases the half open probe slot when the probe finished without a verdict (e.g. a client
+   * side error which says nothing about elastic search health).
+   */
+  public void releaseProbe() {
+    if (state.get() == State.HALF_OPEN) {
+      probeInFlight.set(false);
+    }
+  }
+
+  /**
+   * This method will feed the result of elastic search health check into the breaker. The breaker
+   * opens once the configured number of consecutive checks failed, while it is open further
+   * failures extend the open interval. A healthy result only resets the count, an open breaker
+   * still waits for the open interval and a successful probe before it closes.
+   *
+   * @param healthy boolean
+   */
+  public void onHealthCheck(boolean healthy) {
+    if (healthy) {
+      healthFailures.set(0);
+      return;
+    }
+    if (healthFailures.incrementAndGet() < healthFailureThreshold) {
+      return;
+    }
+    State current = state.get();
+    if (current == State.OPEN) {
+      openedAt.set(System.currentTimeMillis());
+    } else {
+      open(current);
+    }
+  }
+
+  public State getState() {
+    return state.get();
+  }
+
+  public long getOpenCount() {
+    return openCount.get();
+  }
+
+  private void open(State from) {
+    if (transition(from, State.OPEN)) {
+      openedAt.set(System.currentTimeMillis());
+      openCount.incrementAndGet();
+      probeInFlight.set(false);
+    }
+  }
+
+  private boolean transition(State from, State to) {
+    boolean changed = state.compareAndSet(from, to);
+    if (changed) {
+      ProjectLogger.log(
+          "ElasticSearchCircuitBreaker: state changed from " + from + " to " + to,
+          LoggerEnum.INFO.name());
+    }
+    return changed;
+  }
+
+  private void rollWindow() {
+    long now = System.currentTimeMillis();
+    long start = windowStart.get();
+    if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+      windowSuccess.set(0);
+      windowFailure.set(0);
+    }
+  }
+
+  private void resetWindow(long now) {
+    windowStart.set(now);
+    windowSuccess.set(0);
+    windowFailure.set(0);
+  }
+}
@@ -0,0 +1,353 @@
+package org.sunbird.helper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.transport.TransportClient;
+import org.elasticsearch.common.xcontent.ToXContent;
+import org.elasticsearch.common.xcontent.XContentBuilder;
+import org.elasticsearch.common.xcontent.XContentFactory;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.profile.SearchProfileShardResults;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.models.util.metrics.LatencyHistogram;
+import org.sunbird.dto.SearchDTO;
+
+/**
+ * Opt-in search instrumentation (es.profiling.enabled). Searches are grouped by the shape of their
+ * {@link SearchDTO} (index, types, filter / sort / facet keys, but not the values) and for every
+ * shape the client side latency, the took time reported by elastic search, hit counts and source
+ * payload size are recorded. Searches slower than es.slow.search.threshold.millis are kept in a
+ * bounded ring buffer together with the rendered query and, when es.slow.search.profile.enabled is
+ * set, the output of the elastic search profile API for a re-run of the same query.
+ */
+public class ElasticSearchProfiler {
+
+  private static final boolean enabled = getBooleanProperty("es.profiling.enabled", false);
+  private static final long slowThresholdMillis =
+      getLongProperty("es.slow.search.threshold.millis", 1000);
+  private static final boolean profileSlowSearches =
+      getBooleanProperty("es.slow.search.profile.enabled", true);
+  private static final long profileTimeoutMillis =
+      getLongProperty("es.slow.search.profile.timeout.millis", 10000);
+  private static final int maxShapes = (int) getLongProperty("es.profiling.max.shapes", 500);
+  private static final int bufferSize =
+      (int) Math.max(1, getLongProperty("es.slow.search.buffer.size", 50));
+
+  private static final Map<String, ShapeStats> shapes = new ConcurrentHashMap<>();
+  private static final AtomicReferenceArray<Map<String, Object>> slowSearches =
+      new AtomicReferenceArray<>(bufferSize);
+  private static final AtomicLong slowSearchCursor = new AtomicLong();
+  private static final LongAdder droppedShapes = new LongAdder();
+  private static ThreadPoolExecutor profileExecutor;
+
+  private ElasticSearchProfiler() {}
+
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * This method will record one executed search. It does nothing unless profiling is enabled.
+   *
+   * @param searchDTO Search criteria the request was built from
+   * @param index Index searched
+   * @param types Types searched
+   * @param searchRequestBuilder Request which was executed
+   * @param response Response of the request
+   * @param clientTimeMillis Time taken by the call as seen by the client
+   */
+  public static void record(
+      SearchDTO searchDTO,
+      String index,
+      String[] types,
+      SearchRequestBuilder searchRequestBuilder,
+      SearchResponse response,
+      long clientTimeMillis) {
+    if (!enabled || null == response) {
+      return;
+    }
+    try {
+      String shape = getShape(searchDTO, index, types);
+      SearchHits hits = response.getHits();
+      long payloadBytes = 0;
+      for (SearchHit hit : hits) {
+        if (null != hit.getSourceRef()) {
+          payloadBytes += hit.getSourceRef().length();
+        }
+      }
+      ShapeStats stats = getShapeStats(shape);
+      if (null != stats) {
+        stats.record(
+            clientTimeMillis, response.getTookInMillis(), hits.getTotalHits(), payloadBytes);
+      }
+      if (clientTimeMillis >= slowThresholdMillis) {
+        Map<String, Object> entry = new ConcurrentHashMap<>();
+        entry.put("timestamp", System.currentTimeMillis());
+        entry.put("shape", shape);
+        entry.put("clientTimeMillis", clientTimeMillis);
+        entry.put("tookMillis", response.getTookInMillis());
+        entry.put("totalHits", hits.getTotalHits());
+        entry.put("returnedHits", hits.getHits().length);
+        entry.put("payloadBytes", payloadBytes);
+        entry.put("query", searchRequestBuilder.toString());
+        slowSearches.set((int) (slowSearchCursor.getAndIncrement() % bufferSize), entry);
+        if (profileSlowSearches) {
+          submitProfile(searchRequestBuilder, entry);
+        }
+      }
+    } catch (Exception e) {
+      ProjectLogger.log(
+          "ElasticSearchProfiler:record: failed to record search " + e.getMessage(),
+          LoggerEnum.ERROR.name());
+    }
+  }
+
+  /**
+   * This method will provide the per shape search statistics.
+   *
+   * @return Map<String,Object> keyed by shape
+   */
+  public static Map<String, Object> getShapeMetrics() {
+    Map<String, Object> result = new HashMap<>();
+    for (Map.Entry<String, ShapeStats> entry : shapes.entrySet()) {
+      result.put(entry.getKey(), entry.getValue().getMetrics());
+    }
+    return result;
+  }
+
+  /**
+   * This method will provide the captured slow searches, newest first.
+   *
+   * @return List<Map<String,Object>>
+   */
+  public static List<Map<String, Object>> getSlowSearches() {
+    List<Map<String, Object>> result = new ArrayList<>();
+    long cursor = slowSearchCursor.get();
+    for (long i = cursor - 1; i >= 0 && i >= cursor - bufferSize; i--) {
+      Map<String, Object> entry = slowSearches.get((int) (i % bufferSize));
+      if (null != entry) {
+        result.add(entry);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * This method will provide the complete profiling state (config, per shape metrics and slow
+   * searches) for the admin dump endpoint.
+   *
+   * @return Map<String,Object>
+   */
+  public static Map<String, Object> dump() {
+    Map<String, Object> result = new HashMap<>();
+    result.put("enabled", enabled);
+    result.put("slowThresholdMillis", slowThresholdMillis);
+    result.put("droppedShapes", droppedShapes.sum());
+    result.put("shapes", getShapeMetrics());
+    result.put("slowSearches", getSlowSearches());
+    return result;
+  }
+
+  /** Clears the recorded statistics and slow searches. */
+  public static void reset() {
+    shapes.clear();
+    for (int i = 0; i < bufferSize; i++) {
+      slowSearches.set(i, null);
+    }
+    slowSearchCursor.set(0);
+  }
+
+  /**
+   * This method will compute the shape of a search, i.e. the search without its values, so that
+   * searches built by the same code path are grouped together.
+   *
+   * @param searchDTO Search criteria
+   * @param index Index searched
+   * @param types Types searched
+   * @return String shape key
+   */
+  static String getShape(SearchDTO searchDTO, String index, String... types) {
+    StringBuilder builder = new StringBuilder(index);
+    if (null != types && types.length > 0) {
+      builder.append('/').append(String.join(",", new TreeSet<>(Arrays.asList(types))));
+    }
+    if (StringUtils.isNotBlank(searchDTO.getQuery())) {
+      builder.append("|query");
+    }
+    if (searchDTO.isFuzzySearch()) {
+      builder.append("|fuzzy");
+    }
+    if (null != searchDTO.getAdditionalProperties()) {
+      for (String key : new TreeSet<>(searchDTO.getAdditionalProperties().keySet())) {
+        builder.append('|').append(key);
+        Object value = searchDTO.getAdditionalProperties().get(key);
+        if (value instanceof Map) {
+          appendKeys(builder, ((Map<?, ?>) value).keySet());
+        } else if (value instanceof Collection) {
+          appendKeys(builder, (Collection<?>) value);
+        }
+      }
+    }
+    if (null != searchDTO.getSortBy() && !searchDTO.getSortBy().isEmpty()) {
+      builder.append("|sort");
+      appendKeys(builder, searchDTO.getSortBy().keySet());
+    }
+    if (null != searchDTO.getFacets() && !searchDTO.getFacets().isEmpty()) {
+      builder.append("|facets");
+      appendKeys(builder, searchDTO.getFacets().get(0).keySet());
+    }
+    return builder.toString();
+  }
+
+  private static void appendKeys(StringBuilder builder, Collection<?> keys) {
+    TreeSet<String> sorted = new TreeSet<>();
+    for (Object key : keys) {
+      sorted.add(String.valueOf(key));
+    }
+    builder.append(sorted);
+  }
+
+  private static ShapeStats getShapeStats(String shape) {
+    ShapeStats stats = shapes.get(shape);
+    if (null == stats) {
+      if (shapes.size() >= maxShapes) {
+        droppedShapes.increment();
+        return null;
+      }
+      stats = shapes.computeIfAbsent(shape, key -> new ShapeStats());
+    }
+    return stats;
+  }
+
+  /**
+   * Re-runs the search with the profile API on the profiler thread. The re-run is built from a
+   * copy of the request source, the request of the caller is left untouched, and it is not counted
+   * in the search bulkhead or the circuit breaker; it is skipped while the circuit is not closed.
+   */
+  private static void submitProfile(
+      SearchRequestBuilder searchRequestBuilder, Map<String, Object> entry) {
+    ThreadPoolExecutor executor = getProfileExecutor();
+    if (executor.getQueue().remainingCapacity() == 0) {
+      entry.put("profile", "skipped, profiler busy");
+      return;
+    }
+    SearchRequest request = searchRequestBuilder.request();
+    SearchSourceBuilder source =
+        null == request.source()
+            ? new SearchSourceBuilder()
+            : request.source().copyWithNewSlice(null);
+    SearchRequest profileRequest =
+        new SearchRequest(request.indices(), source.profile(true).fetchSource(false))
+            .types(request.types());
+    executor.execute(
+        () -> {
+          try {
+            TransportClient client = ConnectionManager.getClient();
+            if (null == client
+                || ElasticSearchCircuitBreaker.State.CLOSED
+                    != ElasticSearchResilience.getCircuitState()) {
+              entry.put("profile", "skipped, elastic search unavailable");
+              return;
+            }
+            SearchResponse response =
+                client.search(profileRequest).actionGet(profileTimeoutMillis);
+            XContentBuilder builder = XContentFactory.jsonBuilder().startObject();
+            new SearchProfileShardResults(response.getProfileResults())
+                .toXContent(builder, ToXContent.EMPTY_PARAMS);
+            entry.put("profile", builder.endObject().string());
+          } catch (Exception e) {
+            entry.put("profile", "failed: " + e.getMessage());
+          }
+        });
+  }
+
+  private static synchronized ThreadPoolExecutor getProfileExecutor() {
+    if (null == profileExecutor) {
+      profileExecutor =
+          new ThreadPoolExecutor(
+              1,
+              1,
+              0L,
+              TimeUnit.MILLISECONDS,
+              new ArrayBlockingQueue<>(10),
+              runnable -> {
+                Thread thread = new Thread(runnable, "es-search-profiler");
+                thread.setDaemon(true);
+                return thread;
+              },
+              new ThreadPoolExecutor.DiscardPolicy());
+    }
+    return profileExecutor;
+  }
+
+  private static boolean getBooleanProperty(String key, boolean defaultValue) {
+    String value = PropertiesCache.getInstance().readProperty(key);
+    return StringUtils.isBlank(value) ? defaultValue : Boolean.parseBoolean(value.trim());
+  }
+
+  private static long getLongProperty(String key, long defaultValue) {
+    String value = PropertiesCache.getInstance().readProperty(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "ElasticSearchProfiler: invalid value " + value + " for " + key, LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
+  /** Statistics of one search shape. */
+  private static class ShapeStats {
+    private final LatencyHistogram clientTime = new LatencyHistogram();
+    private final LatencyHistogram tookTime = new LatencyHistogram();
+    private final LongAdder totalHits = new LongAdder();
+    private final LongAdder payloadBytes = new LongAdder();
+    private final AtomicLong maxPayloadBytes = new AtomicLong();
+
+    void record(long clientMillis, long tookMillis, long hits, long payload) {
+      clientTime.record(clientMillis);
+      tookTime.record(tookMillis);
+      totalHits.add(hits);
+      payloadBytes.add(payload);
+      maxPayloadBytes.accumulateAndGet(payload, Math::max);
+    }
+
+    Map<String, Object> getMetrics() {
+      Map<String, Object> metrics = new HashMap<>();
+      long count = clientTime.getCount();
+      metrics.put("count", count);
+      metrics.put("clientTimeMillis", clientTime.getSummary());
+      metrics.put("tookMillis", tookTime.getSummary());
+      metrics.put(
+          "avgOverheadMillis",
+          count == 0 ? 0 : (clientTime.getSum() - tookTime.getSum()) / count);
+      metrics.put("avgTotalHits", count == 0 ? 0 : totalHits.sum() / count);
+      metrics.put("avgPayloadBytes", count == 0 ? 0 : payloadBytes.sum() / count);
+      metrics.put("maxPayloadBytes", maxPayloadBytes.get());
+      return metrics;
+    }
+  }
+}
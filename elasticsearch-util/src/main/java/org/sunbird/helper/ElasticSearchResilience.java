@@ -0,0 +1,321 @@
+package org.sunbird.helper;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.StringUtils;
+import org.elasticsearch.ElasticsearchTimeoutException;
+import org.elasticsearch.ExceptionsHelper;
+import org.elasticsearch.action.ActionFuture;
+import org.elasticsearch.client.transport.TransportClient;
+import org.sunbird.common.exception.ProjectCommonException;
+import org.sunbird.common.models.util.LoggerEnum;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.common.responsecode.ResponseCode;
+
+/**
+ * Resilience layer for elastic search calls. Every call gets a timeout, runs inside a bulkhead
+ * which limits in-flight searches separately from writes, and is guarded by a circuit breaker fed
+ * by call outcomes and the periodic elastic search health check. When elastic search is slow or
+ * down calls fail fast with a {@link ProjectCommonException} instead of holding actor threads.
+ */
+public class ElasticSearchResilience {
+
+  public enum OperationType {
+    SEARCH("es.search"),
+    WRITE("es.write");
+
+    private final String configPrefix;
+
+    OperationType(String configPrefix) {
+      this.configPrefix = configPrefix;
+    }
+
+    public String getConfigPrefix() {
+      return configPrefix;
+    }
+  }
+
+  private static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+  private static final int DEFAULT_MAX_CONCURRENT = 64;
+  private static final long DEFAULT_BULKHEAD_WAIT_MILLIS = 0;
+  private static final long DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS = 10000;
+
+  private static final Map<OperationType, Bulkhead> bulkheads = new HashMap<>();
+  private static final ElasticSearchCircuitBreaker circuitBreaker =
+      new ElasticSearchCircuitBreaker(
+          getIntProperty("es.circuit.failure.rate.threshold", 50),
+          getIntProperty("es.circuit.minimum.requests", 20),
+          getLongProperty("es.circuit.open.millis", 30000),
+          getLongProperty("es.circuit.window.millis", 60000),
+          getIntProperty("es.circuit.health.failure.threshold", 3));
+  private static final LongAdder circuitRejected = new LongAdder();
+  private static final LongAdder healthCheckFailures = new LongAdder();
+  private static ScheduledExecutorService healthCheckScheduler;
+
+  static {
+    for (OperationType type : OperationType.values()) {
+      bulkheads.put(type, new Bulkhead(type));
+    }
+  }
+
+  private ElasticSearchResilience() {}
+
+  /**
+   * This method will execute the given elastic search action with the timeout, bulkhead and
+   * circuit breaker of the given operation type.
+   *
+   * @param type Operation type, decides bulkhead and timeout
+   * @param operation Operation name used for logging
+   * @param action Supplier which submits the request and returns its future
+   * @return Response of the action
+   * @throws ProjectCommonException unableToConnectToES when the circuit is open, serviceBusy when
+   *     the bulkhead is full, operationTimeout when the call timed out
+   */
+  public static <R> R execute(
+      OperationType type, String operation, Supplier<? extends ActionFuture<R>> action) {
+    if (!circuitBreaker.allowRequest()) {
+      circuitRejected.increment();
+      ProjectLogger.log(
+          "ElasticSearchResilience:execute: circuit open, rejecting " + operation,
+          LoggerEnum.WARN.name());
+      throw unavailable();
+    }
+    Bulkhead bulkhead = bulkheads.get(type);
+    if (!bulkhead.tryAcquire()) {
+      circuitBreaker.releaseProbe();
+      ProjectLogger.log(
+          "ElasticSearchResilience:execute: " + type + " bulkhead full, rejecting " + operation,
+          LoggerEnum.WARN.name());
+      throw busy();
+    }
+    long startTime = System.currentTimeMillis();
+    try {
+      getClient();
+      R response = action.get().actionGet(bulkhead.timeoutMillis, TimeUnit.MILLISECONDS);
+      circuitBreaker.recordSuccess();
+      bulkhead.success.increment();
+      return response;
+    } catch (ElasticsearchTimeoutException e) {
+      circuitBreaker.recordFailure();
+      bulkhead.timeouts.increment();
+      ProjectLogger.log(
+          "ElasticSearchResilience:execute: "
+              + operation
+              + " timed out after "
+              + bulkhead.timeoutMillis
+              + " ms",
+          LoggerEnum.WARN.name());
+      throw new ProjectCommonException(
+          ResponseCode.operationTimeout.getErrorCode(),
+          ResponseCode.operationTimeout.getErrorMessage(),
+          ResponseCode.SERVER_ERROR.getResponseCode());
+    } catch (ProjectCommonException e) {
+      circuitBreaker.recordFailure();
+      bulkhead.failures.increment();
+      throw e;
+    } catch (RuntimeException e) {
+      if (ExceptionsHelper.status(e).getStatus() >= 500) {
+        circuitBreaker.recordFailure();
+        bulkhead.failures.increment();
+      } else {
+        circuitBreaker.releaseProbe();
+        bulkhead.success.increment();
+      }
+      throw e;
+    } finally {
+      bulkhead.release(System.currentTimeMillis() - startTime);
+    }
+  }
+
+  /**
+   * This method will feed an elastic search health check result into the circuit breaker.
+   *
+   * @param healthy boolean
+   */
+  public static void recordHealth(boolean healthy) {
+    if (!healthy) {
+      healthCheckFailures.increment();
+    }
+    circuitBreaker.onHealthCheck(healthy);
+  }
+
+  /**
+   * This method will start the periodic health check which keeps the circuit breaker up to date
+   * while no traffic flows. It is started only once, later calls are ignored.
+   *
+   * @param healthCheck health check to run, should not go through {@link #execute}
+   */
+  public static synchronized void startHealthCheck(BooleanSupplier healthCheck) {
+    long interval =
+        getLongProperty("es.healthcheck.interval.millis", DEFAULT_HEALTH_CHECK_INTERVAL_MILLIS);
+    if (null != healthCheckScheduler || interval <= 0) {
+      return;
+    }
+    healthCheckScheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "es-health-check");
+              thread.setDaemon(true);
+              return thread;
+            });
+    healthCheckScheduler.scheduleWithFixedDelay(
+        () -> {
+          try {
+            healthCheck.getAsBoolean();
+          } catch (Exception e) {
+            recordHealth(false);
+          }
+        },
+        interval,
+        interval,
+        TimeUnit.MILLISECONDS);
+  }
+
+  public static long getHealthCheckTimeoutMillis() {
+    return getLongProperty("es.healthcheck.timeout.millis", 2000);
+  }
+
+  public static ElasticSearchCircuitBreaker.State getCircuitState() {
+    return circuitBreaker.getState();
+  }
+
+  /**
+   * This method will provide the resilience metrics: circuit state and, per operation type,
+   * in-flight calls, successes, failures, timeouts, rejections and latency.
+   *
+   * @return Map<String,Object>
+   */
+  public static Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new HashMap<>();
+    metrics.put("circuitState", circuitBreaker.getState().name());
+    metrics.put("circuitOpenCount", circuitBreaker.getOpenCount());
+    metrics.put("circuitRejected", circuitRejected.sum());
+    metrics.put("healthCheckFailures", healthCheckFailures.sum());
+    for (Bulkhead bulkhead : bulkheads.values()) {
+      metrics.put(bulkhead.type.name().toLowerCase(), bulkhead.getMetrics());
+    }
+    return metrics;
+  }
+
+  /**
+   * This method will return the transport client, for requests which are built before they are
+   * handed to {@link #execute} or which are not single actions.
+   *
+   * @return Connected transport client
+   * @throws ProjectCommonException unableToConnectToES while the client is being reconnected
+   */
+  public static TransportClient getClient() {
+    TransportClient client = ConnectionManager.getClient();
+    if (null == client) {
+      throw unavailable();
+    }
+    return client;
+  }
+
+  private static ProjectCommonException unavailable() {
+    return new ProjectCommonException(
+        ResponseCode.unableToConnectToES.getErrorCode(),
+        ResponseCode.unableToConnectToES.getErrorMessage(),
+        ResponseCode.SERVER_ERROR.getResponseCode());
+  }
+
+  private static ProjectCommonException busy() {
+    return new ProjectCommonException(
+        ResponseCode.serviceBusy.getErrorCode(),
+        ResponseCode.serviceBusy.getErrorMessage(),
+        ResponseCode.TOO_MANY_REQUESTS.getResponseCode());
+  }
+
+  private static int getIntProperty(String key, int defaultValue) {
+    return (int) getLongProperty(key, defaultValue);
+  }
+
+  private static long getLongProperty(String key, long defaultValue) {
+    String value = PropertiesCache.getInstance().readProperty(key);
+    if (StringUtils.isBlank(value)) {
+      return defaultValue;
+    }
+    try {
+      return Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      ProjectLogger.log(
+          "ElasticSearchResilience: invalid value " + value + " for " + key,
+          LoggerEnum.WARN.name());
+      return defaultValue;
+    }
+  }
+
+  /** Concurrency limit, timeout and counters of one operation type. */
+  private static class Bulkhead {
+    private final OperationType type;
+    private final long timeoutMillis;
+    private final long waitMillis;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final LongAdder success = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    Bulkhead(OperationType type) {
+      this.type = type;
+      this.timeoutMillis =
+          getLongProperty(type.getConfigPrefix() + ".timeout.millis", DEFAULT_TIMEOUT_MILLIS);
+      this.waitMillis =
+          getLongProperty(
+              type.getConfigPrefix() + ".bulkhead.wait.millis", DEFAULT_BULKHEAD_WAIT_MILLIS);
+      this.maxConcurrent =
+          getIntProperty(type.getConfigPrefix() + ".max.concurrent", DEFAULT_MAX_CONCURRENT);
+      this.permits = new Semaphore(maxConcurrent);
+    }
+
+    boolean tryAcquire() {
+      boolean acquired;
+      try {
+        acquired =
+            waitMillis > 0
+                ? permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS)
+                : permits.tryAcquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        acquired = false;
+      }
+      if (!acquired) {
+        rejected.increment();
+      }
+      return acquired;
+    }
+
+    void release(long latency) {
+      permits.release();
+      totalLatency.add(latency);
+      maxLatency.accumulateAndGet(latency, Math::max);
+    }
+
+    Map<String, Object> getMetrics() {
+      Map<String, Object> metrics = new HashMap<>();
+      long completed = success.sum() + failures.sum() + timeouts.sum();
+      metrics.put("inFlight", maxConcurrent - permits.availablePermits());
+      metrics.put("maxConcurrent", maxConcurrent);
+      metrics.put("timeoutMillis", timeoutMillis);
+      metrics.put("success", success.sum());
+      metrics.put("failures", failures.sum());
+      metrics.put("timeouts", timeouts.sum());
+      metrics.put("rejected", rejected.sum());
+      metrics.put("avgLatencyMillis", completed == 0 ? 0 : totalLatency.sum() / completed);
+      metrics.put("maxLatencyMillis", maxLatency.get());
+      return metrics;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package org.sunbird.helper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.sunbird.helper.ElasticSearchCircuitBreaker.State;
+
+public class ElasticSearchCircuitBreakerTest {
+
+  @Test
+  public void testBreakerOpensOnFailureRate() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 4, 60000, 60000, 3);
+    breaker.recordSuccess();
+    breaker.recordFailure();
+    breaker.recordSuccess();
+    assertEquals(State.CLOSED, breaker.getState());
+    breaker.recordFailure();
+    assertEquals(State.OPEN, breaker.getState());
+    assertFalse(breaker.allowRequest());
+  }
+
+  @Test
+  public void testBreakerStaysClosedBelowMinimumRequests() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 10, 60000, 60000, 3);
+    breaker.recordFailure();
+    breaker.recordFailure();
+    assertEquals(State.CLOSED, breaker.getState());
+    assertTrue(breaker.allowRequest());
+  }
+
+  @Test
+  public void testConsecutiveHealthCheckFailuresOpenBreaker() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 10, 60000, 60000, 3);
+    breaker.onHealthCheck(false);
+    breaker.onHealthCheck(false);
+    // a healthy check in between restarts the count
+    breaker.onHealthCheck(true);
+    breaker.onHealthCheck(false);
+    breaker.onHealthCheck(false);
+    assertEquals(State.CLOSED, breaker.getState());
+    breaker.onHealthCheck(false);
+    assertEquals(State.OPEN, breaker.getState());
+  }
+
+  @Test
+  public void testHealthyCheckKeepsOpenInterval() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 10, 60000, 60000, 1);
+    breaker.onHealthCheck(false);
+    assertEquals(State.OPEN, breaker.getState());
+    breaker.onHealthCheck(true);
+    assertEquals(State.OPEN, breaker.getState());
+    assertFalse(breaker.allowRequest());
+  }
+
+  @Test
+  public void testProbeAfterOpenIntervalClosesBreaker() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 10, 0, 60000, 1);
+    breaker.onHealthCheck(false);
+    assertEquals(State.OPEN, breaker.getState());
+    assertTrue(breaker.allowRequest());
+    assertEquals(State.HALF_OPEN, breaker.getState());
+    assertFalse(breaker.allowRequest());
+    breaker.recordSuccess();
+    assertEquals(State.CLOSED, breaker.getState());
+  }
+
+  @Test
+  public void testFailedProbeReopensBreaker() {
+    ElasticSearchCircuitBreaker breaker = new ElasticSearchCircuitBreaker(50, 1, 0, 60000, 3);
+    breaker.recordFailure();
+    assertEquals(State.OPEN, breaker.getState());
+    assertTrue(breaker.allowRequest());
+    assertEquals(State.HALF_OPEN, breaker.getState());
+    breaker.recordFailure();
+    assertEquals(State.OPEN, breaker.getState());
+    assertEquals(2, breaker.getOpenCount());
+  }
+}
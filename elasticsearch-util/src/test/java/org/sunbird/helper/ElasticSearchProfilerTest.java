@@ -0,0 +1,33 @@
+package org.sunbird.helper;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.sunbird.dto.SearchDTO;
+
+public class ElasticSearchProfilerTest {
+
+  @Test
+  public void testShapeIgnoresValuesAndOrder() {
+    assertEquals(
+        ElasticSearchProfiler.getShape(createSearchDTO("user1", "org1"), "sunbird", "user"),
+        ElasticSearchProfiler.getShape(createSearchDTO("user2", "org2"), "sunbird", "user"));
+    assertEquals(
+        "sunbird/user|exists[email]|filters[id, rootOrgId]|sort[createdDate]",
+        ElasticSearchProfiler.getShape(createSearchDTO("user1", "org1"), "sunbird", "user"));
+  }
+
+  private SearchDTO createSearchDTO(String id, String rootOrgId) {
+    SearchDTO searchDTO = new SearchDTO();
+    Map<String, Object> filters = new HashMap<>();
+    filters.put("rootOrgId", rootOrgId);
+    filters.put("id", id);
+    searchDTO.addAdditionalProperty("filters", filters);
+    searchDTO.addAdditionalProperty("exists", Arrays.asList("email"));
+    searchDTO.getSortBy().put("createdDate", "desc");
+    return searchDTO;
+  }
+}
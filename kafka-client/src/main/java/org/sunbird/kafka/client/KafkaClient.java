@@ -34,6 +34,24 @@ public class KafkaClient {
     return new KafkaProducer<Long, String>(createProducerProperties(bootstrapServers, clientId));
   }
 
+  /**
+   * Creates a Kafka producer with string keys.
+   *
+   * @param bootstrapServers Comma-separated list of host and port pairs that are the addresses of
+   *     the Kafka brokers in a "bootstrap" Kafka cluster that a Kafka client connects to initially
+   *     to bootstrap itself. e.g. localhost:9092,localhost:9093,localhost:9094
+   * @param clientId Identifier for Kafka producer
+   * @param config Additional producer configuration, e.g. linger.ms or acks
+   * @return A Kafka producer for given configuration.
+   */
+  public static Producer<String, String> createProducer(
+      String bootstrapServers, String clientId, Properties config) {
+    Properties props = createProducerProperties(bootstrapServers, clientId);
+    props.putAll(config);
+    props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+    return new KafkaProducer<String, String>(props);
+  }
+
   /**
    * Creates a Kafka consumer.
    *
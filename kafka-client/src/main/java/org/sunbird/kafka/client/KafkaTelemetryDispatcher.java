@@ -0,0 +1,212 @@
+package org.sunbird.kafka.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.models.util.ProjectLogger;
+import org.sunbird.common.models.util.PropertiesCache;
+import org.sunbird.telemetry.dto.Telemetry;
+import org.sunbird.telemetry.util.TelemetryDispatcher;
+
+/**
+ * Dispatcher publishing telemetry events to the Kafka topic sunbird_telemetry_kafka_topic, one
+ * record per event. Records are keyed by the request id of the event context, else by the actor
+ * id, so the events of one request land on one partition in the order they were generated. The
+ * producer batches records itself with sunbird_telemetry_kafka_linger_ms and _batch_size, and
+ * compresses and acknowledges them as set in sunbird_telemetry_kafka_compression and _acks. A batch
+ * is accepted once every record was acknowledged within sunbird_telemetry_timeout_millis.
+ */
+public class KafkaTelemetryDispatcher implements TelemetryDispatcher {
+
+  private static final ObjectMapper mapper = new ObjectMapper();
+  private static KafkaTelemetryDispatcher dispatcher;
+
+  private final Producer<String, String> producer;
+  private final String topic;
+  private final long timeoutMillis;
+
+  KafkaTelemetryDispatcher(Producer<String, String> producer, String topic, long timeoutMillis) {
+    this.producer = producer;
+    this.topic = topic;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Method to get the dispatcher for the producer configured in the sunbird_telemetry_kafka_*
+   * properties.
+   *
+   * @return KafkaTelemetryDispatcher singleton object
+   */
+  public static KafkaTelemetryDispatcher getInstance() {
+    if (null == dispatcher) {
+      synchronized (KafkaTelemetryDispatcher.class) {
+        if (null == dispatcher) {
+          PropertiesCache properties = PropertiesCache.getInstance();
+          Properties config = new Properties();
+          config.put(
+              ProducerConfig.LINGER_MS_CONFIG,
+              getValue(properties, "sunbird_telemetry_kafka_linger_ms", "20"));
+          config.put(
+              ProducerConfig.BATCH_SIZE_CONFIG,
+              getValue(properties, "sunbird_telemetry_kafka_batch_size", "65536"));
+          config.put(
+              ProducerConfig.COMPRESSION_TYPE_CONFIG,
+              getValue(properties, "sunbird_telemetry_kafka_compression", "gzip"));
+          config.put(
+              ProducerConfig.ACKS_CONFIG,
+              getValue(properties, "sunbird_telemetry_kafka_acks", "1"));
+          // retried records must not overtake the ones sent after them
+          config.put(ProducerConfig.RETRIES_CONFIG, "3");
+          config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, "1");
+          String servers =
+              getValue(properties, "sunbird_telemetry_kafka_bootstrap_servers", "localhost:9092");
+          String timeout = getValue(properties, "sunbird_telemetry_timeout_millis", "10000");
+          dispatcher =
+              new KafkaTelemetryDispatcher(
+                  KafkaClient.createProducer(servers, "sunbird-telemetry", config),
+                  getValue(properties, "sunbird_telemetry_kafka_topic", "sunbird.telemetry"),
+                  Long.parseLong(timeout));
+        }
+      }
+    }
+    return dispatcher;
+  }
+
+  @Override
+  public boolean dispatch(List<?> events) {
+    List<Future<RecordMetadata>> results = new ArrayList<>(events.size());
+    try {
+      for (Object event : events) {
+        String json;
+        String key;
+        if (event instanceof String) {
+          json = (String) event;
+          key = getKey(json);
+        } else {
+          json = mapper.writeValueAsString(event);
+          key = event instanceof Telemetry ? getKey((Telemetry) event) : null;
+        }
+        results.add(producer.send(new ProducerRecord<>(topic, key, json)));
+      }
+      long deadline = System.currentTimeMillis() + timeoutMillis;
+      for (Future<RecordMetadata> result : results) {
+        result.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      }
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (IOException | ExecutionException | TimeoutException | RuntimeException e) {
+      ProjectLogger.log(
+          "KafkaTelemetryDispatcher: failed to publish " + events.size() + " events to " + topic,
+          e);
+      return false;
+    }
+  }
+
+  /** Method to close the producer, sending the records it still holds. */
+  public void close() {
+    producer.close();
+  }
+
+  static String getKey(Telemetry telemetry) {
+    if (null != telemetry.getContext() && null != telemetry.getContext().getCdata()) {
+      for (Map<String, Object> cdata : telemetry.getContext().getCdata()) {
+        if (JsonKey.REQUEST.equalsIgnoreCase(String.valueOf(cdata.get(JsonKey.TYPE)))
+            && null != cdata.get(JsonKey.ID)) {
+          return String.valueOf(cdata.get(JsonKey.ID));
+        }
+      }
+    }
+    return null == telemetry.getActor() ? null : telemetry.getActor().getId();
+  }
+
+  /**
+   * Reads the key of a telemetry event JSON with a streaming parser, skipping everything but the
+   * actor id and the context cdata.
+   */
+  static String getKey(String json) throws IOException {
+    String actorId = null;
+    try (JsonParser parser = mapper.getFactory().createParser(json)) {
+      if (JsonToken.START_OBJECT != parser.nextToken()) {
+        return null;
+      }
+      while (JsonToken.FIELD_NAME == parser.nextToken()) {
+        String name = parser.getCurrentName();
+        JsonToken token = parser.nextToken();
+        if ("actor".equals(name) && JsonToken.START_OBJECT == token) {
+          actorId = readId(parser, null);
+        } else if (JsonKey.CONTEXT.equals(name) && JsonToken.START_OBJECT == token) {
+          String requestId = readRequestId(parser);
+          if (null != requestId) {
+            return requestId;
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return actorId;
+  }
+
+  /** Reads the context object up to its end, returning the id of its request cdata. */
+  private static String readRequestId(JsonParser parser) throws IOException {
+    String requestId = null;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String name = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if ("cdata".equals(name) && JsonToken.START_ARRAY == token) {
+        while (null != (token = parser.nextToken()) && JsonToken.END_ARRAY != token) {
+          String id = JsonToken.START_OBJECT == token ? readId(parser, JsonKey.REQUEST) : null;
+          if (null == requestId) {
+            requestId = id;
+          }
+          parser.skipChildren();
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return requestId;
+  }
+
+  /**
+   * Reads an object up to its end, returning its id if its type is the given one or no type is
+   * given.
+   */
+  private static String readId(JsonParser parser, String type) throws IOException {
+    String id = null;
+    boolean typeMatches = null == type;
+    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+      String name = parser.getCurrentName();
+      JsonToken token = parser.nextToken();
+      if (JsonKey.ID.equals(name) && token.isScalarValue()) {
+        id = parser.getText();
+      } else if (null != type && JsonKey.TYPE.equals(name) && token.isScalarValue()) {
+        typeMatches = type.equalsIgnoreCase(parser.getText());
+      }
+      parser.skipChildren();
+    }
+    return typeMatches && StringUtils.isNotBlank(id) ? id : null;
+  }
+
+  private static String getValue(PropertiesCache properties, String key, String defaultValue) {
+    String value = properties.readProperty(key);
+    return StringUtils.isBlank(value) ? defaultValue : value.trim();
+  }
+}
@@ -0,0 +1,140 @@
+package org.sunbird.kafka.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.internals.DefaultPartitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.Test;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.telemetry.dto.Actor;
+import org.sunbird.telemetry.dto.Context;
+import org.sunbird.telemetry.dto.Telemetry;
+
+public class KafkaTelemetryDispatcherTest {
+
+  private static final String TOPIC = "sunbird.telemetry";
+
+  @Test
+  public void testEventsOfOneRequestShareKeyAndOrder() {
+    MockProducer<String, String> producer = createProducer(true);
+    KafkaTelemetryDispatcher dispatcher = new KafkaTelemetryDispatcher(producer, TOPIC, 1000);
+    List<Object> events = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      events.add(createEvent("request-" + (i % 8), i));
+    }
+    assertTrue(dispatcher.dispatch(events));
+
+    List<ProducerRecord<String, String>> records = producer.history();
+    assertEquals(40, records.size());
+    Set<String> keys = new HashSet<>();
+    List<String> request3 = new ArrayList<>();
+    for (ProducerRecord<String, String> record : records) {
+      keys.add(record.key());
+      if ("request-3".equals(record.key())) {
+        request3.add(record.value().substring(record.value().indexOf("\"seq\":")));
+      }
+    }
+    // the default partitioner sends all records of a key to the same partition
+    assertEquals(8, keys.size());
+    assertEquals(
+        "[\"seq\":3}}, \"seq\":11}}, \"seq\":19}}, \"seq\":27}}, \"seq\":35}}]",
+        request3.toString());
+  }
+
+  @Test
+  public void testKeyFromJsonEvent() throws Exception {
+    assertEquals(
+        "request-1",
+        KafkaTelemetryDispatcher.getKey(
+            "{\"eid\":\"LOG\",\"actor\":{\"id\":\"user-1\",\"type\":\"User\"},"
+                + "\"context\":{\"channel\":\"in\",\"cdata\":[{\"id\":\"c1\",\"type\":\"Course\"},"
+                + "{\"id\":\"request-1\",\"type\":\"Request\"}]},\"edata\":{}}"));
+    assertEquals(
+        "user-1",
+        KafkaTelemetryDispatcher.getKey(
+            "{\"context\":{\"cdata\":[]},\"actor\":{\"type\":\"User\",\"id\":\"user-1\"}}"));
+  }
+
+  @Test
+  public void testKeyFromTelemetryObject() {
+    Telemetry telemetry = new Telemetry();
+    telemetry.setActor(new Actor("user-1", "User"));
+    assertEquals("user-1", KafkaTelemetryDispatcher.getKey(telemetry));
+    Context context = new Context();
+    Map<String, Object> cdata = new HashMap<>();
+    cdata.put(JsonKey.ID, "request-1");
+    cdata.put(JsonKey.TYPE, JsonKey.REQUEST);
+    context.setCdata(Collections.singletonList(cdata));
+    telemetry.setContext(context);
+    assertEquals("request-1", KafkaTelemetryDispatcher.getKey(telemetry));
+  }
+
+  @Test
+  public void testFailedRecordRejectsBatch() throws Exception {
+    MockProducer<String, String> producer = createProducer(false);
+    KafkaTelemetryDispatcher dispatcher = new KafkaTelemetryDispatcher(producer, TOPIC, 5000);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<Boolean> result =
+        executor.submit(
+            () -> dispatcher.dispatch(Arrays.asList(createEvent("request-1", 1), "{}")));
+    while (producer.history().size() < 2) {
+      Thread.sleep(10);
+    }
+    producer.completeNext();
+    producer.errorNext(new RuntimeException("broker unavailable"));
+    assertFalse(result.get());
+    executor.shutdown();
+  }
+
+  @Test
+  public void testUnacknowledgedBatchTimesOut() {
+    KafkaTelemetryDispatcher dispatcher =
+        new KafkaTelemetryDispatcher(createProducer(false), TOPIC, 50);
+    assertFalse(dispatcher.dispatch(Collections.singletonList(createEvent("request-1", 1))));
+  }
+
+  private static MockProducer<String, String> createProducer(boolean autoComplete) {
+    return new MockProducer<>(
+        createCluster(),
+        autoComplete,
+        new DefaultPartitioner(),
+        new StringSerializer(),
+        new StringSerializer());
+  }
+
+  private static Cluster createCluster() {
+    Node node = new Node(0, "localhost", 9092);
+    List<PartitionInfo> partitions = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      partitions.add(new PartitionInfo(TOPIC, i, node, new Node[] {node}, new Node[] {node}));
+    }
+    return new Cluster(Collections.singletonList(node), partitions, Collections.<String>emptySet());
+  }
+
+  private static String createEvent(String requestId, int seq) {
+    return "{\"eid\":\"LOG\",\"actor\":{\"id\":\"user-1\",\"type\":\"User\"},\"context\":{"
+        + "\"cdata\":[{\"id\":\""
+        + requestId
+        + "\",\"type\":\"Request\"}]},\"edata\":{\"seq\":"
+        + seq
+        + "}}";
+  }
+}
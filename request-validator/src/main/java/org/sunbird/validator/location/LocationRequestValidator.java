@@ -92,8 +92,9 @@ public class LocationRequestValidator extends BaseLocationRequestValidator {
    */
   public Set<String> getValidatedLocationSet(ActorRef actorRef, List<Location> locationList) {
     Set<Location> locationSet = new HashSet<>();
+    Map<String, Location> hierarchy = locationClient.getLocationHierarchy(actorRef, locationList);
     for (Location requestedLocation : locationList) {
-      Set<Location> parentLocnSet = getParentLocations(actorRef, requestedLocation);
+      Set<Location> parentLocnSet = getParentLocations(hierarchy, requestedLocation);
       if (CollectionUtils.sizeIsEmpty(locationSet)) {
         locationSet.addAll(parentLocnSet);
       } else {
@@ -122,7 +123,7 @@ public class LocationRequestValidator extends BaseLocationRequestValidator {
     return locationSet.stream().map(Location::getId).collect(Collectors.toSet());
   }
 
-  private Set<Location> getParentLocations(ActorRef actorRef, Location locationObj) {
+  private Set<Location> getParentLocations(Map<String, Location> hierarchy, Location locationObj) {
     Set<Location> locationSet = new LinkedHashSet<>();
     Location location = locationObj;
     int count = getOrder(location.getType());
@@ -130,9 +131,9 @@ public class LocationRequestValidator extends BaseLocationRequestValidator {
     while (count > 0) {
       Location parent = null;
       if (getOrder(location.getType()) == 0 && StringUtils.isNotEmpty(location.getId())) {
-        parent = locationClient.getLocationById(actorRef, location.getId());
+        parent = hierarchy.get(location.getId());
       } else if (StringUtils.isNotEmpty(location.getParentId())) {
-        parent = locationClient.getLocationById(actorRef, location.getParentId());
+        parent = hierarchy.get(location.getParentId());
       }
       if (null != parent) {
         locationSet.add(parent);
@@ -0,0 +1,72 @@
+package org.sunbird.validator.location;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.sunbird.actorutil.location.LocationCache;
+import org.sunbird.models.location.Location;
+
+public class LocationCacheTest {
+
+  @Test
+  public void testCachedLocationIsReturned() {
+    LocationCache cache = new LocationCache(60000, 10);
+    cache.put(location("blk1", "code1"));
+    Assert.assertEquals("code1", cache.get("blk1").getCode());
+    Assert.assertNull(cache.get("blk2"));
+    Assert.assertNull(cache.get(null));
+  }
+
+  @Test
+  public void testEntryExpiresAfterTtl() throws InterruptedException {
+    LocationCache cache = new LocationCache(50, 10);
+    cache.put(location("blk1", "code1"));
+    Assert.assertNotNull(cache.get("blk1"));
+    Thread.sleep(100);
+    Assert.assertNull(cache.get("blk1"));
+  }
+
+  @Test
+  public void testZeroTtlDisablesCache() {
+    LocationCache cache = new LocationCache(0, 10);
+    cache.put(location("blk1", "code1"));
+    Assert.assertNull(cache.get("blk1"));
+  }
+
+  @Test
+  public void testSizeIsCapped() {
+    LocationCache cache = new LocationCache(60000, 2);
+    cache.put(location("blk1", "code1"));
+    cache.put(location("blk2", "code2"));
+    cache.put(location("blk3", "code3"));
+    Assert.assertNotNull(cache.get("blk1"));
+    Assert.assertNotNull(cache.get("blk2"));
+    Assert.assertNull(cache.get("blk3"));
+  }
+
+  @Test
+  public void testExpiredEntriesMakeRoomWhenFull() throws InterruptedException {
+    LocationCache cache = new LocationCache(50, 1);
+    cache.put(location("blk1", "code1"));
+    Thread.sleep(100);
+    cache.put(location("blk2", "code2"));
+    Assert.assertNotNull(cache.get("blk2"));
+  }
+
+  @Test
+  public void testInvalidateByIdOrCode() {
+    LocationCache cache = new LocationCache(60000, 10);
+    cache.put(location("blk1", "code1"));
+    cache.put(location("blk2", "code2"));
+    cache.invalidate("blk1", null);
+    cache.invalidate(null, "code2");
+    Assert.assertNull(cache.get("blk1"));
+    Assert.assertNull(cache.get("blk2"));
+  }
+
+  private static Location location(String id, String code) {
+    Location location = new Location();
+    location.setId(id);
+    location.setCode(code);
+    return location;
+  }
+}
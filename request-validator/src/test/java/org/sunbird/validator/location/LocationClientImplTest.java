@@ -0,0 +1,131 @@
+package org.sunbird.validator.location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+import org.sunbird.actorutil.InterServiceCommunication;
+import org.sunbird.actorutil.location.LocationCache;
+import org.sunbird.actorutil.location.impl.LocationClientImpl;
+import org.sunbird.common.models.response.Response;
+import org.sunbird.common.models.util.JsonKey;
+import org.sunbird.common.request.Request;
+import org.sunbird.models.location.Location;
+
+public class LocationClientImplTest {
+
+  private final Map<String, Location> locations = new HashMap<>();
+  private final List<List<String>> searches = new ArrayList<>();
+  private final LocationClientImpl locationClient = new LocationClientImpl();
+
+  @Before
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    InterServiceCommunication interServiceCommunication =
+        Mockito.mock(InterServiceCommunication.class);
+    Mockito.when(interServiceCommunication.getResponse(Mockito.any(), Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              Request request = (Request) invocation.getArguments()[1];
+              Map<String, Object> filters =
+                  (Map<String, Object>) request.getRequest().get(JsonKey.FILTERS);
+              List<String> ids = (List<String>) filters.get(JsonKey.ID);
+              searches.add(new ArrayList<>(ids));
+              List<Map<String, Object>> found = new ArrayList<>();
+              for (String id : ids) {
+                if (locations.containsKey(id)) {
+                  found.add(toMap(locations.get(id)));
+                }
+              }
+              Response response = new Response();
+              response.put(JsonKey.RESPONSE, found);
+              return response;
+            });
+    Whitebox.setInternalState(
+        LocationClientImpl.class, "interServiceCommunication", interServiceCommunication);
+    Whitebox.setInternalState(
+        LocationClientImpl.class, "locationCache", new LocationCache(60000, 100));
+  }
+
+  @Test
+  public void testHierarchyIsResolvedLevelByLevel() {
+    Location block = location("blk1", "dis1");
+    locations.put("dis1", location("dis1", "state1"));
+    locations.put("state1", location("state1", null));
+
+    Map<String, Location> hierarchy =
+        locationClient.getLocationHierarchy(null, Collections.singletonList(block));
+
+    Assert.assertEquals(3, hierarchy.size());
+    Assert.assertEquals("state1", hierarchy.get("state1").getId());
+    Assert.assertEquals(
+        Arrays.asList(Collections.singletonList("dis1"), Collections.singletonList("state1")),
+        searches);
+  }
+
+  @Test
+  public void testCachedParentsAreNotSearched() {
+    locations.put("dis1", location("dis1", "state1"));
+    locations.put("state1", location("state1", null));
+    locationClient.getLocationHierarchy(null, Collections.singletonList(location("blk1", "dis1")));
+    Assert.assertEquals(2, searches.size());
+
+    Map<String, Location> hierarchy =
+        locationClient.getLocationHierarchy(
+            null, Collections.singletonList(location("blk2", "dis1")));
+
+    Assert.assertEquals(3, hierarchy.size());
+    Assert.assertEquals(2, searches.size());
+  }
+
+  @Test
+  public void testOnlyMissingParentsAreSearched() {
+    locations.put("dis1", location("dis1", "state1"));
+    locations.put("dis2", location("dis2", "state1"));
+    locations.put("state1", location("state1", null));
+    locationClient.getLocationHierarchy(null, Collections.singletonList(location("blk1", "dis1")));
+    searches.clear();
+
+    Map<String, Location> hierarchy =
+        locationClient.getLocationHierarchy(
+            null, Arrays.asList(location("blk1", "dis1"), location("blk2", "dis2")));
+
+    Assert.assertEquals(5, hierarchy.size());
+    Assert.assertEquals(Collections.singletonList(Collections.singletonList("dis2")), searches);
+  }
+
+  @Test
+  public void testCyclicHierarchyTerminates() {
+    locations.put("dis1", location("dis1", "blk1"));
+
+    Map<String, Location> hierarchy =
+        locationClient.getLocationHierarchy(
+            null, Collections.singletonList(location("blk1", "dis1")));
+
+    Assert.assertEquals(2, hierarchy.size());
+    Assert.assertEquals(1, searches.size());
+  }
+
+  private static Location location(String id, String parentId) {
+    Location location = new Location();
+    location.setId(id);
+    location.setCode(id);
+    location.setParentId(parentId);
+    return location;
+  }
+
+  private static Map<String, Object> toMap(Location location) {
+    Map<String, Object> map = new HashMap<>();
+    map.put(JsonKey.ID, location.getId());
+    map.put(JsonKey.CODE, location.getCode());
+    map.put(JsonKey.PARENT_ID, location.getParentId());
+    return map;
+  }
+}